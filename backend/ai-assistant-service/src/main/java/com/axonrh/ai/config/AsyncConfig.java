@@ -1,5 +1,7 @@
 package com.axonrh.ai.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -24,19 +26,78 @@ public class AsyncConfig implements WebMvcConfigurer {
         return executor;
     }
 
-    @Bean(name = "embeddingExecutor")
-    public Executor embeddingExecutor() {
+    /**
+     * Blocking chat turns (NLU, tools and provider calls), off the servlet threads.
+     */
+    @Bean(name = "chatExecutor", destroyMethod = "shutdown")
+    public TenantFairExecutor chatExecutor(
+            @Value("${ai.executors.chat.threads:32}") int threads,
+            @Value("${ai.executors.chat.queue-capacity:200}") int queueCapacity,
+            @Value("${ai.executors.chat.tenant-capacity:40}") int tenantCapacity,
+            MeterRegistry meterRegistry) {
+        return new TenantFairExecutor("chat", threads, queueCapacity, tenantCapacity, meterRegistry);
+    }
+
+    /**
+     * Blocking stages of streamed chat turns, replacing Reactor's shared boundedElastic pool.
+     */
+    @Bean(name = "streamingExecutor", destroyMethod = "shutdown")
+    public TenantFairExecutor streamingExecutor(
+            @Value("${ai.executors.streaming.threads:32}") int threads,
+            @Value("${ai.executors.streaming.queue-capacity:200}") int queueCapacity,
+            @Value("${ai.executors.streaming.tenant-capacity:40}") int tenantCapacity,
+            MeterRegistry meterRegistry) {
+        return new TenantFairExecutor("streaming", threads, queueCapacity, tenantCapacity, meterRegistry);
+    }
+
+    /**
+     * Chunk embedding and indexing of uploaded knowledge documents.
+     */
+    @Bean(name = "embeddingExecutor", destroyMethod = "shutdown")
+    public TenantFairExecutor embeddingExecutor(
+            @Value("${ai.executors.embedding.threads:4}") int threads,
+            @Value("${ai.executors.embedding.queue-capacity:500}") int queueCapacity,
+            @Value("${ai.executors.embedding.tenant-capacity:200}") int tenantCapacity,
+            MeterRegistry meterRegistry) {
+        return new TenantFairExecutor("embedding", threads, queueCapacity, tenantCapacity, meterRegistry);
+    }
+
+    /**
+     * Text extraction (Tika) of uploaded documents.
+     */
+    @Bean(name = "documentExecutor", destroyMethod = "shutdown")
+    public TenantFairExecutor documentExecutor(
+            @Value("${ai.executors.document.threads:2}") int threads,
+            @Value("${ai.executors.document.queue-capacity:50}") int queueCapacity,
+            @Value("${ai.executors.document.tenant-capacity:10}") int tenantCapacity,
+            MeterRegistry meterRegistry) {
+        return new TenantFairExecutor("document", threads, queueCapacity, tenantCapacity, meterRegistry);
+    }
+
+    /**
+     * Runs independent tool calls of one LLM turn concurrently (see ToolExecutorService).
+     */
+    @Bean(name = "toolExecutor")
+    public ThreadPoolTaskExecutor toolExecutor(
+            @Value("${ai.tools.executor.core-size:8}") int coreSize,
+            @Value("${ai.tools.executor.max-size:16}") int maxSize,
+            @Value("${ai.tools.executor.queue-capacity:100}") int queueCapacity) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("embedding-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-tool-");
         executor.initialize();
         return executor;
     }
 
+    @Value("${ai.executors.request-timeout-ms:180000}")
+    private long requestTimeoutMs;
+
     @Override
     public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
         configurer.setTaskExecutor((ThreadPoolTaskExecutor) aiTaskExecutor());
+        // Chat turns and streams complete asynchronously; allow for provider latency and tool calls
+        configurer.setDefaultTimeout(requestTimeoutMs);
     }
 }
@@ -0,0 +1,52 @@
+package com.axonrh.ai.config;
+
+import com.axonrh.ai.entity.AnalyticsRollup;
+import com.axonrh.ai.entity.ConversationMessage;
+import com.axonrh.ai.entity.EmbeddingCacheEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the listed documents at startup.
+ * Automatic index creation is off ({@code spring.data.mongodb.auto-index-creation} defaults to
+ * false), so the annotations alone never reach the database.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            ConversationMessage.class,
+            EmbeddingCacheEntry.class,
+            AnalyticsRollup.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(document);
+            resolver.resolveIndexFor(document).forEach(index -> {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (DataAccessException e) {
+                    log.error("Failed to create index {} on {}: {}",
+                            index.getIndexOptions().get("name"), document.getSimpleName(), e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.axonrh.ai.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded bulkhead for one workload, with per-tenant fair queuing.
+ *
+ * <p>Each tenant gets its own FIFO queue and workers take from the tenants with pending work in
+ * round-robin order. A tenant that queues a hundred tasks therefore delays another tenant's task
+ * by at most one task per worker, instead of a hundred. Submissions are rejected with a
+ * {@link TaskRejectedException} once the workload's queue or the tenant's share of it is full.</p>
+ *
+ * <p>Meters, tagged with {@code workload}: {@code ai.executor.queued}, {@code ai.executor.active},
+ * {@code ai.executor.tenants} (tenants with queued work), {@code ai.executor.wait} (time from
+ * submission to start) and {@code ai.executor.rejected}.</p>
+ */
+@Slf4j
+public class TenantFairExecutor implements Executor {
+
+    /** Queue key of work submitted without a tenant. */
+    private static final Object NO_TENANT = new Object();
+
+    private record Task(Runnable runnable, long submittedAt) {}
+
+    private final String workload;
+    private final int queueCapacity;
+    private final int tenantCapacity;
+    private final Thread[] workers;
+
+    private final Object lock = new Object();
+    /** Guarded by {@code lock}. */
+    private final Map<Object, ArrayDeque<Task>> queues = new HashMap<>();
+    /** Tenants with queued work, in service order; guarded by {@code lock}. */
+    private final ArrayDeque<Object> ready = new ArrayDeque<>();
+    private volatile int queued;
+    private volatile int waitingTenants;
+    private volatile boolean shutdown;
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public TenantFairExecutor(String workload, int threads, int queueCapacity, int tenantCapacity,
+                              MeterRegistry meterRegistry) {
+        this.workload = workload;
+        this.queueCapacity = queueCapacity;
+        this.tenantCapacity = tenantCapacity;
+
+        Gauge.builder("ai.executor.queued", this, executor -> executor.queued)
+                .tag("workload", workload)
+                .description("Tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ai.executor.active", active, AtomicInteger::get)
+                .tag("workload", workload)
+                .description("Tasks running")
+                .register(meterRegistry);
+        Gauge.builder("ai.executor.tenants", this, executor -> executor.waitingTenants)
+                .tag("workload", workload)
+                .description("Tenants with queued tasks")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("ai.executor.wait")
+                .tag("workload", workload)
+                .description("Time from submission until a worker starts the task")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ai.executor.rejected")
+                .tag("workload", workload)
+                .description("Tasks rejected because the queue was full")
+                .register(meterRegistry);
+
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::work, "ai-" + workload + "-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queues the task in the tenant's queue.
+     *
+     * @throws TaskRejectedException when the workload or the tenant has no queue capacity left
+     */
+    public void execute(UUID tenantId, Runnable task) {
+        Object key = tenantId != null ? tenantId : NO_TENANT;
+        synchronized (lock) {
+            ArrayDeque<Task> queue = queues.get(key);
+            if (shutdown || queued >= queueCapacity || (queue != null && queue.size() >= tenantCapacity)) {
+                rejected.increment();
+                throw new TaskRejectedException("Executor '" + workload + "' is saturated"
+                        + (queue != null && queue.size() >= tenantCapacity ? " for tenant " + tenantId : ""));
+            }
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(key, queue);
+                ready.addLast(key);
+            }
+            queue.addLast(new Task(task, System.nanoTime()));
+            queued++;
+            waitingTenants = ready.size();
+            lock.notify();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        execute(null, task);
+    }
+
+    public <T> CompletableFuture<T> submit(UUID tenantId, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(tenantId, () -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Reactor scheduler running on this bulkhead on behalf of the tenant.
+     */
+    public Scheduler scheduler(UUID tenantId) {
+        return Schedulers.fromExecutor(task -> execute(tenantId, task));
+    }
+
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            int dropped = queued;
+            queues.clear();
+            ready.clear();
+            queued = 0;
+            waitingTenants = 0;
+            lock.notifyAll();
+            if (dropped > 0) {
+                log.warn("Executor '{}' shut down with {} queued tasks", workload, dropped);
+            }
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Task task;
+            synchronized (lock) {
+                while (ready.isEmpty() && !shutdown) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        if (shutdown) {
+                            return;
+                        }
+                    }
+                }
+                if (shutdown) {
+                    return;
+                }
+                Object key = ready.pollFirst();
+                ArrayDeque<Task> queue = queues.get(key);
+                task = queue.pollFirst();
+                queued--;
+                if (queue.isEmpty()) {
+                    queues.remove(key);
+                } else {
+                    ready.addLast(key);
+                }
+                waitingTenants = ready.size();
+            }
+
+            waitTimer.record(System.nanoTime() - task.submittedAt(), TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                task.runnable().run();
+            } catch (Throwable e) {
+                log.error("Task failed in executor '{}': {}", workload, e.getMessage(), e);
+            } finally {
+                active.decrementAndGet();
+                // Clear a stray interrupt left by a cancelled task before waiting again
+                if (!shutdown) {
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package com.axonrh.ai.controller;
 
+import com.axonrh.ai.config.TenantFairExecutor;
 import com.axonrh.ai.dto.ChatResponse;
 import com.axonrh.ai.dto.StreamChunk;
 import com.axonrh.ai.dto.DiscInsightRequest;
 import com.axonrh.ai.entity.Conversation;
+import com.axonrh.ai.entity.ConversationMessage;
 import com.axonrh.ai.service.BehavioralInsightService;
 import com.axonrh.ai.service.ConversationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
@@ -17,39 +19,50 @@ import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/ai/chat")
-@RequiredArgsConstructor
 @Slf4j
 public class ChatController {
 
     private final ConversationService conversationService;
     private final BehavioralInsightService behavioralInsightService;
+    private final TenantFairExecutor chatExecutor;
+
+    public ChatController(ConversationService conversationService,
+                          BehavioralInsightService behavioralInsightService,
+                          @Qualifier("chatExecutor") TenantFairExecutor chatExecutor) {
+        this.conversationService = conversationService;
+        this.behavioralInsightService = behavioralInsightService;
+        this.chatExecutor = chatExecutor;
+    }
 
+    /**
+     * The turn runs on the chat bulkhead; the servlet thread is released while the provider answers.
+     */
     @PostMapping
-    public ResponseEntity<ChatResponse> chat(
+    public CompletableFuture<ResponseEntity<ChatResponse>> chat(
             @RequestHeader("X-Tenant-ID") UUID tenantId,
             @RequestHeader("X-User-ID") UUID userId,
             @RequestBody ChatRequest request) {
 
-        ChatResponse response = conversationService.chat(
+        return chatExecutor.submit(tenantId, () -> conversationService.chat(
                 request.getConversationId(),
                 request.getMessage(),
                 tenantId,
                 userId
-        );
-
-        return ResponseEntity.ok(response);
+        )).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/behavioral-insight")
-    public ResponseEntity<String> getBehavioralInsight(
+    public CompletableFuture<ResponseEntity<String>> getBehavioralInsight(
             @RequestHeader("X-Tenant-ID") UUID tenantId,
             @RequestBody DiscInsightRequest request) {
-        String insight = behavioralInsightService.generateDiscInsight(tenantId, request);
-        return ResponseEntity.ok(insight);
+        return chatExecutor.submit(tenantId, () -> behavioralInsightService.generateDiscInsight(tenantId, request))
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -119,6 +132,18 @@ public class ChatController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/conversations/{id}/messages")
+    public ResponseEntity<List<ConversationMessage>> getMessages(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @PathVariable String id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        return conversationService.getMessages(id, tenantId, before, Math.min(Math.max(limit, 1), 200))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/conversations/{id}/archive")
     public ResponseEntity<Void> archiveConversation(
             @RequestHeader("X-Tenant-ID") UUID tenantId,
@@ -2,6 +2,7 @@ package com.axonrh.ai.controller;
 
 import com.axonrh.ai.entity.AiFeedback;
 import com.axonrh.ai.repository.AiFeedbackRepository;
+import com.axonrh.ai.service.AiAnalyticsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +21,7 @@ import java.util.UUID;
 public class FeedbackController {
 
     private final AiFeedbackRepository feedbackRepository;
+    private final AiAnalyticsService analyticsService;
 
     @PostMapping
     public ResponseEntity<AiFeedback> submitFeedback(
@@ -46,6 +48,7 @@ public class FeedbackController {
                 .build();
 
         feedback = feedbackRepository.save(feedback);
+        analyticsService.recordFeedback(tenantId, type, request.getRating());
         return ResponseEntity.ok(feedback);
     }
 
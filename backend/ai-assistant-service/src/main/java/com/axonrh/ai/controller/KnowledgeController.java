@@ -4,6 +4,7 @@ import com.axonrh.ai.entity.KnowledgeChunk;
 import com.axonrh.ai.entity.KnowledgeDocument;
 import com.axonrh.ai.repository.KnowledgeChunkRepository;
 import com.axonrh.ai.repository.KnowledgeDocumentRepository;
+import com.axonrh.ai.service.KnowledgeIngestionService;
 import com.axonrh.ai.service.KnowledgeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ import java.util.UUID;
 public class KnowledgeController {
 
     private final KnowledgeService knowledgeService;
+    private final KnowledgeIngestionService ingestionService;
     private final KnowledgeDocumentRepository documentRepository;
     private final KnowledgeChunkRepository chunkRepository;
 
@@ -67,8 +69,9 @@ public class KnowledgeController {
         documentRepository.findByIdAndTenantId(id, tenantId).ifPresent(doc -> {
             doc.setIsActive(false);
             documentRepository.save(doc);
-            // Also remove chunks to free space and keep search clean
+            // Also remove chunks and the staged upload to free space and keep search clean
             knowledgeService.deleteDocumentChunks(id);
+            ingestionService.discard(id);
         });
         return ResponseEntity.ok().build();
     }
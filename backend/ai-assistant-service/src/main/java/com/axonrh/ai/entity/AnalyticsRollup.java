@@ -0,0 +1,81 @@
+package com.axonrh.ai.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Conversation metrics of one tenant for one UTC day, maintained with {@code $inc} upserts.
+ *
+ * <p>Response times are kept as a histogram over {@link #LATENCY_BOUNDS_MS}, so percentiles of
+ * any range of days are computed by summing a handful of documents.</p>
+ *
+ * <p>Indexes, including the 400-day TTL on {@code day}, are created by
+ * {@link com.axonrh.ai.config.MongoIndexConfig}.</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ai_analytics_rollups")
+@CompoundIndex(name = "tenant_day_idx", def = "{'tenantId': 1, 'day': 1}")
+public class AnalyticsRollup {
+
+    /** Upper bounds (inclusive) of the response time histogram buckets; the last bucket is open. */
+    public static final long[] LATENCY_BOUNDS_MS = {
+            100, 200, 300, 500, 750, 1000, 1500, 2000, 2500, 3000, 4000, 5000,
+            7500, 10000, 15000, 20000, 30000, 45000, 60000, 90000, 120000
+    };
+
+    /** {@code <tenantId>:<yyyy-MM-dd>} */
+    @Id
+    private String id;
+
+    private UUID tenantId;
+
+    /** Start of the UTC day. */
+    @Indexed(expireAfter = "400d")
+    private Instant day;
+
+    private long conversations;
+
+    private long turns;
+
+    private long errors;
+
+    private long promptTokens;
+
+    private long completionTokens;
+
+    private long latencyTotalMs;
+
+    /** Turns per response time bucket, keyed by the bucket index. */
+    @Builder.Default
+    private Map<String, Long> latency = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> intents = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> tools = new HashMap<>();
+
+    private long positiveFeedback;
+
+    private long negativeFeedback;
+
+    private long neutralFeedback;
+
+    private long ratingTotal;
+
+    private long ratingCount;
+}
@@ -0,0 +1,69 @@
+package com.axonrh.ai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * SQL generated for an analytic question that executed successfully.
+ */
+@Entity
+@Table(name = "cached_queries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedQuery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "prompt_version", nullable = false, length = 64)
+    private String promptVersion;
+
+    @Column(name = "question_hash", nullable = false, length = 64)
+    private String questionHash;
+
+    @Column(name = "normalized_question", nullable = false, columnDefinition = "TEXT")
+    private String normalizedQuestion;
+
+    /** Entities extracted with the question, serialized with sorted keys. */
+    @Column(name = "entities_key", nullable = false, columnDefinition = "TEXT")
+    private String entitiesKey;
+
+    @Column(name = "sql_text", nullable = false, columnDefinition = "TEXT")
+    private String sqlText;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    @Builder.Default
+    private Map<String, Object> parameters = Map.of();
+
+    @Column(columnDefinition = "TEXT")
+    private String explanation;
+
+    @Column(name = "template_used", length = 100)
+    private String templateUsed;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<Float> embedding;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
@@ -40,6 +40,10 @@ public class Conversation {
     @Builder.Default
     private ConversationStatus status = ConversationStatus.ACTIVE;
 
+    /**
+     * Messages live in {@code conversation_messages}. Only legacy documents still embed them
+     * (moved on first access); filled with the history when a single conversation is returned.
+     */
     @Builder.Default
     private List<Message> messages = new ArrayList<>();
 
@@ -148,20 +152,4 @@ public class Conversation {
         private Integer feedbackRating;
         private String feedbackText;
     }
-
-    public void addMessage(Message message) {
-        if (this.messages == null) {
-            this.messages = new ArrayList<>();
-        }
-        this.messages.add(message);
-        this.metadata.setMessageCount(this.messages.size());
-    }
-
-    public List<Message> getRecentMessages(int count) {
-        if (messages == null || messages.isEmpty()) {
-            return List.of();
-        }
-        int start = Math.max(0, messages.size() - count);
-        return messages.subList(start, messages.size());
-    }
 }
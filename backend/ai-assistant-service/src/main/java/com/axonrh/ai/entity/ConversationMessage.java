@@ -0,0 +1,80 @@
+package com.axonrh.ai.entity;
+
+import com.axonrh.ai.entity.Conversation.Message;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A conversation message stored as its own append-only record, ordered by {@code sequence}
+ * within the conversation. The sequence is unique per conversation (index created by
+ * {@link com.axonrh.ai.config.MongoIndexConfig}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "conversation_messages")
+@CompoundIndex(name = "conversation_sequence_idx", def = "{'conversationId': 1, 'sequence': 1}", unique = true)
+public class ConversationMessage {
+
+    @Id
+    private String id;
+
+    private String conversationId;
+
+    @Indexed
+    private UUID tenantId;
+
+    private long sequence;
+
+    private Message.MessageRole role;
+    private String content;
+    private Message.MessageType type;
+    private List<Conversation.ToolCall> toolCalls;
+    private Conversation.ToolResult toolResult;
+    private Integer tokenCount;
+    private Map<String, Object> metadata;
+    private Instant timestamp;
+
+    public static ConversationMessage of(String conversationId, UUID tenantId, long sequence, Message message) {
+        return ConversationMessage.builder()
+                .id(message.getId() != null ? message.getId() : UUID.randomUUID().toString())
+                .conversationId(conversationId)
+                .tenantId(tenantId)
+                .sequence(sequence)
+                .role(message.getRole())
+                .content(message.getContent())
+                .type(message.getType())
+                .toolCalls(message.getToolCalls())
+                .toolResult(message.getToolResult())
+                .tokenCount(message.getTokenCount())
+                .metadata(message.getMetadata())
+                .timestamp(message.getTimestamp())
+                .build();
+    }
+
+    public Message toMessage() {
+        return Message.builder()
+                .id(id)
+                .role(role)
+                .content(content)
+                .type(type)
+                .toolCalls(toolCalls)
+                .toolResult(toolResult)
+                .tokenCount(tokenCount)
+                .metadata(metadata)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.axonrh.ai.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Content-addressed embedding, keyed by model and SHA-256 of the embedded text.
+ * Entries expire 90 days after creation (TTL index created by {@link com.axonrh.ai.config.MongoIndexConfig}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "embedding_cache")
+public class EmbeddingCacheEntry {
+
+    /** {@code <model>:<sha256 of the text>} */
+    @Id
+    private String id;
+
+    private String model;
+
+    private List<Float> embedding;
+
+    @Indexed(expireAfter = "90d")
+    private Instant createdAt;
+}
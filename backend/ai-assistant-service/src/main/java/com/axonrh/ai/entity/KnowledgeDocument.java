@@ -65,6 +65,19 @@ public class KnowledgeDocument {
     @Column(name = "indexed_at")
     private Instant indexedAt;
 
+    @Column(name = "ingestion_status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private IngestionStatus ingestionStatus = IngestionStatus.PENDING;
+
+    /** Chunks already embedded and stored; ingestion resumes from this chunk index. */
+    @Column(name = "chunks_indexed", nullable = false)
+    @Builder.Default
+    private Integer chunksIndexed = 0;
+
+    @Column(name = "ingestion_error", columnDefinition = "TEXT")
+    private String ingestionError;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private Instant createdAt;
@@ -76,6 +89,13 @@ public class KnowledgeDocument {
     @Column(name = "created_by")
     private UUID createdBy;
 
+    public enum IngestionStatus {
+        PENDING,
+        PROCESSING,
+        INDEXED,
+        FAILED
+    }
+
     public enum DocumentType {
         HR_POLICY,
         LABOR_LAW,
@@ -3,8 +3,10 @@ package com.axonrh.ai.repository;
 import com.axonrh.ai.entity.AiIntent;
 import com.axonrh.ai.entity.AiIntent.ActionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +23,9 @@ public interface AiIntentRepository extends JpaRepository<AiIntent, UUID> {
     Optional<AiIntent> findByNameAndIsActiveTrue(String name);
 
     List<AiIntent> findByIsActiveTrueOrderByNameAsc();
+
+    long countByIsActiveTrue();
+
+    @Query("SELECT MAX(i.updatedAt) FROM AiIntent i")
+    Instant findMaxUpdatedAt();
 }
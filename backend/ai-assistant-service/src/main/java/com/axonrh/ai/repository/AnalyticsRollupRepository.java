@@ -0,0 +1,15 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.AnalyticsRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AnalyticsRollupRepository extends MongoRepository<AnalyticsRollup, String>, AnalyticsRollupRepositoryCustom {
+
+    List<AnalyticsRollup> findByTenantIdAndDayGreaterThanEqualOrderByDayAsc(UUID tenantId, Instant from);
+}
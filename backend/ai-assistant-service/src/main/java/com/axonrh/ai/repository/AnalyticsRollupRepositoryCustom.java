@@ -0,0 +1,27 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.AiFeedback;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Atomic increments of the daily analytics rollups; the day's document is created on first use.
+ */
+public interface AnalyticsRollupRepositoryCustom {
+
+    void incrementConversations(UUID tenantId, Instant at);
+
+    /**
+     * Counts one assistant turn.
+     *
+     * @param intent     intent the turn was routed to, or {@code null}
+     * @param tools      distinct tools called during the turn
+     * @param latencyMs  time spent producing the response
+     */
+    void incrementTurn(UUID tenantId, Instant at, String intent, Collection<String> tools,
+                       long promptTokens, long completionTokens, long latencyMs, boolean error);
+
+    void incrementFeedback(UUID tenantId, Instant at, AiFeedback.FeedbackType type, Integer rating);
+}
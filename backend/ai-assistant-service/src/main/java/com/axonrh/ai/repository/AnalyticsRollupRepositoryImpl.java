@@ -0,0 +1,87 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.AiFeedback;
+import com.axonrh.ai.entity.AnalyticsRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class AnalyticsRollupRepositoryImpl implements AnalyticsRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementConversations(UUID tenantId, Instant at) {
+        upsert(tenantId, at, new Update().inc("conversations", 1));
+    }
+
+    @Override
+    public void incrementTurn(UUID tenantId, Instant at, String intent, Collection<String> tools,
+                              long promptTokens, long completionTokens, long latencyMs, boolean error) {
+        Update update = new Update()
+                .inc("turns", 1)
+                .inc("latencyTotalMs", latencyMs)
+                .inc("latency." + latencyBucket(latencyMs), 1);
+        if (error) {
+            update.inc("errors", 1);
+        }
+        if (promptTokens > 0) {
+            update.inc("promptTokens", promptTokens);
+        }
+        if (completionTokens > 0) {
+            update.inc("completionTokens", completionTokens);
+        }
+        if (intent != null && !intent.isBlank()) {
+            update.inc("intents." + fieldKey(intent), 1);
+        }
+        for (String tool : tools) {
+            update.inc("tools." + fieldKey(tool), 1);
+        }
+        upsert(tenantId, at, update);
+    }
+
+    @Override
+    public void incrementFeedback(UUID tenantId, Instant at, AiFeedback.FeedbackType type, Integer rating) {
+        Update update = new Update();
+        switch (type) {
+            case POSITIVE -> update.inc("positiveFeedback", 1);
+            case NEGATIVE -> update.inc("negativeFeedback", 1);
+            default -> update.inc("neutralFeedback", 1);
+        }
+        if (rating != null) {
+            update.inc("ratingTotal", rating).inc("ratingCount", 1);
+        }
+        upsert(tenantId, at, update);
+    }
+
+    private void upsert(UUID tenantId, Instant at, Update update) {
+        LocalDate day = LocalDate.ofInstant(at, ZoneOffset.UTC);
+        update.setOnInsert("tenantId", tenantId)
+                .setOnInsert("day", day.atStartOfDay(ZoneOffset.UTC).toInstant());
+        mongoTemplate.upsert(Query.query(Criteria.where("id").is(tenantId + ":" + day)), update, AnalyticsRollup.class);
+    }
+
+    private static int latencyBucket(long latencyMs) {
+        long[] bounds = AnalyticsRollup.LATENCY_BOUNDS_MS;
+        for (int i = 0; i < bounds.length; i++) {
+            if (latencyMs <= bounds[i]) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+
+    /** Intent and tool names become field names; dots and dollar signs are not allowed there. */
+    private static String fieldKey(String name) {
+        return name.replace('.', '_').replace('$', '_');
+    }
+}
@@ -0,0 +1,20 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.CachedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CachedQueryRepository extends JpaRepository<CachedQuery, UUID> {
+
+    Optional<CachedQuery> findByTenantIdAndPromptVersionAndQuestionHash(
+            UUID tenantId, String promptVersion, String questionHash);
+
+    List<CachedQuery> findByTenantIdAndPromptVersionOrderByCreatedAtDesc(
+            UUID tenantId, String promptVersion, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.ConversationMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConversationMessageRepository extends MongoRepository<ConversationMessage, String> {
+
+    List<ConversationMessage> findByConversationIdOrderBySequenceAsc(String conversationId);
+
+    List<ConversationMessage> findByConversationIdOrderBySequenceDesc(String conversationId, Pageable pageable);
+
+    List<ConversationMessage> findByConversationIdAndSequenceLessThanOrderBySequenceDesc(
+            String conversationId, long sequence, Pageable pageable);
+}
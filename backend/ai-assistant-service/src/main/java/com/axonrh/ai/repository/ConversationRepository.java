@@ -15,7 +15,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ConversationRepository extends MongoRepository<Conversation, String> {
+public interface ConversationRepository extends MongoRepository<Conversation, String>, ConversationRepositoryCustom {
 
     Page<Conversation> findByTenantIdAndUserIdAndStatusOrderByUpdatedAtDesc(
             UUID tenantId, UUID userId, ConversationStatus status, Pageable pageable);
@@ -42,8 +42,7 @@ public interface ConversationRepository extends MongoRepository<Conversation, St
 
     @Aggregation(pipeline = {
         "{'$match': {'tenantId': ?0}}",
-        "{'$unwind': '$messages'}",
-        "{'$group': {'_id': null, 'totalMessages': {'$sum': 1}, 'avgMessagesPerConversation': {'$avg': {'$size': '$messages'}}}}"
+        "{'$group': {'_id': null, 'totalMessages': {'$sum': '$metadata.messageCount'}, 'avgMessagesPerConversation': {'$avg': '$metadata.messageCount'}}}"
     })
     ConversationStats getConversationStats(UUID tenantId);
 
@@ -0,0 +1,49 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.Conversation.ConversationStatus;
+
+import java.util.UUID;
+
+/**
+ * Targeted updates of conversation documents, so a chat turn never rewrites the whole document.
+ */
+public interface ConversationRepositoryCustom {
+
+    /**
+     * Atomically reserves the next message sequence of the conversation and touches {@code updatedAt}.
+     *
+     * @return the reserved sequence (zero-based)
+     */
+    long allocateMessageSequence(String conversationId);
+
+    /**
+     * Removes the legacy embedded {@code messages} array once it has been moved to
+     * {@code conversation_messages}.
+     */
+    void detachEmbeddedMessages(String conversationId, int messageCount);
+
+    void updateTitle(String conversationId, String title);
+
+    void updateLastIntent(String conversationId, String lastIntent);
+
+    /**
+     * Renames a conversation of the tenant.
+     *
+     * @return {@code false} when no conversation matched
+     */
+    boolean updateTitle(String conversationId, UUID tenantId, String title);
+
+    /**
+     * Sets the status of a conversation of the tenant; {@code ARCHIVED} also stamps {@code closedAt}.
+     *
+     * @return {@code false} when no conversation matched
+     */
+    boolean updateStatus(String conversationId, UUID tenantId, ConversationStatus status);
+
+    /**
+     * Moves every conversation of the user in status {@code from} to status {@code to}.
+     *
+     * @return the number of conversations updated
+     */
+    long updateStatusForUser(UUID tenantId, UUID userId, ConversationStatus from, ConversationStatus to);
+}
@@ -0,0 +1,91 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.Conversation;
+import com.axonrh.ai.entity.Conversation.ConversationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ConversationRepositoryImpl implements ConversationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long allocateMessageSequence(String conversationId) {
+        Query query = byId(conversationId);
+        query.fields().include("metadata.messageCount");
+        Conversation updated = mongoTemplate.findAndModify(
+                query,
+                new Update().inc("metadata.messageCount", 1).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Conversation.class);
+        if (updated == null) {
+            throw new IllegalStateException("Conversation not found: " + conversationId);
+        }
+        return updated.getMetadata().getMessageCount() - 1L;
+    }
+
+    @Override
+    public void detachEmbeddedMessages(String conversationId, int messageCount) {
+        mongoTemplate.updateFirst(byId(conversationId),
+                new Update().unset("messages").max("metadata.messageCount", messageCount),
+                Conversation.class);
+    }
+
+    @Override
+    public void updateTitle(String conversationId, String title) {
+        mongoTemplate.updateFirst(byId(conversationId),
+                new Update().set("title", title).set("updatedAt", Instant.now()),
+                Conversation.class);
+    }
+
+    @Override
+    public void updateLastIntent(String conversationId, String lastIntent) {
+        mongoTemplate.updateFirst(byId(conversationId),
+                new Update().set("metadata.lastIntent", lastIntent),
+                Conversation.class);
+    }
+
+    @Override
+    public boolean updateTitle(String conversationId, UUID tenantId, String title) {
+        return mongoTemplate.updateFirst(byIdAndTenant(conversationId, tenantId),
+                new Update().set("title", title).set("updatedAt", Instant.now()),
+                Conversation.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean updateStatus(String conversationId, UUID tenantId, ConversationStatus status) {
+        Instant now = Instant.now();
+        Update update = new Update().set("status", status).set("updatedAt", now);
+        if (status == ConversationStatus.ARCHIVED) {
+            update.set("closedAt", now);
+        }
+        return mongoTemplate.updateFirst(byIdAndTenant(conversationId, tenantId), update, Conversation.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public long updateStatusForUser(UUID tenantId, UUID userId, ConversationStatus from, ConversationStatus to) {
+        Query query = Query.query(Criteria.where("tenantId").is(tenantId)
+                .and("userId").is(userId)
+                .and("status").is(from));
+        return mongoTemplate.updateMulti(query,
+                new Update().set("status", to).set("updatedAt", Instant.now()),
+                Conversation.class).getModifiedCount();
+    }
+
+    private static Query byIdAndTenant(String conversationId, UUID tenantId) {
+        return Query.query(Criteria.where("id").is(conversationId).and("tenantId").is(tenantId));
+    }
+
+    private static Query byId(String conversationId) {
+        return Query.query(Criteria.where("id").is(conversationId));
+    }
+}
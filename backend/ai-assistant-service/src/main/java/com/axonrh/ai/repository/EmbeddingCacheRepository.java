@@ -0,0 +1,9 @@
+package com.axonrh.ai.repository;
+
+import com.axonrh.ai.entity.EmbeddingCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmbeddingCacheRepository extends MongoRepository<EmbeddingCacheEntry, String> {
+}
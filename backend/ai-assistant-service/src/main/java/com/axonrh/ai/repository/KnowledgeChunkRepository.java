@@ -15,7 +15,11 @@ public interface KnowledgeChunkRepository extends MongoRepository<KnowledgeChunk
     @Query(value = "{'tenantId': ?0}", fields = "{'content': 0}")
     Stream<KnowledgeChunk> streamByTenantIdWithoutContent(UUID tenantId);
 
+    @Query(value = "{'documentId': ?0}", fields = "{'content': 0}")
+    Stream<KnowledgeChunk> streamByDocumentIdWithoutContent(UUID documentId);
+
     List<KnowledgeChunk> findByTenantId(UUID tenantId);
     List<KnowledgeChunk> findByDocumentIdOrderByChunkIndexAsc(UUID documentId);
     void deleteByDocumentId(UUID documentId);
+    void deleteByDocumentIdAndChunkIndexGreaterThanEqual(UUID documentId, int chunkIndex);
 }
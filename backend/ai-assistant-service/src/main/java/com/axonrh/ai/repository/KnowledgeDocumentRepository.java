@@ -2,13 +2,18 @@ package com.axonrh.ai.repository;
 
 import com.axonrh.ai.entity.KnowledgeDocument;
 import com.axonrh.ai.entity.KnowledgeDocument.DocumentType;
+import com.axonrh.ai.entity.KnowledgeDocument.IngestionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,9 +38,43 @@ public interface KnowledgeDocumentRepository extends JpaRepository<KnowledgeDocu
                                              @Param("search") String search,
                                              Pageable pageable);
 
+    List<KnowledgeDocument> findByTenantIdAndUpdatedAtAfterOrderByUpdatedAtAsc(UUID tenantId, Instant updatedAt);
+
+    @Query("SELECT MAX(d.updatedAt) FROM KnowledgeDocument d WHERE d.tenantId = :tenantId")
+    Instant findMaxUpdatedAt(@Param("tenantId") UUID tenantId);
+
     @Query("SELECT COUNT(d) FROM KnowledgeDocument d WHERE d.tenantId = :tenantId AND d.isIndexed = true AND d.isActive = true")
     long countIndexedDocuments(@Param("tenantId") UUID tenantId);
 
     @Query("SELECT SUM(d.chunkCount) FROM KnowledgeDocument d WHERE d.tenantId = :tenantId AND d.isIndexed = true AND d.isActive = true")
     Long sumChunkCount(@Param("tenantId") UUID tenantId);
+
+    List<KnowledgeDocument> findByIngestionStatusIn(Collection<IngestionStatus> statuses);
+
+    // ==================== Ingestion progress ====================
+    // Targeted updates, guarded by is_active, so a document deleted during ingestion stays deleted
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE KnowledgeDocument d SET d.ingestionStatus = 'PROCESSING', d.ingestionError = null, d.updatedAt = :now " +
+           "WHERE d.id = :id AND d.isActive = true")
+    int markProcessing(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE KnowledgeDocument d SET d.chunksIndexed = :chunksIndexed, d.updatedAt = :now " +
+           "WHERE d.id = :id AND d.isActive = true")
+    int updateProgress(@Param("id") UUID id, @Param("chunksIndexed") int chunksIndexed, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE KnowledgeDocument d SET d.ingestionStatus = 'INDEXED', d.isIndexed = true, d.chunkCount = :chunkCount, " +
+           "d.chunksIndexed = :chunkCount, d.indexedAt = :now, d.updatedAt = :now WHERE d.id = :id AND d.isActive = true")
+    int markIndexed(@Param("id") UUID id, @Param("chunkCount") int chunkCount, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE KnowledgeDocument d SET d.ingestionStatus = 'FAILED', d.ingestionError = :error, d.updatedAt = :now " +
+           "WHERE d.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("error") String error, @Param("now") Instant now);
 }
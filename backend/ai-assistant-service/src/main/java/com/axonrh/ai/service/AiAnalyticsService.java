@@ -1,7 +1,9 @@
 package com.axonrh.ai.service;
 
+import com.axonrh.ai.entity.AiFeedback;
+import com.axonrh.ai.entity.AnalyticsRollup;
 import com.axonrh.ai.entity.Conversation;
-import com.axonrh.ai.repository.AiFeedbackRepository;
+import com.axonrh.ai.repository.AnalyticsRollupRepository;
 import com.axonrh.ai.repository.ConversationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,66 +11,172 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
+/**
+ * Conversation analytics, read from daily per-tenant rollups that the chat and feedback paths
+ * increment as they go; no query touches the conversations or their messages.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AiAnalyticsService {
 
+    private static final int TOP_INTENTS = 5;
+
     private final ConversationRepository conversationRepository;
-    private final AiFeedbackRepository feedbackRepository;
+    private final AnalyticsRollupRepository rollupRepository;
+
+    // ==================== Recording ====================
+    // Metrics must never fail the request that produced them
+
+    public void recordConversationStarted(UUID tenantId) {
+        try {
+            rollupRepository.incrementConversations(tenantId, Instant.now());
+        } catch (Exception e) {
+            log.warn("Failed to record conversation metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts an assistant turn.
+     *
+     * @param intent    NLU intent, or with function calling the first tool the model called
+     *                  ({@code general_chat} when it answered directly)
+     * @param latencyMs time spent producing the response (NLU, tools and provider calls)
+     */
+    public void recordTurn(UUID tenantId, String intent, Collection<String> tools,
+                           long promptTokens, long completionTokens, long latencyMs, boolean error) {
+        try {
+            rollupRepository.incrementTurn(tenantId, Instant.now(), intent, tools,
+                    promptTokens, completionTokens, latencyMs, error);
+        } catch (Exception e) {
+            log.warn("Failed to record turn metrics: {}", e.getMessage());
+        }
+    }
+
+    public void recordFeedback(UUID tenantId, AiFeedback.FeedbackType type, Integer rating) {
+        try {
+            rollupRepository.incrementFeedback(tenantId, Instant.now(), type, rating);
+        } catch (Exception e) {
+            log.warn("Failed to record feedback metrics: {}", e.getMessage());
+        }
+    }
+
+    // ==================== Reporting ====================
 
     public DashboardStats getDashboardStats(UUID tenantId, int days) {
-        Instant start = Instant.now().minus(days, ChronoUnit.DAYS);
         Instant end = Instant.now();
+        Instant start = end.minus(days, ChronoUnit.DAYS);
+        List<AnalyticsRollup> rollups = rollups(tenantId, start, end);
 
         long totalConversations = conversationRepository.countByTenantIdAndStatus(
                 tenantId, Conversation.ConversationStatus.ACTIVE);
 
-        Double avgRating = feedbackRepository.getAverageRating(tenantId, start, end);
-        long positiveFeedback = feedbackRepository.countPositiveFeedback(tenantId);
-        long negativeFeedback = feedbackRepository.countNegativeFeedback(tenantId);
-
-        List<ConversationRepository.DailyConversationCount> dailyCounts =
-                conversationRepository.countConversationsByDay(tenantId, start, end);
-
+        long positiveFeedback = 0;
+        long negativeFeedback = 0;
+        long ratingTotal = 0;
+        long ratingCount = 0;
         Map<String, Integer> conversationsPerDay = new LinkedHashMap<>();
-        for (var count : dailyCounts) {
-            conversationsPerDay.put(count.getId(), count.getCount());
+        for (AnalyticsRollup rollup : rollups) {
+            positiveFeedback += rollup.getPositiveFeedback();
+            negativeFeedback += rollup.getNegativeFeedback();
+            ratingTotal += rollup.getRatingTotal();
+            ratingCount += rollup.getRatingCount();
+            if (rollup.getConversations() > 0) {
+                conversationsPerDay.put(LocalDate.ofInstant(rollup.getDay(), ZoneOffset.UTC).toString(),
+                        (int) rollup.getConversations());
+            }
         }
 
         return DashboardStats.builder()
                 .totalConversations(totalConversations)
-                .averageRating(avgRating != null ? avgRating : 0.0)
+                .averageRating(ratingCount > 0 ? (double) ratingTotal / ratingCount : 0.0)
                 .satisfactionRate(calculateSatisfactionRate(positiveFeedback, negativeFeedback))
                 .conversationsPerDay(conversationsPerDay)
-                .topIntents(getTopIntents(tenantId, start, end))
+                .topIntents(topIntents(rollups))
                 .build();
     }
 
     public List<IntentUsage> getTopIntents(UUID tenantId, Instant start, Instant end) {
-        // In a full implementation, this would aggregate from conversation metadata
-        return List.of(
-                new IntentUsage("query_employee", 150),
-                new IntentUsage("calculate_vacation", 120),
-                new IntentUsage("hr_policy", 95),
-                new IntentUsage("calculate_termination", 80),
-                new IntentUsage("query_payroll", 65)
-        );
+        return topIntents(rollups(tenantId, start, end));
     }
 
     public ResponseTimeStats getResponseTimeStats(UUID tenantId, int days) {
-        // In a full implementation, this would calculate from conversation metadata
+        Instant end = Instant.now();
+        List<AnalyticsRollup> rollups = rollups(tenantId, end.minus(days, ChronoUnit.DAYS), end);
+
+        long[] histogram = new long[AnalyticsRollup.LATENCY_BOUNDS_MS.length + 1];
+        long turns = 0;
+        long totalMs = 0;
+        for (AnalyticsRollup rollup : rollups) {
+            totalMs += rollup.getLatencyTotalMs();
+            for (Map.Entry<String, Long> bucket : rollup.getLatency().entrySet()) {
+                int index = Integer.parseInt(bucket.getKey());
+                if (index >= 0 && index < histogram.length) {
+                    histogram[index] += bucket.getValue();
+                    turns += bucket.getValue();
+                }
+            }
+        }
+
         return ResponseTimeStats.builder()
-                .averageMs(1500)
-                .medianMs(1200)
-                .p95Ms(3500)
-                .p99Ms(5000)
+                .averageMs(turns > 0 ? totalMs / turns : 0)
+                .medianMs(percentile(histogram, turns, 0.50))
+                .p95Ms(percentile(histogram, turns, 0.95))
+                .p99Ms(percentile(histogram, turns, 0.99))
                 .build();
     }
 
+    private List<AnalyticsRollup> rollups(UUID tenantId, Instant start, Instant end) {
+        Instant from = LocalDate.ofInstant(start, ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return rollupRepository.findByTenantIdAndDayGreaterThanEqualOrderByDayAsc(tenantId, from).stream()
+                .filter(rollup -> !rollup.getDay().isAfter(end))
+                .toList();
+    }
+
+    private List<IntentUsage> topIntents(List<AnalyticsRollup> rollups) {
+        Map<String, Long> counts = new HashMap<>();
+        for (AnalyticsRollup rollup : rollups) {
+            rollup.getIntents().forEach((intent, count) -> counts.merge(intent, count, Long::sum));
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_INTENTS)
+                .map(entry -> new IntentUsage(entry.getKey(), (int) Math.min(Integer.MAX_VALUE, entry.getValue())))
+                .toList();
+    }
+
+    /**
+     * Percentile from the response time histogram, interpolated linearly inside the bucket.
+     */
+    private static long percentile(long[] histogram, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long[] bounds = AnalyticsRollup.LATENCY_BOUNDS_MS;
+        double rank = quantile * total;
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0) {
+                continue;
+            }
+            if (seen + histogram[i] >= rank) {
+                if (i == bounds.length) {
+                    return bounds[bounds.length - 1]; // Open bucket: report its lower bound
+                }
+                long lower = i == 0 ? 0 : bounds[i - 1];
+                double fraction = (rank - seen) / histogram[i];
+                return Math.round(lower + fraction * (bounds[i] - lower));
+            }
+            seen += histogram[i];
+        }
+        return bounds[bounds.length - 1];
+    }
+
     private double calculateSatisfactionRate(long positive, long negative) {
         long total = positive + negative;
         if (total == 0) return 0.0;
@@ -0,0 +1,162 @@
+package com.axonrh.ai.service;
+
+import com.axonrh.ai.entity.Conversation;
+import com.axonrh.ai.entity.Conversation.Message;
+import com.axonrh.ai.entity.ConversationMessage;
+import com.axonrh.ai.repository.ConversationMessageRepository;
+import com.axonrh.ai.repository.ConversationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Append-only storage of conversation messages.
+ *
+ * <p>Each message is inserted as its own {@link ConversationMessage} record with a sequence
+ * reserved on the conversation document, so a turn costs the same no matter how long the
+ * conversation is. The last {@code context-window} messages of recently active conversations
+ * are kept in a bounded LRU for prompt building; a window is dropped whenever an append shows
+ * it missed a message (for example, one written by another replica). The full history is only
+ * read when a conversation is opened.</p>
+ */
+@Slf4j
+@Service
+public class ConversationHistoryService {
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageRepository messageRepository;
+    private final int contextWindow;
+
+    /** Access-ordered LRU of recent windows; guarded by itself. */
+    private final LinkedHashMap<String, RecentWindow> recent;
+
+    public ConversationHistoryService(ConversationRepository conversationRepository,
+                                      ConversationMessageRepository messageRepository,
+                                      @Value("${assistant.conversation.context-window:10}") int contextWindow,
+                                      @Value("${assistant.conversation.recent-cache-size:2000}") int cacheSize) {
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.contextWindow = contextWindow;
+        this.recent = new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecentWindow> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    private static final class RecentWindow {
+        final ArrayDeque<Message> messages = new ArrayDeque<>();
+        long nextSequence;
+    }
+
+    /**
+     * Appends a message to the conversation.
+     *
+     * @return the message sequence (zero-based)
+     */
+    public long append(Conversation conversation, Message message) {
+        long sequence = conversationRepository.allocateMessageSequence(conversation.getId());
+        messageRepository.insert(ConversationMessage.of(conversation.getId(), conversation.getTenantId(), sequence, message));
+        conversation.getMetadata().setMessageCount((int) sequence + 1);
+
+        synchronized (recent) {
+            RecentWindow window = recent.get(conversation.getId());
+            if (window != null) {
+                if (window.nextSequence == sequence) {
+                    push(window, message, sequence);
+                } else {
+                    recent.remove(conversation.getId());
+                }
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * The last {@code context-window} messages, oldest first.
+     */
+    public List<Message> recentMessages(String conversationId) {
+        synchronized (recent) {
+            RecentWindow window = recent.get(conversationId);
+            if (window != null) {
+                return new ArrayList<>(window.messages);
+            }
+        }
+
+        List<ConversationMessage> latest = messageRepository.findByConversationIdOrderBySequenceDesc(
+                conversationId, PageRequest.of(0, contextWindow));
+        RecentWindow window = new RecentWindow();
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            push(window, latest.get(i).toMessage(), latest.get(i).getSequence());
+        }
+        synchronized (recent) {
+            recent.putIfAbsent(conversationId, window);
+        }
+        return new ArrayList<>(window.messages);
+    }
+
+    /**
+     * Full history of the conversation, oldest first.
+     */
+    public List<Message> history(String conversationId) {
+        return messageRepository.findByConversationIdOrderBySequenceAsc(conversationId).stream()
+                .map(ConversationMessage::toMessage)
+                .toList();
+    }
+
+    /**
+     * A page of older messages, oldest first; {@code beforeSequence == null} starts from the latest.
+     */
+    public List<ConversationMessage> page(String conversationId, Long beforeSequence, int limit) {
+        PageRequest pageable = PageRequest.of(0, limit);
+        List<ConversationMessage> page = beforeSequence != null
+                ? messageRepository.findByConversationIdAndSequenceLessThanOrderBySequenceDesc(
+                        conversationId, beforeSequence, pageable)
+                : messageRepository.findByConversationIdOrderBySequenceDesc(conversationId, pageable);
+        List<ConversationMessage> ordered = new ArrayList<>(page);
+        Collections.reverse(ordered);
+        return ordered;
+    }
+
+    /**
+     * Moves messages still embedded in a legacy conversation document to their own records.
+     */
+    public void migrateEmbeddedMessages(Conversation conversation) {
+        List<Message> embedded = conversation.getMessages();
+        if (embedded == null || embedded.isEmpty()) {
+            return;
+        }
+        List<ConversationMessage> records = new ArrayList<>(embedded.size());
+        for (int i = 0; i < embedded.size(); i++) {
+            records.add(ConversationMessage.of(conversation.getId(), conversation.getTenantId(), i, embedded.get(i)));
+        }
+        // save (upsert by message id) keeps a retried migration idempotent; legacy messages
+        // without an id get a new one, so a concurrent migration hits the unique sequence index
+        try {
+            messageRepository.saveAll(records);
+        } catch (DuplicateKeyException e) {
+            log.info("Embedded messages of conversation {} already migrated", conversation.getId());
+        }
+        conversationRepository.detachEmbeddedMessages(conversation.getId(), embedded.size());
+
+        conversation.setMessages(new ArrayList<>());
+        if (conversation.getMetadata().getMessageCount() < embedded.size()) {
+            conversation.getMetadata().setMessageCount(embedded.size());
+        }
+        log.info("Moved {} embedded messages of conversation {} to conversation_messages",
+                embedded.size(), conversation.getId());
+    }
+
+    private void push(RecentWindow window, Message message, long sequence) {
+        window.messages.addLast(message);
+        while (window.messages.size() > contextWindow) {
+            window.messages.removeFirst();
+        }
+        window.nextSequence = sequence + 1;
+    }
+}
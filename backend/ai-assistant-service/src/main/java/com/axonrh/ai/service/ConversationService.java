@@ -1,5 +1,6 @@
 package com.axonrh.ai.service;
 
+import com.axonrh.ai.config.TenantFairExecutor;
 import com.axonrh.ai.dto.ChatMessage;
 import com.axonrh.ai.dto.ChatRequest;
 import com.axonrh.ai.dto.ChatResponse;
@@ -9,19 +10,20 @@ import com.axonrh.ai.entity.Conversation;
 import com.axonrh.ai.entity.Conversation.ConversationContext;
 import com.axonrh.ai.entity.Conversation.ConversationMetadata;
 import com.axonrh.ai.entity.Conversation.Message;
+import com.axonrh.ai.entity.ConversationMessage;
 import com.axonrh.ai.entity.AiPrompt;
 import com.axonrh.ai.repository.AiPromptRepository;
 import com.axonrh.ai.repository.ConversationRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -32,10 +34,13 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ConversationService {
 
+    /** Analytics intent of a function-calling turn answered without tools. */
+    private static final String GENERAL_CHAT_INTENT = "general_chat";
+
     private final ConversationRepository conversationRepository;
+    private final ConversationHistoryService historyService;
     private final AiPromptRepository promptRepository;
     private final LlmService llmService;
     private final NluService nluService;
@@ -44,9 +49,8 @@ public class ConversationService {
     private final KnowledgeService knowledgeService;
     private final FunctionCallingService functionCallingService;
     private final ObjectMapper objectMapper;
-
-    @Value("${assistant.conversation.context-window:10}")
-    private int contextWindow;
+    private final TenantFairExecutor streamingExecutor;
+    private final AiAnalyticsService analyticsService;
 
     @Value("${assistant.conversation.auto-summarize-after:20}")
     private int autoSummarizeAfter;
@@ -54,6 +58,32 @@ public class ConversationService {
     @Value("${ai.function-calling.enabled:true}")
     private boolean functionCallingEnabled;
 
+    public ConversationService(ConversationRepository conversationRepository,
+                               ConversationHistoryService historyService,
+                               AiPromptRepository promptRepository,
+                               LlmService llmService,
+                               NluService nluService,
+                               QueryBuilderService queryBuilderService,
+                               CalculationService calculationService,
+                               KnowledgeService knowledgeService,
+                               FunctionCallingService functionCallingService,
+                               ObjectMapper objectMapper,
+                               @Qualifier("streamingExecutor") TenantFairExecutor streamingExecutor,
+                               AiAnalyticsService analyticsService) {
+        this.conversationRepository = conversationRepository;
+        this.historyService = historyService;
+        this.promptRepository = promptRepository;
+        this.llmService = llmService;
+        this.nluService = nluService;
+        this.queryBuilderService = queryBuilderService;
+        this.calculationService = calculationService;
+        this.knowledgeService = knowledgeService;
+        this.functionCallingService = functionCallingService;
+        this.objectMapper = objectMapper;
+        this.streamingExecutor = streamingExecutor;
+        this.analyticsService = analyticsService;
+    }
+
     public Conversation createConversation(UUID tenantId, UUID userId, ConversationContext context) {
         Conversation conversation = Conversation.builder()
                 .tenantId(tenantId)
@@ -63,6 +93,7 @@ public class ConversationService {
                 .metadata(new ConversationMetadata())
                 .messages(new ArrayList<>())
                 .build();
+        Conversation saved = conversationRepository.save(conversation);
 
         // Add system message
         String systemPrompt = buildSystemPrompt(tenantId, context);
@@ -73,9 +104,12 @@ public class ConversationService {
                 .type(Message.MessageType.TEXT)
                 .timestamp(Instant.now())
                 .build();
-        conversation.addMessage(systemMessage);
+        historyService.append(saved, systemMessage);
+        analyticsService.recordConversationStarted(tenantId);
 
-        return conversationRepository.save(conversation);
+        // Returned to the caller only; the document itself never embeds messages
+        saved.getMessages().add(systemMessage);
+        return saved;
     }
 
     public ChatResponse chat(String conversationId, String userMessage, UUID tenantId, UUID userId) {
@@ -89,17 +123,15 @@ public class ConversationService {
                 .type(Message.MessageType.TEXT)
                 .timestamp(Instant.now())
                 .build();
-        conversation.addMessage(userMsg);
+        historyService.append(conversation, userMsg);
 
         // Auto-generate title if it's the first user message
-        if (conversation.getTitle() == null || conversation.getTitle().isEmpty() || conversation.getTitle().equals("Nova conversa")) {
-            String newTitle = userMessage.length() > 30 ? userMessage.substring(0, 30) + "..." : userMessage;
-            conversation.setTitle(newTitle);
-        }
+        updateTitleIfNew(conversation, userMessage);
 
         String response;
         Message.MessageType responseType = Message.MessageType.TEXT;
         Map<String, Object> messageMetadata = new HashMap<>();
+        long started = System.nanoTime();
 
         try {
             if (functionCallingEnabled) {
@@ -115,6 +147,7 @@ public class ConversationService {
             response = "Desculpe, ocorreu um erro ao processar sua solicitação. Por favor, tente novamente.";
             responseType = Message.MessageType.ERROR;
         }
+        recordTurn(tenantId, messageMetadata, started, responseType == Message.MessageType.ERROR);
 
         // Add assistant message
         Message assistantMsg = Message.builder()
@@ -125,15 +158,13 @@ public class ConversationService {
                 .metadata(messageMetadata)
                 .timestamp(Instant.now())
                 .build();
-        conversation.addMessage(assistantMsg);
+        long sequence = historyService.append(conversation, assistantMsg);
 
         // Auto-summarize if needed
-        if (conversation.getMessages().size() > autoSummarizeAfter) {
+        if (sequence + 1 > autoSummarizeAfter) {
             summarizeConversation(conversation);
         }
 
-        conversationRepository.save(conversation);
-
         return ChatResponse.builder()
                 .id(assistantMsg.getId())
                 .content(response)
@@ -212,6 +243,7 @@ public class ConversationService {
         metadata.put("action_type", nluResult.getActionType().name());
 
         conversation.getMetadata().setLastIntent(nluResult.getIntent());
+        conversationRepository.updateLastIntent(conversation.getId(), nluResult.getIntent());
 
         return switch (nluResult.getActionType()) {
             case DATABASE_QUERY -> handleDatabaseQuery(userMessage, nluResult, tenantId, userId);
@@ -235,6 +267,8 @@ public class ConversationService {
     }
 
     public Flux<StreamChunk> streamChat(String conversationId, String userMessage, UUID tenantId, UUID userId) {
+        // Blocking stages (Mongo, NLU, tools) run on the tenant-fair streaming bulkhead
+        Scheduler scheduler = streamingExecutor.scheduler(tenantId);
         return Mono.fromCallable(() -> {
             Conversation conversation = getOrCreateConversation(conversationId, tenantId, userId);
 
@@ -246,22 +280,24 @@ public class ConversationService {
                     .type(Message.MessageType.TEXT)
                     .timestamp(Instant.now())
                     .build();
-            conversation.addMessage(userMsg);
+            historyService.append(conversation, userMsg);
 
             // Auto-generate title
-            if (conversation.getTitle() == null || conversation.getTitle().isEmpty() || conversation.getTitle().equals("Nova conversa")) {
-                String newTitle = userMessage.length() > 30 ? userMessage.substring(0, 30) + "..." : userMessage;
-                conversation.setTitle(newTitle);
-            }
+            updateTitleIfNew(conversation, userMessage);
 
-            return conversationRepository.save(conversation);
-        }).flatMapMany(conversation -> {
+            return conversation;
+        }).subscribeOn(scheduler).flatMapMany(conversation -> {
             if (functionCallingEnabled) {
                 // Use Function Calling - execute synchronously and stream result
+                long started = System.nanoTime();
                 return Mono.fromCallable(() -> {
                     List<ChatMessage> messages = buildChatMessages(conversation);
                     FunctionCallingService.FunctionCallingResult result = functionCallingService.chat(
                             messages, tenantId, userId, conversation.getId());
+                    List<String> toolsUsed = result.toolExecutions().stream()
+                            .map(FunctionCallingService.ToolExecutionRecord::toolName)
+                            .distinct()
+                            .toList();
 
                     String finalContent = result.content();
                     Message.MessageType finalType = Message.MessageType.TEXT;
@@ -292,20 +328,20 @@ public class ConversationService {
                             .metadata(Map.of(
                                     "function_calling", true,
                                     "iterations", result.iterations(),
-                                    "tools_used", result.toolExecutions().stream()
-                                            .map(FunctionCallingService.ToolExecutionRecord::toolName)
-                                            .distinct()
-                                            .toList()
+                                    "tools_used", toolsUsed
                             ))
                             .timestamp(Instant.now())
                             .build();
-                    conversation.addMessage(assistantMsg);
-                    conversationRepository.save(conversation);
+                    historyService.append(conversation, assistantMsg);
+                    recordTurn(tenantId, toolsUsed.isEmpty() ? GENERAL_CHAT_INTENT : toolsUsed.get(0), toolsUsed,
+                            result.usage() != null ? result.usage().getPromptTokens() : 0,
+                            result.usage() != null ? result.usage().getCompletionTokens() : 0,
+                            started, false);
                     
                     // Return helper object to pass to flatMapMany
                     return new AbstractMap.SimpleEntry<>(finalContent, finalType);
                 })
-                .subscribeOn(Schedulers.boundedElastic())
+                .subscribeOn(scheduler)
                 .flatMapMany(entry -> Flux.just(
                         StreamChunk.builder()
                                 .content(entry.getKey())
@@ -318,6 +354,7 @@ public class ConversationService {
                 ))
                 .onErrorResume(e -> {
                     log.error("Error in function calling stream: {}", e.getMessage(), e);
+                    recordTurn(tenantId, null, List.of(), 0, 0, started, true);
                     return Flux.just(StreamChunk.builder()
                             .content("Desculpe, ocorreu um erro ao processar sua solicitação.")
                             .done(true)
@@ -326,6 +363,7 @@ public class ConversationService {
             }
 
             // Legacy NLU-based flow
+            long started = System.nanoTime();
             return Mono.fromCallable(() -> nluService.analyze(userMessage, tenantId, conversation.getMetadata().getLastIntent()))
                 .flatMapMany(nluResult -> {
                     log.debug("Stream NLU Result: intent={}, actionType={}", nluResult.getIntent(), nluResult.getActionType());
@@ -362,14 +400,14 @@ public class ConversationService {
                                         .type(syncResponseType)
                                         .timestamp(Instant.now())
                                         .build();
-                                conversation.addMessage(assistantMsg);
-                                conversationRepository.save(conversation);
+                                historyService.append(conversation, assistantMsg);
+                                recordTurn(tenantId, nluResult.getIntent(), List.of(), 0, 0, started, false);
 
                                 return syncResponse;
                             }
                             return null;
                         })
-                        .subscribeOn(Schedulers.boundedElastic())
+                        .subscribeOn(scheduler)
                         .flatMapMany(responseStr -> {
                             if (responseStr == null) {
                                 log.warn("Finished processing action with null response");
@@ -397,6 +435,7 @@ public class ConversationService {
                             );
                         }).onErrorResume(e -> {
                             log.error("Error processing stream action: {}", e.getMessage(), e);
+                            recordTurn(tenantId, nluResult.getIntent(), List.of(), 0, 0, started, true);
                             return Flux.just(StreamChunk.builder()
                                     .content("Desculpe, ocorreu um erro ao processar sua solicitação.")
                                     .done(true)
@@ -414,6 +453,7 @@ public class ConversationService {
                             .build();
 
                     StringBuilder fullResponse = new StringBuilder();
+                    StreamChunk.Usage[] usage = new StreamChunk.Usage[1];
 
                     return llmService.streamChat(request)
                             .map(chunk -> {
@@ -426,6 +466,9 @@ public class ConversationService {
                                 if (!chunk.isDone()) {
                                     fullResponse.append(chunk.getContent());
                                 }
+                                if (chunk.getUsage() != null) {
+                                    usage[0] = chunk.getUsage();
+                                }
                                 log.trace("Emitting LLM chunk: done={}, length={}", chunk.isDone(), 
                                         chunk.getContent() != null ? chunk.getContent().length() : 0);
                             })
@@ -439,21 +482,62 @@ public class ConversationService {
                                         .type(Message.MessageType.TEXT)
                                         .timestamp(Instant.now())
                                         .build();
-                                conversation.addMessage(assistantMsg);
-                                conversationRepository.save(conversation);
-                            });
+                                historyService.append(conversation, assistantMsg);
+                                recordTurn(tenantId, nluResult.getIntent(), List.of(),
+                                        usage[0] != null ? usage[0].getPromptTokens() : 0,
+                                        usage[0] != null ? usage[0].getCompletionTokens() : 0,
+                                        started, false);
+                            })
+                            .doOnError(e -> recordTurn(tenantId, nluResult.getIntent(), List.of(), 0, 0, started, true));
                 });
         });
     }
 
+    /**
+     * Records the turn in the analytics rollups from the metadata kept on the assistant message.
+     * With function calling there is no NLU intent; the first tool called stands for it.
+     */
+    @SuppressWarnings("unchecked")
+    private void recordTurn(UUID tenantId, Map<String, Object> metadata, long startedNanos, boolean error) {
+        List<String> toolsUsed = metadata.get("tools_used") instanceof List<?> tools ? (List<String>) tools : List.of();
+        String intent = (String) metadata.get("intent");
+        if (intent == null && !error) {
+            intent = toolsUsed.isEmpty() ? GENERAL_CHAT_INTENT : toolsUsed.get(0);
+        }
+        long promptTokens = 0;
+        long completionTokens = 0;
+        if (metadata.get("tokens") instanceof Map<?, ?> tokens) {
+            promptTokens = ((Number) tokens.get("prompt")).longValue();
+            completionTokens = ((Number) tokens.get("completion")).longValue();
+        }
+        recordTurn(tenantId, intent, toolsUsed, promptTokens, completionTokens, startedNanos, error);
+    }
+
+    private void recordTurn(UUID tenantId, String intent, List<String> tools, long promptTokens,
+                            long completionTokens, long startedNanos, boolean error) {
+        analyticsService.recordTurn(tenantId, intent, tools, promptTokens, completionTokens,
+                (System.nanoTime() - startedNanos) / 1_000_000, error);
+    }
+
     private Conversation getOrCreateConversation(String conversationId, UUID tenantId, UUID userId) {
         if (conversationId != null) {
-            return conversationRepository.findByIdAndTenantId(conversationId, tenantId)
-                    .orElseGet(() -> createConversation(tenantId, userId, null));
+            Optional<Conversation> existing = conversationRepository.findByIdAndTenantId(conversationId, tenantId);
+            if (existing.isPresent()) {
+                historyService.migrateEmbeddedMessages(existing.get());
+                return existing.get();
+            }
         }
         return createConversation(tenantId, userId, null);
     }
 
+    private void updateTitleIfNew(Conversation conversation, String userMessage) {
+        if (conversation.getTitle() == null || conversation.getTitle().isEmpty() || conversation.getTitle().equals("Nova conversa")) {
+            String newTitle = userMessage.length() > 30 ? userMessage.substring(0, 30) + "..." : userMessage;
+            conversation.setTitle(newTitle);
+            conversationRepository.updateTitle(conversation.getId(), newTitle);
+        }
+    }
+
     private String buildSystemPrompt(UUID tenantId, ConversationContext context) {
         List<AiPrompt> prompts = promptRepository.findByNameWithSystem(tenantId, "hr_assistant_main");
         String template = prompts.isEmpty() ?
@@ -693,7 +777,7 @@ public class ConversationService {
     }
 
     private List<ChatMessage> buildChatMessages(Conversation conversation) {
-        List<Message> recentMessages = conversation.getRecentMessages(contextWindow);
+        List<Message> recentMessages = historyService.recentMessages(conversation.getId());
 
         return recentMessages.stream()
                 .map(m -> ChatMessage.builder()
@@ -808,45 +892,42 @@ public class ConversationService {
     }
 
     public void deleteAllConversations(UUID tenantId, UUID userId) {
-        List<Conversation> conversations = conversationRepository
-                .findByTenantIdAndUserIdAndStatusAndUpdatedAtAfter(
-                        tenantId, userId, Conversation.ConversationStatus.ACTIVE, Instant.EPOCH);
-        
-        conversations.forEach(c -> {
-            c.setStatus(Conversation.ConversationStatus.DELETED);
-            conversationRepository.save(c);
-        });
+        conversationRepository.updateStatusForUser(tenantId, userId,
+                Conversation.ConversationStatus.ACTIVE, Conversation.ConversationStatus.DELETED);
     }
 
+    /**
+     * Conversation with its full message history.
+     */
     public Optional<Conversation> getConversation(String id, UUID tenantId) {
-        return conversationRepository.findByIdAndTenantId(id, tenantId);
+        return conversationRepository.findByIdAndTenantId(id, tenantId).map(c -> {
+            historyService.migrateEmbeddedMessages(c);
+            c.setMessages(new ArrayList<>(historyService.history(c.getId())));
+            return c;
+        });
     }
 
-    public void archiveConversation(String id, UUID tenantId) {
-        conversationRepository.findByIdAndTenantId(id, tenantId).ifPresent(c -> {
-            c.setStatus(Conversation.ConversationStatus.ARCHIVED);
-            c.setClosedAt(Instant.now());
-            conversationRepository.save(c);
+    /**
+     * A page of messages older than {@code beforeSequence} (latest ones when null), oldest first.
+     */
+    public Optional<List<ConversationMessage>> getMessages(String id, UUID tenantId, Long beforeSequence, int limit) {
+        return conversationRepository.findByIdAndTenantId(id, tenantId).map(c -> {
+            historyService.migrateEmbeddedMessages(c);
+            return historyService.page(c.getId(), beforeSequence, limit);
         });
     }
 
+    public void archiveConversation(String id, UUID tenantId) {
+        conversationRepository.updateStatus(id, tenantId, Conversation.ConversationStatus.ARCHIVED);
+    }
+
     public void deleteConversation(String id, UUID tenantId) {
-        conversationRepository.findByIdAndTenantId(id, tenantId).ifPresent(c -> {
-            c.setStatus(Conversation.ConversationStatus.DELETED);
-            conversationRepository.save(c);
-        });
+        conversationRepository.updateStatus(id, tenantId, Conversation.ConversationStatus.DELETED);
     }
 
     public void updateConversation(String id, String title, UUID tenantId) {
-        conversationRepository.findByIdAndTenantId(id, tenantId).ifPresent(c -> {
-            boolean updated = false;
-            if (title != null && !title.isBlank()) {
-                c.setTitle(title);
-                updated = true;
-            }
-            if (updated) {
-                conversationRepository.save(c);
-            }
-        });
+        if (title != null && !title.isBlank()) {
+            conversationRepository.updateTitle(id, tenantId, title);
+        }
     }
 }
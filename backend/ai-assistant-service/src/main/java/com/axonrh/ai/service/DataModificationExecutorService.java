@@ -25,6 +25,7 @@ public class DataModificationExecutorService {
 
     private final PendingOperationRepository operationRepository;
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ToolResultMemo toolResultMemo;
 
     /**
      * Process a confirmation request (approve or reject).
@@ -100,6 +101,7 @@ public class DataModificationExecutorService {
             operation.markExecuted(String.format("Operação executada com sucesso. %d registro(s) afetado(s).", affectedRows));
             operation.setAffectedRecordsCount(affectedRows);
             operationRepository.save(operation);
+            invalidateToolResults(operation);
 
             log.info("Operation {} executed successfully. Affected rows: {}", operation.getId(), affectedRows);
 
@@ -128,6 +130,16 @@ public class DataModificationExecutorService {
         }
     }
 
+    /**
+     * Data changed: later reads in the operation's conversation must hit the services again,
+     * whether it was confirmed through the chat or the REST endpoints.
+     */
+    private void invalidateToolResults(PendingOperation operation) {
+        if (operation.getConversationId() != null) {
+            toolResultMemo.invalidate(operation.getConversationId());
+        }
+    }
+
     /**
      * Reject an operation.
      */
@@ -204,6 +216,7 @@ public class DataModificationExecutorService {
 
             operation.markRolledBack(userId);
             operationRepository.save(operation);
+            invalidateToolResults(operation);
 
             log.info("Rollback successful for operation {}. Affected rows: {}", operationId, affectedRows);
 
@@ -0,0 +1,252 @@
+package com.axonrh.ai.service;
+
+import com.axonrh.ai.entity.EmbeddingCacheEntry;
+import com.axonrh.ai.repository.EmbeddingCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed embedding cache in front of the embedding provider.
+ *
+ * <p>Lookups go through an in-memory LRU, then the {@code embedding_cache} collection, keyed by
+ * model and SHA-256 of the text. Misses are coalesced per key, so identical in-flight texts share
+ * one provider call, and queued for a short linger so small requests from concurrent users are
+ * sent together in provider-sized batches.</p>
+ */
+@Slf4j
+final class EmbeddingCache {
+
+    /**
+     * Embeds a batch of texts, returning one vector per text in the same order.
+     */
+    @FunctionalInterface
+    interface Provider {
+        List<float[]> embed(List<String> texts);
+    }
+
+    private record Pending(String key, String text, CompletableFuture<float[]> result) {}
+
+    private final String model;
+    private final Provider provider;
+    private final EmbeddingCacheRepository repository;
+    private final int maxBatchSize;
+    private final long lingerMs;
+    private final ScheduledExecutorService executor;
+
+    /** Access-ordered LRU; guarded by itself. */
+    private final LinkedHashMap<String, float[]> memory;
+    private final Map<String, CompletableFuture<float[]>> inFlight = new ConcurrentHashMap<>();
+
+    /** Guarded by {@code this}. */
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> lingerFlush;
+
+    EmbeddingCache(String model, Provider provider, EmbeddingCacheRepository repository,
+                   int maxEntries, int maxBatchSize, long lingerMs, int concurrency) {
+        this.model = model;
+        this.provider = provider;
+        this.repository = repository;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMs = lingerMs;
+        this.memory = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "embedding-batch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Embeddings of the texts, in order.
+     */
+    List<float[]> get(List<String> texts) {
+        String[] keys = new String[texts.size()];
+        float[][] result = new float[texts.size()][];
+        Map<String, String> missing = new LinkedHashMap<>();
+
+        synchronized (memory) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key(texts.get(i));
+                result[i] = memory.get(keys[i]);
+                if (result[i] == null) {
+                    missing.putIfAbsent(keys[i], texts.get(i));
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return Arrays.asList(result);
+        }
+
+        Map<String, float[]> found = loadPersisted(missing.keySet());
+        Map<String, CompletableFuture<float[]>> requested = new HashMap<>();
+        missing.forEach((key, text) -> {
+            if (!found.containsKey(key)) {
+                requested.put(key, submit(key, text));
+            }
+        });
+
+        for (int i = 0; i < keys.length; i++) {
+            if (result[i] != null) {
+                continue;
+            }
+            float[] vector = found.get(keys[i]);
+            result[i] = vector != null ? vector : requested.get(keys[i]).join();
+        }
+        return Arrays.asList(result);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ==================== Persistent store ====================
+
+    private Map<String, float[]> loadPersisted(Collection<String> keys) {
+        Map<String, float[]> found = new HashMap<>();
+        try {
+            for (EmbeddingCacheEntry entry : repository.findAllById(keys)) {
+                found.put(entry.getId(), toArray(entry.getEmbedding()));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read embedding cache: {}", e.getMessage());
+        }
+        remember(found);
+        return found;
+    }
+
+    private void persist(List<Pending> batch, List<float[]> vectors) {
+        List<EmbeddingCacheEntry> entries = new ArrayList<>(batch.size());
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(EmbeddingCacheEntry.builder()
+                    .id(batch.get(i).key())
+                    .model(model)
+                    .embedding(toList(vectors.get(i)))
+                    .createdAt(now)
+                    .build());
+        }
+        try {
+            repository.saveAll(entries);
+        } catch (Exception e) {
+            log.warn("Failed to store {} embeddings in cache: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private void remember(Map<String, float[]> vectors) {
+        if (vectors.isEmpty()) {
+            return;
+        }
+        synchronized (memory) {
+            memory.putAll(vectors);
+        }
+    }
+
+    // ==================== Coalescing and batching ====================
+
+    private CompletableFuture<float[]> submit(String key, String text) {
+        CompletableFuture<float[]> created = new CompletableFuture<>();
+        CompletableFuture<float[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        List<Pending> full = null;
+        synchronized (this) {
+            pending.add(new Pending(key, text, created));
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (lingerFlush == null) {
+                lingerFlush = executor.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            List<Pending> batch = full;
+            executor.execute(() -> call(batch));
+        }
+        return created;
+    }
+
+    private void flush() {
+        List<Pending> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        call(batch);
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        if (lingerFlush != null) {
+            lingerFlush.cancel(false);
+            lingerFlush = null;
+        }
+        return batch;
+    }
+
+    private void call(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<float[]> vectors = provider.embed(batch.stream().map(Pending::text).toList());
+            if (vectors.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " embeddings, got " + vectors.size());
+            }
+            Map<String, float[]> loaded = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                loaded.put(batch.get(i).key(), vectors.get(i));
+            }
+            // Cached before completing, so a request arriving after the in-flight entry is gone hits memory
+            remember(loaded);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(vectors.get(i));
+            }
+            persist(batch, vectors);
+        } catch (Exception e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        } finally {
+            batch.forEach(p -> inFlight.remove(p.key(), p.result()));
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private String key(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return model + ":" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static float[] toArray(List<Float> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i);
+        }
+        return vector;
+    }
+
+    private static List<Float> toList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,206 @@
+package com.axonrh.ai.service;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of a tenant's employee names, pre-normalized for fuzzy lookup.
+ *
+ * <p>The distinct name tokens form a sorted vocabulary with posting lists (token to employees)
+ * and a padded trigram index (trigram to tokens). Query tokens are resolved against the
+ * vocabulary only (exact, nickname variation, prefix, substring and trigram-filtered edit
+ * distance), so scoring runs on the employees sharing a plausible token instead of the whole
+ * tenant.</p>
+ */
+final class EmployeeNameIndex {
+
+    /** Edit distance bound used for fuzzy token candidates (similarity above 0.6). */
+    private static final double MAX_DISTANCE_RATIO = 0.4;
+    private static final LevenshteinDistance[] BOUNDED_LEVENSHTEIN = new LevenshteinDistance[16];
+
+    static {
+        for (int i = 0; i < BOUNDED_LEVENSHTEIN.length; i++) {
+            BOUNDED_LEVENSHTEIN[i] = new LevenshteinDistance(i);
+        }
+    }
+
+    /**
+     * An employee with its names already normalized, tokenized and expanded with variations.
+     */
+    record Entry(
+        UUID id,
+        String fullName,
+        String socialName,
+        String department,
+        String position,
+        boolean active,
+        String normalizedFull,
+        String normalizedSocial,
+        List<String> fullTokens,
+        List<String> socialTokens,
+        Set<String> expandedFull,
+        Set<String> expandedSocial
+    ) {}
+
+    private final Entry[] entries;
+    private final String[] vocabulary;
+    private final Map<String, Integer> tokenIds;
+    private final int[][] postings;
+    private final Map<String, int[]> trigrams;
+    private final Map<String, int[]> exactNames;
+    private final Map<String, Set<String>> variations;
+
+    /**
+     * @param variations symmetric, normalized nickname variations (token to related tokens)
+     */
+    EmployeeNameIndex(Collection<Entry> source, Map<String, Set<String>> variations) {
+        this.entries = source.toArray(Entry[]::new);
+        this.variations = variations;
+
+        Map<String, List<Integer>> tokenEntries = new HashMap<>();
+        Map<String, List<Integer>> names = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            Entry entry = entries[i];
+            Set<String> tokens = new HashSet<>(entry.fullTokens());
+            tokens.addAll(entry.socialTokens());
+            for (String token : tokens) {
+                tokenEntries.computeIfAbsent(token, k -> new ArrayList<>()).add(i);
+            }
+            names.computeIfAbsent(entry.normalizedFull(), k -> new ArrayList<>()).add(i);
+            if (!entry.normalizedSocial().isEmpty() && !entry.normalizedSocial().equals(entry.normalizedFull())) {
+                names.computeIfAbsent(entry.normalizedSocial(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.vocabulary = tokenEntries.keySet().toArray(String[]::new);
+        Arrays.sort(vocabulary);
+        this.tokenIds = new HashMap<>(vocabulary.length * 2);
+        this.postings = new int[vocabulary.length][];
+        Map<String, List<Integer>> trigramTokens = new HashMap<>();
+        for (int t = 0; t < vocabulary.length; t++) {
+            tokenIds.put(vocabulary[t], t);
+            postings[t] = toArray(tokenEntries.get(vocabulary[t]));
+            for (String trigram : paddedTrigrams(vocabulary[t])) {
+                List<Integer> ids = trigramTokens.computeIfAbsent(trigram, k -> new ArrayList<>());
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != t) {
+                    ids.add(t);
+                }
+            }
+        }
+        this.trigrams = new HashMap<>(trigramTokens.size() * 2);
+        trigramTokens.forEach((trigram, ids) -> trigrams.put(trigram, toArray(ids)));
+        this.exactNames = new HashMap<>(names.size() * 2);
+        names.forEach((name, ids) -> exactNames.put(name, toArray(ids)));
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Employees sharing at least one token related to a query token, plus exact name matches.
+     */
+    List<Entry> candidates(String normalizedQuery, List<String> queryTokens, boolean activeOnly) {
+        BitSet tokens = new BitSet(vocabulary.length);
+        for (String token : queryTokens) {
+            matchToken(token, tokens);
+        }
+
+        BitSet matched = new BitSet(entries.length);
+        for (int t = tokens.nextSetBit(0); t >= 0; t = tokens.nextSetBit(t + 1)) {
+            for (int e : postings[t]) {
+                matched.set(e);
+            }
+        }
+        int[] exact = exactNames.get(normalizedQuery);
+        if (exact != null) {
+            for (int e : exact) {
+                matched.set(e);
+            }
+        }
+
+        List<Entry> result = new ArrayList<>(matched.cardinality());
+        for (int e = matched.nextSetBit(0); e >= 0; e = matched.nextSetBit(e + 1)) {
+            if (!activeOnly || entries[e].active()) {
+                result.add(entries[e]);
+            }
+        }
+        return result;
+    }
+
+    private void matchToken(String token, BitSet result) {
+        // Exact and nickname variations
+        mark(token, result);
+        for (String variation : variations.getOrDefault(token, Set.of())) {
+            mark(variation, result);
+        }
+
+        // Vocabulary tokens contained in the query token (covers "query starts with token")
+        for (int from = 0; from < token.length(); from++) {
+            for (int to = from + 2; to <= token.length(); to++) {
+                mark(token.substring(from, to), result);
+            }
+        }
+
+        // Vocabulary tokens starting with the query token
+        int start = Arrays.binarySearch(vocabulary, token);
+        for (int t = start >= 0 ? start : -start - 1; t < vocabulary.length && vocabulary[t].startsWith(token); t++) {
+            result.set(t);
+        }
+
+        // Trigram candidates: substring containment and bounded edit distance
+        Set<Integer> seen = new HashSet<>();
+        for (String trigram : paddedTrigrams(token)) {
+            int[] ids = trigrams.get(trigram);
+            if (ids == null) {
+                continue;
+            }
+            for (int t : ids) {
+                if (result.get(t) || !seen.add(t)) {
+                    continue;
+                }
+                String candidate = vocabulary[t];
+                if ((token.length() >= 3 && candidate.contains(token)) || withinDistance(token, candidate)) {
+                    result.set(t);
+                }
+            }
+        }
+    }
+
+    private void mark(String token, BitSet result) {
+        Integer id = tokenIds.get(token);
+        if (id != null) {
+            result.set(id);
+        }
+    }
+
+    private static boolean withinDistance(String a, String b) {
+        int maxLength = Math.max(a.length(), b.length());
+        int limit = (int) Math.ceil(MAX_DISTANCE_RATIO * maxLength) - 1;
+        if (limit < 0 || Math.abs(a.length() - b.length()) > limit) {
+            return false;
+        }
+        LevenshteinDistance distance = limit < BOUNDED_LEVENSHTEIN.length
+            ? BOUNDED_LEVENSHTEIN[limit]
+            : new LevenshteinDistance(limit);
+        return distance.apply(a, b) >= 0;
+    }
+
+    private static List<String> paddedTrigrams(String token) {
+        String padded = "$$" + token + "$";
+        List<String> result = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,493 @@
+package com.axonrh.ai.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory HNSW (hierarchical navigable small world) graph over primitive vectors.
+ *
+ * <p>Vectors are L2-normalized on insert, so cosine similarity is a plain dot product.
+ * With {@code quantized} enabled each vector is kept as int8 codes plus one scale factor
+ * (4x less memory, approximate similarity). Removed nodes are tombstoned and stay in the
+ * graph for traversal until the owner compacts the index.</p>
+ *
+ * <p>Thread-safe: searches share a read lock, mutations take the write lock.</p>
+ */
+final class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int FORMAT_VERSION = 1;
+
+    record Hit(String chunkId, UUID documentId, float similarity) {
+    }
+
+    private record Candidate(int node, float similarity) {
+    }
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final boolean quantized;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private String[] chunkIds = new String[16];
+    private UUID[] documentIds = new UUID[16];
+    private float[][] vectors = new float[16][];
+    private byte[][] codes = new byte[16][];
+    private float[] scales = new float[16];
+    /** neighbors[node][level] = adjacent nodes on that level. */
+    private int[][][] neighbors = new int[16][][];
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private final Map<String, Integer> byChunkId = new HashMap<>();
+    private final Map<UUID, List<Integer>> byDocument = new HashMap<>();
+
+    HnswIndex(int dimensions, int m, int efConstruction, boolean quantized) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.quantized = quantized;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True when tombstones make up a third or more of the graph.
+     */
+    boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            return size > 0 && deletedCount * 3 >= size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean containsDocument(UUID documentId) {
+        lock.readLock().lock();
+        try {
+            return byDocument.containsKey(documentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isCompatible(int dimensions, int m, boolean quantized) {
+        return this.dimensions == dimensions && this.m == m && this.quantized == quantized;
+    }
+
+    // ==================== Mutations ====================
+
+    /**
+     * Inserts a chunk; ignored when the chunk is already indexed or the vector has the wrong size.
+     */
+    void add(String chunkId, UUID documentId, float[] vector) {
+        if (vector == null || vector.length != dimensions) {
+            return;
+        }
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            if (byChunkId.containsKey(chunkId)) {
+                return;
+            }
+            int node = allocate(chunkId, documentId);
+            store(node, normalized);
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            neighbors[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                neighbors[node][l] = new int[0];
+            }
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(normalized, current, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(normalized, current, efConstruction, l);
+                int maxNeighbors = l == 0 ? maxM0 : m;
+                int[] selected = candidates.stream()
+                        .filter(c -> c.node() != node)
+                        .limit(maxNeighbors)
+                        .mapToInt(Candidate::node)
+                        .toArray();
+                neighbors[node][l] = selected;
+                for (int neighbor : selected) {
+                    link(neighbor, node, l, maxNeighbors);
+                }
+                current = candidates.get(0).node();
+            }
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tombstones every chunk of the document.
+     */
+    int removeDocument(UUID documentId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> nodes = byDocument.remove(documentId);
+            if (nodes == null) {
+                return 0;
+            }
+            for (int node : nodes) {
+                if (!deleted.get(node)) {
+                    deleted.set(node);
+                    deletedCount++;
+                    byChunkId.remove(chunkIds[node]);
+                }
+            }
+            return nodes.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * New graph with only the live nodes (tombstones dropped).
+     */
+    HnswIndex compact() {
+        HnswIndex compacted = new HnswIndex(dimensions, m, efConstruction, quantized);
+        lock.readLock().lock();
+        try {
+            for (int node = 0; node < size; node++) {
+                if (!deleted.get(node)) {
+                    compacted.add(chunkIds[node], documentIds[node], vectorOf(node));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return compacted;
+    }
+
+    // ==================== Search ====================
+
+    /**
+     * Top-k live chunks by cosine similarity, at or above {@code minSimilarity}.
+     */
+    List<Hit> search(float[] query, int k, int ef, float minSimilarity) {
+        if (query == null || query.length != dimensions) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(normalized, current, l);
+            }
+            List<Hit> hits = new ArrayList<>(k);
+            for (Candidate candidate : searchLayer(normalized, current, Math.max(ef, k), 0)) {
+                if (hits.size() == k || candidate.similarity() < minSimilarity) {
+                    break;
+                }
+                if (!deleted.get(candidate.node())) {
+                    hits.add(new Hit(chunkIds[candidate.node()], documentIds[candidate.node()], candidate.similarity()));
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : neighborsOf(current, level)) {
+                float similarity = similarity(query, neighbor);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search on one level; returns up to {@code ef} nodes ordered by similarity (best first).
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>((a, b) -> Float.compare(b.similarity(), a.similarity()));
+        PriorityQueue<Candidate> results = new PriorityQueue<>((a, b) -> Float.compare(a.similarity(), b.similarity()));
+
+        Candidate first = new Candidate(start, similarity(query, start));
+        visited.set(start);
+        frontier.add(first);
+        results.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate candidate = frontier.poll();
+            if (results.size() >= ef && candidate.similarity() < results.peek().similarity()) {
+                break;
+            }
+            for (int neighbor : neighborsOf(candidate.node(), level)) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float similarity = similarity(query, neighbor);
+                if (results.size() < ef || similarity > results.peek().similarity()) {
+                    Candidate next = new Candidate(neighbor, similarity);
+                    frontier.add(next);
+                    results.add(next);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(results);
+        ordered.sort((a, b) -> Float.compare(b.similarity(), a.similarity()));
+        return ordered;
+    }
+
+    // ==================== Graph internals ====================
+
+    private int allocate(String chunkId, UUID documentId) {
+        if (size == chunkIds.length) {
+            int capacity = chunkIds.length * 2;
+            chunkIds = Arrays.copyOf(chunkIds, capacity);
+            documentIds = Arrays.copyOf(documentIds, capacity);
+            vectors = Arrays.copyOf(vectors, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+            scales = Arrays.copyOf(scales, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+        }
+        int node = size++;
+        chunkIds[node] = chunkId;
+        documentIds[node] = documentId;
+        byChunkId.put(chunkId, node);
+        byDocument.computeIfAbsent(documentId, k -> new ArrayList<>()).add(node);
+        return node;
+    }
+
+    private void store(int node, float[] normalized) {
+        if (quantized) {
+            quantize(node, normalized);
+        } else {
+            vectors[node] = normalized;
+        }
+    }
+
+    private void link(int from, int to, int level, int maxNeighbors) {
+        int[] current = neighborsOf(from, level);
+        int[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = to;
+        if (extended.length > maxNeighbors) {
+            // Keep the closest neighbors of {@code from}
+            float[] base = vectorOf(from);
+            extended = Arrays.stream(extended).boxed()
+                    .sorted((a, b) -> Float.compare(similarity(base, b), similarity(base, a)))
+                    .limit(maxNeighbors)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        neighbors[from][level] = extended;
+    }
+
+    private int[] neighborsOf(int node, int level) {
+        int[][] levels = neighbors[node];
+        return level < levels.length ? levels[level] : new int[0];
+    }
+
+    private float similarity(float[] query, int node) {
+        if (!quantized) {
+            float[] vector = vectors[node];
+            float dot = 0;
+            for (int i = 0; i < dimensions; i++) {
+                dot += query[i] * vector[i];
+            }
+            return dot;
+        }
+        byte[] code = codes[node];
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * code[i];
+        }
+        return dot * scales[node];
+    }
+
+    private void quantize(int node, float[] normalized) {
+        float max = 0;
+        for (float v : normalized) {
+            max = Math.max(max, Math.abs(v));
+        }
+        float scale = max > 0 ? max / 127f : 1f;
+        byte[] code = new byte[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            code[i] = (byte) Math.round(normalized[i] / scale);
+        }
+        codes[node] = code;
+        scales[node] = scale;
+    }
+
+    private float[] vectorOf(int node) {
+        if (!quantized) {
+            return vectors[node];
+        }
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = codes[node][i] * scales[node];
+        }
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return vector.clone();
+        }
+        float inverse = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * inverse;
+        }
+        return normalized;
+    }
+
+    // ==================== Persistence ====================
+
+    /**
+     * Binary snapshot: header, then per node its ids, tombstone flag, vector and adjacency lists.
+     * {@code watermark} is opaque metadata stored for the owner.
+     */
+    void write(DataOutputStream out, long watermark) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeBoolean(quantized);
+            out.writeLong(watermark);
+            out.writeInt(size);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                out.writeUTF(chunkIds[node]);
+                out.writeLong(documentIds[node].getMostSignificantBits());
+                out.writeLong(documentIds[node].getLeastSignificantBits());
+                out.writeBoolean(deleted.get(node));
+                if (quantized) {
+                    out.writeFloat(scales[node]);
+                    out.write(codes[node]);
+                } else {
+                    for (float v : vectors[node]) {
+                        out.writeFloat(v);
+                    }
+                }
+                int[][] levels = neighbors[node];
+                out.writeByte(levels.length);
+                for (int[] level : levels) {
+                    out.writeShort(level.length);
+                    for (int neighbor : level) {
+                        out.writeInt(neighbor);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}; returns the index and the stored watermark.
+     */
+    static Map.Entry<HnswIndex, Long> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported HNSW snapshot");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), in.readBoolean());
+        long watermark = in.readLong();
+        int count = in.readInt();
+        int entryPoint = in.readInt();
+        int maxLevel = in.readInt();
+
+        for (int node = 0; node < count; node++) {
+            String chunkId = in.readUTF();
+            UUID documentId = new UUID(in.readLong(), in.readLong());
+            boolean isDeleted = in.readBoolean();
+            int allocated = index.allocate(chunkId, documentId);
+            if (index.quantized) {
+                index.scales[allocated] = in.readFloat();
+                index.codes[allocated] = new byte[index.dimensions];
+                in.readFully(index.codes[allocated]);
+            } else {
+                float[] vector = new float[index.dimensions];
+                for (int i = 0; i < vector.length; i++) {
+                    vector[i] = in.readFloat();
+                }
+                index.vectors[allocated] = vector;
+            }
+            int[][] levels = new int[in.readUnsignedByte()][];
+            for (int l = 0; l < levels.length; l++) {
+                levels[l] = new int[in.readUnsignedShort()];
+                for (int j = 0; j < levels[l].length; j++) {
+                    levels[l][j] = in.readInt();
+                }
+            }
+            index.neighbors[allocated] = levels;
+            if (isDeleted) {
+                index.deleted.set(allocated);
+                index.deletedCount++;
+                index.byChunkId.remove(chunkId);
+                List<Integer> nodes = index.byDocument.get(documentId);
+                nodes.remove(Integer.valueOf(allocated));
+                if (nodes.isEmpty()) {
+                    index.byDocument.remove(documentId);
+                }
+            }
+        }
+        index.entryPoint = entryPoint;
+        index.maxLevel = maxLevel;
+        return Map.entry(index, watermark);
+    }
+}
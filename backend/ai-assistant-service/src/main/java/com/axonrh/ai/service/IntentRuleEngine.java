@@ -0,0 +1,360 @@
+package com.axonrh.ai.service;
+
+import com.axonrh.ai.entity.AiIntent;
+import com.axonrh.ai.entity.AiIntent.ActionType;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Compiled rule-based intent matcher.
+ *
+ * <p>The built-in keyword rules, the training phrases of active {@link AiIntent}s and the entity
+ * keywords are compiled into a single {@link KeywordAutomaton}. A message is accent-folded once
+ * and scanned once; every intent with a hit gets a score (its base confidence, raised for phrase
+ * hits and additional distinct keywords) and the best one wins, with longer keywords breaking
+ * ties. This lets specific rules ("ferias pendentes", "certificado digital") win over generic ones
+ * regardless of declaration order. Instances are immutable and rebuilt when the intents change.</p>
+ */
+final class IntentRuleEngine {
+
+    private static final int WHOLE_WORD_MAX_LENGTH = 4;
+    private static final double PHRASE_BONUS = 0.02;
+    private static final double EXTRA_KEYWORD_BONUS = 0.02;
+    private static final int MAX_EXTRA_KEYWORDS = 2;
+    private static final double MAX_CONFIDENCE = 0.98;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DAYS = Pattern.compile("(\\d+)\\s*(dias?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SALARY = Pattern.compile("R\\$\\s*([\\d.,]+)|sal[aá]rio\\s+de\\s+([\\d.,]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TENURE = Pattern.compile("(\\d+)\\s*(anos?|meses?)", Pattern.CASE_INSENSITIVE);
+    // Simple name extraction heuristic: capitalized words after "de", "do", "da", "o", "a"
+    private static final Pattern EMPLOYEE_NAME = Pattern.compile("(?:de|do|da|o|a)\\s+([A-Z][a-z]+(?:\\s+[A-Z][a-z]+)*)", Pattern.DOTALL);
+
+    enum Extractor { NONE, VACATION, TERMINATION, EMPLOYEE_QUERY, POLICY_TOPIC, LAW_TOPIC, ACTION }
+
+    record Rule(String intent, double confidence, ActionType actionType, Extractor extractor, List<String> keywords) {}
+
+    private record EntityTerm(Extractor extractor, String entity, Object value, List<String> keywords) {}
+
+    /** Automaton payload: an intent keyword ({@code entityTerm < 0}) or an entity keyword. */
+    private record Term(int rule, int entityTerm) {}
+
+    /**
+     * Best intent of a message, with the scores of every intent that had a hit (best first).
+     */
+    record Match(String intent, double confidence, ActionType actionType,
+                 Map<String, Object> entities, Map<String, Double> scores) {}
+
+    static final List<Rule> BUILT_IN_RULES = List.of(
+            new Rule("calculate_vacation", 0.90, ActionType.CALCULATION, Extractor.VACATION,
+                    List.of("férias", "calcular férias", "valor das férias", "quanto vou receber de férias")),
+            new Rule("calculate_termination", 0.90, ActionType.CALCULATION, Extractor.TERMINATION,
+                    List.of("rescisão", "demissão", "calcular rescisão", "verbas rescisórias")),
+            new Rule("query_employee", 0.88, ActionType.DATABASE_QUERY, Extractor.EMPLOYEE_QUERY,
+                    List.of("funcionários", "colaboradores", "empregados", "quem trabalha",
+                            "departamento", "setor", "setores", "área", "áreas", "cargo", "cargos", "posição", "posições")),
+            new Rule("query_salary", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("salário", "salarios", "remuneração", "quanto ganha", "quanto recebe",
+                            "faixa salarial", "salário base")),
+            new Rule("query_address", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("endereço", "enderecos", "onde mora", "moram", "cidade", "estado", "cep")),
+            new Rule("query_dependents", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("dependente", "dependentes", "filho", "filhos", "cônjuge", "esposa", "marido")),
+            new Rule("query_vacation_requests", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("férias pendentes", "solicitação de férias", "pedido de férias",
+                            "férias aprovadas", "férias rejeitadas")),
+            new Rule("query_timesheet", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("ponto", "registro de ponto", "batida", "batidas", "hora extra",
+                            "horas extras", "banco de horas", "overtime")),
+            new Rule("query_payroll", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("contracheque", "holerite", "folha de pagamento", "folha",
+                            "pagamento", "quanto ganhei", "salário líquido", "salário bruto")),
+            new Rule("query_performance", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("avaliação", "avaliações", "desempenho", "performance",
+                            "meta", "metas", "objetivo", "objetivos")),
+            new Rule("query_training", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("treinamento", "treinamentos", "curso", "cursos", "capacitação",
+                            "certificado", "certificados", "matrícula")),
+            new Rule("hr_policy", 0.85, ActionType.KNOWLEDGE_SEARCH, Extractor.POLICY_TOPIC,
+                    List.of("política", "regra", "procedimento", "norma")),
+            new Rule("labor_law", 0.85, ActionType.KNOWLEDGE_SEARCH, Extractor.LAW_TOPIC,
+                    List.of("clt", "lei", "legislação", "direito", "trabalhista")),
+            new Rule("query_benefits", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("benefício", "benefícios", "plano de saúde", "vale refeição", "vale transporte", "seguro de vida")),
+            new Rule("query_notifications", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("notificação", "notificações", "alerta", "aviso", "mensagens")),
+            new Rule("query_company", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("dados da empresa", "cnpj da empresa", "razão social", "endereço da empresa")),
+            new Rule("query_certificates", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("certificado digital", "certificado a1", "certificado a3", "validade do certificado")),
+            new Rule("query_pdi", 0.88, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("pdi", "plano de desenvolvimento", "meu desenvolvimento")),
+            new Rule("query_talent_pool", 0.90, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("vaga", "vagas", "candidato", "candidatos", "banco de talentos", "processo seletivo")),
+            new Rule("query_wellbeing", 0.90, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("bem-estar", "saúde mental", "clima", "sentimento", "estrela de sentimentos")),
+            new Rule("query_disc", 0.90, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("disc", "perfil comportamental", "teste comportamental", "dominância", "influência", "estabilidade", "conformidade")),
+            new Rule("query_termination_process", 0.90, ActionType.DATABASE_QUERY, Extractor.NONE,
+                    List.of("processo de desligamento", "workflow de demissão", "checklist de saída")),
+            new Rule("propose_vacation_approval", 0.95, ActionType.ACTION_CONFIRMATION, Extractor.ACTION,
+                    List.of("aprovar férias", "autorizar férias", "confirmar férias")),
+            new Rule("propose_termination", 0.95, ActionType.ACTION_CONFIRMATION, Extractor.ACTION,
+                    List.of("demitir", "desligar funcionário", "iniciar desligamento", "terminar contrato"))
+    );
+
+    /** Earlier terms of the same entity take precedence. */
+    private static final List<EntityTerm> ENTITY_TERMS = List.of(
+            new EntityTerm(Extractor.VACATION, "abono", true, List.of("abono", "vender")),
+
+            new EntityTerm(Extractor.TERMINATION, "type", "SEM_JUSTA_CAUSA", List.of("sem justa causa", "demitido")),
+            new EntityTerm(Extractor.TERMINATION, "type", "JUSTA_CAUSA", List.of("justa causa")),
+            new EntityTerm(Extractor.TERMINATION, "type", "PEDIDO_DEMISSAO", List.of("pedido de demissão", "pedir demissão")),
+            new EntityTerm(Extractor.TERMINATION, "type", "ACORDO", List.of("acordo", "comum acordo")),
+
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "TI", List.of("ti")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "RH", List.of("rh")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Financeiro", List.of("financeiro")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Vendas", List.of("vendas")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Marketing", List.of("marketing")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Operações", List.of("operações")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Administrativo", List.of("administrativo")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Jurídico", List.of("jurídico")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "department", "Contabilidade", List.of("contabilidade")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "status", "ACTIVE", List.of("ativos", "ativas")),
+            new EntityTerm(Extractor.EMPLOYEE_QUERY, "status", "INACTIVE", List.of("inativos", "inativas", "demitidos")),
+
+            new EntityTerm(Extractor.POLICY_TOPIC, "topic", "vacation", List.of("férias")),
+            new EntityTerm(Extractor.POLICY_TOPIC, "topic", "remote_work", List.of("home office", "remoto")),
+            new EntityTerm(Extractor.POLICY_TOPIC, "topic", "benefits", List.of("benefício")),
+            new EntityTerm(Extractor.POLICY_TOPIC, "topic", "code_of_conduct", List.of("conduta")),
+            new EntityTerm(Extractor.POLICY_TOPIC, "topic", "dress_code", List.of("vestimenta", "roupa")),
+
+            new EntityTerm(Extractor.LAW_TOPIC, "topic", "vacation", List.of("férias")),
+            new EntityTerm(Extractor.LAW_TOPIC, "topic", "overtime", List.of("hora extra")),
+            new EntityTerm(Extractor.LAW_TOPIC, "topic", "termination", List.of("rescisão", "demissão")),
+            new EntityTerm(Extractor.LAW_TOPIC, "topic", "thirteenth_salary", List.of("13", "13º", "décimo terceiro")),
+            new EntityTerm(Extractor.LAW_TOPIC, "topic", "fgts", List.of("fgts")),
+            new EntityTerm(Extractor.LAW_TOPIC, "topic", "social_security", List.of("inss"))
+    );
+
+    private static final KeywordAutomaton<Boolean> CONFIRMATION = new KeywordAutomaton<>(
+            keywordMap(List.of("sim", "confirmar", "aprovar", "pode ser", "ok", "confirmo"), Boolean.TRUE),
+            WHOLE_WORD_MAX_LENGTH);
+
+    private final List<Rule> rules;
+    private final KeywordAutomaton<Term> automaton;
+    private final String catalog;
+    private final Map<String, ActionType> actionTypes;
+
+    /**
+     * @param intents active intents; their training phrases extend the rule of the same name, or
+     *                form a new rule with the intent's confidence threshold. {@code execute_*}
+     *                intents are only reachable through an explicit confirmation and are skipped.
+     */
+    IntentRuleEngine(List<AiIntent> intents) {
+        List<Rule> merged = new ArrayList<>(BUILT_IN_RULES);
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < merged.size(); i++) {
+            byName.put(merged.get(i).intent(), i);
+        }
+        for (AiIntent intent : intents) {
+            List<String> phrases = intent.getTrainingPhrases() != null ? intent.getTrainingPhrases() : List.of();
+            if (intent.getName().startsWith("execute_") || phrases.isEmpty()) {
+                continue;
+            }
+            Integer index = byName.get(intent.getName());
+            if (index != null) {
+                Rule rule = merged.get(index);
+                List<String> keywords = new ArrayList<>(rule.keywords());
+                keywords.addAll(phrases);
+                merged.set(index, new Rule(rule.intent(), rule.confidence(), rule.actionType(), rule.extractor(), keywords));
+            } else {
+                byName.put(intent.getName(), merged.size());
+                merged.add(new Rule(intent.getName(),
+                        intent.getConfidenceThreshold() != null ? intent.getConfidenceThreshold().doubleValue() : 0.70,
+                        intent.getActionType() != null ? intent.getActionType() : ActionType.INFORMATION,
+                        Extractor.NONE, phrases));
+            }
+        }
+        this.rules = List.copyOf(merged);
+
+        Map<String, List<Term>> keywords = new HashMap<>();
+        for (int r = 0; r < rules.size(); r++) {
+            for (String keyword : rules.get(r).keywords()) {
+                keywords.computeIfAbsent(fold(keyword), k -> new ArrayList<>()).add(new Term(r, -1));
+            }
+        }
+        for (int t = 0; t < ENTITY_TERMS.size(); t++) {
+            for (String keyword : ENTITY_TERMS.get(t).keywords()) {
+                keywords.computeIfAbsent(fold(keyword), k -> new ArrayList<>()).add(new Term(-1, t));
+            }
+        }
+        this.automaton = new KeywordAutomaton<>(keywords, WHOLE_WORD_MAX_LENGTH);
+
+        this.catalog = intents.stream()
+                .map(i -> String.format("- %s: %s (exemplos: %s)",
+                        i.getName(),
+                        i.getDescription() != null ? i.getDescription() : "",
+                        String.join(", ", i.getTrainingPhrases() != null ? i.getTrainingPhrases() : List.of())))
+                .collect(Collectors.joining("\n"));
+        Map<String, ActionType> types = new HashMap<>();
+        for (AiIntent intent : intents) {
+            if (intent.getActionType() != null) {
+                types.put(intent.getName(), intent.getActionType());
+            }
+        }
+        this.actionTypes = Map.copyOf(types);
+    }
+
+    /**
+     * Intent list for the LLM classification prompt.
+     */
+    String catalog() {
+        return catalog;
+    }
+
+    ActionType actionTypeOf(String intent) {
+        return actionTypes.getOrDefault(intent, ActionType.INFORMATION);
+    }
+
+    /**
+     * Whether the message confirms a previously proposed action.
+     */
+    static boolean confirms(String message) {
+        return !CONFIRMATION.findAll(fold(message)).isEmpty();
+    }
+
+    /**
+     * Best matching intent of the message, or null when no keyword matched.
+     */
+    Match match(String message) {
+        String folded = fold(message);
+        List<KeywordAutomaton.Match<Term>> hits = automaton.findAll(folded);
+        if (hits.isEmpty()) {
+            return null;
+        }
+
+        Map<Integer, Set<String>> ruleKeywords = new HashMap<>();
+        Map<Integer, Integer> entityHits = new HashMap<>();
+        for (KeywordAutomaton.Match<Term> hit : hits) {
+            Term term = hit.payload();
+            if (term.entityTerm() < 0) {
+                ruleKeywords.computeIfAbsent(term.rule(), k -> new HashSet<>()).add(hit.keyword());
+            } else {
+                entityHits.merge(term.entityTerm(), 1, Integer::sum);
+            }
+        }
+        if (ruleKeywords.isEmpty()) {
+            return null;
+        }
+
+        int best = -1;
+        double bestScore = 0;
+        int bestLength = 0;
+        List<Map.Entry<String, Double>> scores = new ArrayList<>();
+        for (Map.Entry<Integer, Set<String>> entry : ruleKeywords.entrySet()) {
+            int r = entry.getKey();
+            Set<String> matched = entry.getValue();
+            int longest = 0;
+            boolean phrase = false;
+            for (String keyword : matched) {
+                longest = Math.max(longest, keyword.length());
+                phrase |= keyword.indexOf(' ') >= 0;
+            }
+            double score = rules.get(r).confidence()
+                    + (phrase ? PHRASE_BONUS : 0)
+                    + EXTRA_KEYWORD_BONUS * Math.min(matched.size() - 1, MAX_EXTRA_KEYWORDS);
+            // Rounded so equal scores tie exactly and fall through to the keyword length
+            score = Math.round(Math.min(score, MAX_CONFIDENCE) * 100) / 100.0;
+            scores.add(Map.entry(rules.get(r).intent(), score));
+
+            boolean better = score > bestScore
+                    || (score == bestScore && longest > bestLength)
+                    || (score == bestScore && longest == bestLength && r < best);
+            if (best < 0 || better) {
+                best = r;
+                bestScore = score;
+                bestLength = longest;
+            }
+        }
+
+        scores.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        Map<String, Double> ordered = new LinkedHashMap<>();
+        scores.forEach(e -> ordered.put(e.getKey(), e.getValue()));
+
+        Rule rule = rules.get(best);
+        return new Match(rule.intent(), bestScore, rule.actionType(),
+                extractEntities(rule.extractor(), message, entityHits.keySet()), ordered);
+    }
+
+    // ==================== Entities ====================
+
+    private Map<String, Object> extractEntities(Extractor extractor, String message, Set<Integer> entityTerms) {
+        Map<String, Object> entities = new HashMap<>();
+        for (int t = 0; t < ENTITY_TERMS.size(); t++) {
+            EntityTerm term = ENTITY_TERMS.get(t);
+            if (term.extractor() == extractor && entityTerms.contains(t)) {
+                entities.putIfAbsent(term.entity(), term.value());
+            }
+        }
+
+        switch (extractor) {
+            case VACATION -> {
+                Matcher days = DAYS.matcher(message);
+                if (days.find()) {
+                    entities.put("days", Integer.parseInt(days.group(1)));
+                }
+                Matcher salary = SALARY.matcher(message);
+                if (salary.find()) {
+                    String value = salary.group(1) != null ? salary.group(1) : salary.group(2);
+                    entities.put("salary", parseMoneyValue(value));
+                }
+            }
+            case TERMINATION -> {
+                Matcher tenure = TENURE.matcher(message);
+                if (tenure.find()) {
+                    int value = Integer.parseInt(tenure.group(1));
+                    entities.put("tenureMonths", tenure.group(2).toLowerCase().startsWith("ano") ? value * 12 : value);
+                }
+            }
+            case ACTION -> {
+                Matcher name = EMPLOYEE_NAME.matcher(message);
+                if (name.find()) {
+                    entities.put("employeeName", name.group(1));
+                }
+            }
+            case POLICY_TOPIC, LAW_TOPIC -> entities.putIfAbsent("topic", "general");
+            default -> { }
+        }
+        return entities;
+    }
+
+    private static double parseMoneyValue(String value) {
+        return Double.parseDouble(value.replace(".", "").replace(",", "."));
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Lowercase, accent-free text with single spaces; keywords and messages are folded alike.
+     */
+    static String fold(String text) {
+        String folded = Normalizer.normalize(text == null ? "" : text, Normalizer.Form.NFKD);
+        folded = DIACRITICS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private static <T> Map<String, List<T>> keywordMap(List<String> keywords, T payload) {
+        Map<String, List<T>> map = new HashMap<>();
+        for (String keyword : keywords) {
+            map.put(fold(keyword), List.of(payload));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,143 @@
+package com.axonrh.ai.service;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over a fixed keyword set, finding every keyword occurrence in one pass.
+ *
+ * <p>Keywords and scanned text are expected to be folded the same way by the caller. A match
+ * must start at a word start; keywords up to {@code wholeWordMaxLength} characters must also end
+ * at a word end, so short keywords such as "lei" or "ti" do not fire inside "leitura" or
+ * "atividade" while longer stems still match their plurals.</p>
+ *
+ * @param <T> payload attached to each keyword
+ */
+final class KeywordAutomaton<T> {
+
+    record Match<T>(String keyword, T payload, int start, int end) {}
+
+    private final int wholeWordMaxLength;
+    /** Sorted transition labels and targets per state. */
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    /** Nearest state on the failure chain that ends a keyword, or -1. */
+    private final int[] outputLink;
+    private final String[] keywords;
+    private final List<List<T>> payloads;
+
+    KeywordAutomaton(Map<String, List<T>> source, int wholeWordMaxLength) {
+        this.wholeWordMaxLength = wholeWordMaxLength;
+
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<String> ends = new ArrayList<>();
+        List<List<T>> values = new ArrayList<>();
+        children.add(new HashMap<>());
+        ends.add(null);
+        values.add(List.of());
+
+        source.forEach((keyword, payload) -> {
+            if (keyword.isEmpty()) {
+                return;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = children.get(state).get(keyword.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(keyword.charAt(i), next);
+                    children.add(new HashMap<>());
+                    ends.add(null);
+                    values.add(List.of());
+                }
+                state = next;
+            }
+            ends.set(state, keyword);
+            List<T> merged = new ArrayList<>(values.get(state));
+            merged.addAll(payload);
+            values.set(state, List.copyOf(merged));
+        });
+
+        int size = children.size();
+        this.fail = new int[size];
+        this.outputLink = new int[size];
+        outputLink[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : children.get(0).values()) {
+            outputLink[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : children.get(state).entrySet()) {
+                int target = edge.getValue();
+                int f = fail[state];
+                while (f != 0 && !children.get(f).containsKey(edge.getKey())) {
+                    f = fail[f];
+                }
+                Integer suffix = children.get(f).get(edge.getKey());
+                fail[target] = suffix != null && suffix != target ? suffix : 0;
+                outputLink[target] = ends.get(fail[target]) != null ? fail[target] : outputLink[fail[target]];
+                queue.add(target);
+            }
+        }
+
+        this.labels = new char[size][];
+        this.targets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> sorted = new TreeMap<>(children.get(state));
+            labels[state] = new char[sorted.size()];
+            targets[state] = new int[sorted.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : sorted.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i++] = edge.getValue();
+            }
+        }
+        this.keywords = ends.toArray(String[]::new);
+        this.payloads = values;
+    }
+
+    /**
+     * Every keyword occurrence in the text, in order of their end position.
+     */
+    List<Match<T>> findAll(String text) {
+        List<Match<T>> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = child(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int s = keywords[state] != null ? state : outputLink[state]; s > 0; s = outputLink[s]) {
+                int end = i + 1;
+                int start = end - keywords[s].length();
+                if (accepts(text, start, end)) {
+                    for (T payload : payloads.get(s)) {
+                        matches.add(new Match<>(keywords[s], payload, start, end));
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private int child(int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private boolean accepts(String text, int start, int end) {
+        if (start > 0 && isWordChar(text.charAt(start - 1))) {
+            return false;
+        }
+        return end - start > wholeWordMaxLength || end == text.length() || !isWordChar(text.charAt(end));
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+}
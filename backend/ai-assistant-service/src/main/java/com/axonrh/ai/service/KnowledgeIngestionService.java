@@ -0,0 +1,451 @@
+package com.axonrh.ai.service;
+
+import com.axonrh.ai.config.TenantFairExecutor;
+import com.axonrh.ai.entity.KnowledgeChunk;
+import com.axonrh.ai.entity.KnowledgeDocument;
+import com.axonrh.ai.entity.KnowledgeDocument.IngestionStatus;
+import com.axonrh.ai.repository.KnowledgeChunkRepository;
+import com.axonrh.ai.repository.KnowledgeDocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Streaming ingestion of knowledge documents.
+ *
+ * <p>Uploads are spooled to a staging file (hashed while copied) and ingested in the background:
+ * text is extracted page by page, cut by a {@link StreamingChunker}, and embedded and stored in
+ * batches while the next batch is being extracted. Memory is bounded by the batch size, not by
+ * the document size.</p>
+ *
+ * <p>Progress ({@code chunksIndexed}) is committed on the document after each stored batch.
+ * Chunk ids are derived from the document and chunk index, so an interrupted ingestion is resumed
+ * from its staged file by re-extracting and skipping the stored chunks, without embedding them
+ * again. The document joins the search index once all chunks are stored.</p>
+ */
+@Slf4j
+@Service
+public class KnowledgeIngestionService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int CHUNK_OVERLAP = 100;
+    /** Extracted text handed to the chunker at page ends, or at this size for unpaged formats. */
+    private static final int SEGMENT_CHARS = 64 * 1024;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final KnowledgeDocumentRepository documentRepository;
+    private final KnowledgeChunkRepository chunkRepository;
+    private final LlmService llmService;
+    private final KnowledgeVectorIndex vectorIndex;
+    private final TenantFairExecutor documentExecutor;
+    private final TenantFairExecutor embeddingExecutor;
+
+    /** Documents queued or running on this instance. */
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+
+    @Value("${ai.knowledge.ingestion.directory:${java.io.tmpdir}/axonrh-knowledge-uploads}")
+    private String directory;
+
+    @Value("${ai.knowledge.ingestion.batch-size:32}")
+    private int batchSize;
+
+    public KnowledgeIngestionService(KnowledgeDocumentRepository documentRepository,
+                                     KnowledgeChunkRepository chunkRepository,
+                                     LlmService llmService,
+                                     KnowledgeVectorIndex vectorIndex,
+                                     @Qualifier("documentExecutor") TenantFairExecutor documentExecutor,
+                                     @Qualifier("embeddingExecutor") TenantFairExecutor embeddingExecutor) {
+        this.documentRepository = documentRepository;
+        this.chunkRepository = chunkRepository;
+        this.llmService = llmService;
+        this.vectorIndex = vectorIndex;
+        this.documentExecutor = documentExecutor;
+        this.embeddingExecutor = embeddingExecutor;
+    }
+
+    /**
+     * An upload copied to local disk, with the SHA-256 of its bytes.
+     */
+    public record StagedUpload(Path file, String contentHash) {}
+
+    // ==================== Staging ====================
+
+    /**
+     * Copies the upload to a temporary staging file, hashing it on the way.
+     */
+    public StagedUpload stage(MultipartFile file) throws IOException {
+        Path dir = Path.of(directory);
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "upload-", ".tmp");
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new StagedUpload(temp, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Binds the staged upload to the document and queues its ingestion.
+     *
+     * <p>When the queue is full the document stays {@code PENDING} and is picked up by the next
+     * resume sweep.</p>
+     */
+    public void submit(KnowledgeDocument document, StagedUpload upload) throws IOException {
+        Files.move(upload.file(), stagedPath(document.getId()), StandardCopyOption.REPLACE_EXISTING);
+        schedule(document.getTenantId(), document.getId());
+    }
+
+    public void discard(StagedUpload upload) {
+        try {
+            Files.deleteIfExists(upload.file());
+        } catch (IOException e) {
+            log.warn("Failed to delete staged upload {}: {}", upload.file(), e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the staged upload of a removed document. An ingestion already running notices the
+     * removal at its next progress update.
+     */
+    public void discard(UUID documentId) {
+        deleteStaged(stagedPath(documentId));
+    }
+
+    private boolean schedule(UUID tenantId, UUID documentId) {
+        if (!scheduled.add(documentId)) {
+            return true;
+        }
+        try {
+            documentExecutor.execute(tenantId, () -> {
+                try {
+                    ingest(documentId);
+                } finally {
+                    scheduled.remove(documentId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            scheduled.remove(documentId);
+            log.info("Ingestion queue full, document {} will be resumed later", documentId);
+            return false;
+        }
+    }
+
+    // ==================== Resume ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        resumePending();
+    }
+
+    /**
+     * Re-queues pending and interrupted documents whose staged upload is on this instance.
+     */
+    @Scheduled(fixedDelayString = "${ai.knowledge.ingestion.resume-interval-ms:60000}",
+               initialDelayString = "${ai.knowledge.ingestion.resume-interval-ms:60000}")
+    public void resumePending() {
+        List<KnowledgeDocument> pending;
+        try {
+            pending = documentRepository.findByIngestionStatusIn(
+                    List.of(IngestionStatus.PENDING, IngestionStatus.PROCESSING));
+        } catch (Exception e) {
+            log.warn("Failed to list pending knowledge documents: {}", e.getMessage());
+            return;
+        }
+        for (KnowledgeDocument document : pending) {
+            if (Boolean.TRUE.equals(document.getIsActive()) && !scheduled.contains(document.getId())
+                    && Files.exists(stagedPath(document.getId()))) {
+                if (!schedule(document.getTenantId(), document.getId())) {
+                    return;
+                }
+                log.info("Resuming ingestion of document {} from chunk {}", document.getId(), document.getChunksIndexed());
+            }
+        }
+    }
+
+    // ==================== Ingestion ====================
+
+    private void ingest(UUID documentId) {
+        KnowledgeDocument document = documentRepository.findById(documentId).orElse(null);
+        Path staged = stagedPath(documentId);
+        if (document == null || !Boolean.TRUE.equals(document.getIsActive())) {
+            deleteStaged(staged);
+            return;
+        }
+        if (!Files.exists(staged)) {
+            documentRepository.markFailed(documentId, "Arquivo enviado não está mais disponível. Envie o documento novamente.", Instant.now());
+            return;
+        }
+        if (documentRepository.markProcessing(documentId, Instant.now()) == 0) {
+            return; // Deleted meanwhile
+        }
+
+        int resumeFrom = document.getChunksIndexed() != null ? document.getChunksIndexed() : 0;
+        long started = System.currentTimeMillis();
+        log.info("Starting ingestion of document {} ({}) from chunk {}", document.getTitle(), documentId, resumeFrom);
+        try {
+            BatchWriter writer = new BatchWriter(document, resumeFrom);
+            StreamingChunker chunker = new StreamingChunker(CHUNK_SIZE, CHUNK_OVERLAP, writer::accept);
+            extract(staged, document, chunker::accept);
+            chunker.finish();
+            int chunkCount = writer.finish();
+
+            // Chunks beyond the end are left from an earlier, different extraction of this document
+            chunkRepository.deleteByDocumentIdAndChunkIndexGreaterThanEqual(documentId, chunkCount);
+            if (documentRepository.markIndexed(documentId, chunkCount, Instant.now()) == 0) {
+                throw new DocumentRemovedException();
+            }
+            vectorIndex.addDocument(document.getTenantId(), documentId);
+            deleteStaged(staged);
+            log.info("Ingested document {} with {} chunks in {} ms",
+                    documentId, chunkCount, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            if (isRemoved(e)) {
+                log.info("Document {} was removed during ingestion, discarding its chunks", documentId);
+                chunkRepository.deleteByDocumentId(documentId);
+                deleteStaged(staged);
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to ingest document {}: {}", documentId, cause.getMessage(), cause);
+            String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            documentRepository.markFailed(documentId,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                    Instant.now());
+            // A failed document is never resumed; it has to be uploaded again
+            deleteStaged(staged);
+        }
+    }
+
+    /**
+     * Streams the text of the staged file to the sink, one page (or segment) at a time.
+     * Files Tika cannot parse are read as UTF-8 text, as long as nothing was extracted yet.
+     */
+    private void extract(Path staged, KnowledgeDocument document, Consumer<String> sink) throws Exception {
+        PagedTextHandler handler = new PagedTextHandler(sink);
+        try (InputStream in = Files.newInputStream(staged)) {
+            Metadata metadata = new Metadata();
+            if (document.getMimeType() != null) {
+                metadata.set(Metadata.CONTENT_TYPE, document.getMimeType());
+            }
+            new AutoDetectParser().parse(in, new BodyContentHandler(handler), metadata, new ParseContext());
+            handler.flush();
+        } catch (Exception e) {
+            if (handler.emitted || isRemoved(e)) {
+                throw e;
+            }
+            log.warn("Tika could not parse {}, reading it as text: {}", document.getFilePath(), e.getMessage());
+            try (BufferedReader reader = Files.newBufferedReader(staged, StandardCharsets.UTF_8)) {
+                char[] buffer = new char[SEGMENT_CHARS];
+                int read;
+                while ((read = reader.read(buffer)) > 0) {
+                    sink.accept(new String(buffer, 0, read));
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects chunks into batches; each batch is embedded and stored on the embedding bulkhead
+     * while the next one is extracted. At most one batch is in flight.
+     */
+    private final class BatchWriter {
+        private final KnowledgeDocument document;
+        private final int resumeFrom;
+
+        private int nextIndex;
+        private List<String> batch = new ArrayList<>();
+        private int batchStart;
+        private CompletableFuture<Void> inFlight;
+        private int inFlightEnd;
+
+        BatchWriter(KnowledgeDocument document, int resumeFrom) {
+            this.document = document;
+            this.resumeFrom = resumeFrom;
+        }
+
+        void accept(String chunk) {
+            int index = nextIndex++;
+            if (index < resumeFrom) {
+                return; // Stored by an earlier attempt
+            }
+            if (batch.isEmpty()) {
+                batchStart = index;
+            }
+            batch.add(chunk);
+            if (batch.size() >= batchSize) {
+                submit();
+            }
+        }
+
+        /**
+         * Stores the last batch and returns the total number of chunks.
+         */
+        int finish() {
+            if (!batch.isEmpty()) {
+                submit();
+            }
+            awaitInFlight();
+            return nextIndex;
+        }
+
+        private void submit() {
+            awaitInFlight();
+            List<String> texts = batch;
+            int start = batchStart;
+            batch = new ArrayList<>(batchSize);
+            inFlightEnd = start + texts.size();
+            try {
+                inFlight = embeddingExecutor.submit(document.getTenantId(), () -> {
+                    store(texts, start);
+                    return null;
+                });
+            } catch (TaskRejectedException e) {
+                // Embedding bulkhead saturated: store inline on the ingestion thread
+                store(texts, start);
+                inFlight = CompletableFuture.completedFuture(null);
+            }
+        }
+
+        private void awaitInFlight() {
+            if (inFlight == null) {
+                return;
+            }
+            inFlight.join();
+            inFlight = null;
+            if (documentRepository.updateProgress(document.getId(), inFlightEnd, Instant.now()) == 0) {
+                throw new DocumentRemovedException();
+            }
+        }
+
+        private void store(List<String> texts, int start) {
+            List<List<Float>> embeddings = llmService.generateEmbeddings(texts);
+            List<KnowledgeChunk> chunks = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                chunks.add(KnowledgeChunk.builder()
+                        .id(document.getId() + ":" + (start + i))
+                        .tenantId(document.getTenantId())
+                        .documentId(document.getId())
+                        .documentTitle(document.getTitle())
+                        .content(texts.get(i))
+                        .chunkIndex(start + i)
+                        .embedding(embeddings.get(i))
+                        .build());
+            }
+            // save (upsert by id) keeps a resumed batch idempotent
+            chunkRepository.saveAll(chunks);
+        }
+    }
+
+    /**
+     * Receives the document body as SAX events and hands text to the sink at page ends
+     * (Tika wraps each PDF page in a {@code div}) or whenever a segment fills up.
+     */
+    private static final class PagedTextHandler extends DefaultHandler {
+        private final Consumer<String> sink;
+        private final StringBuilder buffer = new StringBuilder();
+        boolean emitted;
+
+        PagedTextHandler(Consumer<String> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            buffer.append(ch, start, length);
+            if (buffer.length() >= SEGMENT_CHARS) {
+                flush();
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            characters(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if ("div".equals(localName)) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (buffer.length() > 0) {
+                emitted = true;
+                sink.accept(buffer.toString());
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    /** Thrown when the document is deleted while it is being ingested. */
+    private static final class DocumentRemovedException extends RuntimeException {
+        DocumentRemovedException() {
+            super("Document removed during ingestion", null, false, false);
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    /** Parsers may wrap exceptions thrown by the content handler. */
+    private static boolean isRemoved(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DocumentRemovedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path stagedPath(UUID documentId) {
+        return Path.of(directory, documentId + ".upload");
+    }
+
+    private void deleteStaged(Path staged) {
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Failed to delete staged upload {}: {}", staged, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
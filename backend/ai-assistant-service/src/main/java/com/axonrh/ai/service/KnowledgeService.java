@@ -7,20 +7,12 @@ import com.axonrh.ai.repository.KnowledgeDocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import org.apache.tika.Tika;
-import java.io.InputStream;
 
 @Slf4j
 @Service
@@ -30,28 +22,45 @@ public class KnowledgeService {
     private final KnowledgeDocumentRepository documentRepository;
     private final KnowledgeChunkRepository chunkRepository;
     private final LlmService llmService;
+    private final KnowledgeVectorIndex vectorIndex;
+    private final KnowledgeIngestionService ingestionService;
+
+    private static final float MIN_SIMILARITY = 0.45f;
 
     @Value("${ai.embeddings.dimensions:1536}")
     private int embeddingDimensions;
 
+    /**
+     * Stores the upload and queues its ingestion; the returned document is {@code PENDING}
+     * until all of its chunks are embedded.
+     */
     public KnowledgeDocument uploadDocument(UUID tenantId, UUID userId, MultipartFile file,
                                              KnowledgeDocument.DocumentType type, String title, String description) {
+        KnowledgeIngestionService.StagedUpload upload = null;
         try {
-            String content = extractContent(file);
-            String contentHash = hashContent(content);
+            upload = ingestionService.stage(file);
 
             // Check for duplicate
-            Optional<KnowledgeDocument> existing = documentRepository.findByTenantIdAndContentHash(tenantId, contentHash);
+            Optional<KnowledgeDocument> existing = documentRepository.findByTenantIdAndContentHash(tenantId, upload.contentHash());
             if (existing.isPresent()) {
                 KnowledgeDocument doc = existing.get();
-                if (!Boolean.TRUE.equals(doc.getIsIndexed()) || !Boolean.TRUE.equals(doc.getIsActive())) {
-                    log.info("Document exists but is either not indexed or inactive. Activating and indexing: {}", doc.getId());
-                    doc.setIsActive(true);
-                    documentRepository.save(doc);
-                    indexDocumentAsync(doc, content);
-                } else {
+                if (Boolean.TRUE.equals(doc.getIsIndexed()) && Boolean.TRUE.equals(doc.getIsActive())) {
                     log.info("Document already exists and is already indexed: {}", doc.getId());
+                    ingestionService.discard(upload);
+                    return doc;
+                }
+                if (!Boolean.TRUE.equals(doc.getIsActive())) {
+                    // Chunks were deleted with the document, start over
+                    doc.setIsActive(true);
+                    doc.setIsIndexed(false);
+                    doc.setChunksIndexed(0);
                 }
+                log.info("Document exists but is either not indexed or inactive. Resuming ingestion: {} from chunk {}",
+                        doc.getId(), doc.getChunksIndexed());
+                doc.setIngestionStatus(KnowledgeDocument.IngestionStatus.PENDING);
+                doc.setIngestionError(null);
+                doc = documentRepository.save(doc);
+                submit(doc, upload);
                 return doc;
             }
 
@@ -63,7 +72,7 @@ public class KnowledgeService {
                     .filePath(file.getOriginalFilename())
                     .fileSize(file.getSize())
                     .mimeType(file.getContentType())
-                    .contentHash(contentHash)
+                    .contentHash(upload.contentHash())
                     .isIndexed(false)
                     .isActive(true)
                     .createdBy(userId)
@@ -71,56 +80,31 @@ public class KnowledgeService {
 
             document = documentRepository.save(document);
 
-            // Index asynchronously
-            indexDocumentAsync(document, content);
+            // Extract, chunk and embed in the background
+            submit(document, upload);
 
             return document;
         } catch (Exception e) {
+            if (upload != null) {
+                ingestionService.discard(upload);
+            }
             log.error("Failed to upload document: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to upload document", e);
         }
     }
 
-    @Async("embeddingExecutor")
-    public void indexDocumentAsync(KnowledgeDocument document, String content) {
+    /**
+     * Hands the staged upload to the ingestion service; a document that could not be handed over
+     * is marked {@code FAILED} so it is not left {@code PENDING} without a staged file.
+     */
+    private void submit(KnowledgeDocument document, KnowledgeIngestionService.StagedUpload upload) throws IOException {
         try {
-            log.info("Starting indexing for document: {} ({})", document.getTitle(), document.getId());
-
-            List<String> textChunks = chunkContent(content, 1000, 100);
-            List<KnowledgeChunk> knowledgeChunks = new ArrayList<>();
-
-            // Generate embeddings in batches to stay within limits
-            int batchSize = 10;
-            for (int i = 0; i < textChunks.size(); i += batchSize) {
-                int end = Math.min(i + batchSize, textChunks.size());
-                List<String> batch = textChunks.subList(i, end);
-                List<List<Float>> embeddings = llmService.generateEmbeddings(batch);
-
-                for (int j = 0; j < batch.size(); j++) {
-                    KnowledgeChunk chunk = KnowledgeChunk.builder()
-                            .tenantId(document.getTenantId())
-                            .documentId(document.getId())
-                            .documentTitle(document.getTitle())
-                            .content(batch.get(j))
-                            .chunkIndex(i + j)
-                            .embedding(embeddings.get(j))
-                            .build();
-                    knowledgeChunks.add(chunk);
-                }
-            }
-
-            // Persistence in MongoDB
-            chunkRepository.saveAll(knowledgeChunks);
-
-            // Update document status
-            document.setChunkCount(textChunks.size());
-            document.setIsIndexed(true);
-            document.setIndexedAt(Instant.now());
-            documentRepository.save(document);
-
-            log.info("Successfully indexed document {} with {} chunks", document.getId(), textChunks.size());
-        } catch (Exception e) {
-            log.error("Failed to index document {}: {}", document.getId(), e.getMessage(), e);
+            ingestionService.submit(document, upload);
+        } catch (IOException | RuntimeException e) {
+            ingestionService.discard(document.getId());
+            documentRepository.markFailed(document.getId(),
+                    "Não foi possível armazenar o arquivo enviado. Envie o documento novamente.", Instant.now());
+            throw e;
         }
     }
 
@@ -128,6 +112,7 @@ public class KnowledgeService {
         try {
             log.info("Deleting chunks for document: {}", documentId);
             chunkRepository.deleteByDocumentId(documentId);
+            vectorIndex.removeDocument(documentId);
         } catch (Exception e) {
             log.error("Failed to delete chunks for document {}: {}", documentId, e.getMessage());
         }
@@ -135,38 +120,35 @@ public class KnowledgeService {
 
     public List<SearchResult> search(String query, UUID tenantId, int topK) {
         try {
-            log.debug("Performing memory-efficient knowledge search for tenant {}: {}", tenantId, query);
+            log.debug("Performing ANN knowledge search for tenant {}: {}", tenantId, query);
             List<Float> queryEmbedding = llmService.generateEmbedding(query);
-            
-            List<SearchResult> allResults;
-            try (java.util.stream.Stream<KnowledgeChunk> chunkStream = chunkRepository.streamByTenantIdWithoutContent(tenantId)) {
-                allResults = chunkStream
-                        .map(chunk -> {
-                            float similarity = cosineSimilarity(queryEmbedding, chunk.getEmbedding());
-                            if (similarity < 0.45) return null;
-                            
-                            return SearchResult.builder()
-                                    .id(chunk.getId())
-                                    .documentId(chunk.getDocumentId())
-                                    .documentTitle(chunk.getDocumentTitle())
-                                    .chunkIndex(chunk.getChunkIndex())
-                                    .similarity(similarity)
-                                    .build();
-                        })
-                        .filter(Objects::nonNull)
-                        .sorted(Comparator.comparing(SearchResult::getSimilarity).reversed())
-                        .limit(topK)
-                        .collect(Collectors.toList());
-            }
 
-            // Busca o texto apenas para os TOP resultados selecionados
-            for (SearchResult res : allResults) {
-                chunkRepository.findById(res.getId()).ifPresent(chunk -> {
-                    res.setContent(chunk.getContent());
-                });
+            List<HnswIndex.Hit> hits = vectorIndex.search(tenantId, queryEmbedding, topK, MIN_SIMILARITY);
+            if (hits.isEmpty()) {
+                return List.of();
             }
 
-            return allResults;
+            // Busca o texto dos TOP resultados em uma unica consulta
+            Map<String, KnowledgeChunk> chunks = new HashMap<>();
+            chunkRepository.findAllById(hits.stream().map(HnswIndex.Hit::chunkId).toList())
+                    .forEach(chunk -> chunks.put(chunk.getId(), chunk));
+
+            List<SearchResult> results = new ArrayList<>(hits.size());
+            for (HnswIndex.Hit hit : hits) {
+                KnowledgeChunk chunk = chunks.get(hit.chunkId());
+                if (chunk == null) {
+                    continue; // Removed after the index snapshot
+                }
+                results.add(SearchResult.builder()
+                        .id(chunk.getId())
+                        .documentId(chunk.getDocumentId())
+                        .documentTitle(chunk.getDocumentTitle())
+                        .chunkIndex(chunk.getChunkIndex())
+                        .content(chunk.getContent())
+                        .similarity(hit.similarity())
+                        .build());
+            }
+            return results;
         } catch (Exception e) {
             log.error("Search failed: {}", e.getMessage(), e);
             return List.of();
@@ -193,87 +175,6 @@ public class KnowledgeService {
         return context.toString();
     }
 
-    private final Tika tika = new Tika();
-
-    private String extractContent(MultipartFile file) throws Exception {
-        log.info("Extracting content from file: {} (Type: {})", file.getOriginalFilename(), file.getContentType());
-        
-        try (InputStream stream = file.getInputStream()) {
-            String content = tika.parseToString(stream);
-            if (content == null || content.isBlank()) {
-                log.warn("Extracted content is empty for file: {}", file.getOriginalFilename());
-                return "";
-            }
-            log.info("Successfully extracted {} characters from {}", content.length(), file.getOriginalFilename());
-            return content;
-        } catch (Exception e) {
-            log.error("Failed to extract content with Tika from {}: {}", file.getOriginalFilename(), e.getMessage());
-            // Fallback for simple text files if Tika fails
-            return new String(file.getBytes(), StandardCharsets.UTF_8);
-        }
-    }
-
-    private List<String> chunkContent(String content, int chunkSize, int overlap) {
-        List<String> chunks = new ArrayList<>();
-        if (content == null || content.isBlank()) return chunks;
-
-        // Split by double newline (paragraphs) first, then by sentence
-        String[] paragraphs = content.split("\n\n");
-        StringBuilder currentChunk = new StringBuilder();
-        
-        for (String p : paragraphs) {
-            if (currentChunk.length() + p.length() > chunkSize && currentChunk.length() > 0) {
-                chunks.add(currentChunk.toString().trim());
-                
-                // Keep some overlap from the end of current chunk
-                int overlapStart = Math.max(0, currentChunk.length() - overlap);
-                String overlapText = currentChunk.substring(overlapStart);
-                currentChunk = new StringBuilder(overlapText);
-            }
-            currentChunk.append(p).append("\n\n");
-        }
-        
-        if (currentChunk.length() > 0) {
-            chunks.add(currentChunk.toString().trim());
-        }
-
-        return chunks;
-    }
-
-    private String hashContent(String content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            return UUID.randomUUID().toString();
-        }
-    }
-
-    private float cosineSimilarity(List<Float> a, List<Float> b) {
-        if (a == null || b == null || a.size() != b.size()) return 0;
-
-        float dotProduct = 0;
-        float normA = 0;
-        float normB = 0;
-
-        for (int i = 0; i < a.size(); i++) {
-            dotProduct += a.get(i) * b.get(i);
-            normA += a.get(i) * a.get(i);
-            normB += b.get(i) * b.get(i);
-        }
-
-        if (normA == 0 || normB == 0) return 0;
-
-        return (float) (dotProduct / (Math.sqrt(normA) * Math.sqrt(normB)));
-    }
-
     @lombok.Data
     @lombok.Builder
     @lombok.NoArgsConstructor
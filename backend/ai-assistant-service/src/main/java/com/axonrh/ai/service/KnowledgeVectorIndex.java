@@ -0,0 +1,297 @@
+package com.axonrh.ai.service;
+
+import com.axonrh.ai.entity.KnowledgeChunk;
+import com.axonrh.ai.entity.KnowledgeDocument;
+import com.axonrh.ai.repository.KnowledgeChunkRepository;
+import com.axonrh.ai.repository.KnowledgeDocumentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant ANN index of knowledge chunk embeddings.
+ *
+ * <p>A tenant index is loaded on first use from its on-disk snapshot, or built by streaming the
+ * tenant's chunks (without content) from MongoDB. It is then kept current incrementally:
+ * a document's chunks are added once its ingestion completes and tombstoned when it is deleted.
+ * Changes made by other replicas are picked up through the documents' {@code updatedAt}
+ * watermark, checked at most once per refresh interval. Dirty indexes are flushed to disk
+ * in the background so restarts only replay the delta.</p>
+ *
+ * <p>Loading runs on the first searching thread outside the tenant map; concurrent searches of
+ * the same tenant wait on its future, other tenants are not blocked.</p>
+ */
+@Slf4j
+@Component
+public class KnowledgeVectorIndex {
+
+    private final KnowledgeChunkRepository chunkRepository;
+    private final KnowledgeDocumentRepository documentRepository;
+    private final Map<UUID, CompletableFuture<TenantIndex>> tenants = new ConcurrentHashMap<>();
+
+    @Value("${ai.embeddings.dimensions:1536}")
+    private int dimensions;
+
+    @Value("${ai.knowledge.index.m:16}")
+    private int m;
+
+    @Value("${ai.knowledge.index.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${ai.knowledge.index.ef-search:64}")
+    private int efSearch;
+
+    @Value("${ai.knowledge.index.quantized:false}")
+    private boolean quantized;
+
+    @Value("${ai.knowledge.index.directory:${java.io.tmpdir}/axonrh-knowledge-index}")
+    private String directory;
+
+    @Value("${ai.knowledge.index.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    public KnowledgeVectorIndex(KnowledgeChunkRepository chunkRepository,
+                                KnowledgeDocumentRepository documentRepository) {
+        this.chunkRepository = chunkRepository;
+        this.documentRepository = documentRepository;
+    }
+
+    /**
+     * Mutations synchronize on the instance, so compaction never drops a concurrent insert.
+     */
+    private static final class TenantIndex {
+        volatile HnswIndex index;
+        /** Latest document {@code updatedAt} already reflected in the index. */
+        volatile Instant watermark;
+        volatile long checkedAt;
+        volatile boolean dirty;
+    }
+
+    /**
+     * Top-k chunk ids of the tenant by cosine similarity to the query embedding.
+     */
+    public List<HnswIndex.Hit> search(UUID tenantId, List<Float> queryEmbedding, int topK, float minSimilarity) {
+        TenantIndex tenant = tenantIndex(tenantId);
+        refresh(tenantId, tenant);
+        return tenant.index.search(toArray(queryEmbedding), topK, Math.max(efSearch, topK), minSimilarity);
+    }
+
+    /**
+     * Adds a fully ingested document, streaming its chunks (without content) from MongoDB.
+     */
+    public void addDocument(UUID tenantId, UUID documentId) {
+        TenantIndex tenant = loaded(tenants.get(tenantId));
+        if (tenant == null) {
+            return; // Built from MongoDB on first search; a load in progress picks it up on refresh
+        }
+        synchronized (tenant) {
+            if (tenant.index.containsDocument(documentId)) {
+                return;
+            }
+            try (Stream<KnowledgeChunk> chunks = chunkRepository.streamByDocumentIdWithoutContent(documentId)) {
+                chunks.forEach(chunk -> tenant.index.add(chunk.getId(), chunk.getDocumentId(), toArray(chunk.getEmbedding())));
+            }
+            tenant.dirty = true;
+        }
+    }
+
+    /**
+     * Removes every chunk of the document from the loaded tenant indexes.
+     */
+    public void removeDocument(UUID documentId) {
+        for (CompletableFuture<TenantIndex> loading : tenants.values()) {
+            TenantIndex tenant = loaded(loading);
+            if (tenant == null) {
+                continue;
+            }
+            synchronized (tenant) {
+                if (tenant.index.removeDocument(documentId) > 0) {
+                    compactIfNeeded(tenant);
+                    tenant.dirty = true;
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.knowledge.index.flush-interval-ms:30000}")
+    public void flush() {
+        tenants.forEach((tenantId, loading) -> {
+            TenantIndex tenant = loaded(loading);
+            if (tenant != null && tenant.dirty) {
+                tenant.dirty = false;
+                persist(tenantId, tenant);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    // ==================== Loading and sync ====================
+
+    /**
+     * Returns the tenant index, loading it on this thread when no other thread has started to.
+     * A failed load is removed from the map so the next search retries it.
+     */
+    private TenantIndex tenantIndex(UUID tenantId) {
+        CompletableFuture<TenantIndex> loading = tenants.get(tenantId);
+        if (loading == null) {
+            CompletableFuture<TenantIndex> created = new CompletableFuture<>();
+            loading = tenants.putIfAbsent(tenantId, created);
+            if (loading == null) {
+                try {
+                    created.complete(load(tenantId));
+                } catch (RuntimeException e) {
+                    tenants.remove(tenantId, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+                loading = created;
+            }
+        }
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * The tenant index if it has finished loading, otherwise {@code null}.
+     */
+    private static TenantIndex loaded(CompletableFuture<TenantIndex> loading) {
+        if (loading == null || !loading.isDone() || loading.isCompletedExceptionally()) {
+            return null;
+        }
+        return loading.join();
+    }
+
+    private TenantIndex load(UUID tenantId) {
+        TenantIndex tenant = new TenantIndex();
+        Path file = snapshotPath(tenantId);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                Map.Entry<HnswIndex, Long> snapshot = HnswIndex.read(in);
+                if (snapshot.getKey().isCompatible(dimensions, m, quantized)) {
+                    tenant.index = snapshot.getKey();
+                    tenant.watermark = Instant.ofEpochMilli(snapshot.getValue());
+                    log.info("Loaded knowledge index for tenant {} from disk: {} chunks", tenantId, tenant.index.size());
+                    return tenant;
+                }
+                log.info("Knowledge index snapshot for tenant {} has different settings, rebuilding", tenantId);
+            } catch (IOException e) {
+                log.warn("Failed to read knowledge index snapshot for tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+        build(tenantId, tenant);
+        return tenant;
+    }
+
+    private void build(UUID tenantId, TenantIndex tenant) {
+        long started = System.currentTimeMillis();
+        // Watermark taken before streaming, so concurrent changes are replayed by the next refresh
+        Instant watermark = documentRepository.findMaxUpdatedAt(tenantId);
+        HnswIndex index = new HnswIndex(dimensions, m, efConstruction, quantized);
+        // Documents still being ingested already have some chunks stored; they join when complete
+        Set<UUID> ingesting = new HashSet<>();
+        documentRepository.findByTenantIdAndIsIndexedFalseAndIsActiveTrue(tenantId)
+                .forEach(document -> ingesting.add(document.getId()));
+        try (Stream<KnowledgeChunk> chunks = chunkRepository.streamByTenantIdWithoutContent(tenantId)) {
+            chunks.filter(chunk -> !ingesting.contains(chunk.getDocumentId()))
+                    .forEach(chunk -> index.add(chunk.getId(), chunk.getDocumentId(), toArray(chunk.getEmbedding())));
+        }
+        tenant.index = index;
+        tenant.watermark = watermark != null ? watermark : Instant.EPOCH;
+        tenant.dirty = true;
+        log.info("Built knowledge index for tenant {}: {} chunks in {} ms",
+                tenantId, index.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Applies documents changed since the watermark (indexed or deactivated on any replica).
+     */
+    private void refresh(UUID tenantId, TenantIndex tenant) {
+        long now = System.currentTimeMillis();
+        if (now - tenant.checkedAt < refreshIntervalMs) {
+            return;
+        }
+        synchronized (tenant) {
+            if (now - tenant.checkedAt < refreshIntervalMs) {
+                return;
+            }
+            List<KnowledgeDocument> changed =
+                    documentRepository.findByTenantIdAndUpdatedAtAfterOrderByUpdatedAtAsc(tenantId, tenant.watermark);
+            for (KnowledgeDocument document : changed) {
+                boolean live = Boolean.TRUE.equals(document.getIsActive()) && Boolean.TRUE.equals(document.getIsIndexed());
+                if (!live) {
+                    tenant.index.removeDocument(document.getId());
+                } else if (!tenant.index.containsDocument(document.getId())) {
+                    try (Stream<KnowledgeChunk> chunks = chunkRepository.streamByDocumentIdWithoutContent(document.getId())) {
+                        chunks.forEach(chunk -> tenant.index.add(chunk.getId(), chunk.getDocumentId(), toArray(chunk.getEmbedding())));
+                    }
+                }
+                tenant.watermark = document.getUpdatedAt();
+            }
+            if (!changed.isEmpty()) {
+                compactIfNeeded(tenant);
+                tenant.dirty = true;
+            }
+            tenant.checkedAt = now;
+        }
+    }
+
+    private void compactIfNeeded(TenantIndex tenant) {
+        if (tenant.index.needsCompaction()) {
+            tenant.index = tenant.index.compact();
+        }
+    }
+
+    private void persist(UUID tenantId, TenantIndex tenant) {
+        Path file = snapshotPath(tenantId);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), tenantId.toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                tenant.index.write(out, tenant.watermark.toEpochMilli());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tenant.dirty = true;
+            log.warn("Failed to persist knowledge index for tenant {}: {}", tenantId, e.getMessage());
+        }
+    }
+
+    private Path snapshotPath(UUID tenantId) {
+        return Path.of(directory, tenantId + ".hnsw");
+    }
+
+    private static float[] toArray(List<Float> embedding) {
+        if (embedding == null) {
+            return null;
+        }
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i);
+        }
+        return vector;
+    }
+}
@@ -5,7 +5,10 @@ import com.axonrh.ai.dto.ChatRequest;
 import com.axonrh.ai.dto.ChatResponse;
 import com.axonrh.ai.dto.StreamChunk;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.axonrh.ai.repository.EmbeddingCacheRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,6 +37,8 @@ public class LlmService {
     private final WebClient anthropicWebClient;
     private final WebClient openAiWebClient;
     private final ObjectMapper objectMapper;
+    private final EmbeddingCacheRepository embeddingCacheRepository;
+    private EmbeddingCache embeddingCache;
 
     @Value("${ai.openai.model:gpt-4-turbo-preview}")
     private String openAiModel;
@@ -52,6 +58,32 @@ public class LlmService {
     @Value("${ai.default-provider:openai}")
     private String defaultProvider;
 
+    @Value("${ai.embeddings.model:text-embedding-3-small}")
+    private String embeddingModel;
+
+    @Value("${ai.embeddings.cache.max-entries:5000}")
+    private int embeddingCacheMaxEntries;
+
+    @Value("${ai.embeddings.batch.max-size:64}")
+    private int embeddingBatchSize;
+
+    @Value("${ai.embeddings.batch.linger-ms:10}")
+    private long embeddingBatchLingerMs;
+
+    @Value("${ai.embeddings.batch.concurrency:4}")
+    private int embeddingBatchConcurrency;
+
+    @PostConstruct
+    void initEmbeddingCache() {
+        embeddingCache = new EmbeddingCache(embeddingModel, this::requestEmbeddings, embeddingCacheRepository,
+                embeddingCacheMaxEntries, embeddingBatchSize, embeddingBatchLingerMs, embeddingBatchConcurrency);
+    }
+
+    @PreDestroy
+    void shutdownEmbeddingCache() {
+        embeddingCache.shutdown();
+    }
+
     public ChatResponse chat(ChatRequest request) {
         String provider = request.getProvider() != null ? request.getProvider() : defaultProvider;
 
@@ -342,38 +374,64 @@ public class LlmService {
         if (validTexts.isEmpty()) return new ArrayList<>();
 
         try {
-            Map<String, Object> body = Map.of(
-                    "input", validTexts,
-                    "model", "text-embedding-3-small"
-            );
-
-            JsonNode response = openAiWebClient.post()
-                    .uri("/embeddings")
-                    .bodyValue(body)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
-                            .filter(this::isRetryable))
-                    .block();
-
-            List<List<Float>> embeddings = new ArrayList<>();
-            if (response != null && response.has("data")) {
-                for (JsonNode item : response.get("data")) {
-                    List<Float> vector = new ArrayList<>();
-                    if (item.has("embedding")) {
-                        for (JsonNode val : item.get("embedding")) {
-                            vector.add(val.floatValue());
-                        }
-                    }
-                    embeddings.add(vector);
+            List<List<Float>> embeddings = new ArrayList<>(validTexts.size());
+            for (float[] vector : embeddingCache.get(validTexts)) {
+                List<Float> values = new ArrayList<>(vector.length);
+                for (float value : vector) {
+                    values.add(value);
                 }
+                embeddings.add(values);
             }
             return embeddings;
 
         } catch (Exception e) {
-            log.error("Error generating embeddings: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate embeddings: " + e.getMessage(), e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Error generating embeddings: {}", cause.getMessage(), cause);
+            throw new RuntimeException("Failed to generate embeddings: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Provider call for one batch of uncached texts (see {@link EmbeddingCache}).
+     */
+    private List<float[]> requestEmbeddings(List<String> texts) {
+        Map<String, Object> body = Map.of(
+                "input", texts,
+                "model", embeddingModel
+        );
+
+        JsonNode response = openAiWebClient.post()
+                .uri("/embeddings")
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
+                        .filter(this::isRetryable))
+                .block();
+
+        float[][] embeddings = new float[texts.size()][];
+        if (response != null && response.has("data")) {
+            int position = 0;
+            for (JsonNode item : response.get("data")) {
+                int index = item.has("index") ? item.get("index").asInt() : position;
+                position++;
+                JsonNode values = item.get("embedding");
+                if (values == null || index < 0 || index >= embeddings.length) {
+                    continue;
+                }
+                float[] vector = new float[values.size()];
+                for (int i = 0; i < vector.length; i++) {
+                    vector[i] = values.get(i).floatValue();
+                }
+                embeddings[index] = vector;
+            }
+        }
+        for (float[] vector : embeddings) {
+            if (vector == null) {
+                throw new IllegalStateException("Embedding response is missing vectors");
+            }
         }
+        return List.of(embeddings);
     }
 
 
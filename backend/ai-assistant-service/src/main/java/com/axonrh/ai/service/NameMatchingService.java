@@ -3,18 +3,26 @@ package com.axonrh.ai.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Service for intelligent name matching with fuzzy search capabilities.
  * Handles variations in names like "Jaime Vicente da Silva Junior" vs "Jaime Vicente Jr".
+ *
+ * <p>Names are matched against a per-tenant {@link EmployeeNameIndex} kept in memory. It is
+ * loaded once, caught up with employees changed since the {@code updated_at} watermark at most
+ * once per refresh interval, and fully rebuilt periodically to pick up department and position
+ * renames.</p>
  */
 @Slf4j
 @Service
@@ -22,11 +30,20 @@ import java.util.stream.Collectors;
 public class NameMatchingService {
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<UUID, TenantNames> tenants = new ConcurrentHashMap<>();
+
+    @Value("${ai.name-index.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    @Value("${ai.name-index.rebuild-interval-ms:900000}")
+    private long rebuildIntervalMs;
 
     private static final LevenshteinDistance LEVENSHTEIN = LevenshteinDistance.getDefaultInstance();
     private static final double EXACT_MATCH_THRESHOLD = 1.0;
     private static final double HIGH_SIMILARITY_THRESHOLD = 0.85;
     private static final double MINIMUM_SIMILARITY_THRESHOLD = 0.5;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
     // Common name abbreviations and variations in Portuguese
     private static final Map<String, List<String>> NAME_VARIATIONS = Map.ofEntries(
@@ -54,6 +71,31 @@ public class NameMatchingService {
         "de", "da", "do", "das", "dos", "e", "el", "la", "del"
     );
 
+    // NAME_VARIATIONS normalized and made symmetric, as the index looks them up from either side
+    private static final Map<String, Set<String>> INDEXED_VARIATIONS = indexVariations();
+
+    private static final String EMPLOYEES_SQL = """
+        SELECT e.id, e.full_name, e.social_name, e.is_active, e.updated_at,
+               d.name as department_name, p.title as position_title
+        FROM shared.employees e
+        LEFT JOIN shared.departments d ON e.department_id = d.id AND d.tenant_id = :tenant_id
+        LEFT JOIN shared.positions p ON e.position_id = p.id AND p.tenant_id = :tenant_id
+        WHERE e.tenant_id = :tenant_id
+        """;
+
+    /**
+     * Employees of a tenant keyed by id, and the index built from them.
+     * Updates synchronize on the instance; searches only read the volatile index.
+     */
+    private static final class TenantNames {
+        final Map<UUID, EmployeeNameIndex.Entry> employees = new HashMap<>();
+        volatile EmployeeNameIndex index;
+        /** Latest employee {@code updated_at} already reflected in the index. */
+        Timestamp watermark;
+        volatile long checkedAt;
+        long builtAt;
+    }
+
     /**
      * Result of a name matching operation.
      */
@@ -104,13 +146,15 @@ public class NameMatchingService {
         List<String> searchTokens = tokenizeName(normalizedSearch);
         log.debug("Normalized search: '{}', tokens: {}", normalizedSearch, searchTokens);
 
-        // Get all potential candidates from database
-        List<Map<String, Object>> allEmployees = fetchEmployees(tenantId, activeOnly);
-        log.debug("Found {} employees to match against", allEmployees.size());
+        // Only employees sharing a plausible token with the search are scored
+        EmployeeNameIndex index = nameIndex(tenantId);
+        List<EmployeeNameIndex.Entry> candidates = index.candidates(normalizedSearch, searchTokens, activeOnly);
+        Set<String> expandedSearch = expandNameVariations(searchTokens);
+        log.debug("Scoring {} of {} employees", candidates.size(), index.size());
 
-        // Calculate similarity scores for all employees
-        List<MatchResult> scoredMatches = allEmployees.stream()
-            .map(emp -> scoreEmployee(emp, normalizedSearch, searchTokens))
+        // Calculate similarity scores for the candidates
+        List<MatchResult> scoredMatches = candidates.stream()
+            .map(emp -> scoreEmployee(emp, normalizedSearch, searchTokens, expandedSearch))
             .filter(match -> match.similarity() >= MINIMUM_SIMILARITY_THRESHOLD)
             .sorted(Comparator.comparingDouble(MatchResult::similarity).reversed())
             .collect(Collectors.toList());
@@ -119,7 +163,7 @@ public class NameMatchingService {
 
         if (scoredMatches.isEmpty()) {
             // Try a more relaxed search with partial token matching
-            scoredMatches = allEmployees.stream()
+            scoredMatches = candidates.stream()
                 .map(emp -> scoreEmployeePartial(emp, searchTokens))
                 .filter(match -> match.similarity() >= 0.3)
                 .sorted(Comparator.comparingDouble(MatchResult::similarity).reversed())
@@ -213,11 +257,11 @@ public class NameMatchingService {
         if (name == null) return "";
 
         String normalized = Normalizer.normalize(name, Normalizer.Form.NFD);
-        normalized = normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        normalized = DIACRITICS.matcher(normalized).replaceAll("");
         normalized = normalized.toLowerCase().trim();
 
         // Remove extra spaces
-        normalized = normalized.replaceAll("\\s+", " ");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
 
         return normalized;
     }
@@ -230,78 +274,170 @@ public class NameMatchingService {
             return List.of();
         }
 
-        return Arrays.stream(normalizedName.split("\\s+"))
+        return Arrays.stream(WHITESPACE.split(normalizedName))
             .filter(token -> !CONNECTING_WORDS.contains(token))
             .filter(token -> token.length() > 1 || Character.isUpperCase(token.charAt(0)))
             .collect(Collectors.toList());
     }
 
     /**
-     * Expands a name with common variations.
+     * Expands name tokens with common variations.
      */
-    private Set<String> expandNameVariations(String name) {
-        Set<String> variations = new HashSet<>();
-        variations.add(name);
-
-        for (String token : tokenizeName(name)) {
-            if (NAME_VARIATIONS.containsKey(token)) {
-                variations.addAll(NAME_VARIATIONS.get(token));
+    private static Set<String> expandNameVariations(List<String> tokens) {
+        Set<String> variations = new HashSet<>(tokens);
+        for (String token : tokens) {
+            List<String> known = NAME_VARIATIONS.get(token);
+            if (known != null) {
+                variations.addAll(known);
             }
         }
-
         return variations;
     }
 
+    private static Map<String, Set<String>> indexVariations() {
+        Map<String, Set<String>> indexed = new HashMap<>();
+        NAME_VARIATIONS.forEach((name, variations) -> {
+            String key = stripAccents(name);
+            for (String variation : variations) {
+                String value = stripAccents(variation);
+                if (!value.equals(key)) {
+                    indexed.computeIfAbsent(key, k -> new HashSet<>()).add(value);
+                    indexed.computeIfAbsent(value, k -> new HashSet<>()).add(key);
+                }
+            }
+        });
+        return indexed;
+    }
+
+    private static String stripAccents(String token) {
+        return DIACRITICS.matcher(Normalizer.normalize(token, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    // ==================== Name index ====================
+
     /**
-     * Fetches all employees from the database.
+     * Current name index of the tenant, loading or catching it up when due.
      */
-    private List<Map<String, Object>> fetchEmployees(UUID tenantId, boolean activeOnly) {
-        String sql = """
-            SELECT e.id, e.full_name, e.social_name,
-                   d.name as department_name, p.title as position_title
-            FROM shared.employees e
-            LEFT JOIN shared.departments d ON e.department_id = d.id AND d.tenant_id = :tenant_id
-            LEFT JOIN shared.positions p ON e.position_id = p.id AND p.tenant_id = :tenant_id
-            WHERE e.tenant_id = :tenant_id
-            """ + (activeOnly ? " AND e.is_active = true" : "");
+    private EmployeeNameIndex nameIndex(UUID tenantId) {
+        TenantNames tenant = tenants.computeIfAbsent(tenantId, id -> new TenantNames());
+        long now = System.currentTimeMillis();
+        if (tenant.index != null && now - tenant.checkedAt < refreshIntervalMs) {
+            return tenant.index;
+        }
+        synchronized (tenant) {
+            if (tenant.index == null || now - tenant.builtAt >= rebuildIntervalMs) {
+                rebuild(tenantId, tenant, now);
+            } else if (now - tenant.checkedAt >= refreshIntervalMs) {
+                refresh(tenantId, tenant);
+            }
+            tenant.checkedAt = now;
+            return tenant.index;
+        }
+    }
 
-        MapSqlParameterSource params = new MapSqlParameterSource()
-            .addValue("tenant_id", tenantId);
+    private void rebuild(UUID tenantId, TenantNames tenant, long now) {
+        long started = System.currentTimeMillis();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(EMPLOYEES_SQL,
+            new MapSqlParameterSource().addValue("tenant_id", tenantId));
+
+        tenant.employees.clear();
+        tenant.watermark = null;
+        apply(tenant, rows);
+        tenant.index = new EmployeeNameIndex(tenant.employees.values(), INDEXED_VARIATIONS);
+        tenant.builtAt = now;
+        log.info("Built employee name index for tenant {}: {} employees in {} ms",
+            tenantId, tenant.employees.size(), System.currentTimeMillis() - started);
+    }
 
-        return jdbcTemplate.queryForList(sql, params);
+    /**
+     * Applies employees changed since the watermark. Rows at the watermark itself are read
+     * again, so a transaction committing with the same timestamp is not missed.
+     */
+    private void refresh(UUID tenantId, TenantNames tenant) {
+        if (tenant.watermark == null) {
+            rebuild(tenantId, tenant, tenant.builtAt);
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            EMPLOYEES_SQL + " AND e.updated_at >= :watermark",
+            new MapSqlParameterSource()
+                .addValue("tenant_id", tenantId)
+                .addValue("watermark", tenant.watermark));
+        if (apply(tenant, rows)) {
+            tenant.index = new EmployeeNameIndex(tenant.employees.values(), INDEXED_VARIATIONS);
+            log.debug("Updated employee name index for tenant {}: {} changed employees", tenantId, rows.size());
+        }
     }
 
     /**
-     * Scores an employee based on name similarity.
+     * Upserts the rows into the tenant's employees.
+     *
+     * @return whether any employee changed
      */
-    private MatchResult scoreEmployee(Map<String, Object> emp, String normalizedSearch,
-                                       List<String> searchTokens) {
-        UUID id = (UUID) emp.get("id");
+    private boolean apply(TenantNames tenant, List<Map<String, Object>> rows) {
+        boolean changed = false;
+        for (Map<String, Object> row : rows) {
+            EmployeeNameIndex.Entry entry = toEntry(row);
+            if (!entry.equals(tenant.employees.put(entry.id(), entry))) {
+                changed = true;
+            }
+            Timestamp updatedAt = (Timestamp) row.get("updated_at");
+            if (updatedAt != null && (tenant.watermark == null || updatedAt.after(tenant.watermark))) {
+                tenant.watermark = updatedAt;
+            }
+        }
+        return changed;
+    }
+
+    private EmployeeNameIndex.Entry toEntry(Map<String, Object> emp) {
         String fullName = (String) emp.get("full_name");
         String socialName = (String) emp.get("social_name");
-        String department = (String) emp.get("department_name");
-        String position = (String) emp.get("position_title");
-
         String normalizedFull = normalizeName(fullName);
         String normalizedSocial = socialName != null ? normalizeName(socialName) : "";
+        List<String> fullTokens = List.copyOf(tokenizeName(normalizedFull));
+        List<String> socialTokens = socialName != null ? List.copyOf(tokenizeName(normalizedSocial)) : List.of();
+
+        return new EmployeeNameIndex.Entry(
+            (UUID) emp.get("id"),
+            fullName,
+            socialName,
+            (String) emp.get("department_name"),
+            (String) emp.get("position_title"),
+            Boolean.TRUE.equals(emp.get("is_active")),
+            normalizedFull,
+            normalizedSocial,
+            fullTokens,
+            socialTokens,
+            expandNameVariations(fullTokens),
+            expandNameVariations(socialTokens)
+        );
+    }
+
+    // ==================== Scoring ====================
+
+    /**
+     * Scores an employee based on name similarity.
+     */
+    private MatchResult scoreEmployee(EmployeeNameIndex.Entry emp, String normalizedSearch,
+                                       List<String> searchTokens, Set<String> expandedSearch) {
+        boolean hasSocial = emp.socialName() != null;
 
         // Check for exact match first
-        if (normalizedFull.equals(normalizedSearch) ||
-            normalizedSocial.equals(normalizedSearch)) {
-            return new MatchResult(id, fullName, socialName, department, position, 1.0, true);
+        if (emp.normalizedFull().equals(normalizedSearch) ||
+            emp.normalizedSocial().equals(normalizedSearch)) {
+            return toMatch(emp, 1.0, true);
         }
 
         // Calculate similarity scores
-        double fullNameSimilarity = calculateSimilarity(normalizedSearch, normalizedFull);
-        double socialNameSimilarity = socialName != null ?
-            calculateSimilarity(normalizedSearch, normalizedSocial) : 0;
+        double fullNameSimilarity = calculateSimilarity(normalizedSearch, emp.normalizedFull());
+        double socialNameSimilarity = hasSocial ?
+            calculateSimilarity(normalizedSearch, emp.normalizedSocial()) : 0;
 
         // Token-based similarity
-        List<String> fullTokens = tokenizeName(normalizedFull);
-        List<String> socialTokens = socialName != null ? tokenizeName(normalizedSocial) : List.of();
-
-        double tokenSimilarityFull = calculateTokenSimilarity(searchTokens, fullTokens);
-        double tokenSimilaritySocial = calculateTokenSimilarity(searchTokens, socialTokens);
+        double tokenSimilarityFull = calculateTokenSimilarity(searchTokens, expandedSearch,
+            emp.fullTokens(), emp.expandedFull());
+        double tokenSimilaritySocial = calculateTokenSimilarity(searchTokens, expandedSearch,
+            emp.socialTokens(), emp.expandedSocial());
 
         // Combined score (weighted average)
         double bestStringSimilarity = Math.max(fullNameSimilarity, socialNameSimilarity);
@@ -310,29 +446,24 @@ public class NameMatchingService {
         // Weight token similarity higher as it handles variations better
         double combinedScore = (bestStringSimilarity * 0.3) + (bestTokenSimilarity * 0.7);
 
-        return new MatchResult(id, fullName, socialName, department, position, combinedScore, false);
+        return toMatch(emp, combinedScore, false);
     }
 
     /**
      * Scores an employee using partial token matching (more relaxed).
      */
-    private MatchResult scoreEmployeePartial(Map<String, Object> emp, List<String> searchTokens) {
-        UUID id = (UUID) emp.get("id");
-        String fullName = (String) emp.get("full_name");
-        String socialName = (String) emp.get("social_name");
-        String department = (String) emp.get("department_name");
-        String position = (String) emp.get("position_title");
-
-        List<String> fullTokens = tokenizeName(normalizeName(fullName));
-        List<String> socialTokens = socialName != null ?
-            tokenizeName(normalizeName(socialName)) : List.of();
-
+    private MatchResult scoreEmployeePartial(EmployeeNameIndex.Entry emp, List<String> searchTokens) {
         double similarity = Math.max(
-            calculatePartialTokenMatch(searchTokens, fullTokens),
-            calculatePartialTokenMatch(searchTokens, socialTokens)
+            calculatePartialTokenMatch(searchTokens, emp.fullTokens()),
+            calculatePartialTokenMatch(searchTokens, emp.socialTokens())
         );
 
-        return new MatchResult(id, fullName, socialName, department, position, similarity, false);
+        return toMatch(emp, similarity, false);
+    }
+
+    private MatchResult toMatch(EmployeeNameIndex.Entry emp, double similarity, boolean exact) {
+        return new MatchResult(emp.id(), emp.fullName(), emp.socialName(), emp.department(),
+            emp.position(), similarity, exact);
     }
 
     /**
@@ -352,23 +483,11 @@ public class NameMatchingService {
     /**
      * Calculates token-based similarity with support for variations.
      */
-    private double calculateTokenSimilarity(List<String> searchTokens, List<String> targetTokens) {
+    private double calculateTokenSimilarity(List<String> searchTokens, Set<String> expandedSearch,
+                                            List<String> targetTokens, Set<String> expandedTarget) {
         if (searchTokens.isEmpty() || targetTokens.isEmpty()) return 0;
 
         int matchedTokens = 0;
-        Set<String> expandedSearch = new HashSet<>();
-
-        // Expand search tokens with variations
-        for (String token : searchTokens) {
-            expandedSearch.add(token);
-            expandedSearch.addAll(expandNameVariations(token));
-        }
-
-        Set<String> expandedTarget = new HashSet<>();
-        for (String token : targetTokens) {
-            expandedTarget.add(token);
-            expandedTarget.addAll(expandNameVariations(token));
-        }
 
         // Count matches (including partial matches)
         for (String searchToken : searchTokens) {
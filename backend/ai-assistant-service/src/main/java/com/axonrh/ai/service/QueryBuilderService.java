@@ -3,8 +3,6 @@ package com.axonrh.ai.service;
 import com.axonrh.ai.dto.ChatMessage;
 import com.axonrh.ai.dto.ChatRequest;
 import com.axonrh.ai.dto.ChatResponse;
-import com.axonrh.ai.entity.QueryTemplate;
-import com.axonrh.ai.repository.QueryTemplateRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -22,10 +20,12 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class QueryBuilderService {
 
-    private final QueryTemplateRepository queryTemplateRepository;
     private final LlmService llmService;
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
+    private final QueryCache queryCache;
+
+    private static final Pattern READ_ONLY_SQL = Pattern.compile("^\\s*(select|with)\\b", Pattern.CASE_INSENSITIVE);
 
     private static final String QUERY_BUILDER_PROMPT = """
         Você é um assistente especializado em converter perguntas em linguagem natural para consultas SQL.
@@ -373,82 +373,47 @@ public class QueryBuilderService {
     public QueryResult buildAndExecuteQuery(String question, Map<String, Object> entities, UUID tenantId, List<Object> permissions) {
         log.info("Building SQL query for question: '{}' (tenantId: {})", question, tenantId);
         try {
-            // Get available templates
-            List<QueryTemplate> templates = queryTemplateRepository.findAllWithDefaults(tenantId);
-            String templatesStr = formatTemplates(templates);
-            log.debug("Found {} query templates", templates.size());
-
-            // Build prompt
-            String prompt = QUERY_BUILDER_PROMPT
-                    .replace("{schema}", DATABASE_SCHEMA)
-                    .replace("{templates}", templatesStr)
-                    .replace("{question}", question)
-                    .replace("{entities}", entities != null ? entities.toString() : "{}");
-
-            // Call LLM
-            ChatRequest request = ChatRequest.builder()
-                    .messages(List.of(
-                            ChatMessage.builder().role(ChatMessage.Role.SYSTEM).content(prompt).build()
-                    ))
-                    .temperature(0.1) // Low temperature for stability
-                    .build();
-
-            log.debug("Calling LLM for SQL generation...");
-            ChatResponse response = llmService.chat(request);
-            String rawContent = response.getContent();
-            log.info("Raw LLM Response: {}", rawContent);
-            
-            String jsonContent = extractJson(rawContent);
-            log.debug("Extracted JSON: {}", jsonContent);
-
-            // Parse response
-            JsonNode root = objectMapper.readTree(jsonContent);
-            String sql = root.path("sql").asText();
-            
-            // Basic validation
-            if (sql == null || sql.isBlank()) {
-                log.warn("LLM did not generate any SQL: {}", jsonContent);
-                return QueryResult.builder()
-                        .success(false)
-                        .error("LLM não gerou SQL válido")
-                        .build();
+            // Templates are formatted once per tenant; their fingerprint versions the plan cache
+            QueryCache.Templates templates = queryCache.templates(tenantId, QUERY_BUILDER_PROMPT + DATABASE_SCHEMA);
+            QueryCache.Question cacheKey = queryCache.question(tenantId, templates.promptVersion(), question, entities);
+
+            Optional<QueryCache.SqlPlan> cachedPlan = queryCache.findPlan(cacheKey);
+            QueryCache.SqlPlan plan;
+            if (cachedPlan.isPresent()) {
+                plan = cachedPlan.get();
+                log.info("Reusing cached SQL plan (template: {})", plan.templateUsed());
+            } else {
+                log.debug("Found {} query templates", templates.count());
+                plan = generatePlan(question, entities, templates.text());
+                if (plan == null) {
+                    return QueryResult.builder()
+                            .success(false)
+                            .error("LLM não gerou SQL válido")
+                            .build();
+                }
             }
 
-            String explanation = root.path("explanation").asText();
-            String templateUsed = root.path("template_used").asText();
-            
-            Map<String, Object> params = new HashMap<>();
-            if (root.has("parameters")) {
-                JsonNode paramsNode = root.get("parameters");
-                paramsNode.fields().forEachRemaining(entry -> {
-                    JsonNode value = entry.getValue();
-                    if (value.isTextual()) {
-                        params.put(entry.getKey(), value.asText());
-                    } else if (value.isNumber()) {
-                        params.put(entry.getKey(), value.numberValue());
-                    } else if (value.isBoolean()) {
-                        params.put(entry.getKey(), value.booleanValue());
-                    } else {
-                        params.put(entry.getKey(), value.asText());
-                    }
-                });
-            }
-            
             // Enforce tenant isolation
+            Map<String, Object> params = new HashMap<>(plan.parameters());
             params.put("tenant_id", tenantId);
-            log.info("Executing SQL: {} with params: {}", sql, params);
+            log.info("Executing SQL: {} with params: {}", plan.sql(), params);
 
             // Execute query
-            List<Map<String, Object>> data = jdbcTemplate.queryForList(sql, params);
+            List<Map<String, Object>> data = queryCache.results(tenantId, plan.sql(), params,
+                    () -> jdbcTemplate.queryForList(plan.sql(), params));
             log.info("Query executed successfully. Result rows: {}", data.size());
 
+            if (cachedPlan.isEmpty() && isCacheable(plan.sql())) {
+                queryCache.storePlan(cacheKey, plan);
+            }
+
             return QueryResult.builder()
                     .success(true)
                     .data(data)
                     .rowCount(data.size())
-                    .sql(sql)
-                    .explanation(explanation)
-                    .templateUsed(templateUsed)
+                    .sql(plan.sql())
+                    .explanation(plan.explanation())
+                    .templateUsed(plan.templateUsed())
                     .build();
 
         } catch (Exception e) {
@@ -460,13 +425,78 @@ public class QueryBuilderService {
         }
     }
 
-    private String formatTemplates(List<QueryTemplate> templates) {
-        if (templates.isEmpty()) return "Nenhum template disponível.";
-        StringBuilder sb = new StringBuilder();
-        for (QueryTemplate t : templates) {
-            sb.append(String.format("- %s: %s\n", t.getName(), t.getDescription()));
+    /**
+     * Asks the LLM for the SQL of the question; null when it did not produce any.
+     */
+    private QueryCache.SqlPlan generatePlan(String question, Map<String, Object> entities, String templatesStr) throws Exception {
+        // Build prompt
+        String prompt = QUERY_BUILDER_PROMPT
+                .replace("{schema}", DATABASE_SCHEMA)
+                .replace("{templates}", templatesStr)
+                .replace("{question}", question)
+                .replace("{entities}", entities != null ? entities.toString() : "{}");
+
+        // Call LLM
+        ChatRequest request = ChatRequest.builder()
+                .messages(List.of(
+                        ChatMessage.builder().role(ChatMessage.Role.SYSTEM).content(prompt).build()
+                ))
+                .temperature(0.1) // Low temperature for stability
+                .build();
+
+        log.debug("Calling LLM for SQL generation...");
+        ChatResponse response = llmService.chat(request);
+        String rawContent = response.getContent();
+        log.info("Raw LLM Response: {}", rawContent);
+
+        String jsonContent = extractJson(rawContent);
+        log.debug("Extracted JSON: {}", jsonContent);
+
+        // Parse response
+        JsonNode root = objectMapper.readTree(jsonContent);
+        String sql = root.path("sql").asText();
+
+        // Basic validation
+        if (sql == null || sql.isBlank()) {
+            log.warn("LLM did not generate any SQL: {}", jsonContent);
+            return null;
+        }
+
+        String explanation = root.path("explanation").asText();
+        String templateUsed = root.path("template_used").asText();
+
+        Map<String, Object> params = new HashMap<>();
+        if (root.has("parameters")) {
+            JsonNode paramsNode = root.get("parameters");
+            paramsNode.fields().forEachRemaining(entry -> {
+                JsonNode value = entry.getValue();
+                if (value.isTextual()) {
+                    params.put(entry.getKey(), value.asText());
+                } else if (value.isNumber()) {
+                    params.put(entry.getKey(), value.numberValue());
+                } else if (value.isBoolean()) {
+                    params.put(entry.getKey(), value.booleanValue());
+                } else {
+                    params.put(entry.getKey(), value.asText());
+                }
+            });
+        }
+        params.remove("tenant_id");
+
+        return new QueryCache.SqlPlan(sql, params, explanation, templateUsed);
+    }
+
+    /**
+     * Only single, tenant-scoped read statements are kept for reuse.
+     */
+    private boolean isCacheable(String sql) {
+        String trimmed = sql.trim();
+        if (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
         }
-        return sb.toString();
+        return READ_ONLY_SQL.matcher(trimmed).find()
+                && !trimmed.contains(";")
+                && trimmed.contains(":tenant_id");
     }
 
     private String extractJson(String content) {
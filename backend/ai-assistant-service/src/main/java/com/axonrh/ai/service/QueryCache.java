@@ -0,0 +1,409 @@
+package com.axonrh.ai.service;
+
+import com.axonrh.ai.entity.CachedQuery;
+import com.axonrh.ai.entity.QueryTemplate;
+import com.axonrh.ai.repository.CachedQueryRepository;
+import com.axonrh.ai.repository.QueryTemplateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Caches for {@link QueryBuilderService}.
+ *
+ * <ul>
+ *   <li>Templates: the tenant's template list is formatted once per refresh interval, and
+ *   fingerprinted together with the prompt into a {@code promptVersion}.</li>
+ *   <li>Plans: SQL that executed successfully is stored in {@code cached_queries}, keyed by the
+ *   normalized question and entities. A question that misses exactly can still reuse the plan of
+ *   a very similar one (embedding cosine), but only for plans without LLM-chosen parameters and
+ *   when both questions have the same content words (everything but articles, prepositions and
+ *   request fillers), so "setor TI" never reuses a "setor RH" plan; only rewordings such as
+ *   "liste os colaboradores do setor TI" / "mostre colaboradores no setor TI" share a plan.</li>
+ *   <li>Results: rows of identical queries are reused for a few seconds, for dashboard-style
+ *   repeated questions.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class QueryCache {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}%'\"]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /** Words that do not change which rows a question asks for. */
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "e",
+            "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas", "ao", "aos",
+            "para", "pra", "por", "pelo", "pela", "pelos", "pelas", "com", "que", "me", "favor",
+            "ha", "tem", "existe", "existem", "sao", "esta", "estao",
+            "liste", "listar", "mostre", "mostrar", "exiba", "exibir", "informe", "diga", "traga");
+    private static final int MAX_RESULT_ROWS = 1000;
+
+    private final QueryTemplateRepository templateRepository;
+    private final CachedQueryRepository cachedQueryRepository;
+    private final LlmService llmService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, Templates> templates = new ConcurrentHashMap<>();
+    private final Map<UUID, TenantPlans> plans = new ConcurrentHashMap<>();
+
+    /** Access-ordered LRU of query results; guarded by itself. */
+    private final LinkedHashMap<String, CachedResult> results;
+
+    @Value("${ai.query-cache.templates-refresh-ms:300000}")
+    private long templatesRefreshMs;
+
+    @Value("${ai.query-cache.similarity-threshold:0.97}")
+    private double similarityThreshold;
+
+    @Value("${ai.query-cache.semantic-entries:500}")
+    private int semanticEntries;
+
+    @Value("${ai.query-cache.result-ttl-ms:60000}")
+    private long resultTtlMs;
+
+    public QueryCache(QueryTemplateRepository templateRepository,
+                      CachedQueryRepository cachedQueryRepository,
+                      LlmService llmService,
+                      ObjectMapper objectMapper,
+                      @Value("${ai.query-cache.result-max-entries:500}") int resultMaxEntries) {
+        this.templateRepository = templateRepository;
+        this.cachedQueryRepository = cachedQueryRepository;
+        this.llmService = llmService;
+        this.objectMapper = objectMapper;
+        this.results = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > resultMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Templates formatted for the prompt, and the version of the prompt they produce.
+     */
+    public record Templates(String text, int count, String promptVersion, long loadedAt) {}
+
+    /**
+     * Executable plan: validated SQL and the parameters chosen by the LLM.
+     */
+    public record SqlPlan(String sql, Map<String, Object> parameters, String explanation, String templateUsed) {}
+
+    /**
+     * A question being answered. The embedding is computed at most once, on an exact miss.
+     */
+    public static final class Question {
+        private final UUID tenantId;
+        private final String promptVersion;
+        private final String normalized;
+        private final String entitiesKey;
+        private final String hash;
+        private float[] embedding;
+
+        private Question(UUID tenantId, String promptVersion, String normalized, String entitiesKey, String hash) {
+            this.tenantId = tenantId;
+            this.promptVersion = promptVersion;
+            this.normalized = normalized;
+            this.entitiesKey = entitiesKey;
+            this.hash = hash;
+        }
+    }
+
+    private record SemanticEntry(float[] embedding, String entitiesKey, Set<String> contentWords, SqlPlan plan) {}
+
+    private static final class TenantPlans {
+        final String promptVersion;
+        final Map<String, SqlPlan> exact = new ConcurrentHashMap<>();
+        /** Newest first; guarded by itself. */
+        final Deque<SemanticEntry> semantic = new ArrayDeque<>();
+
+        TenantPlans(String promptVersion) {
+            this.promptVersion = promptVersion;
+        }
+    }
+
+    private record CachedResult(List<Map<String, Object>> rows, long expiresAt) {}
+
+    // ==================== Templates ====================
+
+    /**
+     * Formatted templates of the tenant, reloaded at most once per refresh interval.
+     *
+     * @param basePrompt prompt text and schema, part of the version fingerprint
+     */
+    public Templates templates(UUID tenantId, String basePrompt) {
+        long now = System.currentTimeMillis();
+        Templates current = templates.get(tenantId);
+        if (current != null && now - current.loadedAt() < templatesRefreshMs) {
+            return current;
+        }
+        List<QueryTemplate> list = templateRepository.findAllWithDefaults(tenantId);
+        String text = formatTemplates(list);
+        Templates loaded = new Templates(text, list.size(), sha256(basePrompt + "\n" + text), now);
+        templates.put(tenantId, loaded);
+        return loaded;
+    }
+
+    private String formatTemplates(List<QueryTemplate> list) {
+        if (list.isEmpty()) return "Nenhum template disponível.";
+        StringBuilder sb = new StringBuilder();
+        for (QueryTemplate t : list) {
+            sb.append(String.format("- %s: %s\n", t.getName(), t.getDescription()));
+        }
+        return sb.toString();
+    }
+
+    // ==================== Plans ====================
+
+    public Question question(UUID tenantId, String promptVersion, String question, Map<String, Object> entities) {
+        String normalized = normalize(question);
+        String entitiesKey = canonical(entities);
+        return new Question(tenantId, promptVersion, normalized, entitiesKey, sha256(normalized + "\n" + entitiesKey));
+    }
+
+    /**
+     * Stored plan for the question: exact match first, then a guarded similarity match.
+     */
+    public Optional<SqlPlan> findPlan(Question question) {
+        TenantPlans tenant = tenantPlans(question);
+
+        SqlPlan exact = tenant.exact.get(question.hash);
+        if (exact == null) {
+            exact = cachedQueryRepository.findByTenantIdAndPromptVersionAndQuestionHash(
+                            question.tenantId, question.promptVersion, question.hash)
+                    .map(this::toPlan)
+                    .orElse(null);
+            if (exact != null) {
+                tenant.exact.put(question.hash, exact);
+            }
+        }
+        if (exact != null) {
+            log.debug("Query plan cache hit for question '{}'", question.normalized);
+            return Optional.of(exact);
+        }
+
+        question.embedding = embed(question.normalized);
+        if (question.embedding == null) {
+            return Optional.empty();
+        }
+        Set<String> contentWords = contentWords(question.normalized);
+        SemanticEntry best = null;
+        double bestSimilarity = similarityThreshold;
+        synchronized (tenant.semantic) {
+            for (SemanticEntry entry : tenant.semantic) {
+                if (!entry.entitiesKey().equals(question.entitiesKey) || !entry.contentWords().equals(contentWords)
+                        || entry.embedding().length != question.embedding.length) {
+                    continue;
+                }
+                double similarity = dot(entry.embedding(), question.embedding);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    best = entry;
+                }
+            }
+        }
+        if (best != null) {
+            log.debug("Query plan similarity hit ({}) for question '{}'", bestSimilarity, question.normalized);
+            return Optional.of(best.plan());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a plan that executed successfully.
+     */
+    public void storePlan(Question question, SqlPlan plan) {
+        TenantPlans tenant = tenantPlans(question);
+        tenant.exact.put(question.hash, plan);
+        addSemantic(tenant, question.embedding, question.entitiesKey, contentWords(question.normalized), plan);
+
+        try {
+            cachedQueryRepository.save(CachedQuery.builder()
+                    .tenantId(question.tenantId)
+                    .promptVersion(question.promptVersion)
+                    .questionHash(question.hash)
+                    .normalizedQuestion(question.normalized)
+                    .entitiesKey(question.entitiesKey)
+                    .sqlText(plan.sql())
+                    .parameters(plan.parameters())
+                    .explanation(plan.explanation())
+                    .templateUsed(plan.templateUsed())
+                    .embedding(question.embedding != null ? toList(question.embedding) : null)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Query plan already stored by another instance: {}", question.normalized);
+        } catch (Exception e) {
+            log.warn("Failed to store query plan: {}", e.getMessage());
+        }
+    }
+
+    private TenantPlans tenantPlans(Question question) {
+        TenantPlans current = plans.get(question.tenantId);
+        if (current != null && current.promptVersion.equals(question.promptVersion)) {
+            return current;
+        }
+        TenantPlans loaded = new TenantPlans(question.promptVersion);
+        List<CachedQuery> recent = cachedQueryRepository.findByTenantIdAndPromptVersionOrderByCreatedAtDesc(
+                question.tenantId, question.promptVersion, PageRequest.of(0, semanticEntries));
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            CachedQuery cached = recent.get(i);
+            SqlPlan plan = toPlan(cached);
+            loaded.exact.put(cached.getQuestionHash(), plan);
+            addSemantic(loaded, cached.getEmbedding() != null ? toArray(cached.getEmbedding()) : null,
+                    cached.getEntitiesKey(), contentWords(cached.getNormalizedQuestion()), plan);
+        }
+        plans.put(question.tenantId, loaded);
+        return loaded;
+    }
+
+    /**
+     * Only plans whose parameters are all fixed by the SQL itself are reusable for a different wording.
+     */
+    private void addSemantic(TenantPlans tenant, float[] embedding, String entitiesKey, Set<String> contentWords,
+                             SqlPlan plan) {
+        if (embedding == null || !plan.parameters().isEmpty()) {
+            return;
+        }
+        synchronized (tenant.semantic) {
+            tenant.semantic.addFirst(new SemanticEntry(embedding, entitiesKey, contentWords, plan));
+            while (tenant.semantic.size() > semanticEntries) {
+                tenant.semantic.removeLast();
+            }
+        }
+    }
+
+    private SqlPlan toPlan(CachedQuery cached) {
+        return new SqlPlan(cached.getSqlText(),
+                cached.getParameters() != null ? cached.getParameters() : Map.of(),
+                cached.getExplanation(), cached.getTemplateUsed());
+    }
+
+    // ==================== Results ====================
+
+    /**
+     * Rows of the query, reused for a short time across identical requests of the tenant.
+     */
+    public List<Map<String, Object>> results(UUID tenantId, String sql, Map<String, Object> params,
+                                             Supplier<List<Map<String, Object>>> loader) {
+        String key = tenantId + "\n" + sql + "\n" + canonical(params);
+        long now = System.currentTimeMillis();
+        synchronized (results) {
+            CachedResult cached = results.get(key);
+            if (cached != null && cached.expiresAt() > now) {
+                return cached.rows();
+            }
+        }
+        List<Map<String, Object>> rows = loader.get();
+        if (rows.size() <= MAX_RESULT_ROWS) {
+            synchronized (results) {
+                results.put(key, new CachedResult(List.copyOf(rows), now + resultTtlMs));
+            }
+        }
+        return rows;
+    }
+
+    // ==================== Helpers ====================
+
+    static String normalize(String question) {
+        String normalized = Normalizer.normalize(question == null ? "" : question, Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_WORD.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Distinct words of the normalized question that select data: names, codes, numbers, quoted
+     * values and question words ("quantos" vs "quais" ask for different results).
+     */
+    static Set<String> contentWords(String normalized) {
+        Set<String> words = new TreeSet<>();
+        for (String word : WHITESPACE.split(normalized == null ? "" : normalized)) {
+            if (!word.isEmpty() && !STOPWORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private String canonical(Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsString(values);
+        } catch (Exception e) {
+            return new TreeMap<>(values).toString();
+        }
+    }
+
+    /**
+     * Unit-length embedding of the text, or null when the provider is unavailable.
+     */
+    private float[] embed(String text) {
+        try {
+            List<Float> embedding = llmService.generateEmbedding(text);
+            float[] vector = toArray(embedding);
+            double norm = 0;
+            for (float v : vector) {
+                norm += v * v;
+            }
+            norm = Math.sqrt(norm);
+            if (norm == 0) {
+                return null;
+            }
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= (float) norm;
+            }
+            return vector;
+        } catch (Exception e) {
+            log.debug("Question embedding unavailable, skipping similarity lookup: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static float[] toArray(List<Float> values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i);
+        }
+        return vector;
+    }
+
+    private static List<Float> toList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float v : vector) {
+            list.add(v);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,77 @@
+package com.axonrh.ai.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Paragraph-based chunker fed with text as it is extracted.
+ *
+ * <p>Paragraphs (separated by a blank line) are packed into chunks of about {@code chunkSize}
+ * characters, each chunk starting with the last {@code overlap} characters of the previous one.
+ * Only the current chunk and the unfinished paragraph are held, and a paragraph longer than
+ * {@code maxParagraph} is cut, so memory does not depend on the document size. The output only
+ * depends on the text, not on how it was split into segments, which keeps chunk indexes stable
+ * when an ingestion is resumed.</p>
+ */
+final class StreamingChunker {
+
+    private static final String PARAGRAPH_BREAK = "\n\n";
+
+    private final int chunkSize;
+    private final int overlap;
+    private final int maxParagraph;
+    private final Consumer<String> sink;
+
+    private final StringBuilder pending = new StringBuilder();
+    private StringBuilder current = new StringBuilder();
+
+    StreamingChunker(int chunkSize, int overlap, Consumer<String> sink) {
+        this.chunkSize = chunkSize;
+        this.overlap = overlap;
+        this.maxParagraph = chunkSize * 4;
+        this.sink = sink;
+    }
+
+    void accept(CharSequence text) {
+        pending.append(text);
+        int from = 0;
+        int end;
+        while ((end = pending.indexOf(PARAGRAPH_BREAK, from)) >= 0) {
+            paragraph(pending.substring(from, end));
+            from = end + PARAGRAPH_BREAK.length();
+        }
+        pending.delete(0, from);
+
+        while (pending.length() > maxParagraph) {
+            paragraph(pending.substring(0, maxParagraph));
+            pending.delete(0, maxParagraph);
+        }
+    }
+
+    /**
+     * Emits the remaining text; the chunker must not be used afterwards.
+     */
+    void finish() {
+        if (pending.length() > 0) {
+            paragraph(pending.toString());
+            pending.setLength(0);
+        }
+        emit();
+    }
+
+    private void paragraph(String paragraph) {
+        if (current.length() + paragraph.length() > chunkSize && current.length() > 0) {
+            emit();
+            // Keep some overlap from the end of the emitted chunk
+            int overlapStart = Math.max(0, current.length() - overlap);
+            current = new StringBuilder(current.substring(overlapStart));
+        }
+        current.append(paragraph).append(PARAGRAPH_BREAK);
+    }
+
+    private void emit() {
+        String chunk = current.toString().trim();
+        if (!chunk.isEmpty()) {
+            sink.accept(chunk);
+        }
+    }
+}
@@ -3,24 +3,44 @@ package com.axonrh.ai.service;
 import com.axonrh.ai.dto.ChatMessage;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service responsible for executing tool calls made by the LLM.
  * Bridges the gap between LLM function calls and actual service implementations.
+ *
+ * <p>Independent calls of one turn run concurrently on the bounded {@code toolExecutor}, each
+ * within a timeout; calls that change data run alone, in the order the model issued them.
+ * Results of read-only tools are memoized per conversation.</p>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ToolExecutorService {
 
+    /** Tools whose result depends only on their arguments (and slowly changing data). */
+    private static final Set<String> MEMOIZED_TOOLS = Set.of(
+            "calcular_ferias", "calcular_rescisao", "calcular_horas_extras",
+            "consultar_funcionarios", "buscar_funcionario_por_nome", "selecionar_funcionario",
+            "consultar_banco_dados", "buscar_base_conhecimento");
+
+    /** Tools that change state; they act as barriers between concurrent groups. */
+    private static final Set<String> MUTATING_TOOLS = Set.of("modificar_dados", "confirmar_operacao");
+
     private final CalculationService calculationService;
     private final QueryBuilderService queryBuilderService;
     private final KnowledgeService knowledgeService;
@@ -28,6 +48,31 @@ public class ToolExecutorService {
     private final DataModificationExecutorService dataModificationExecutorService;
     private final NameMatchingService nameMatchingService;
     private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor toolExecutor;
+    private final ToolResultMemo memo;
+    private final long timeoutMillis;
+
+    public ToolExecutorService(CalculationService calculationService,
+                               QueryBuilderService queryBuilderService,
+                               KnowledgeService knowledgeService,
+                               DataModificationService dataModificationService,
+                               DataModificationExecutorService dataModificationExecutorService,
+                               NameMatchingService nameMatchingService,
+                               ObjectMapper objectMapper,
+                               @Qualifier("toolExecutor") ThreadPoolTaskExecutor toolExecutor,
+                               ToolResultMemo memo,
+                               @Value("${ai.tools.timeout-seconds:30}") long timeoutSeconds) {
+        this.calculationService = calculationService;
+        this.queryBuilderService = queryBuilderService;
+        this.knowledgeService = knowledgeService;
+        this.dataModificationService = dataModificationService;
+        this.dataModificationExecutorService = dataModificationExecutorService;
+        this.nameMatchingService = nameMatchingService;
+        this.objectMapper = objectMapper;
+        this.toolExecutor = toolExecutor;
+        this.memo = memo;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
 
     /**
      * Context needed for executing tools (tenant, user, permissions).
@@ -47,31 +92,131 @@ public class ToolExecutorService {
      * Executes a list of tool calls and returns the results.
      */
     public List<ToolResult> executeToolCalls(List<ChatMessage.ToolCall> toolCalls, ExecutionContext context) {
-        List<ToolResult> results = new ArrayList<>();
+        ToolResult[] results = new ToolResult[toolCalls.size()];
+
+        int start = 0;
+        while (start < toolCalls.size()) {
+            if (MUTATING_TOOLS.contains(toolCalls.get(start).getFunction().getName())) {
+                results[start] = execute(toolCalls.get(start), context);
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < toolCalls.size() && !MUTATING_TOOLS.contains(toolCalls.get(end).getFunction().getName())) {
+                end++;
+            }
+            executeConcurrently(toolCalls, start, end, context, results);
+            start = end;
+        }
 
-        for (ChatMessage.ToolCall toolCall : toolCalls) {
-            log.info("Executing tool call: {} (id: {})", toolCall.getFunction().getName(), toolCall.getId());
+        return Arrays.asList(results);
+    }
 
+    /**
+     * Runs the calls in {@code [from, to)} concurrently, sharing one deadline. Calls still running
+     * at the deadline, or when the caller is interrupted, are cancelled.
+     */
+    private void executeConcurrently(List<ChatMessage.ToolCall> toolCalls, int from, int to,
+                                     ExecutionContext context, ToolResult[] results) {
+        if (to - from == 1) {
+            results[from] = execute(toolCalls.get(from), context);
+            return;
+        }
+
+        List<Future<ToolResult>> futures = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ChatMessage.ToolCall toolCall = toolCalls.get(i);
             try {
-                String result = executeToolCall(toolCall, context);
-                results.add(new ToolResult(toolCall.getId(), toolCall.getFunction().getName(), result, true));
-            } catch (Exception e) {
-                log.error("Error executing tool {}: {}", toolCall.getFunction().getName(), e.getMessage(), e);
-                String errorResult = formatError(e.getMessage());
-                results.add(new ToolResult(toolCall.getId(), toolCall.getFunction().getName(), errorResult, false));
+                futures.add(toolExecutor.submit(() -> execute(toolCall, context)));
+            } catch (TaskRejectedException e) {
+                futures.add(null); // Pool saturated: run on the caller below
             }
         }
 
-        return results;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (int i = from; i < to; i++) {
+                Future<ToolResult> future = futures.get(i - from);
+                ChatMessage.ToolCall toolCall = toolCalls.get(i);
+                if (future == null) {
+                    results[i] = execute(toolCall, context);
+                    continue;
+                }
+                try {
+                    results[i] = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    log.warn("Tool {} timed out after {} ms", toolCall.getFunction().getName(), timeoutMillis);
+                    results[i] = failure(toolCall, "Tempo limite excedido ao executar a ferramenta.");
+                } catch (ExecutionException e) {
+                    results[i] = failure(toolCall, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results[i] = failure(toolCall, "Execução interrompida.");
+                }
+            }
+        } finally {
+            futures.stream().filter(Objects::nonNull).forEach(f -> f.cancel(true));
+            for (int i = from; i < to; i++) {
+                if (results[i] == null) {
+                    results[i] = failure(toolCalls.get(i), "Execução interrompida.");
+                }
+            }
+        }
+    }
+
+    private ToolResult execute(ChatMessage.ToolCall toolCall, ExecutionContext context) {
+        log.info("Executing tool call: {} (id: {})", toolCall.getFunction().getName(), toolCall.getId());
+
+        try {
+            String result = executeToolCall(toolCall, context);
+            return new ToolResult(toolCall.getId(), toolCall.getFunction().getName(), result, true);
+        } catch (Exception e) {
+            log.error("Error executing tool {}: {}", toolCall.getFunction().getName(), e.getMessage(), e);
+            return failure(toolCall, e.getMessage());
+        }
+    }
+
+    private ToolResult failure(ChatMessage.ToolCall toolCall, String message) {
+        return new ToolResult(toolCall.getId(), toolCall.getFunction().getName(), formatError(message), false);
     }
 
     /**
-     * Executes a single tool call.
+     * Executes a single tool call, answering read-only tools from the conversation memo when possible.
      */
     private String executeToolCall(ChatMessage.ToolCall toolCall, ExecutionContext context) throws Exception {
         String functionName = toolCall.getFunction().getName();
         JsonNode arguments = objectMapper.readTree(toolCall.getFunction().getArguments());
 
+        String memoKey = null;
+        if (context.conversationId() != null && MEMOIZED_TOOLS.contains(functionName)) {
+            memoKey = functionName + ":" + canonical(arguments);
+            String cached = memo.get(context.conversationId(), memoKey);
+            if (cached != null) {
+                log.debug("Tool {} answered from conversation memo", functionName);
+                return cached;
+            }
+        }
+
+        String result = dispatch(functionName, arguments, context);
+
+        // Confirmed operations invalidate the memo in DataModificationExecutorService
+        if (memoKey != null) {
+            memo.put(context.conversationId(), memoKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Arguments serialized with sorted keys, so equivalent calls share a memo entry.
+     */
+    private String canonical(JsonNode arguments) throws Exception {
+        return objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsString(objectMapper.treeToValue(arguments, Object.class));
+    }
+
+    private String dispatch(String functionName, JsonNode arguments, ExecutionContext context) throws Exception {
         return switch (functionName) {
             case "calcular_ferias" -> executeCalculateVacation(arguments);
             case "calcular_rescisao" -> executeCalculateTermination(arguments);
@@ -0,0 +1,81 @@
+package com.axonrh.ai.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-conversation memo of read-only tool results, keyed by tool name and canonical arguments.
+ * Bounded in conversations (LRU), entries per conversation and age.
+ * Shared between the tool executor, which fills it, and the services that change data, which
+ * invalidate the affected conversation.
+ */
+@Component
+final class ToolResultMemo {
+
+    private record Entry(String result, long expiresAt) {}
+
+    private final int maxEntriesPerConversation;
+    private final long ttlMillis;
+
+    /** Access-ordered LRU; guarded by itself. */
+    private final LinkedHashMap<String, LinkedHashMap<String, Entry>> conversations;
+
+    @Autowired
+    ToolResultMemo(@Value("${ai.tools.memo.max-conversations:1000}") int maxConversations,
+                   @Value("${ai.tools.memo.ttl-seconds:300}") long ttlSeconds) {
+        this(maxConversations, 50, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    ToolResultMemo(int maxConversations, int maxEntriesPerConversation, long ttlMillis) {
+        this.maxEntriesPerConversation = maxEntriesPerConversation;
+        this.ttlMillis = ttlMillis;
+        this.conversations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LinkedHashMap<String, Entry>> eldest) {
+                return size() > maxConversations;
+            }
+        };
+    }
+
+    String get(String conversationId, String key) {
+        synchronized (conversations) {
+            LinkedHashMap<String, Entry> entries = conversations.get(conversationId);
+            Entry entry = entries != null ? entries.get(key) : null;
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    void put(String conversationId, String key, String result) {
+        synchronized (conversations) {
+            LinkedHashMap<String, Entry> entries = conversations.computeIfAbsent(conversationId,
+                    id -> new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                            return size() > maxEntriesPerConversation;
+                        }
+                    });
+            entries.put(key, new Entry(result, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Forgets the conversation's results, e.g. after it changed data.
+     */
+    void invalidate(String conversationId) {
+        synchronized (conversations) {
+            conversations.remove(conversationId);
+        }
+    }
+}
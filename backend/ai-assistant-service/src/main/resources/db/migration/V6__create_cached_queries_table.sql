@@ -0,0 +1,28 @@
+-- ============================================================================
+-- V6: Validated NL-to-SQL cache
+-- ============================================================================
+-- SQL generated by the LLM for an analytic question, stored once it ran
+-- successfully so the same (or an equivalent) question skips the LLM.
+-- Entries are scoped by prompt_version: changing the schema description, the
+-- prompt or the tenant's templates starts a new, empty generation.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS cached_queries (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id UUID NOT NULL,
+    prompt_version VARCHAR(64) NOT NULL,
+    question_hash VARCHAR(64) NOT NULL,
+    normalized_question TEXT NOT NULL,
+    entities_key TEXT NOT NULL DEFAULT '{}',
+    sql_text TEXT NOT NULL,
+    parameters JSONB DEFAULT '{}',
+    explanation TEXT,
+    template_used VARCHAR(100),
+    embedding JSONB,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cached_queries_question
+    ON cached_queries(tenant_id, prompt_version, question_hash);
+CREATE INDEX IF NOT EXISTS idx_cached_queries_recent
+    ON cached_queries(tenant_id, prompt_version, created_at DESC);
@@ -0,0 +1,22 @@
+-- ============================================================================
+-- V7: Streaming knowledge ingestion progress
+-- ============================================================================
+-- Documents are ingested page by page and stored in embedding batches.
+-- chunks_indexed records how many chunks are already stored, so an
+-- interrupted ingestion resumes where it stopped instead of starting over.
+-- ============================================================================
+
+ALTER TABLE knowledge_documents ADD COLUMN IF NOT EXISTS ingestion_status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE knowledge_documents ADD COLUMN IF NOT EXISTS chunks_indexed INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE knowledge_documents ADD COLUMN IF NOT EXISTS ingestion_error TEXT;
+
+-- Documents indexed before this version are complete; unindexed ones have no
+-- staged upload left to resume from and must be uploaded again
+UPDATE knowledge_documents
+SET ingestion_status = CASE WHEN is_indexed THEN 'INDEXED' ELSE 'FAILED' END,
+    chunks_indexed = CASE WHEN is_indexed THEN COALESCE(chunk_count, 0) ELSE 0 END,
+    ingestion_error = CASE WHEN is_indexed THEN NULL ELSE 'Indexação anterior incompleta. Envie o documento novamente.' END;
+
+CREATE INDEX IF NOT EXISTS idx_knowledge_docs_ingestion
+    ON knowledge_documents(ingestion_status)
+    WHERE ingestion_status IN ('PENDING', 'PROCESSING');
@@ -0,0 +1,186 @@
+package com.axonrh.ai.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the HNSW knowledge index.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int M = 16;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final int EF_SEARCH = 64;
+    private static final int K = 10;
+
+    private final Random random = new Random(7);
+
+    @Test
+    @DisplayName("Should match brute-force top-k on most results")
+    void shouldApproximateBruteForceRecall() {
+        assertThat(recall(false)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("Should keep recall with int8 quantized vectors")
+    void shouldApproximateBruteForceRecallWhenQuantized() {
+        assertThat(recall(true)).isGreaterThanOrEqualTo(0.8);
+    }
+
+    @Test
+    @DisplayName("Should hide removed documents and drop them on compaction")
+    void shouldRemoveAndCompact() {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSIONS, M, EF_CONSTRUCTION, false);
+        Map<String, float[]> vectors = new LinkedHashMap<>();
+        List<UUID> documents = new ArrayList<>();
+        for (int d = 0; d < 30; d++) {
+            UUID documentId = UUID.randomUUID();
+            documents.add(documentId);
+            for (int c = 0; c < 10; c++) {
+                float[] vector = randomVector();
+                String chunkId = documentId + "-" + c;
+                vectors.put(chunkId, vector);
+                index.add(chunkId, documentId, vector);
+            }
+        }
+        Set<UUID> removed = new HashSet<>(documents.subList(0, 10));
+
+        // When
+        removed.forEach(index::removeDocument);
+
+        // Then
+        assertThat(index.size()).isEqualTo(200);
+        assertThat(index.containsDocument(documents.get(0))).isFalse();
+        assertThat(index.needsCompaction()).isTrue();
+        for (int q = 0; q < 20; q++) {
+            assertThat(index.search(randomVector(), K, EF_SEARCH, -1f))
+                    .noneMatch(hit -> removed.contains(hit.documentId()));
+        }
+
+        HnswIndex compacted = index.compact();
+        assertThat(compacted.size()).isEqualTo(200);
+        assertThat(compacted.needsCompaction()).isFalse();
+        assertThat(compacted.containsDocument(documents.get(0))).isFalse();
+        vectors.forEach((chunkId, vector) -> {
+            boolean live = !removed.contains(UUID.fromString(chunkId.substring(0, 36)));
+            if (live) {
+                assertThat(compacted.search(vector, 1, EF_SEARCH, -1f))
+                        .extracting(HnswIndex.Hit::chunkId)
+                        .containsExactly(chunkId);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should restore graph, tombstones and watermark from a snapshot")
+    void shouldRoundTripSnapshot() throws IOException {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSIONS, M, EF_CONSTRUCTION, false);
+        UUID kept = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        for (int c = 0; c < 200; c++) {
+            index.add("k-" + c, kept, randomVector());
+            index.add("r-" + c, removed, randomVector());
+        }
+        index.removeDocument(removed);
+        long watermark = 1_700_000_000_000L;
+
+        // When
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.write(out, watermark);
+        }
+        Map.Entry<HnswIndex, Long> snapshot =
+                HnswIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Then
+        HnswIndex restored = snapshot.getKey();
+        assertThat(snapshot.getValue()).isEqualTo(watermark);
+        assertThat(restored.isCompatible(DIMENSIONS, M, false)).isTrue();
+        assertThat(restored.size()).isEqualTo(index.size());
+        assertThat(restored.containsDocument(kept)).isTrue();
+        assertThat(restored.containsDocument(removed)).isFalse();
+        assertThat(restored.needsCompaction()).isEqualTo(index.needsCompaction());
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomVector();
+            assertThat(restored.search(query, K, EF_SEARCH, -1f))
+                    .isEqualTo(index.search(query, K, EF_SEARCH, -1f));
+        }
+    }
+
+    /**
+     * Average fraction of the exact top-k returned by the index over random queries.
+     */
+    private double recall(boolean quantized) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, M, EF_CONSTRUCTION, quantized);
+        UUID documentId = UUID.randomUUID();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            float[] vector = normalize(randomVector());
+            vectors.add(vector);
+            index.add(String.valueOf(i), documentId, vector);
+        }
+
+        int queries = 50;
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = normalize(randomVector());
+            Set<String> exact = bruteForce(vectors, query);
+            found += (int) index.search(query, K, EF_SEARCH, -1f).stream()
+                    .filter(hit -> exact.contains(hit.chunkId()))
+                    .count();
+        }
+        return (double) found / (queries * K);
+    }
+
+    private Set<String> bruteForce(List<float[]> vectors, float[] query) {
+        Integer[] order = new Integer[vectors.size()];
+        float[] similarities = new float[vectors.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            similarities[i] = dot(vectors.get(i), query);
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(similarities[b], similarities[a]));
+        Set<String> top = new HashSet<>();
+        for (int i = 0; i < K; i++) {
+            top.add(String.valueOf(order[i]));
+        }
+        return top;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] / norm;
+        }
+        return normalized;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
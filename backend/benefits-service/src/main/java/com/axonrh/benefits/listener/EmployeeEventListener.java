@@ -11,7 +11,11 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class EmployeeEventListener {
 
-    @KafkaListener(topics = "employee.domain.events", groupId = "benefits-service")
+    @KafkaListener(
+            topics = "employee.domain.events",
+            groupId = "benefits-service",
+            concurrency = "${axonrh.kafka.listeners.employee-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
     public void handleEmployeeEvent(DomainEvent event) {
         log.info("Evento recebido: type={}, aggregateId={}",
                 event.getEventType(), event.getAggregateId());
@@ -1,6 +1,7 @@
 package com.axonrh.kafka.config;
 
-import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.serialization.AvroEventCodec;
+import com.axonrh.kafka.serialization.EventDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -22,7 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * T091 - Configuracao do Kafka Consumer com deserializacao JSON.
+ * T091 - Configuracao do Kafka Consumer com deserializacao JSON e Avro.
  */
 @Configuration
 @EnableKafka
@@ -41,7 +42,15 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.max-poll-records:500}")
     private Integer maxPollRecords;
 
+    /**
+     * Concorrencia padrao dos containers; cada listener pode sobrescrever pelo atributo
+     * {@code concurrency} (ex: {@code axonrh.kafka.listeners.<listener>.concurrency}).
+     */
+    @Value("${axonrh.kafka.consumer.concurrency:3}")
+    private Integer concurrency;
+
     private final ObjectMapper kafkaObjectMapper;
+    private final AvroEventCodec avroEventCodec;
 
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
@@ -72,15 +81,15 @@ public class KafkaConsumerConfig {
         return new DefaultKafkaConsumerFactory<>(
                 props,
                 new StringDeserializer(),
-                createJsonDeserializer()
+                createEventDeserializer()
         );
     }
 
-    private ErrorHandlingDeserializer<Object> createJsonDeserializer() {
-        JsonDeserializer<Object> deserializer = new JsonDeserializer<>(Object.class, kafkaObjectMapper);
-        deserializer.addTrustedPackages("com.axonrh.kafka.event.*", "com.axonrh.*");
-        deserializer.setUseTypeHeaders(true);
-        return new ErrorHandlingDeserializer<>(deserializer);
+    private ErrorHandlingDeserializer<Object> createEventDeserializer() {
+        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>(Object.class, kafkaObjectMapper);
+        jsonDeserializer.addTrustedPackages("com.axonrh.kafka.event.*", "com.axonrh.*");
+        jsonDeserializer.setUseTypeHeaders(true);
+        return new ErrorHandlingDeserializer<>(new EventDeserializer(avroEventCodec, jsonDeserializer));
     }
 
     @Bean
@@ -91,7 +100,7 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.setConsumerFactory(consumerFactory);
-        factory.setConcurrency(3);
+        factory.setConcurrency(concurrency);
         factory.setBatchListener(false);
 
         // Commit manual apos processamento
@@ -111,8 +120,10 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.setConsumerFactory(consumerFactory);
-        factory.setConcurrency(3);
+        factory.setConcurrency(concurrency);
         factory.setBatchListener(true);
+
+        // Confirmacao parcial (ack.nack(index, ...)) feita pelo AbstractBatchEventConsumer
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         factory.setCommonErrorHandler(errorHandler());
 
@@ -1,6 +1,9 @@
 package com.axonrh.kafka.config;
 
 import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.serialization.AvroEventCodec;
+import com.axonrh.kafka.serialization.AvroEventSerializer;
+import com.axonrh.kafka.serialization.EventSchemaRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -20,7 +23,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * T090 - Configuracao do Kafka Producer com serializacao JSON.
+ * T090 - Configuracao do Kafka Producer com serializacao JSON ou Avro
+ * ({@code axonrh.kafka.serialization.format}).
  */
 @Configuration
 @RequiredArgsConstructor
@@ -41,6 +45,13 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.producer.linger-ms:5}")
     private Integer lingerMs;
 
+    /**
+     * Formato dos eventos de dominio publicados: json ou avro.
+     * Os consumidores leem os dois, entao a troca pode ser feita por servico.
+     */
+    @Value("${axonrh.kafka.serialization.format:json}")
+    private String serializationFormat;
+
     @Bean
     public ObjectMapper kafkaObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -49,9 +60,21 @@ public class KafkaProducerConfig {
         return mapper;
     }
 
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return new EventSchemaRegistry();
+    }
+
+    @Bean
+    public AvroEventCodec avroEventCodec(EventSchemaRegistry eventSchemaRegistry,
+                                         @Qualifier("kafkaObjectMapper") ObjectMapper kafkaObjectMapper) {
+        return new AvroEventCodec(eventSchemaRegistry, kafkaObjectMapper);
+    }
+
     @Bean
     public ProducerFactory<String, DomainEvent> producerFactory(
-            @Qualifier("kafkaObjectMapper") ObjectMapper kafkaObjectMapper) {
+            @Qualifier("kafkaObjectMapper") ObjectMapper kafkaObjectMapper,
+            AvroEventCodec avroEventCodec) {
         Map<String, Object> props = new HashMap<>();
 
         // Conexao
@@ -77,10 +100,14 @@ public class KafkaProducerConfig {
         DefaultKafkaProducerFactory<String, DomainEvent> factory =
                 new DefaultKafkaProducerFactory<>(props);
 
-        // Configura ObjectMapper customizado
-        JsonSerializer<DomainEvent> valueSerializer = new JsonSerializer<>(kafkaObjectMapper);
-        valueSerializer.setAddTypeInfo(true);
-        factory.setValueSerializer(valueSerializer);
+        if ("avro".equalsIgnoreCase(serializationFormat)) {
+            factory.setValueSerializer(new AvroEventSerializer(avroEventCodec));
+        } else {
+            // Configura ObjectMapper customizado
+            JsonSerializer<DomainEvent> valueSerializer = new JsonSerializer<>(kafkaObjectMapper);
+            valueSerializer.setAddTypeInfo(true);
+            factory.setValueSerializer(valueSerializer);
+        }
 
         return factory;
     }
@@ -0,0 +1,238 @@
+package com.axonrh.kafka.consumer;
+
+import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
+import com.axonrh.kafka.producer.DomainEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe base abstrata para consumidores em lote ({@code batchKafkaListenerContainerFactory}).
+ *
+ * <p>Recebe o poll inteiro, agrupa os eventos por tenant e, dentro de cada tenant, por agregado
+ * (preservando a ordem de cada agregado) e entrega um grupo por tenant ao handler, que deve
+ * gravar o grupo em uma unica transacao. Se o grupo falhar, seus eventos sao reprocessados um a
+ * um e os que falharem de novo vao para a DLQ. Se nem a DLQ aceitar um evento, o lote e
+ * confirmado ate o registro anterior a ele e o restante e reentregue apos
+ * {@code axonrh.kafka.consumer.batch-redelivery-ms}. Registros que nao puderam ser
+ * deserializados sao encaminhados para a DLQ com o conteudo original.</p>
+ *
+ * <p>Com o {@link IdempotentEventProcessor} habilitado no servico, eventos ja processados sao
+ * descartados e o registro dos demais acompanha a transacao do grupo; assim as reentregas
+ * parciais nao repetem gravacoes.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public abstract class AbstractBatchEventConsumer<T extends DomainEvent> {
+
+    private static final long DLQ_TIMEOUT_SECONDS = 10;
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(AbstractBatchEventConsumer.class);
+
+    protected final DomainEventPublisher eventPublisher;
+
+    private IdempotentEventProcessor idempotentProcessor;
+
+    private Duration redeliveryDelay = Duration.ofSeconds(1);
+
+    @Autowired(required = false)
+    public void setIdempotentProcessor(IdempotentEventProcessor idempotentProcessor) {
+        this.idempotentProcessor = idempotentProcessor;
+    }
+
+    @Autowired
+    public void setRedeliveryDelay(@Value("${axonrh.kafka.consumer.batch-redelivery-ms:1000}") long redeliveryMs) {
+        this.redeliveryDelay = Duration.ofMillis(redeliveryMs);
+    }
+
+    /**
+     * Processa o lote recebido, com confirmacao parcial em caso de falha.
+     */
+    protected void processBatch(List<ConsumerRecord<String, T>> records, Acknowledgment ack) {
+        log.debug("Recebido lote: {} registros", records.size());
+
+        int firstUnresolved = records.size();
+        Map<UUID, List<IndexedEvent<T>>> byTenant = new LinkedHashMap<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, T> record = records.get(i);
+            T event = record.value();
+            if (event == null) {
+                if (!forwardUndeserializable(record)) {
+                    firstUnresolved = Math.min(firstUnresolved, i);
+                }
+                continue;
+            }
+
+            try {
+                validateEvent(event);
+            } catch (Exception e) {
+                if (!sendToDlq(event, "VALIDATION_ERROR", e)) {
+                    firstUnresolved = Math.min(firstUnresolved, i);
+                }
+                continue;
+            }
+
+            byTenant.computeIfAbsent(event.getTenantId(), tenantId -> new ArrayList<>())
+                    .add(new IndexedEvent<>(i, event));
+        }
+
+        for (Map.Entry<UUID, List<IndexedEvent<T>>> entry : byTenant.entrySet()) {
+            firstUnresolved = Math.min(firstUnresolved, processTenant(entry.getKey(), entry.getValue()));
+        }
+
+        if (firstUnresolved == records.size()) {
+            ack.acknowledge();
+            log.debug("Lote processado com sucesso: {} registros", records.size());
+        } else {
+            // Confirma os registros anteriores e reentrega a partir do primeiro nao resolvido
+            log.warn("Lote confirmado parcialmente: {} de {} registros, reentrega em {} ms",
+                    firstUnresolved, records.size(), redeliveryDelay.toMillis());
+            ack.nack(firstUnresolved, redeliveryDelay);
+        }
+    }
+
+    /**
+     * Processa os eventos de um tenant agrupados por agregado ({@code aggregateId}).
+     * Deve ser atomico: em caso de erro os eventos do grupo sao reprocessados individualmente.
+     */
+    protected abstract void handleBatch(UUID tenantId, Map<UUID, List<T>> eventsByAggregate) throws Exception;
+
+    /**
+     * Validacao basica do evento.
+     * Pode ser sobrescrito para validacoes adicionais.
+     */
+    protected void validateEvent(T event) {
+        if (event.getEventId() == null) {
+            throw new IllegalArgumentException("EventId nao pode ser nulo");
+        }
+        if (event.getEventType() == null) {
+            throw new IllegalArgumentException("EventType nao pode ser nulo");
+        }
+    }
+
+    /**
+     * Processa o grupo do tenant e retorna o indice do primeiro registro nao resolvido
+     * (ou {@link Integer#MAX_VALUE} se todos foram processados ou enviados para a DLQ).
+     */
+    private int processTenant(UUID tenantId, List<IndexedEvent<T>> entries) {
+        List<T> events = entries.stream().map(IndexedEvent::event).toList();
+        try {
+            handleOnce(tenantId, events);
+            return Integer.MAX_VALUE;
+        } catch (Exception e) {
+            log.warn("Falha no lote do tenant {} ({} eventos), reprocessando individualmente: {}",
+                    tenantId, events.size(), e.getMessage());
+        }
+
+        int firstUnresolved = Integer.MAX_VALUE;
+        for (IndexedEvent<T> entry : entries) {
+            T event = entry.event();
+            try {
+                handleOnce(tenantId, List.of(event));
+            } catch (Exception e) {
+                log.error("Erro ao processar evento: eventId={}, type={}, error={}",
+                        event.getEventId(), event.getEventType(), e.getMessage(), e);
+                if (!sendToDlq(event, "PROCESSING_ERROR", e)) {
+                    firstUnresolved = Math.min(firstUnresolved, entry.index());
+                }
+            }
+        }
+        return firstUnresolved;
+    }
+
+    private void handleOnce(UUID tenantId, List<T> events) throws Exception {
+        if (idempotentProcessor != null) {
+            idempotentProcessor.processAllOnce(events, DomainEvent::getEventId,
+                    fresh -> handleUnchecked(tenantId, fresh));
+        } else {
+            handleBatch(tenantId, groupByAggregate(events));
+        }
+    }
+
+    private void handleUnchecked(UUID tenantId, List<T> events) {
+        try {
+            handleBatch(tenantId, groupByAggregate(events));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private Map<UUID, List<T>> groupByAggregate(List<T> events) {
+        Map<UUID, List<T>> byAggregate = new LinkedHashMap<>();
+        for (T event : events) {
+            byAggregate.computeIfAbsent(event.getAggregateId(), aggregateId -> new ArrayList<>()).add(event);
+        }
+        return byAggregate;
+    }
+
+    /**
+     * Envia o evento para a DLQ aguardando a confirmacao do broker.
+     *
+     * @return {@code false} se o envio falhou e o registro precisa ser reentregue
+     */
+    private boolean sendToDlq(T event, String reason, Exception e) {
+        try {
+            eventPublisher.publishToDlq(event, reason, e).get(DLQ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            log.warn("Evento enviado para DLQ: eventId={}", event.getEventId());
+            return true;
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            log.error("Envio para DLQ interrompido: eventId={}", event.getEventId());
+            return false;
+        } catch (Exception dlqError) {
+            log.error("Falha ao enviar evento para DLQ: eventId={}, error={}",
+                    event.getEventId(), dlqError.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Encaminha para a DLQ o registro sem evento. Falhas de deserializacao
+     * (ErrorHandlingDeserializer) seguem com os bytes originais; tombstones sao ignorados.
+     *
+     * @return {@code false} se o envio falhou e o registro precisa ser reentregue
+     */
+    private boolean forwardUndeserializable(ConsumerRecord<String, T> record) {
+        DeserializationException failure = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        if (failure == null) {
+            log.debug("Registro sem valor ignorado: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset());
+            return true;
+        }
+
+        try {
+            eventPublisher.publishRawToDlq(record, failure.getData(), "DESERIALIZATION_ERROR", failure)
+                    .get(DLQ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            log.warn("Registro nao deserializavel enviado para DLQ: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset());
+            return true;
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            log.error("Envio para DLQ interrompido: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset());
+            return false;
+        } catch (Exception dlqError) {
+            log.error("Falha ao enviar registro nao deserializavel para DLQ: topic={}, partition={}, offset={}, error={}",
+                    record.topic(), record.partition(), record.offset(), dlqError.getMessage());
+            return false;
+        }
+    }
+
+    private record IndexedEvent<T>(int index, T event) {
+    }
+}
@@ -1,15 +1,18 @@
 package com.axonrh.kafka.consumer;
 
 import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
 import com.axonrh.kafka.producer.DomainEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.support.Acknowledgment;
 
 /**
  * Classe base abstrata para consumidores de eventos.
- * Fornece tratamento padronizado de erros e logging.
+ * Fornece tratamento padronizado de erros e logging, e deduplicacao por eventId quando o
+ * {@link IdempotentEventProcessor} esta habilitado no servico.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -17,6 +20,13 @@ public abstract class AbstractEventConsumer<T extends DomainEvent> {
 
     protected final DomainEventPublisher eventPublisher;
 
+    private IdempotentEventProcessor idempotentProcessor;
+
+    @Autowired(required = false)
+    public void setIdempotentProcessor(IdempotentEventProcessor idempotentProcessor) {
+        this.idempotentProcessor = idempotentProcessor;
+    }
+
     /**
      * Processa o record recebido com tratamento de erros.
      */
@@ -34,8 +44,12 @@ public abstract class AbstractEventConsumer<T extends DomainEvent> {
             // Valida evento
             validateEvent(event);
 
-            // Processa evento
-            handleEvent(event);
+            // Processa evento (uma unica vez por grupo de consumo, se habilitado)
+            if (idempotentProcessor != null) {
+                idempotentProcessor.processOnce(event.getEventId(), () -> handleUnchecked(event));
+            } else {
+                handleEvent(event);
+            }
 
             // Confirma processamento
             ack.acknowledge();
@@ -53,6 +67,16 @@ public abstract class AbstractEventConsumer<T extends DomainEvent> {
      */
     protected abstract void handleEvent(T event) throws Exception;
 
+    private void handleUnchecked(T event) {
+        try {
+            handleEvent(event);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Validacao basica do evento.
      * Pode ser sobrescrito para validacoes adicionais.
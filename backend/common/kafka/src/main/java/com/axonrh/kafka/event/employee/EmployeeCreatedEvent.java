@@ -21,6 +21,8 @@ public class EmployeeCreatedEvent extends EmployeeEvent {
     private String fullName;
     private String email;
     private LocalDate birthDate;
+    private String gender;
+    private String photoUrl;
     private LocalDate hireDate;
     private UUID departmentId;
     private String departmentName;
@@ -0,0 +1,101 @@
+package com.axonrh.kafka.idempotency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concorrente para as chaves de eventos ja vistos.
+ *
+ * <p>Mantem duas geracoes: quando a atual atinge a capacidade, ela passa a ser a anterior e uma
+ * nova comeca vazia. A taxa de falso positivo fica limitada e as chaves antigas saem do filtro
+ * sem precisar de remocao. Resposta negativa e definitiva para esta instancia.</p>
+ */
+class BloomFilter {
+
+    private final int capacity;
+    private final int bitCount;
+    private final int hashCount;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    BloomFilter(int capacity, double falsePositiveRate) {
+        this.capacity = capacity;
+        this.bitCount = (int) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        return current.mightContain(hash) || previous.mightContain(hash);
+    }
+
+    void put(String key) {
+        Generation generation = current;
+        generation.put(hash(key));
+        if (generation.count.incrementAndGet() == capacity) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new Generation(bitCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a com mistura final do MurmurHash3); as duas metades alimentam o
+     * double hashing das posicoes.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private final class Generation {
+
+        private final AtomicLongArray bits;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Generation(int bitCount) {
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = position(h1 + i * h2);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = position(h1 + i * h2);
+                long mask = 1L << bit;
+                bits.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+        }
+
+        private int position(int combined) {
+            return (combined & Integer.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.axonrh.kafka.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processamento idempotente de eventos consumidos.
+ *
+ * <p>O evento e registrado em {@code shared.processed_events}, por grupo de consumo e eventId,
+ * na mesma transacao em que o handler executa. Handlers que gravam no banco do servico participam
+ * dessa transacao: se falharem, o registro e desfeito junto com as alteracoes e o evento pode ser
+ * reprocessado; se confirmarem, novas entregas (rebalance, retry do produtor, relay do outbox)
+ * sao ignoradas.</p>
+ *
+ * <p>Um filtro de Bloom em memoria responde as consultas negativas: eventos nunca vistos por esta
+ * instancia seguem direto para a transacao, onde o insert com {@code ON CONFLICT DO NOTHING}
+ * resolve duplicatas vindas de outras replicas. Duplicatas conhecidas sao descartadas sem abrir
+ * transacao.</p>
+ *
+ * <p>Os registros expiram apos {@code axonrh.kafka.idempotency.ttl-hours} (padrao 7 dias) e sao
+ * removidos periodicamente.
+ * Habilitado com {@code axonrh.kafka.idempotency.enabled=true}; o servico deve incluir
+ * {@code com.axonrh.kafka.idempotency} em {@code @EnableJpaRepositories} e {@code @EntityScan}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "axonrh.kafka.idempotency", name = "enabled", havingValue = "true")
+@Slf4j
+public class IdempotentEventProcessor {
+
+    private final ProcessedEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final BloomFilter seenEvents;
+
+    public IdempotentEventProcessor(ProcessedEventRepository repository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${axonrh.kafka.idempotency.ttl-hours:168}") long ttlHours,
+                                    @Value("${axonrh.kafka.idempotency.bloom-capacity:100000}") int bloomCapacity,
+                                    @Value("${axonrh.kafka.idempotency.bloom-false-positive-rate:0.01}") double bloomFalsePositiveRate) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.seenEvents = new BloomFilter(bloomCapacity, bloomFalsePositiveRate);
+    }
+
+    /**
+     * Executa o handler uma unica vez por evento no grupo de consumo do listener corrente.
+     */
+    public boolean processOnce(Object eventId, Runnable handler) {
+        return processOnce(currentConsumerGroup(), eventId, handler);
+    }
+
+    /**
+     * Executa o handler uma unica vez por grupo de consumo e evento.
+     * Eventos sem identificador sao processados sem deduplicacao.
+     *
+     * @return {@code true} se o handler executou, {@code false} se o evento ja havia sido processado
+     */
+    public boolean processOnce(String consumerGroup, Object eventId, Runnable handler) {
+        if (eventId == null) {
+            log.debug("Evento sem eventId, processando sem deduplicacao: group={}", consumerGroup);
+            handler.run();
+            return true;
+        }
+
+        String id = eventId.toString();
+        if (isKnownDuplicate(consumerGroup, id)) {
+            return duplicate(consumerGroup, id);
+        }
+
+        Boolean processed = transactionTemplate.execute(status -> {
+            if (repository.markProcessed(consumerGroup, id, Instant.now().plus(ttl)) == 0) {
+                return false;
+            }
+            handler.run();
+            return true;
+        });
+
+        seenEvents.put(key(consumerGroup, id));
+        return Boolean.TRUE.equals(processed) || duplicate(consumerGroup, id);
+    }
+
+    /**
+     * Versao em lote de {@link #processOnce(Object, Runnable)}: descarta os eventos ja processados
+     * e executa o handler uma unica vez com os restantes, na mesma transacao que os registra.
+     * Se o handler falhar, nenhum evento do lote fica registrado.
+     *
+     * @return quantidade de eventos entregues ao handler
+     */
+    public <E> int processAllOnce(List<E> events, Function<E, ?> eventId, Consumer<List<E>> handler) {
+        String consumerGroup = currentConsumerGroup();
+
+        List<E> candidates = new ArrayList<>(events.size());
+        for (E event : events) {
+            Object id = eventId.apply(event);
+            if (id != null && isKnownDuplicate(consumerGroup, id.toString())) {
+                duplicate(consumerGroup, id.toString());
+            } else {
+                candidates.add(event);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        Integer processed = transactionTemplate.execute(status -> {
+            List<E> claimed = new ArrayList<>(candidates.size());
+            for (E event : candidates) {
+                Object id = eventId.apply(event);
+                if (id == null || repository.markProcessed(consumerGroup, id.toString(), expiresAt) > 0) {
+                    claimed.add(event);
+                } else {
+                    duplicate(consumerGroup, id.toString());
+                }
+            }
+            if (!claimed.isEmpty()) {
+                handler.accept(claimed);
+            }
+            return claimed.size();
+        });
+
+        for (E event : candidates) {
+            Object id = eventId.apply(event);
+            if (id != null) {
+                seenEvents.put(key(consumerGroup, id.toString()));
+            }
+        }
+        return processed != null ? processed : 0;
+    }
+
+    /**
+     * Remove registros expirados.
+     */
+    @Scheduled(fixedDelayString = "${axonrh.kafka.idempotency.purge-interval-ms:3600000}", initialDelay = 60000)
+    public void purgeExpired() {
+        Integer removed = transactionTemplate.execute(status -> repository.deleteExpired(Instant.now()));
+        if (removed != null && removed > 0) {
+            log.info("Registros de eventos processados expirados removidos: {}", removed);
+        }
+    }
+
+    private String currentConsumerGroup() {
+        String consumerGroup = KafkaUtils.getConsumerGroupId();
+        if (consumerGroup == null) {
+            throw new IllegalStateException("Grupo de consumo indisponivel fora de um listener Kafka");
+        }
+        return consumerGroup;
+    }
+
+    private boolean isKnownDuplicate(String consumerGroup, String eventId) {
+        return seenEvents.mightContain(key(consumerGroup, eventId)) && repository.isProcessed(consumerGroup, eventId);
+    }
+
+    private static String key(String consumerGroup, String eventId) {
+        return consumerGroup + ":" + eventId;
+    }
+
+    private boolean duplicate(String consumerGroup, String eventId) {
+        meterRegistry.counter("kafka.consumer.duplicates", "group", consumerGroup).increment();
+        log.info("Evento duplicado ignorado: group={}, eventId={}", consumerGroup, eventId);
+        return false;
+    }
+}
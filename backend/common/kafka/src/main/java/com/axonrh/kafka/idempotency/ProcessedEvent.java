@@ -0,0 +1,46 @@
+package com.axonrh.kafka.idempotency;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Evento ja processado por um grupo de consumo, gravado na mesma transacao do handler.
+ */
+@Entity
+@Table(name = "processed_events", schema = "shared")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedEvent {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+
+    /**
+     * Apos esta data o registro pode ser removido; duplicatas tardias voltam a ser processadas.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "consumer_group", length = 100)
+        private String consumerGroup;
+
+        @Column(name = "event_id", length = 100)
+        private String eventId;
+    }
+}
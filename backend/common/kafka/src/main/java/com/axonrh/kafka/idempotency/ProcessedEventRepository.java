@@ -0,0 +1,42 @@
+package com.axonrh.kafka.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repositorio dos eventos processados.
+ */
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, ProcessedEvent.Key> {
+
+    /**
+     * Registra o evento como processado.
+     * Uma transacao concorrente com o mesmo evento aguarda a outra terminar.
+     *
+     * @return 1 se registrado agora, 0 se ja havia sido processado
+     */
+    @Modifying
+    @Query(value = "INSERT INTO shared.processed_events (consumer_group, event_id, processed_at, expires_at) " +
+                   "VALUES (:consumerGroup, :eventId, CURRENT_TIMESTAMP, :expiresAt) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int markProcessed(@Param("consumerGroup") String consumerGroup,
+                      @Param("eventId") String eventId,
+                      @Param("expiresAt") Instant expiresAt);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM shared.processed_events " +
+                   "WHERE consumer_group = :consumerGroup AND event_id = :eventId)",
+           nativeQuery = true)
+    boolean isProcessed(@Param("consumerGroup") String consumerGroup, @Param("eventId") String eventId);
+
+    /**
+     * Remove registros expirados.
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,81 @@
+package com.axonrh.kafka.outbox;
+
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Mensagem aguardando envio ao Kafka, gravada na mesma transacao da alteracao que a originou.
+ * O payload ja esta serializado, exatamente como o consumidor o recebera.
+ */
+@Entity
+@Table(name = "event_outbox", schema = "shared")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEntry {
+
+    /**
+     * Ordem de gravacao; o relay envia as mensagens de cada chave nesta ordem.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Servico que gravou a mensagem; cada servico drena apenas as suas.
+     */
+    @Column(name = "source", nullable = false, length = 100)
+    private String source;
+
+    @Column(name = "topic", nullable = false, length = 200)
+    private String topic;
+
+    @Column(name = "message_key", length = 200)
+    private String messageKey;
+
+    /**
+     * Valor JSON da mensagem.
+     */
+    @Column(name = "payload", columnDefinition = "text", nullable = false)
+    private String payload;
+
+    /**
+     * Classe enviada no header {@code __TypeId__}, quando o consumidor depende dela.
+     */
+    @Column(name = "type_id", length = 300)
+    private String typeId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "headers", columnDefinition = "jsonb")
+    private Map<String, String> headers;
+
+    @Column(name = "attempts")
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    /**
+     * Preenchido quando a mensagem esgota as tentativas; o relay deixa de envia-la.
+     */
+    @Column(name = "parked_at")
+    private Instant parkedAt;
+
+    /**
+     * Prazo do lote em envio pelo relay; enquanto vigente, nenhuma outra replica drena o source.
+     */
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+}
@@ -0,0 +1,90 @@
+package com.axonrh.kafka.outbox;
+
+import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.producer.DomainEventPublisher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Publicacao transacional de eventos.
+ *
+ * <p>O evento e gravado no outbox dentro da transacao corrente e so chega ao Kafka, pelo
+ * {@link OutboxRelay}, depois do commit. Um rollback descarta o evento junto com a alteracao,
+ * e a requisicao nunca espera pelo broker.</p>
+ *
+ * <p>Habilitado com {@code axonrh.kafka.outbox.enabled=true}; o servico deve incluir
+ * {@code com.axonrh.kafka.outbox} em {@code @EnableJpaRepositories} e {@code @EntityScan}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "axonrh.kafka.outbox", name = "enabled", havingValue = "true")
+@Slf4j
+public class OutboxEventPublisher {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRelay relay;
+    private final ObjectMapper kafkaObjectMapper;
+
+    public OutboxEventPublisher(OutboxRepository outboxRepository,
+                                OutboxRelay relay,
+                                @Qualifier("kafkaObjectMapper") ObjectMapper kafkaObjectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.relay = relay;
+        this.kafkaObjectMapper = kafkaObjectMapper;
+    }
+
+    /**
+     * Grava o evento de dominio para o topic do evento, com a mesma chave, headers e
+     * informacao de tipo usados pelo {@link DomainEventPublisher}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        save(event.getTopicName(), DomainEventPublisher.partitionKey(event), event,
+                event.getClass().getName(), DomainEventPublisher.tracingHeaders(event));
+    }
+
+    /**
+     * Grava uma mensagem JSON sem informacao de tipo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String key, Object payload) {
+        save(topic, key, payload, null, null);
+    }
+
+    private void save(String topic, String key, Object payload, String typeId, Map<String, String> headers) {
+        String json;
+        try {
+            json = kafkaObjectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Falha ao serializar evento para o topic " + topic, e);
+        }
+
+        outboxRepository.save(OutboxEntry.builder()
+                .source(relay.getSource())
+                .topic(topic)
+                .messageKey(key)
+                .payload(json)
+                .typeId(typeId)
+                .headers(headers)
+                .build());
+
+        log.debug("Evento gravado no outbox: topic={}, key={}", topic, key);
+
+        // Acorda o relay assim que a transacao confirmar
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,422 @@
+package com.axonrh.kafka.outbox;
+
+import com.axonrh.kafka.event.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relay do outbox transacional: drena as mensagens gravadas pelo servico para o Kafka.
+ *
+ * <p>Cada lote e lido na ordem de gravacao e enviado em ondas: a primeira mensagem pendente de
+ * cada chave vai na mesma onda, e a seguinte da chave so e enviada apos a confirmacao da anterior.
+ * Uma falha retem a mensagem e as seguintes da mesma chave (que nem chegam a ser enviadas) para o
+ * proximo ciclo, de modo que a ordem por agregado se mantem (entrega at-least-once). Apos
+ * {@code axonrh.kafka.outbox.max-attempts} falhas a mensagem e estacionada ({@code parked_at}),
+ * sai da drenagem e libera as seguintes da chave.</p>
+ *
+ * <p>O lote e lido e assumido ({@code claimed_until}) em uma transacao curta, sob um lock advisory
+ * por servico; o envio ocorre fora de transacao e o resultado e gravado em uma segunda transacao
+ * curta, de modo que um broker lento nao retem conexao nem transacao abertas. Enquanto o prazo do
+ * lote ({@code axonrh.kafka.outbox.claim-ms}) estiver vigente nenhuma outra replica drena o
+ * servico; novas ondas so comecam se cabem no prazo e as mensagens restantes voltam ao proximo
+ * ciclo.</p>
+ *
+ * <p>Metricas, com tag {@code source}: {@code outbox.pending}, {@code outbox.lag.seconds}
+ * (idade da mensagem pendente mais antiga), {@code outbox.delivery.lag} (gravacao ate a
+ * confirmacao do broker), {@code outbox.published}, {@code outbox.failed}, {@code outbox.parked} e
+ * {@code outbox.relay.batch}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "axonrh.kafka.outbox", name = "enabled", havingValue = "true")
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DefaultKafkaProducerFactory<String, byte[]> relayProducerFactory;
+    private final KafkaTemplate<String, byte[]> relayTemplate;
+
+    private final String source;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollIntervalMs;
+    private final long sendTimeoutMs;
+    private final long statsIntervalMs;
+    private final long claimMs;
+
+    private final Object monitor = new Object();
+    private boolean wakeRequested;
+    private volatile boolean running;
+    private Thread worker;
+
+    private volatile long pending;
+    private volatile Instant oldestPending;
+    private long statsRefreshedAt;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       PlatformTransactionManager transactionManager,
+                       ProducerFactory<String, DomainEvent> producerFactory,
+                       MeterRegistry meterRegistry,
+                       @Value("${axonrh.kafka.outbox.source:${spring.application.name}}") String source,
+                       @Value("${axonrh.kafka.outbox.batch-size:200}") int batchSize,
+                       @Value("${axonrh.kafka.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${axonrh.kafka.outbox.poll-interval-ms:500}") long pollIntervalMs,
+                       @Value("${axonrh.kafka.outbox.send-timeout-ms:30000}") long sendTimeoutMs,
+                       @Value("${axonrh.kafka.outbox.stats-interval-ms:5000}") long statsIntervalMs,
+                       @Value("${axonrh.kafka.outbox.claim-ms:120000}") long claimMs) {
+        // Mesma configuracao do producer da aplicacao; o payload ja esta serializado
+        this(outboxRepository, transactionManager, new DefaultKafkaProducerFactory<>(
+                        producerFactory.getConfigurationProperties(), new StringSerializer(), new ByteArraySerializer()),
+                meterRegistry, source, batchSize, maxAttempts, pollIntervalMs, sendTimeoutMs, statsIntervalMs, claimMs);
+    }
+
+    private OutboxRelay(OutboxRepository outboxRepository,
+                        PlatformTransactionManager transactionManager,
+                        DefaultKafkaProducerFactory<String, byte[]> relayProducerFactory,
+                        MeterRegistry meterRegistry,
+                        String source, int batchSize, int maxAttempts,
+                        long pollIntervalMs, long sendTimeoutMs, long statsIntervalMs, long claimMs) {
+        this(outboxRepository, transactionManager, relayProducerFactory, new KafkaTemplate<>(relayProducerFactory),
+                meterRegistry, source, batchSize, maxAttempts, pollIntervalMs, sendTimeoutMs, statsIntervalMs, claimMs);
+    }
+
+    OutboxRelay(OutboxRepository outboxRepository,
+                PlatformTransactionManager transactionManager,
+                DefaultKafkaProducerFactory<String, byte[]> relayProducerFactory,
+                KafkaTemplate<String, byte[]> relayTemplate,
+                MeterRegistry meterRegistry,
+                String source, int batchSize, int maxAttempts,
+                long pollIntervalMs, long sendTimeoutMs, long statsIntervalMs, long claimMs) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayProducerFactory = relayProducerFactory;
+        this.relayTemplate = relayTemplate;
+        this.source = source;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollIntervalMs = pollIntervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.statsIntervalMs = statsIntervalMs;
+        this.claimMs = claimMs;
+
+        Gauge.builder("outbox.pending", this, relay -> relay.pending)
+                .tag("source", source)
+                .description("Mensagens aguardando envio")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", this, OutboxRelay::oldestPendingAgeSeconds)
+                .tag("source", source)
+                .description("Idade da mensagem pendente mais antiga")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .tag("source", source)
+                .description("Tempo entre a gravacao no outbox e a confirmacao do broker")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .tag("source", source)
+                .description("Duracao de um lote do relay")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.published")
+                .tag("source", source)
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.failed")
+                .tag("source", source)
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("outbox.parked")
+                .tag("source", source)
+                .description("Mensagens estacionadas apos esgotar as tentativas")
+                .register(meterRegistry);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Antecipa o proximo ciclo, chamado apos o commit de uma transacao com eventos.
+     */
+    public void wakeUp() {
+        synchronized (monitor) {
+            wakeRequested = true;
+            monitor.notify();
+        }
+    }
+
+    // ==================== Ciclo de vida ====================
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Relay do outbox iniciado: source={}, batchSize={}", source, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp();
+        try {
+            worker.join(sendTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (relayProducerFactory != null) {
+            relayProducerFactory.destroy();
+        }
+        log.info("Relay do outbox finalizado: source={}", source);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int published;
+                do {
+                    published = drainBatch();
+                } while (running && published == batchSize);
+                refreshStats();
+            } catch (Exception e) {
+                log.error("Erro no relay do outbox: source={}, error={}", source, e.getMessage(), e);
+            }
+
+            synchronized (monitor) {
+                if (!wakeRequested && running) {
+                    try {
+                        monitor.wait(pollIntervalMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                wakeRequested = false;
+            }
+        }
+    }
+
+    // ==================== Drenagem ====================
+
+    /**
+     * Assume um lote, envia fora de transacao e grava o resultado.
+     *
+     * @return mensagens removidas, ou -1 se houve falha (o relay aguarda o proximo ciclo)
+     */
+    int drainBatch() {
+        Instant claimedAt = Instant.now();
+        List<OutboxEntry> batch = transactionTemplate.execute(status -> claimBatch(claimedAt));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        long started = System.nanoTime();
+        // A ultima onda precisa caber no prazo do lote
+        long sendUntil = started + TimeUnit.MILLISECONDS.toNanos(claimMs - sendTimeoutMs);
+        SendOutcome outcome = sendBatch(batch, sendUntil);
+
+        List<Long> claimed = batch.stream().map(OutboxEntry::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!outcome.published.isEmpty()) {
+                outboxRepository.deletePublished(outcome.published);
+            }
+            if (!outcome.failed.isEmpty()) {
+                outboxRepository.markFailed(outcome.failed, truncate(outcome.firstError));
+            }
+            if (!outcome.parked.isEmpty()) {
+                outboxRepository.markParked(outcome.parked, truncate(outcome.firstError), Instant.now());
+            }
+            outboxRepository.releaseClaim(claimed);
+        });
+
+        publishedCounter.increment(outcome.published.size());
+        failedCounter.increment(outcome.failed.size());
+        parkedCounter.increment(outcome.parked.size());
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return outcome.failed.isEmpty() ? outcome.published.size() : -1;
+    }
+
+    /**
+     * Le e assume o proximo lote; vazio se outra replica detem o lock ou tem um lote em envio.
+     */
+    private List<OutboxEntry> claimBatch(Instant now) {
+        if (!outboxRepository.tryDrainLock("event_outbox:" + source)
+                || outboxRepository.existsBySourceAndClaimedUntilAfter(source, now)) {
+            return List.of(); // Outra replica esta drenando
+        }
+        List<OutboxEntry> batch = outboxRepository.findNextBatch(source, batchSize);
+        if (!batch.isEmpty()) {
+            outboxRepository.claim(batch.stream().map(OutboxEntry::getId).toList(), now.plusMillis(claimMs));
+        }
+        return batch;
+    }
+
+    /**
+     * Envia o lote em ondas por chave; nenhuma onda comeca apos {@code sendUntil} (exceto a primeira).
+     */
+    private SendOutcome sendBatch(List<OutboxEntry> batch, long sendUntil) {
+        // Fila por chave na ordem de gravacao; mensagens sem chave nao tem ordem a preservar
+        Map<String, Deque<OutboxEntry>> queues = new LinkedHashMap<>();
+        for (OutboxEntry entry : batch) {
+            String orderKey = entry.getMessageKey() != null
+                    ? entry.getTopic() + "/" + entry.getMessageKey()
+                    : "#" + entry.getId();
+            queues.computeIfAbsent(orderKey, key -> new ArrayDeque<>()).add(entry);
+        }
+
+        SendOutcome outcome = new SendOutcome();
+        boolean firstWave = true;
+        while (!queues.isEmpty() && (firstWave || System.nanoTime() < sendUntil)) {
+            firstWave = false;
+            // Onda: a proxima mensagem de cada chave, enviada sem esperar as demais chaves
+            List<OutboxEntry> wave = new ArrayList<>(queues.size());
+            List<CompletableFuture<?>> sends = new ArrayList<>(queues.size());
+            for (Deque<OutboxEntry> queue : queues.values()) {
+                OutboxEntry entry = queue.peekFirst();
+                wave.add(entry);
+                sends.add(send(entry));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            Iterator<Deque<OutboxEntry>> queueIterator = queues.values().iterator();
+            for (int i = 0; i < wave.size(); i++) {
+                Deque<OutboxEntry> queue = queueIterator.next();
+                OutboxEntry entry = wave.get(i);
+                String error = await(sends.get(i), deadline);
+
+                if (error == null) {
+                    outcome.published.add(entry.getId());
+                    deliveryLag.record(Duration.between(entry.getCreatedAt(), Instant.now()));
+                    queue.pollFirst();
+                    if (queue.isEmpty()) {
+                        queueIterator.remove();
+                    }
+                    continue;
+                }
+
+                // As seguintes da chave nao sao enviadas neste ciclo
+                queueIterator.remove();
+                int attempts = entry.getAttempts() + 1;
+                if (attempts >= maxAttempts) {
+                    outcome.parked.add(entry.getId());
+                    log.error("Evento do outbox estacionado apos {} tentativas: id={}, topic={}, key={}, error={}",
+                            attempts, entry.getId(), entry.getTopic(), entry.getMessageKey(), error);
+                } else {
+                    outcome.failed.add(entry.getId());
+                }
+                if (outcome.firstError == null) {
+                    outcome.firstError = error;
+                    log.warn("Falha ao enviar evento do outbox: id={}, topic={}, key={}, tentativas={}, error={}",
+                            entry.getId(), entry.getTopic(), entry.getMessageKey(), attempts, error);
+                }
+            }
+        }
+        if (!queues.isEmpty()) {
+            log.debug("Prazo do lote do outbox esgotado: {} chaves ficam para o proximo ciclo", queues.size());
+        }
+        return outcome;
+    }
+
+    private CompletableFuture<?> send(OutboxEntry entry) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                entry.getTopic(), entry.getMessageKey(), entry.getPayload().getBytes(StandardCharsets.UTF_8));
+        if (entry.getHeaders() != null) {
+            entry.getHeaders().forEach((name, value) ->
+                    record.headers().add(new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8))));
+        }
+        if (entry.getTypeId() != null) {
+            record.headers().add(new RecordHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                    entry.getTypeId().getBytes(StandardCharsets.UTF_8)));
+        }
+        try {
+            return relayTemplate.send(record);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Aguarda a confirmacao do envio ate o prazo do lote.
+     *
+     * @return mensagem de erro, ou {@code null} se confirmado
+     */
+    private static String await(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (TimeoutException e) {
+            return "Timeout aguardando confirmacao do broker";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrompido";
+        }
+    }
+
+    // ==================== Metricas ====================
+
+    private void refreshStats() {
+        long now = System.currentTimeMillis();
+        if (now - statsRefreshedAt < statsIntervalMs) {
+            return;
+        }
+        statsRefreshedAt = now;
+        pending = outboxRepository.countBySourceAndParkedAtIsNull(source);
+        oldestPending = pending > 0 ? outboxRepository.findOldestCreatedAt(source) : null;
+    }
+
+    private double oldestPendingAgeSeconds() {
+        Instant oldest = oldestPending;
+        return oldest != null ? Duration.between(oldest, Instant.now()).toMillis() / 1000.0 : 0.0;
+    }
+
+    private static final class SendOutcome {
+        final List<Long> published = new ArrayList<>();
+        final List<Long> failed = new ArrayList<>();
+        final List<Long> parked = new ArrayList<>();
+        String firstError;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,86 @@
+package com.axonrh.kafka.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio do outbox transacional.
+ */
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+
+    /**
+     * Tenta obter o lock de drenagem do servico ate o fim da transacao.
+     * Garante um unico relay por servico, preservando a ordem por chave entre replicas.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext(:lockName))", nativeQuery = true)
+    boolean tryDrainLock(@Param("lockName") String lockName);
+
+    /**
+     * Proximas mensagens do servico, na ordem de gravacao (exceto as estacionadas).
+     */
+    @Query(value = "SELECT * FROM shared.event_outbox WHERE source = :source AND parked_at IS NULL "
+                 + "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<OutboxEntry> findNextBatch(@Param("source") String source, @Param("limit") int limit);
+
+    /**
+     * Indica se ha um lote do servico em envio (assumido e com prazo vigente).
+     */
+    boolean existsBySourceAndClaimedUntilAfter(String source, Instant now);
+
+    /**
+     * Assume o lote ate {@code claimedUntil}; o envio ocorre fora da transacao.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEntry o SET o.claimedUntil = :claimedUntil WHERE o.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+    /**
+     * Libera o lote assumido; as mensagens nao enviadas voltam para o proximo ciclo.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEntry o SET o.claimedUntil = NULL WHERE o.id IN :ids")
+    int releaseClaim(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Conta mensagens pendentes do servico.
+     */
+    long countBySourceAndParkedAtIsNull(String source);
+
+    /**
+     * Data de gravacao da mensagem pendente mais antiga do servico.
+     */
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEntry o WHERE o.source = :source AND o.parkedAt IS NULL")
+    Instant findOldestCreatedAt(@Param("source") String source);
+
+    /**
+     * Remove mensagens ja confirmadas pelo broker.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEntry o WHERE o.id IN :ids")
+    int deletePublished(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Registra falha de envio.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEntry o SET o.attempts = o.attempts + 1, o.lastError = :error WHERE o.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /**
+     * Estaciona mensagens que esgotaram as tentativas; ficam para analise e reenvio manual.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEntry o SET o.attempts = o.attempts + 1, o.lastError = :error, o.parkedAt = :parkedAt "
+         + "WHERE o.id IN :ids")
+    int markParked(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                   @Param("parkedAt") Instant parkedAt);
+}
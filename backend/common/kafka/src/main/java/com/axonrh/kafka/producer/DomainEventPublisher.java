@@ -4,13 +4,20 @@ import com.axonrh.kafka.event.DomainEvent;
 import com.axonrh.kafka.topic.KafkaTopics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -20,10 +27,16 @@ import java.util.concurrent.CompletableFuture;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class DomainEventPublisher {
+public class DomainEventPublisher implements DisposableBean {
 
     private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
 
+    /** Template de bytes para a DLQ, criado no primeiro registro que nao pode ser deserializado. */
+    private volatile KafkaTemplate<String, byte[]> rawTemplate;
+
+    /** Factory do template de bytes; fechada junto com o contexto. */
+    private DefaultKafkaProducerFactory<String, byte[]> rawProducerFactory;
+
     /**
      * Publica evento no topic correspondente.
      * O topic e determinado pelo evento.
@@ -36,7 +49,7 @@ public class DomainEventPublisher {
      * Publica evento em topic especifico.
      */
     public CompletableFuture<SendResult<String, DomainEvent>> publish(String topic, DomainEvent event) {
-        String key = determineKey(event);
+        String key = partitionKey(event);
 
         ProducerRecord<String, DomainEvent> record = new ProducerRecord<>(topic, key, event);
 
@@ -80,7 +93,7 @@ public class DomainEventPublisher {
             DomainEvent event, String reason, Exception originalException) {
 
         ProducerRecord<String, DomainEvent> record =
-                new ProducerRecord<>(KafkaTopics.DEAD_LETTER_QUEUE, determineKey(event), event);
+                new ProducerRecord<>(KafkaTopics.DEAD_LETTER_QUEUE, partitionKey(event), event);
 
         record.headers()
                 .add(new RecordHeader("dlq.reason", reason.getBytes(StandardCharsets.UTF_8)))
@@ -89,7 +102,7 @@ public class DomainEventPublisher {
 
         if (originalException != null) {
             record.headers().add(new RecordHeader("dlq.exception",
-                    originalException.getMessage().getBytes(StandardCharsets.UTF_8)));
+                    String.valueOf(originalException.getMessage()).getBytes(StandardCharsets.UTF_8)));
         }
 
         log.warn("Enviando evento para DLQ: eventId={}, reason={}", event.getEventId(), reason);
@@ -97,11 +110,42 @@ public class DomainEventPublisher {
         return kafkaTemplate.send(record);
     }
 
+    /**
+     * Encaminha para a Dead Letter Queue um registro que nao pode ser deserializado, com o
+     * conteudo original intacto e os headers recebidos (incluindo o header de excecao do
+     * ErrorHandlingDeserializer).
+     */
+    public CompletableFuture<SendResult<String, byte[]>> publishRawToDlq(
+            ConsumerRecord<?, ?> original, byte[] data, String reason, Exception originalException) {
+
+        Object key = original.key();
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(KafkaTopics.DEAD_LETTER_QUEUE, null,
+                key != null ? key.toString() : null, data, original.headers());
+
+        record.headers()
+                .add(new RecordHeader("dlq.reason", reason.getBytes(StandardCharsets.UTF_8)))
+                .add(new RecordHeader("dlq.original-topic", original.topic().getBytes(StandardCharsets.UTF_8)))
+                .add(new RecordHeader("dlq.original-partition",
+                        String.valueOf(original.partition()).getBytes(StandardCharsets.UTF_8)))
+                .add(new RecordHeader("dlq.original-offset",
+                        String.valueOf(original.offset()).getBytes(StandardCharsets.UTF_8)));
+
+        if (originalException != null) {
+            record.headers().add(new RecordHeader("dlq.exception",
+                    String.valueOf(originalException.getMessage()).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        log.warn("Enviando registro bruto para DLQ: topic={}, partition={}, offset={}, reason={}",
+                original.topic(), original.partition(), original.offset(), reason);
+
+        return rawTemplate().send(record);
+    }
+
     /**
      * Determina a chave de particao do evento.
      * Usa aggregateId para garantir ordenacao de eventos do mesmo agregado.
      */
-    private String determineKey(DomainEvent event) {
+    public static String partitionKey(DomainEvent event) {
         if (event.getAggregateId() != null) {
             return event.getAggregateId().toString();
         }
@@ -111,29 +155,63 @@ public class DomainEventPublisher {
         return event.getEventId().toString();
     }
 
+    /**
+     * Template de bytes com a mesma configuracao do produtor de eventos.
+     */
+    private KafkaTemplate<String, byte[]> rawTemplate() {
+        KafkaTemplate<String, byte[]> template = rawTemplate;
+        if (template == null) {
+            synchronized (this) {
+                template = rawTemplate;
+                if (template == null) {
+                    rawProducerFactory = new DefaultKafkaProducerFactory<>(
+                            kafkaTemplate.getProducerFactory().getConfigurationProperties(),
+                            new StringSerializer(), new ByteArraySerializer());
+                    template = new KafkaTemplate<>(rawProducerFactory);
+                    rawTemplate = template;
+                }
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Fecha o produtor de bytes da DLQ, se chegou a ser criado.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (rawProducerFactory != null) {
+            rawProducerFactory.destroy();
+            rawProducerFactory = null;
+            rawTemplate = null;
+        }
+    }
+
     /**
      * Adiciona headers de rastreamento ao record.
      */
     private void addHeaders(ProducerRecord<String, DomainEvent> record, DomainEvent event) {
+        tracingHeaders(event).forEach((name, value) ->
+                record.headers().add(new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Headers de rastreamento do evento, na ordem em que sao enviados.
+     */
+    public static Map<String, String> tracingHeaders(DomainEvent event) {
+        Map<String, String> headers = new LinkedHashMap<>();
         if (event.getCorrelationId() != null) {
-            record.headers().add(new RecordHeader("correlationId",
-                    event.getCorrelationId().getBytes(StandardCharsets.UTF_8)));
+            headers.put("correlationId", event.getCorrelationId());
         }
-
         if (event.getCausationId() != null) {
-            record.headers().add(new RecordHeader("causationId",
-                    event.getCausationId().getBytes(StandardCharsets.UTF_8)));
+            headers.put("causationId", event.getCausationId());
         }
-
         if (event.getTenantId() != null) {
-            record.headers().add(new RecordHeader("tenantId",
-                    event.getTenantId().toString().getBytes(StandardCharsets.UTF_8)));
+            headers.put("tenantId", event.getTenantId().toString());
         }
-
-        record.headers().add(new RecordHeader("eventType",
-                event.getEventType().getBytes(StandardCharsets.UTF_8)));
-
-        record.headers().add(new RecordHeader("schemaVersion",
-                String.valueOf(event.getSchemaVersion() != null ? event.getSchemaVersion() : 1).getBytes(StandardCharsets.UTF_8)));
+        headers.put("eventType", event.getEventType());
+        headers.put("schemaVersion",
+                String.valueOf(event.getSchemaVersion() != null ? event.getSchemaVersion() : 1));
+        return headers;
     }
 }
@@ -0,0 +1,303 @@
+package com.axonrh.kafka.serialization;
+
+import com.axonrh.kafka.event.DomainEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codificacao binaria Avro dos eventos de dominio, no formato single-object encoding do Avro:
+ * marcador {@code C3 01}, fingerprint CRC-64-AVRO do schema do produtor e o corpo binario.
+ *
+ * <p>O evento passa pela arvore Jackson do {@code kafkaObjectMapper}, entao as anotacoes das
+ * classes valem para JSON e Avro igualmente. Na leitura, o schema do produtor e resolvido contra
+ * a versao mais recente conhecida pelo consumidor e o resultado e a classe tipada do evento.</p>
+ *
+ * <p>Tipos logicos usados nos schemas: {@code uuid} (fixed de 16 bytes), {@code timestamp-micros}
+ * (Instant), {@code date} (LocalDate) e {@code json} (string com JSON, para valores
+ * {@code Object} como metadados e campos alterados). Decimais sao strings.
+ * Unioes sao sempre {@code ["null", T]}.</p>
+ */
+public class AvroEventCodec {
+
+    private static final byte MARKER_0 = (byte) 0xC3;
+    private static final byte MARKER_1 = (byte) 0x01;
+    private static final int HEADER_LENGTH = 10;
+
+    private static final String CLASS_PROPERTY = "@class";
+    private static final String JSON_LOGICAL_TYPE = "json";
+
+    // Sem conversoes de tipos logicos: os valores sao convertidos aqui, a partir da arvore Jackson
+    private static final GenericData MODEL = new GenericData();
+
+    private final EventSchemaRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Class<?>, EventWriter> writers = new ConcurrentHashMap<>();
+    private final Map<Long, EventReader> readers = new ConcurrentHashMap<>();
+
+    public AvroEventCodec(EventSchemaRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Indica se o payload esta em Avro (JSON sempre comeca por outro caractere).
+     */
+    public static boolean isAvro(byte[] data) {
+        return data != null && data.length >= HEADER_LENGTH && data[0] == MARKER_0 && data[1] == MARKER_1;
+    }
+
+    public byte[] encode(DomainEvent event) {
+        EventWriter writer = writers.computeIfAbsent(event.getClass(), this::createWriter);
+        GenericRecord record = (GenericRecord) toAvro(writer.schema(), objectMapper.valueToTree(event));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.writeBytes(writer.header());
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            writer.datumWriter().write(record, encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Falha ao serializar evento " + event.getClass().getSimpleName()
+                    + " em Avro: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+
+    public DomainEvent decode(byte[] data) {
+        long fingerprint = ByteBuffer.wrap(data, 2, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        EventReader reader = readers.computeIfAbsent(fingerprint, this::createReader);
+        try {
+            GenericRecord record = reader.datumReader().read(null,
+                    DecoderFactory.get().binaryDecoder(data, HEADER_LENGTH, data.length - HEADER_LENGTH, null));
+            ObjectNode tree = (ObjectNode) fromAvro(reader.datumReader().getExpected(), record);
+            tree.put(CLASS_PROPERTY, reader.eventClass().getName());
+            return objectMapper.treeToValue(tree, reader.eventClass());
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Falha ao deserializar evento " + reader.eventClass().getSimpleName()
+                    + " em Avro: " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== Schemas ====================
+
+    private EventWriter createWriter(Class<?> eventClass) {
+        Schema schema = registry.findLatest(eventClass.getName());
+        if (schema == null) {
+            throw new SerializationException("Evento sem schema Avro registrado: " + eventClass.getName());
+        }
+        byte[] header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN)
+                .put(MARKER_0).put(MARKER_1)
+                .putLong(SchemaNormalization.parsingFingerprint64(schema))
+                .array();
+        return new EventWriter(schema, header, new GenericDatumWriter<>(schema, MODEL));
+    }
+
+    private EventReader createReader(long fingerprint) {
+        Schema writerSchema = registry.findByFingerprint(fingerprint);
+        if (writerSchema == null) {
+            throw new SerializationException("Schema Avro desconhecido: fingerprint=" + Long.toHexString(fingerprint));
+        }
+        // Nome do record vem do registro local, nunca da mensagem
+        Schema readerSchema = registry.findLatest(writerSchema.getFullName());
+        Class<? extends DomainEvent> eventClass;
+        try {
+            eventClass = Class.forName(readerSchema.getFullName()).asSubclass(DomainEvent.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new SerializationException("Schema sem classe de evento correspondente: " + readerSchema.getFullName(), e);
+        }
+        return new EventReader(eventClass, new GenericDatumReader<>(writerSchema, readerSchema, MODEL));
+    }
+
+    // ==================== Jackson -> Avro ====================
+
+    private Object toAvro(Schema schema, JsonNode node) {
+        if (schema.getType() == Schema.Type.STRING && isJson(schema)) {
+            return writeJson(node);
+        }
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            if (schema.isNullable()) {
+                return null;
+            }
+            throw new IllegalArgumentException("Valor obrigatorio ausente para " + schema.getName());
+        }
+
+        String logicalType = schema.getProp(LogicalType.LOGICAL_TYPE_PROP);
+        switch (schema.getType()) {
+            case UNION:
+                return toAvro(nonNullBranch(schema), node);
+            case RECORD: {
+                GenericData.Record record = new GenericData.Record(schema);
+                for (Schema.Field field : schema.getFields()) {
+                    record.put(field.pos(), toAvro(field.schema(), node.get(field.name())));
+                }
+                return record;
+            }
+            case MAP: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                node.fields().forEachRemaining(entry ->
+                        map.put(entry.getKey(), toAvro(schema.getValueType(), entry.getValue())));
+                return map;
+            }
+            case ARRAY: {
+                List<Object> list = new ArrayList<>(node.size());
+                node.forEach(element -> list.add(toAvro(schema.getElementType(), element)));
+                return list;
+            }
+            case FIXED:
+                if ("uuid".equals(logicalType)) {
+                    UUID uuid = UUID.fromString(node.asText());
+                    return new GenericData.Fixed(schema, ByteBuffer.allocate(16)
+                            .putLong(uuid.getMostSignificantBits())
+                            .putLong(uuid.getLeastSignificantBits())
+                            .array());
+                }
+                throw new IllegalArgumentException("Tipo fixed nao suportado: " + schema.getName());
+            case LONG:
+                if ("timestamp-micros".equals(logicalType)) {
+                    Instant instant = Instant.parse(node.asText());
+                    return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+                }
+                return node.asLong();
+            case INT:
+                if ("date".equals(logicalType)) {
+                    return (int) LocalDate.parse(node.asText()).toEpochDay();
+                }
+                return node.asInt();
+            case STRING:
+                return node.asText();
+            case BOOLEAN:
+                return node.asBoolean();
+            case DOUBLE:
+                return node.asDouble();
+            case ENUM:
+                return new GenericData.EnumSymbol(schema, node.asText());
+            default:
+                throw new IllegalArgumentException("Tipo Avro nao suportado: " + schema.getType());
+        }
+    }
+
+    // ==================== Avro -> Jackson ====================
+
+    private JsonNode fromAvro(Schema schema, Object value) {
+        JsonNodeFactory nodes = objectMapper.getNodeFactory();
+        if (value == null) {
+            return nodes.nullNode();
+        }
+
+        String logicalType = schema.getProp(LogicalType.LOGICAL_TYPE_PROP);
+        switch (schema.getType()) {
+            case UNION:
+                return fromAvro(nonNullBranch(schema), value);
+            case RECORD: {
+                GenericRecord record = (GenericRecord) value;
+                ObjectNode object = nodes.objectNode();
+                for (Schema.Field field : schema.getFields()) {
+                    object.set(field.name(), fromAvro(field.schema(), record.get(field.pos())));
+                }
+                return object;
+            }
+            case MAP: {
+                ObjectNode object = nodes.objectNode();
+                ((Map<?, ?>) value).forEach((key, element) ->
+                        object.set(key.toString(), fromAvro(schema.getValueType(), element)));
+                return object;
+            }
+            case ARRAY: {
+                ArrayNode array = nodes.arrayNode();
+                ((Collection<?>) value).forEach(element -> array.add(fromAvro(schema.getElementType(), element)));
+                return array;
+            }
+            case FIXED: {
+                ByteBuffer bytes = ByteBuffer.wrap(((GenericData.Fixed) value).bytes());
+                return nodes.textNode(new UUID(bytes.getLong(), bytes.getLong()).toString());
+            }
+            case LONG: {
+                long longValue = (Long) value;
+                if ("timestamp-micros".equals(logicalType)) {
+                    return nodes.textNode(Instant.ofEpochSecond(
+                            Math.floorDiv(longValue, 1_000_000L), Math.floorMod(longValue, 1_000_000L) * 1_000L).toString());
+                }
+                return nodes.numberNode(longValue);
+            }
+            case INT: {
+                int intValue = (Integer) value;
+                if ("date".equals(logicalType)) {
+                    return nodes.textNode(LocalDate.ofEpochDay(intValue).toString());
+                }
+                return nodes.numberNode(intValue);
+            }
+            case STRING:
+                return isJson(schema) ? readJson(value.toString()) : nodes.textNode(value.toString());
+            case BOOLEAN:
+                return nodes.booleanNode((Boolean) value);
+            case DOUBLE:
+                return nodes.numberNode((Double) value);
+            case ENUM:
+                return nodes.textNode(value.toString());
+            default:
+                throw new IllegalArgumentException("Tipo Avro nao suportado: " + schema.getType());
+        }
+    }
+
+    // ==================== Utilitarios ====================
+
+    private static Schema nonNullBranch(Schema union) {
+        for (Schema branch : union.getTypes()) {
+            if (branch.getType() != Schema.Type.NULL) {
+                return branch;
+            }
+        }
+        throw new IllegalArgumentException("Uniao sem tipo nao nulo: " + union);
+    }
+
+    private static boolean isJson(Schema schema) {
+        return JSON_LOGICAL_TYPE.equals(schema.getProp(LogicalType.LOGICAL_TYPE_PROP));
+    }
+
+    private String writeJson(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node != null ? node : objectMapper.getNodeFactory().nullNode());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Valor JSON invalido", e);
+        }
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Valor JSON invalido", e);
+        }
+    }
+
+    private record EventWriter(Schema schema, byte[] header, GenericDatumWriter<GenericRecord> datumWriter) {
+    }
+
+    private record EventReader(Class<? extends DomainEvent> eventClass, GenericDatumReader<GenericRecord> datumReader) {
+    }
+}
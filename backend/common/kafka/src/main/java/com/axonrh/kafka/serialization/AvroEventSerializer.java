@@ -0,0 +1,22 @@
+package com.axonrh.kafka.serialization;
+
+import com.axonrh.kafka.event.DomainEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serializador Kafka dos eventos de dominio em Avro binario.
+ * O payload identifica o proprio schema, dispensando o header {@code __TypeId__}.
+ */
+public class AvroEventSerializer implements Serializer<DomainEvent> {
+
+    private final AvroEventCodec codec;
+
+    public AvroEventSerializer(AvroEventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, DomainEvent data) {
+        return data != null ? codec.encode(data) : null;
+    }
+}
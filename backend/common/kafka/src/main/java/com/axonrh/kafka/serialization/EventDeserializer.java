@@ -0,0 +1,45 @@
+package com.axonrh.kafka.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Deserializador dos eventos consumidos: Avro quando o payload traz o marcador do
+ * single-object encoding, JSON com headers de tipo nos demais casos.
+ *
+ * <p>Permite migrar os produtores para Avro sem coordenar a troca com os consumidores, e
+ * mantem os topics que ainda publicam mapas JSON.</p>
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final AvroEventCodec codec;
+    private final JsonDeserializer<Object> jsonDeserializer;
+
+    public EventDeserializer(AvroEventCodec codec, JsonDeserializer<Object> jsonDeserializer) {
+        this.codec = codec;
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return AvroEventCodec.isAvro(data) ? codec.decode(data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return AvroEventCodec.isAvro(data) ? codec.decode(data) : jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
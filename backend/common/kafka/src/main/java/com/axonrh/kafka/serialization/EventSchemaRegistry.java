@@ -0,0 +1,125 @@
+package com.axonrh.kafka.serialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.SchemaValidationException;
+import org.apache.avro.SchemaValidator;
+import org.apache.avro.SchemaValidatorBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registro local (baseado em arquivos) dos schemas Avro dos eventos de dominio.
+ *
+ * <p>Cada schema fica em {@code schemas/events/<dominio>/<Evento>.v<N>.avsc} no classpath e o
+ * nome completo do record e a classe Java do evento. Todas as versoes permanecem registradas,
+ * indexadas pelo fingerprint, para que mensagens de produtores antigos continuem legiveis.</p>
+ *
+ * <p>O carregamento falha se uma versao nao for compativel nos dois sentidos com todas as
+ * anteriores: produtores e consumidores sao implantados de forma independente, entao um
+ * consumidor antigo precisa ler a versao nova e vice-versa.</p>
+ */
+@Slf4j
+public class EventSchemaRegistry {
+
+    public static final String DEFAULT_LOCATION = "classpath*:schemas/events/**/*.avsc";
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("\\.v(\\d+)\\.avsc$");
+
+    private final Map<Long, Schema> schemasByFingerprint = new HashMap<>();
+    private final Map<String, Schema> latestByName = new HashMap<>();
+
+    public EventSchemaRegistry() {
+        this(DEFAULT_LOCATION);
+    }
+
+    public EventSchemaRegistry(String locationPattern) {
+        Map<String, TreeMap<Integer, Schema>> versionsByName = load(locationPattern);
+        SchemaValidator validator = new SchemaValidatorBuilder().mutualReadStrategy().validateAll();
+
+        versionsByName.forEach((name, versions) -> {
+            List<Schema> previous = new ArrayList<>();
+            versions.forEach((version, schema) -> {
+                try {
+                    validator.validate(schema, previous);
+                } catch (SchemaValidationException e) {
+                    throw new IllegalStateException("Schema " + name + " v" + version
+                            + " incompativel com as versoes anteriores: " + e.getMessage(), e);
+                }
+                previous.add(schema);
+                schemasByFingerprint.put(SchemaNormalization.parsingFingerprint64(schema), schema);
+            });
+            latestByName.put(name, versions.lastEntry().getValue());
+        });
+
+        log.info("Schemas de eventos carregados: eventos={}, versoes={}",
+                latestByName.size(), schemasByFingerprint.size());
+    }
+
+    /**
+     * Versao mais recente do schema do evento, ou {@code null} se nao registrado.
+     */
+    public Schema findLatest(String eventClassName) {
+        return latestByName.get(eventClassName);
+    }
+
+    /**
+     * Schema de qualquer versao registrada, pelo fingerprint CRC-64-AVRO.
+     */
+    public Schema findByFingerprint(long fingerprint) {
+        return schemasByFingerprint.get(fingerprint);
+    }
+
+    /**
+     * Classes de evento com schema registrado.
+     */
+    public Set<String> getEventClassNames() {
+        return Collections.unmodifiableSet(latestByName.keySet());
+    }
+
+    private static Map<String, TreeMap<Integer, Schema>> load(String locationPattern) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(locationPattern);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar schemas de eventos em " + locationPattern, e);
+        }
+
+        Map<String, TreeMap<Integer, Schema>> versionsByName = new TreeMap<>();
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            Matcher matcher = filename != null ? VERSION_PATTERN.matcher(filename) : null;
+            if (matcher == null || !matcher.find()) {
+                throw new IllegalStateException("Schema sem versao no nome (<Evento>.v<N>.avsc): " + resource);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+
+            // Um parser por arquivo: os tipos nomeados (ex: Uuid) se repetem entre os schemas
+            Schema schema;
+            try (InputStream in = resource.getInputStream()) {
+                schema = new Schema.Parser().parse(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler schema " + resource, e);
+            }
+            if (schema.getType() != Schema.Type.RECORD) {
+                throw new IllegalStateException("Schema de evento deve ser um record: " + resource);
+            }
+
+            Schema existing = versionsByName
+                    .computeIfAbsent(schema.getFullName(), name -> new TreeMap<>())
+                    .putIfAbsent(version, schema);
+            if (existing != null) {
+                throw new IllegalStateException("Versao duplicada do schema " + schema.getFullName() + ": v" + version);
+            }
+        }
+        return versionsByName;
+    }
+}
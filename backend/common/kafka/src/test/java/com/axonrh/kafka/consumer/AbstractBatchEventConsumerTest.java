@@ -0,0 +1,211 @@
+package com.axonrh.kafka.consumer;
+
+import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.event.employee.EmployeeCreatedEvent;
+import com.axonrh.kafka.producer.DomainEventPublisher;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do AbstractBatchEventConsumer.
+ */
+@ExtendWith(MockitoExtension.class)
+class AbstractBatchEventConsumerTest {
+
+    private static final UUID TENANT_A = UUID.randomUUID();
+    private static final UUID TENANT_B = UUID.randomUUID();
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private RecordingConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new RecordingConsumer(eventPublisher);
+        consumer.setRedeliveryDelay(500);
+    }
+
+    @Test
+    @DisplayName("Deve entregar um grupo por tenant, agrupado por agregado e em ordem")
+    void shouldGroupByTenantAndAggregate() {
+        // Given
+        UUID employee = UUID.randomUUID();
+        DomainEvent first = event(TENANT_A, employee);
+        DomainEvent other = event(TENANT_B, UUID.randomUUID());
+        DomainEvent second = event(TENANT_A, employee);
+
+        // When
+        consumer.processBatch(records(first, other, second), ack);
+
+        // Then
+        assertThat(consumer.batches).hasSize(2);
+        assertThat(consumer.batches.get(TENANT_A)).containsOnlyKeys(employee);
+        assertThat(consumer.batches.get(TENANT_A).get(employee)).containsExactly(first, second);
+        assertThat(consumer.batches.get(TENANT_B)).hasSize(1);
+        verify(ack).acknowledge();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve reprocessar individualmente e enviar para DLQ apenas o evento com falha")
+    void shouldSendOnlyFailedEventToDlq() {
+        // Given
+        DomainEvent ok = event(TENANT_A, UUID.randomUUID());
+        DomainEvent poison = event(TENANT_A, UUID.randomUUID());
+        consumer.failing.add(poison.getEventId());
+        when(eventPublisher.publishToDlq(eq(poison), eq("PROCESSING_ERROR"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        consumer.processBatch(records(ok, poison), ack);
+
+        // Then
+        assertThat(consumer.handled).contains(ok.getEventId()).doesNotContain(poison.getEventId());
+        verify(eventPublisher).publishToDlq(eq(poison), eq("PROCESSING_ERROR"), any());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve confirmar parcialmente quando a DLQ tambem falhar")
+    void shouldNackFromFirstUnresolvedRecord() {
+        // Given
+        DomainEvent first = event(TENANT_A, UUID.randomUUID());
+        DomainEvent poison = event(TENANT_B, UUID.randomUUID());
+        DomainEvent last = event(TENANT_A, UUID.randomUUID());
+        consumer.failing.add(poison.getEventId());
+        when(eventPublisher.publishToDlq(eq(poison), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponivel")));
+
+        // When
+        consumer.processBatch(records(first, poison, last), ack);
+
+        // Then
+        verify(ack).nack(1, Duration.ofMillis(500));
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve enviar para DLQ evento invalido sem chamar o handler")
+    void shouldSendInvalidEventToDlq() {
+        // Given
+        DomainEvent invalid = EmployeeCreatedEvent.create().tenantId(TENANT_A).build();
+        when(eventPublisher.publishToDlq(eq(invalid), eq("VALIDATION_ERROR"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        consumer.processBatch(records(invalid), ack);
+
+        // Then
+        assertThat(consumer.batches).isEmpty();
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve enviar para DLQ os bytes originais do registro nao deserializavel")
+    void shouldForwardUndeserializableRecordToDlq() {
+        // Given
+        DomainEvent ok = event(TENANT_A, UUID.randomUUID());
+        byte[] raw = "{nao-e-json".getBytes(StandardCharsets.UTF_8);
+        List<ConsumerRecord<String, DomainEvent>> records = records(ok, null);
+        SerializationUtils.deserializationException(records.get(1).headers(), raw,
+                new IllegalArgumentException("json invalido"), false);
+        when(eventPublisher.publishRawToDlq(eq(records.get(1)), eq(raw), eq("DESERIALIZATION_ERROR"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        consumer.processBatch(records, ack);
+
+        // Then
+        assertThat(consumer.handled).containsExactly(ok.getEventId());
+        verify(eventPublisher).publishRawToDlq(eq(records.get(1)), eq(raw), eq("DESERIALIZATION_ERROR"), any());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve reentregar o registro nao deserializavel quando a DLQ falhar")
+    void shouldNackUndeserializableRecordWhenDlqFails() {
+        // Given
+        List<ConsumerRecord<String, DomainEvent>> records = records(event(TENANT_A, UUID.randomUUID()), null);
+        SerializationUtils.deserializationException(records.get(1).headers(), new byte[]{1, 2, 3},
+                new IllegalArgumentException("json invalido"), false);
+        when(eventPublisher.publishRawToDlq(any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponivel")));
+
+        // When
+        consumer.processBatch(records, ack);
+
+        // Then
+        verify(ack).nack(1, Duration.ofMillis(500));
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar tombstone sem enviar para DLQ")
+    void shouldSkipTombstone() {
+        // When
+        consumer.processBatch(records((DomainEvent) null), ack);
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+        verify(ack).acknowledge();
+    }
+
+    private DomainEvent event(UUID tenantId, UUID employeeId) {
+        return EmployeeCreatedEvent.create()
+                .eventId(UUID.randomUUID())
+                .tenantId(tenantId)
+                .aggregateId(employeeId)
+                .fullName("Colaborador")
+                .build();
+    }
+
+    private List<ConsumerRecord<String, DomainEvent>> records(DomainEvent... events) {
+        List<ConsumerRecord<String, DomainEvent>> records = new ArrayList<>();
+        for (int i = 0; i < events.length; i++) {
+            records.add(new ConsumerRecord<>("employee.domain.events", 0, i, null, events[i]));
+        }
+        return records;
+    }
+
+    private static class RecordingConsumer extends AbstractBatchEventConsumer<DomainEvent> {
+
+        private final Map<UUID, Map<UUID, List<DomainEvent>>> batches = new LinkedHashMap<>();
+        private final Set<UUID> failing = new HashSet<>();
+        private final Set<UUID> handled = new HashSet<>();
+
+        RecordingConsumer(DomainEventPublisher eventPublisher) {
+            super(eventPublisher);
+        }
+
+        @Override
+        protected void handleBatch(UUID tenantId, Map<UUID, List<DomainEvent>> eventsByAggregate) {
+            List<DomainEvent> events = eventsByAggregate.values().stream().flatMap(List::stream).toList();
+            if (events.stream().anyMatch(event -> failing.contains(event.getEventId()))) {
+                throw new IllegalStateException("falha simulada");
+            }
+            batches.put(tenantId, eventsByAggregate);
+            events.forEach(event -> handled.add(event.getEventId()));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.axonrh.kafka.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do IdempotentEventProcessor.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotentEventProcessorTest {
+
+    private static final String GROUP = "vacation-service";
+
+    @Mock
+    private ProcessedEventRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private IdempotentEventProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new IdempotentEventProcessor(repository, transactionManager, meterRegistry, 168, 1000, 0.01);
+    }
+
+    @Test
+    @DisplayName("Deve executar o handler de evento novo sem consultar o registro")
+    void shouldProcessNewEvent() {
+        // Given
+        String eventId = UUID.randomUUID().toString();
+        when(repository.markProcessed(eq(GROUP), eq(eventId), any())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        boolean processed = processor.processOnce(GROUP, eventId, calls::incrementAndGet);
+
+        // Then
+        assertThat(processed).isTrue();
+        assertThat(calls).hasValue(1);
+        verify(repository, never()).isProcessed(any(), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar evento repetido sem abrir transacao")
+    void shouldSkipKnownDuplicate() {
+        // Given
+        String eventId = UUID.randomUUID().toString();
+        when(repository.markProcessed(eq(GROUP), eq(eventId), any())).thenReturn(1);
+        when(repository.isProcessed(GROUP, eventId)).thenReturn(true);
+        AtomicInteger calls = new AtomicInteger();
+        processor.processOnce(GROUP, eventId, calls::incrementAndGet);
+
+        // When
+        boolean processed = processor.processOnce(GROUP, eventId, calls::incrementAndGet);
+
+        // Then
+        assertThat(processed).isFalse();
+        assertThat(calls).hasValue(1);
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertThat(meterRegistry.counter("kafka.consumer.duplicates", "group", GROUP).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar evento ja registrado por outra instancia")
+    void shouldSkipEventClaimedElsewhere() {
+        // Given
+        String eventId = UUID.randomUUID().toString();
+        when(repository.markProcessed(eq(GROUP), eq(eventId), any())).thenReturn(0);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        boolean processed = processor.processOnce(GROUP, eventId, calls::incrementAndGet);
+
+        // Then
+        assertThat(processed).isFalse();
+        assertThat(calls).hasValue(0);
+        assertThat(meterRegistry.counter("kafka.consumer.duplicates", "group", GROUP).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o registro quando o handler falha")
+    void shouldRollbackWhenHandlerFails() {
+        // Given
+        String eventId = UUID.randomUUID().toString();
+        when(repository.markProcessed(eq(GROUP), eq(eventId), any())).thenReturn(1);
+
+        // When / Then
+        assertThatThrownBy(() -> processor.processOnce(GROUP, eventId, () -> {
+            throw new IllegalStateException("falha");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve processar eventos sem eventId sem deduplicacao")
+    void shouldProcessEventWithoutId() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        processor.processOnce(GROUP, null, calls::incrementAndGet);
+        processor.processOnce(GROUP, null, calls::incrementAndGet);
+
+        // Then
+        assertThat(calls).hasValue(2);
+        verifyNoInteractions(repository, transactionManager);
+    }
+}
@@ -0,0 +1,123 @@
+package com.axonrh.kafka.outbox;
+
+import com.axonrh.kafka.event.employee.EmployeeCreatedEvent;
+import com.axonrh.kafka.topic.KafkaTopics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do OutboxEventPublisher.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxEventPublisherTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private OutboxRelay relay;
+
+    @Captor
+    private ArgumentCaptor<OutboxEntry> entryCaptor;
+
+    private ObjectMapper objectMapper;
+
+    private OutboxEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        publisher = new OutboxEventPublisher(outboxRepository, relay, objectMapper);
+        TransactionSynchronizationManager.initSynchronization();
+        lenient().when(relay.getSource()).thenReturn("employee-service");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Deve gravar evento de dominio com chave, headers e tipo do publisher direto")
+    void shouldStoreDomainEventLikeDirectPublisher() throws Exception {
+        // Given
+        UUID tenantId = UUID.randomUUID();
+        UUID aggregateId = UUID.randomUUID();
+
+        EmployeeCreatedEvent event = EmployeeCreatedEvent.create()
+                .eventId(UUID.randomUUID())
+                .tenantId(tenantId)
+                .aggregateId(aggregateId)
+                .fullName("Maria Silva")
+                .hireDate(LocalDate.now())
+                .build();
+
+        // When
+        publisher.publish(event);
+
+        // Then
+        verify(outboxRepository).save(entryCaptor.capture());
+        OutboxEntry entry = entryCaptor.getValue();
+
+        assertThat(entry.getSource()).isEqualTo("employee-service");
+        assertThat(entry.getTopic()).isEqualTo(KafkaTopics.EMPLOYEE_DOMAIN_EVENTS);
+        assertThat(entry.getMessageKey()).isEqualTo(aggregateId.toString());
+        assertThat(entry.getTypeId()).isEqualTo(EmployeeCreatedEvent.class.getName());
+        assertThat(entry.getHeaders())
+                .containsEntry("tenantId", tenantId.toString())
+                .containsEntry("eventType", "EMPLOYEE_CREATED");
+        assertThat(objectMapper.readTree(entry.getPayload()).get("fullName").asText()).isEqualTo("Maria Silva");
+    }
+
+    @Test
+    @DisplayName("Deve gravar mensagem sem informacao de tipo")
+    void shouldStoreUntypedMessage() {
+        // When
+        publisher.publish("timesheet.domain.events", "employee-1", Map.of("eventType", "TIME_RECORD_CREATED"));
+
+        // Then
+        verify(outboxRepository).save(entryCaptor.capture());
+        OutboxEntry entry = entryCaptor.getValue();
+
+        assertThat(entry.getTopic()).isEqualTo("timesheet.domain.events");
+        assertThat(entry.getMessageKey()).isEqualTo("employee-1");
+        assertThat(entry.getTypeId()).isNull();
+        assertThat(entry.getPayload()).isEqualTo("{\"eventType\":\"TIME_RECORD_CREATED\"}");
+    }
+
+    @Test
+    @DisplayName("Deve acordar o relay somente apos o commit")
+    void shouldWakeUpRelayAfterCommit() {
+        // When
+        publisher.publish("timesheet-events", "DAILY_SUMMARY_UPDATED", Map.of("id", "1"));
+
+        // Then
+        verify(relay, never()).wakeUp();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(relay).wakeUp();
+        verify(outboxRepository).save(any(OutboxEntry.class));
+    }
+}
@@ -0,0 +1,190 @@
+package com.axonrh.kafka.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do OutboxRelay.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String SOURCE = "timesheet-service";
+    private static final String TOPIC = "timesheet.domain.events";
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> relayTemplate;
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> idsCaptor;
+
+    private final List<String> sentPayloads = new ArrayList<>();
+    private final Set<String> failingPayloads = new HashSet<>();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, transactionManager, null, relayTemplate,
+                new SimpleMeterRegistry(), SOURCE, 200, 3, 500, 1000, 5000, 60000);
+
+        lenient().when(outboxRepository.tryDrainLock(anyString())).thenReturn(true);
+        lenient().when(relayTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<String, byte[]> record = invocation.getArgument(0);
+            String payload = new String(record.value(), StandardCharsets.UTF_8);
+            sentPayloads.add(payload);
+            return failingPayloads.contains(payload)
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker indisponivel"))
+                    : CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve enviar as mensagens de cada chave na ordem e remover as confirmadas")
+    void shouldSendEachKeyInOrder() {
+        // Given
+        when(outboxRepository.findNextBatch(SOURCE, 200)).thenReturn(List.of(
+                entry(1L, "employee-1", "a1", 0),
+                entry(2L, "employee-2", "b1", 0),
+                entry(3L, "employee-1", "a2", 0),
+                entry(4L, "employee-1", "a3", 0)));
+
+        // When
+        int published = relay.drainBatch();
+
+        // Then
+        assertThat(published).isEqualTo(4);
+        assertThat(sentPayloads).containsSubsequence("a1", "a2", "a3");
+        verify(outboxRepository).deletePublished(idsCaptor.capture());
+        assertThat(idsCaptor.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        verify(outboxRepository, never()).markFailed(any(), any());
+    }
+
+    @Test
+    @DisplayName("Nao deve enviar as mensagens seguintes de uma chave apos a falha")
+    void shouldHoldLaterEntriesOfFailedKey() {
+        // Given
+        failingPayloads.add("a1");
+        when(outboxRepository.findNextBatch(SOURCE, 200)).thenReturn(List.of(
+                entry(1L, "employee-1", "a1", 0),
+                entry(2L, "employee-2", "b1", 0),
+                entry(3L, "employee-1", "a2", 0)));
+
+        // When
+        int result = relay.drainBatch();
+
+        // Then
+        assertThat(result).isEqualTo(-1);
+        assertThat(sentPayloads).containsExactlyInAnyOrder("a1", "b1");
+        verify(outboxRepository).deletePublished(idsCaptor.capture());
+        assertThat(idsCaptor.getValue()).containsExactly(2L);
+        verify(outboxRepository).markFailed(eq(List.of(1L)), contains("broker indisponivel"));
+    }
+
+    @Test
+    @DisplayName("Deve estacionar a mensagem que esgotou as tentativas e liberar a chave")
+    void shouldParkPoisonEntry() {
+        // Given
+        failingPayloads.add("a1");
+        when(outboxRepository.findNextBatch(SOURCE, 200)).thenReturn(List.of(
+                entry(1L, "employee-1", "a1", 2),
+                entry(3L, "employee-1", "a2", 0)));
+
+        // When
+        int result = relay.drainBatch();
+
+        // Then
+        assertThat(result).isZero();
+        assertThat(sentPayloads).containsExactly("a1");
+        verify(outboxRepository).markParked(eq(List.of(1L)), contains("broker indisponivel"), any(Instant.class));
+        verify(outboxRepository, never()).markFailed(any(), any());
+        verify(outboxRepository, never()).deletePublished(any());
+    }
+
+    @Test
+    @DisplayName("Nao deve drenar quando outra replica detem o lock")
+    void shouldSkipWhenLockIsHeld() {
+        // Given
+        when(outboxRepository.tryDrainLock(anyString())).thenReturn(false);
+
+        // When
+        int result = relay.drainBatch();
+
+        // Then
+        assertThat(result).isZero();
+        verify(outboxRepository, never()).findNextBatch(any(), anyInt());
+        verifyNoInteractions(relayTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve assumir o lote antes do envio e libera-lo ao gravar o resultado")
+    void shouldClaimBeforeSendingAndReleaseAfter() {
+        // Given
+        when(outboxRepository.findNextBatch(SOURCE, 200)).thenReturn(List.of(
+                entry(1L, "employee-1", "a1", 0),
+                entry(2L, "employee-2", "b1", 0)));
+
+        // When
+        relay.drainBatch();
+
+        // Then
+        InOrder inOrder = inOrder(outboxRepository, relayTemplate);
+        inOrder.verify(outboxRepository).claim(eq(List.of(1L, 2L)), any(Instant.class));
+        inOrder.verify(relayTemplate, times(2)).send(any(ProducerRecord.class));
+        inOrder.verify(outboxRepository).deletePublished(any());
+        inOrder.verify(outboxRepository).releaseClaim(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Nao deve drenar enquanto outra replica tem um lote em envio")
+    void shouldSkipWhileBatchIsClaimed() {
+        // Given
+        when(outboxRepository.existsBySourceAndClaimedUntilAfter(eq(SOURCE), any(Instant.class))).thenReturn(true);
+
+        // When
+        int result = relay.drainBatch();
+
+        // Then
+        assertThat(result).isZero();
+        verify(outboxRepository, never()).findNextBatch(any(), anyInt());
+        verifyNoInteractions(relayTemplate);
+    }
+
+    private OutboxEntry entry(Long id, String key, String payload, int attempts) {
+        return OutboxEntry.builder()
+                .id(id)
+                .source(SOURCE)
+                .topic(TOPIC)
+                .messageKey(key)
+                .payload(payload)
+                .attempts(attempts)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -215,4 +215,14 @@ class DomainEventPublisherTest {
         verify(kafkaTemplate).send(recordCaptor.capture());
         assertThat(recordCaptor.getValue().topic()).isEqualTo(customTopic);
     }
+
+    @Test
+    @DisplayName("Deve encerrar sem criar o produtor de bytes quando a DLQ bruta nao foi usada")
+    void shouldDestroyWithoutRawProducer() {
+        // When
+        publisher.destroy();
+
+        // Then
+        verifyNoInteractions(kafkaTemplate);
+    }
 }
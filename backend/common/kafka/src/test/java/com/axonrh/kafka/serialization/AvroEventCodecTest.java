@@ -0,0 +1,181 @@
+package com.axonrh.kafka.serialization;
+
+import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.event.employee.EmployeeCreatedEvent;
+import com.axonrh.kafka.event.employee.EmployeeUpdatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes da serializacao Avro dos eventos de dominio.
+ */
+class AvroEventCodecTest {
+
+    private ObjectMapper objectMapper;
+    private EventSchemaRegistry registry;
+    private AvroEventCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        registry = new EventSchemaRegistry();
+        codec = new AvroEventCodec(registry, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve serializar e deserializar evento mantendo tipo e campos")
+    void shouldRoundTripEvent() {
+        // Given
+        EmployeeCreatedEvent event = employeeCreated();
+
+        // When
+        byte[] payload = codec.encode(event);
+        DomainEvent decoded = codec.decode(payload);
+
+        // Then
+        assertThat(AvroEventCodec.isAvro(payload)).isTrue();
+        assertThat(decoded).isInstanceOf(EmployeeCreatedEvent.class);
+
+        EmployeeCreatedEvent result = (EmployeeCreatedEvent) decoded;
+        assertThat(result.getEventId()).isEqualTo(event.getEventId());
+        assertThat(result.getEventType()).isEqualTo("EMPLOYEE_CREATED");
+        assertThat(result.getTenantId()).isEqualTo(event.getTenantId());
+        assertThat(result.getAggregateId()).isEqualTo(event.getAggregateId());
+        assertThat(result.getTimestamp()).isEqualTo(event.getTimestamp());
+        assertThat(result.getFullName()).isEqualTo("Maria Silva");
+        assertThat(result.getHireDate()).isEqualTo(event.getHireDate());
+        assertThat(result.getDepartmentId()).isEqualTo(event.getDepartmentId());
+        assertThat(result.getMetadata()).containsEntry("source", "admissao").containsEntry("attempt", 2);
+    }
+
+    @Test
+    @DisplayName("Deve preservar valores dinamicos dos mapas de campos alterados")
+    void shouldRoundTripDynamicValues() {
+        // Given
+        EmployeeUpdatedEvent event = EmployeeUpdatedEvent.create()
+                .eventId(UUID.randomUUID())
+                .tenantId(UUID.randomUUID())
+                .aggregateId(UUID.randomUUID())
+                .changedFields(Map.of("salary", 3500.5, "active", true))
+                .newValues(Map.of("salary", 4200, "department", Map.of("name", "TI")))
+                .changeReason("Promocao")
+                .build();
+
+        // When
+        EmployeeUpdatedEvent result = (EmployeeUpdatedEvent) codec.decode(codec.encode(event));
+
+        // Then
+        assertThat(result.getChangedFields()).containsEntry("salary", 3500.5).containsEntry("active", true);
+        assertThat(result.getNewValues()).containsEntry("salary", 4200).containsEntry("department", Map.of("name", "TI"));
+        assertThat(result.getChangeReason()).isEqualTo("Promocao");
+    }
+
+    @Test
+    @DisplayName("Deve gerar payload menor que o JSON equivalente")
+    void shouldBeSmallerThanJson() throws Exception {
+        // Given
+        EmployeeCreatedEvent event = employeeCreated();
+
+        // When
+        int avroSize = codec.encode(event).length;
+        int jsonSize = objectMapper.writeValueAsBytes(event).length;
+
+        // Then
+        assertThat(avroSize).isLessThan(jsonSize / 2);
+    }
+
+    @Test
+    @DisplayName("Deve manter JSON para mensagens que nao estao em Avro")
+    void shouldFallBackToJson() {
+        // Given
+        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>(Object.class, objectMapper);
+        jsonDeserializer.addTrustedPackages("com.axonrh.*");
+        EventDeserializer deserializer = new EventDeserializer(codec, jsonDeserializer);
+        byte[] json = "{\"eventType\":\"DAILY_SUMMARY_UPDATED\",\"employeeId\":\"e1\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Object result = deserializer.deserialize("timesheet.domain.events", new RecordHeaders(), json);
+
+        // Then
+        assertThat(result).isInstanceOf(Map.class);
+        assertThat(result).extracting("eventType").isEqualTo("DAILY_SUMMARY_UPDATED");
+    }
+
+    @Test
+    @DisplayName("Todo evento concreto deve ter schema com os mesmos campos da classe")
+    void shouldHaveSchemaMatchingEveryEventClass() throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(DomainEvent.class));
+
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.axonrh.kafka.event")) {
+            Class<?> eventClass = Class.forName(candidate.getBeanClassName());
+            Schema schema = registry.findLatest(eventClass.getName());
+            assertThat(schema).as("Schema de %s", eventClass.getSimpleName()).isNotNull();
+
+            Set<String> properties = objectMapper.getSerializationConfig()
+                    .introspect(objectMapper.constructType(eventClass))
+                    .findProperties().stream()
+                    .filter(BeanPropertyDefinition::couldSerialize)
+                    .map(BeanPropertyDefinition::getName)
+                    .collect(Collectors.toSet());
+            Set<String> fields = schema.getFields().stream()
+                    .map(Schema.Field::name)
+                    .collect(Collectors.toSet());
+
+            // Campo novo na classe exige nova versao do schema
+            assertThat(fields).as("Campos do schema de %s", eventClass.getSimpleName())
+                    .containsExactlyInAnyOrderElementsOf(properties);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar versao de schema incompativel com as anteriores")
+    void shouldRejectIncompatibleSchemaVersion() {
+        assertThatThrownBy(() -> new EventSchemaRegistry("classpath*:schemas/test-incompatible/*.avsc"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SampleEvent v2");
+    }
+
+    private EmployeeCreatedEvent employeeCreated() {
+        return EmployeeCreatedEvent.create()
+                .eventId(UUID.randomUUID())
+                .tenantId(UUID.randomUUID())
+                .aggregateId(UUID.randomUUID())
+                .correlationId(UUID.randomUUID().toString())
+                .timestamp(Instant.now().truncatedTo(ChronoUnit.MICROS))
+                .metadata(Map.of("source", "admissao", "attempt", 2))
+                .fullName("Maria Silva")
+                .email("maria@empresa.com")
+                .cpf("12345678901")
+                .hireDate(LocalDate.of(2024, 3, 1))
+                .departmentId(UUID.randomUUID())
+                .departmentName("Tecnologia")
+                .build();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Aplicacao principal do Employee Service.
@@ -19,6 +20,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @EnableJpaAuditing
 @EnableKafka
 @EnableAsync
+@EnableScheduling
 @EnableFeignClients
 @EnableJpaRepositories(basePackages = {"com.axonrh.employee.repository", "com.axonrh.kafka.dlq"})
 @EntityScan(basePackages = {"com.axonrh.employee.entity", "com.axonrh.kafka.dlq"})
@@ -0,0 +1,30 @@
+package com.axonrh.employee.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool limitado de workers para OCR/extracao de documentos.
+ * Mantem o processamento pesado fora das threads do Tomcat.
+ */
+@Configuration
+public class ExtractionExecutorConfig {
+
+    @Bean(name = "extractionExecutor")
+    public ThreadPoolTaskExecutor extractionExecutor(
+            @Value("${extraction.workers.core-size:2}") int coreSize,
+            @Value("${extraction.workers.max-size:4}") int maxSize,
+            @Value("${extraction.workers.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("doc-extraction-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,17 +1,17 @@
 package com.axonrh.employee.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.Map;
 
 /**
@@ -44,64 +44,21 @@ public class MultiTenantConfig {
         };
     }
 
+    /**
+     * Provider com roteamento por tenant: sub-pools dedicados (LRU) para tenants quentes
+     * e pool compartilhado com troca de schema apenas quando necessario.
+     */
     @Bean
-    public MultiTenantConnectionProvider<String> multiTenantConnectionProvider(DataSource dataSource) {
-        return new MultiTenantConnectionProvider<>() {
-            @Override
-            public Connection getAnyConnection() throws SQLException {
-                Connection connection = dataSource.getConnection();
-                try {
-                    connection.setSchema(defaultSchema);
-                    log.trace("Schema default definido para: {}", defaultSchema);
-                } catch (SQLException e) {
-                    log.error("Erro ao definir schema default {}: {}", defaultSchema, e.getMessage());
-                    throw e;
-                }
-                return connection;
-            }
-
-            @Override
-            public void releaseAnyConnection(Connection connection) throws SQLException {
-                connection.close();
-            }
-
-            @Override
-            public Connection getConnection(String tenantIdentifier) throws SQLException {
-                Connection connection = getAnyConnection();
-                try {
-                    connection.setSchema(tenantIdentifier);
-                    log.trace("Schema alterado para: {}", tenantIdentifier);
-                } catch (SQLException e) {
-                    log.error("Erro ao definir schema {}: {}", tenantIdentifier, e.getMessage());
-                    throw e;
-                }
-                return connection;
-            }
-
-            @Override
-            public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
-                try {
-                    connection.setSchema(defaultSchema);
-                } finally {
-                    releaseAnyConnection(connection);
-                }
-            }
-
-            @Override
-            public boolean supportsAggressiveRelease() {
-                return false;
-            }
-
-            @Override
-            public boolean isUnwrappableAs(Class<?> unwrapType) {
-                return false;
-            }
-
-            @Override
-            public <T> T unwrap(Class<T> unwrapType) {
-                throw new UnsupportedOperationException("Unwrap nao suportado");
-            }
-        };
+    public TenantRoutingConnectionProvider multiTenantConnectionProvider(
+            DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry,
+            @Value("${multitenancy.routing.max-tenant-pools:8}") int maxTenantPools,
+            @Value("${multitenancy.routing.tenant-pool-size:4}") int tenantPoolSize,
+            @Value("${multitenancy.routing.hot-threshold:500}") long hotThreshold,
+            @Value("${multitenancy.routing.hot-window-seconds:60}") long hotWindowSeconds) {
+        return new TenantRoutingConnectionProvider(dataSource, dataSourceProperties, meterRegistry,
+                defaultSchema, maxTenantPools, tenantPoolSize, hotThreshold, hotWindowSeconds);
     }
 
     @Bean
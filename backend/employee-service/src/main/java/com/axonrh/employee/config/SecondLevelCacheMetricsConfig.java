@@ -0,0 +1,51 @@
+package com.axonrh.employee.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Taxa de acerto do cache de segundo nivel por regiao.
+ * Complementa os contadores hibernate.second.level.cache.* publicados pelo hibernate-micrometer.
+ */
+@Configuration
+public class SecondLevelCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatioMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                hitRatio(region))
+                        .tag("region", region)
+                        .description("Taxa de acerto do cache de segundo nivel")
+                        .register(registry);
+            }
+            Gauge.builder("hibernate.query.cache.hit.ratio", statistics,
+                            s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                    .description("Taxa de acerto do cache de queries")
+                    .register(registry);
+        };
+    }
+
+    private static ToDoubleFunction<Statistics> hitRatio(String region) {
+        return statistics -> {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics == null ? 0.0
+                    : ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+        };
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
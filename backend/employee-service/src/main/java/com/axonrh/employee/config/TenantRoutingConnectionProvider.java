@@ -0,0 +1,327 @@
+package com.axonrh.employee.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Roteamento de conexoes por tenant.
+ *
+ * <ul>
+ *   <li>Tenants "quentes" (ao menos {@code hotThreshold} checkouts em uma janela de
+ *       {@code hotWindowSeconds}) recebem um sub-pool Hikari proprio, com o schema fixado na
+ *       criacao da conexao - sem SET search_path por transacao. O sub-pool herda a configuracao
+ *       do pool compartilhado (max-lifetime, leak detection, validacao). Os sub-pools sao lidos
+ *       sem lock e limitados a {@code maxTenantPools} (removido o de uso mais antigo); o pool
+ *       removido e fechado quando suas conexoes ativas sao devolvidas.</li>
+ *   <li>Os demais tenants usam o pool compartilhado; o schema so e alterado quando a conexao
+ *       fisica esta em outro schema, e nao e restaurado na devolucao.</li>
+ * </ul>
+ * Cada sub-pool tem tamanho maximo proprio, entao um tenant ruidoso esgota apenas o seu pool.
+ */
+@Slf4j
+public class TenantRoutingConnectionProvider implements MultiTenantConnectionProvider<String>, DisposableBean {
+
+    private static final long RETIRE_CHECK_SECONDS = 1;
+
+    private final DataSource sharedDataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final MeterRegistry meterRegistry;
+    private final String defaultSchema;
+    private final int maxTenantPools;
+    private final int tenantPoolSize;
+    private final long hotThreshold;
+    private final long hotWindowNanos;
+
+    private final Map<String, TenantPool> tenantPools = new ConcurrentHashMap<>();
+    private final Map<String, CheckoutWindow> checkoutWindows = new ConcurrentHashMap<>();
+    private final Object poolCreationLock = new Object();
+    private final ScheduledExecutorService retireExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tenant-pool-retire");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Connection, String> schemaByPhysicalConnection =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Counter dedicatedCheckouts;
+    private final Counter sharedCheckouts;
+    private final Counter schemaSwitches;
+
+    public TenantRoutingConnectionProvider(DataSource sharedDataSource,
+                                           DataSourceProperties dataSourceProperties,
+                                           MeterRegistry meterRegistry,
+                                           String defaultSchema,
+                                           int maxTenantPools,
+                                           int tenantPoolSize,
+                                           long hotThreshold,
+                                           long hotWindowSeconds) {
+        this.sharedDataSource = sharedDataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.meterRegistry = meterRegistry;
+        this.defaultSchema = defaultSchema;
+        this.maxTenantPools = maxTenantPools;
+        this.tenantPoolSize = tenantPoolSize;
+        this.hotThreshold = hotThreshold;
+        this.hotWindowNanos = TimeUnit.SECONDS.toNanos(hotWindowSeconds);
+
+        this.dedicatedCheckouts = Counter.builder("tenant.connections.checkout")
+                .tag("route", "dedicated").register(meterRegistry);
+        this.sharedCheckouts = Counter.builder("tenant.connections.checkout")
+                .tag("route", "shared").register(meterRegistry);
+        this.schemaSwitches = Counter.builder("tenant.connections.schema.switch")
+                .description("SET search_path executados no pool compartilhado").register(meterRegistry);
+        Gauge.builder("tenant.connections.pools", tenantPools, Map::size)
+                .description("Sub-pools dedicados ativos").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return sharedConnection(defaultSchema);
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantIdentifier) throws SQLException {
+        if (tenantIdentifier == null || tenantIdentifier.equals(defaultSchema)) {
+            return getAnyConnection();
+        }
+
+        HikariDataSource pool = dedicatedPool(tenantIdentifier);
+        if (pool != null) {
+            try {
+                Connection connection = pool.getConnection();
+                dedicatedCheckouts.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Pool retirado entre a leitura e o checkout: segue pelo compartilhado
+                if (!pool.isClosed()) {
+                    throw e;
+                }
+            }
+        }
+        return sharedConnection(tenantIdentifier);
+    }
+
+    @Override
+    public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
+        // O schema fica como esta; o proximo checkout so troca se precisar
+        releaseAnyConnection(connection);
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return false;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        throw new UnsupportedOperationException("Unwrap nao suportado");
+    }
+
+    @Override
+    public void destroy() {
+        retireExecutor.shutdownNow();
+        synchronized (poolCreationLock) {
+            tenantPools.values().forEach(tenantPool -> tenantPool.dataSource().close());
+            tenantPools.clear();
+        }
+    }
+
+    /**
+     * Conexao do pool compartilhado ajustada ao schema, evitando o round trip quando
+     * a conexao fisica ja esta no schema pedido.
+     */
+    private Connection sharedConnection(String schema) throws SQLException {
+        sharedCheckouts.increment();
+        Connection connection = sharedDataSource.getConnection();
+        try {
+            Connection physical = connection.unwrap(Connection.class);
+            if (!schema.equals(schemaByPhysicalConnection.get(physical))) {
+                physical.setSchema(schema);
+                schemaByPhysicalConnection.put(physical, schema);
+                schemaSwitches.increment();
+                log.trace("Schema alterado para: {}", schema);
+            }
+            return connection;
+        } catch (SQLException e) {
+            log.error("Erro ao definir schema {}: {}", schema, e.getMessage());
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sub-pool do tenant, criado quando o tenant atinge o limiar de checkouts na janela.
+     * A leitura nao usa lock; so a criacao (e a remocao que ela provoca) e serializada.
+     */
+    private HikariDataSource dedicatedPool(String tenantIdentifier) {
+        TenantPool tenantPool = tenantPools.get(tenantIdentifier);
+        if (tenantPool != null) {
+            tenantPool.touch();
+            return tenantPool.dataSource();
+        }
+        long checkouts = checkoutWindows.computeIfAbsent(tenantIdentifier, key -> new CheckoutWindow())
+                .record(System.nanoTime(), hotWindowNanos);
+        if (checkouts < hotThreshold) {
+            return null;
+        }
+
+        synchronized (poolCreationLock) {
+            tenantPool = tenantPools.get(tenantIdentifier);
+            if (tenantPool == null) {
+                tenantPool = new TenantPool(createPool(tenantIdentifier));
+                tenantPools.put(tenantIdentifier, tenantPool);
+                checkoutWindows.remove(tenantIdentifier);
+                evictLeastRecentlyUsed();
+                log.info("Sub-pool dedicado criado para {} ({} pools ativos)", tenantIdentifier, tenantPools.size());
+            }
+            return tenantPool.dataSource();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (tenantPools.size() > maxTenantPools) {
+            tenantPools.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed()))
+                    .ifPresent(eldest -> {
+                        tenantPools.remove(eldest.getKey());
+                        retire(eldest.getKey(), eldest.getValue().dataSource());
+                    });
+        }
+    }
+
+    /**
+     * Configuracao do sub-pool: a do pool compartilhado com schema fixo e tamanho proprio.
+     */
+    private HikariDataSource createPool(String tenantIdentifier) {
+        HikariConfig config = new HikariConfig();
+        HikariDataSource shared = unwrapHikari(sharedDataSource);
+        if (shared != null) {
+            shared.copyStateTo(config);
+        } else {
+            config.setJdbcUrl(dataSourceProperties.determineUrl());
+            config.setUsername(dataSourceProperties.determineUsername());
+            config.setPassword(dataSourceProperties.determinePassword());
+            config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(20));
+        }
+        config.setPoolName("tenant-" + tenantIdentifier);
+        config.setSchema(tenantIdentifier);
+        config.setMaximumPoolSize(tenantPoolSize);
+        config.setMinimumIdle(0);
+        config.setIdleTimeout(TimeUnit.MINUTES.toMillis(2));
+        if (config.getMetricsTrackerFactory() == null && config.getMetricRegistry() == null) {
+            config.setMetricRegistry(meterRegistry);
+        }
+        return new HikariDataSource(config);
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fecha o pool removido assim que nao houver conexoes emprestadas; as ociosas saem na hora.
+     */
+    private void retire(String tenantIdentifier, HikariDataSource pool) {
+        log.info("Sub-pool de {} removido; fechando apos a devolucao das conexoes ativas", tenantIdentifier);
+        pool.getHikariPoolMXBean().softEvictConnections();
+        closeWhenIdle(tenantIdentifier, pool);
+    }
+
+    private void closeWhenIdle(String tenantIdentifier, HikariDataSource pool) {
+        if (pool.isClosed()) {
+            return;
+        }
+        if (pool.getHikariPoolMXBean().getActiveConnections() == 0) {
+            pool.close();
+            log.debug("Sub-pool de {} fechado", tenantIdentifier);
+            return;
+        }
+        try {
+            retireExecutor.schedule(() -> closeWhenIdle(tenantIdentifier, pool), RETIRE_CHECK_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Provider em shutdown
+            pool.close();
+        }
+    }
+
+    /**
+     * Sub-pool e o instante do ultimo checkout (base do LRU).
+     */
+    private static final class TenantPool {
+
+        private final HikariDataSource dataSource;
+        private volatile long lastUsed = System.nanoTime();
+
+        private TenantPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        HikariDataSource dataSource() {
+            return dataSource;
+        }
+
+        long lastUsed() {
+            return lastUsed;
+        }
+
+        void touch() {
+            lastUsed = System.nanoTime();
+        }
+    }
+
+    /**
+     * Contagem de checkouts do tenant na janela corrente; ao vencer, a janela recomeca do zero.
+     */
+    private static final class CheckoutWindow {
+
+        private final AtomicLong count = new AtomicLong();
+        private volatile long windowStart = System.nanoTime();
+
+        long record(long now, long windowNanos) {
+            if (now - windowStart > windowNanos) {
+                synchronized (this) {
+                    if (now - windowStart > windowNanos) {
+                        windowStart = now;
+                        count.set(0);
+                    }
+                }
+            }
+            return count.incrementAndGet();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.axonrh.employee.entity.enums.AdmissionStatus;
 import com.axonrh.employee.service.AdmissionService;
 import com.axonrh.employee.service.ContractService;
 import com.axonrh.employee.service.DocumentValidationService;
+import com.axonrh.employee.service.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,6 +17,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,8 +27,10 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -44,6 +49,7 @@ public class AdmissionController {
     private final AdmissionService admissionService;
     private final DocumentValidationService documentValidationService;
     private final ContractService contractService;
+    private final StorageService storageService;
 
     // ==================== HR/Admin Endpoints ====================
 
@@ -163,6 +169,63 @@ public class AdmissionController {
         return ResponseEntity.ok(documents);
     }
 
+    @GetMapping("/{id}/documents/{documentId}/download")
+    @PreAuthorize("hasAuthority('EMPLOYEE:READ')")
+    @Operation(summary = "Download de documento", description = "Transmite o documento do storage sem bufferizar em memoria (suporta Range)")
+    public ResponseEntity<StreamingResponseBody> downloadDocument(
+            @PathVariable UUID id,
+            @PathVariable UUID documentId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @AuthenticationPrincipal Jwt jwt) {
+
+        setupTenantContext(jwt);
+        AdmissionDocument document = admissionService.getProcessDocument(id, documentId);
+        String path = document.getStoragePath();
+        long size = storageService.getFileMetadata(path).size();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        StreamingResponseBody body = out -> storageService.copyTo(path, out);
+        long contentLength = size;
+
+        if (range != null && !range.isBlank()) {
+            long start;
+            long end;
+            try {
+                HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+                start = httpRange.getRangeStart(size);
+                end = httpRange.getRangeEnd(size);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                start = size;
+                end = -1;
+            }
+            if (start >= size || end < start) {
+                // Range malformado ou fora do arquivo
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+            contentLength = end - start + 1;
+            long offset = start;
+            long length = contentLength;
+            response = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            body = out -> {
+                try (InputStream stream = storageService.openRange(path, offset, length)) {
+                    stream.transferTo(out);
+                }
+            };
+        }
+
+        return response
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + document.getOriginalFileName() + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(document.getMimeType() != null
+                        ? MediaType.parseMediaType(document.getMimeType())
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(contentLength)
+                .body(body);
+    }
+
     @GetMapping("/{id}/contract-preview")
     @PreAuthorize("hasAuthority('EMPLOYEE:READ')")
     @Operation(summary = "Visualizar contrato", description = "Visualiza prévia do contrato gerado para o processo")
@@ -242,7 +305,9 @@ public class AdmissionController {
         // Process OCR
         Map<String, Object> ocrResult;
         try {
-            ocrResult = documentValidationService.processDocumentOcr(document, file.getBytes());
+            try (InputStream stream = file.getInputStream()) {
+                ocrResult = documentValidationService.processDocumentOcr(document, stream);
+            }
         } catch (IOException e) {
             throw new IllegalArgumentException("Erro ao ler arquivo enviado", e);
         }
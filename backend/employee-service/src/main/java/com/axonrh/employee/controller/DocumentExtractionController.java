@@ -1,13 +1,21 @@
 package com.axonrh.employee.controller;
 
+import com.axonrh.employee.dto.DocumentExtractionJobResponse;
+import com.axonrh.employee.entity.DocumentExtractionJob;
+import com.axonrh.employee.entity.enums.ExtractionJobType;
+import com.axonrh.employee.service.DocumentExtractionJobService;
 import com.axonrh.employee.service.FileStorageService;
 import com.axonrh.employee.service.OpenAiService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,6 +31,7 @@ public class DocumentExtractionController {
 
     private final FileStorageService fileStorageService;
     private final OpenAiService openAiService;
+    private final DocumentExtractionJobService extractionJobService;
 
     @PostMapping(value = "/extract", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Extrai dados de documento via IA (OCR Inteligente)")
@@ -53,4 +62,46 @@ public class DocumentExtractionController {
             return ResponseEntity.internalServerError().body(Map.of("error", "Falha na análise do documento: " + e.getMessage()));
         }
     }
+
+    @PostMapping(value = "/extract/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('EMPLOYEE:WRITE')")
+    @Operation(summary = "Enfileira extração de dados de documento",
+            description = "Processamento assíncrono; retorna o job para consulta. Arquivos repetidos reaproveitam o resultado")
+    public ResponseEntity<DocumentExtractionJobResponse> submitExtractionJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "type", defaultValue = "AI_EXTRACTION") ExtractionJobType type,
+            @RequestParam(value = "documentType", required = false) String documentType,
+            @AuthenticationPrincipal Jwt jwt) {
+
+        UUID userId = jwt != null ? UUID.fromString(jwt.getSubject()) : null;
+        DocumentExtractionJob job = extractionJobService.submit(file, type, documentType, userId);
+        return ResponseEntity.status(job.isFinished() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(toResponse(job));
+    }
+
+    @GetMapping("/extract/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('EMPLOYEE:READ')")
+    @Operation(summary = "Consulta status/resultado de um job de extração")
+    public ResponseEntity<DocumentExtractionJobResponse> getExtractionJob(@PathVariable UUID jobId,
+                                                                          @AuthenticationPrincipal Jwt jwt) {
+        UUID userId = jwt != null ? UUID.fromString(jwt.getSubject()) : null;
+        return ResponseEntity.ok(toResponse(extractionJobService.getJob(jobId, userId)));
+    }
+
+    private DocumentExtractionJobResponse toResponse(DocumentExtractionJob job) {
+        return DocumentExtractionJobResponse.builder()
+                .id(job.getId())
+                .jobType(job.getJobType())
+                .status(job.getStatus())
+                .documentType(job.getDocumentType())
+                .fileName(job.getFileName())
+                .mimeType(job.getMimeType())
+                .fileSize(job.getFileSize())
+                .result(job.getResult())
+                .errorMessage(job.getErrorMessage())
+                .attempts(job.getAttempts())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
 }
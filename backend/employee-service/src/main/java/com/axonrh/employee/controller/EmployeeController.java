@@ -195,6 +195,17 @@ public class EmployeeController {
         return ResponseEntity.ok(employees);
     }
 
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAuthority('EMPLOYEE:READ')")
+    @Operation(summary = "Sugestoes de colaboradores para autocompletar",
+            description = "Busca por prefixo/substring/similaridade, sem acentos, ordenada por relevancia")
+    public ResponseEntity<java.util.List<EmployeeResponse>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(employeeService.typeahead(q, limit));
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('EMPLOYEE:CREATE')")
     @Operation(summary = "Cria novo colaborador")
@@ -119,16 +119,17 @@ public class TalentCandidateController {
     @GetMapping("/{id}/resume/download")
     @PreAuthorize("hasAuthority('EMPLOYEE:READ')")
     @Operation(summary = "Download de currículo")
-    public ResponseEntity<byte[]> downloadResume(@PathVariable UUID id) {
+    public ResponseEntity<org.springframework.core.io.Resource> downloadResume(@PathVariable UUID id) {
         java.util.Map<String, Object> resumeData = talentPoolService.getResumeFile(id);
-        byte[] content = (byte[]) resumeData.get("content");
+        org.springframework.core.io.Resource resource = (org.springframework.core.io.Resource) resumeData.get("resource");
         String fileName = (String) resumeData.get("fileName");
         String contentType = (String) resumeData.get("contentType");
 
         return ResponseEntity.ok()
                 .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
                 .contentType(MediaType.parseMediaType(contentType))
-                .body(content);
+                .contentLength((Long) resumeData.get("contentLength"))
+                .body(resource);
     }
 
     @DeleteMapping("/{id}")
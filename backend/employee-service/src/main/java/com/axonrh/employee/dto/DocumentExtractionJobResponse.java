@@ -0,0 +1,33 @@
+package com.axonrh.employee.dto;
+
+import com.axonrh.employee.entity.enums.ExtractionJobStatus;
+import com.axonrh.employee.entity.enums.ExtractionJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentExtractionJobResponse {
+
+    private UUID id;
+    private ExtractionJobType jobType;
+    private ExtractionJobStatus status;
+    private String documentType;
+    private String fileName;
+    private String mimeType;
+    private Long fileSize;
+    private Map<String, Object> result;
+    private String errorMessage;
+    private Integer attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
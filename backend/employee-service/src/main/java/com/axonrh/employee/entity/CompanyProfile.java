@@ -2,6 +2,8 @@ package com.axonrh.employee.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -10,6 +12,8 @@ import java.util.UUID;
  * Entidade para acessar dados da empresa (mapeada para a tabela shared.company_profiles).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.company-profiles")
 @Table(name = "company_profiles", schema = "shared")
 @Getter
 @Setter
@@ -2,6 +2,8 @@ package com.axonrh.employee.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -16,6 +18,8 @@ import java.util.UUID;
  * Entidade de centro de custo.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.cost-centers")
 @Table(name = "cost_centers", schema = "shared")
 @EntityListeners(AuditingEntityListener.class)
 @Getter
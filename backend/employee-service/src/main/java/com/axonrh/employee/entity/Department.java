@@ -2,6 +2,8 @@ package com.axonrh.employee.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -17,6 +19,8 @@ import java.util.UUID;
  * Entidade de departamento/area.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.departments")
 @Table(name = "departments", schema = "shared")
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -46,6 +50,7 @@ public class Department {
     @JoinColumn(name = "parent_id")
     private Department parent;
 
+    // Lado inverso sem cache de colecao: setParent altera apenas o lado dono
     @OneToMany(mappedBy = "parent")
     @Builder.Default
     private List<Department> children = new ArrayList<>();
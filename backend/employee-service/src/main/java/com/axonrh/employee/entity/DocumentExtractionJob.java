@@ -0,0 +1,105 @@
+package com.axonrh.employee.entity;
+
+import com.axonrh.employee.entity.enums.ExtractionJobStatus;
+import com.axonrh.employee.entity.enums.ExtractionJobType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Job assincrono de OCR/extracao de dados de documento.
+ * O resultado fica associado ao hash do conteudo e serve de cache para reenvios do mesmo arquivo.
+ */
+@Entity
+@Table(name = "document_extraction_jobs", schema = "shared")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentExtractionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 30)
+    private ExtractionJobType jobType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ExtractionJobStatus status = ExtractionJobStatus.PENDING;
+
+    /**
+     * SHA-256 do conteudo do arquivo (hex).
+     */
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "document_type", length = 50)
+    private String documentType;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "stored_path", length = 500)
+    private String storedPath;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result", columnDefinition = "jsonb")
+    private Map<String, Object> result;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "attempts")
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Fim do lease da replica que processa o job; vencido, outra replica pode assumi-lo.
+     */
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean isFinished() {
+        return status == ExtractionJobStatus.COMPLETED || status == ExtractionJobStatus.FAILED;
+    }
+}
@@ -51,6 +51,12 @@ public class Employee {
     @Column(name = "social_name", length = 200)
     private String socialName;
 
+    /**
+     * Texto de busca normalizado, mantido por trigger no banco (V24).
+     */
+    @Column(name = "search_text", insertable = false, updatable = false)
+    private String searchText;
+
     @Column(name = "birth_date", nullable = false)
     private LocalDate birthDate;
 
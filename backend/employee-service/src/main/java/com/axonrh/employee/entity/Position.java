@@ -2,6 +2,8 @@ package com.axonrh.employee.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -16,6 +18,8 @@ import java.util.UUID;
  * Entidade de cargo.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.positions")
 @Table(name = "positions", schema = "shared")
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -0,0 +1,11 @@
+package com.axonrh.employee.entity.enums;
+
+/**
+ * Status de um job de extracao de documento.
+ */
+public enum ExtractionJobStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
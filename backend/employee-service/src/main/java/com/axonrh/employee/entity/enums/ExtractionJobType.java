@@ -0,0 +1,11 @@
+package com.axonrh.employee.entity.enums;
+
+/**
+ * Tipo de extracao executada pelo job.
+ */
+public enum ExtractionJobType {
+    /** Extracao de dados cadastrais via IA (OpenAI Vision). */
+    AI_EXTRACTION,
+    /** OCR de documento de admissao. */
+    OCR
+}
@@ -32,6 +32,7 @@ public interface EmployeeMapper {
     @Mapping(target = "terminationDate", ignore = true)
     @Mapping(target = "photoUrl", ignore = true)
     @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "searchText", ignore = true)
     Employee toEntity(EmployeeRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -51,6 +52,7 @@ public interface EmployeeMapper {
     @Mapping(target = "terminationDate", ignore = true)
     @Mapping(target = "photoUrl", ignore = true)
     @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "searchText", ignore = true)
     void updateEntity(@MappingTarget Employee employee, EmployeeRequest request);
 
     @Mapping(target = "displayName", expression = "java(employee.getDisplayName())")
@@ -1,7 +1,10 @@
 package com.axonrh.employee.repository;
 
 import com.axonrh.employee.entity.CompanyProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,5 +12,9 @@ import java.util.UUID;
 
 @Repository
 public interface CompanyProfileRepository extends JpaRepository<CompanyProfile, UUID> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference.queries")
+    })
     Optional<CompanyProfile> findByTenantId(UUID tenantId);
 }
@@ -1,7 +1,10 @@
 package com.axonrh.employee.repository;
 
 import com.axonrh.employee.entity.CostCenter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +14,10 @@ import java.util.UUID;
 @Repository
 public interface CostCenterRepository extends JpaRepository<CostCenter, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference.queries")
+    })
     List<CostCenter> findByTenantIdAndIsActiveTrueOrderByName(UUID tenantId);
 
     Optional<CostCenter> findByTenantIdAndId(UUID tenantId, UUID id);
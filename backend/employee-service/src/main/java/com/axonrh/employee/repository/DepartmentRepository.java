@@ -1,11 +1,15 @@
 package com.axonrh.employee.repository;
 
 import com.axonrh.employee.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +17,10 @@ import java.util.UUID;
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference.queries")
+    })
     List<Department> findByTenantIdAndIsActiveTrueOrderByName(UUID tenantId);
 
     Optional<Department> findByTenantIdAndId(UUID tenantId, UUID id);
@@ -34,5 +42,7 @@ public interface DepartmentRepository extends JpaRepository<Department, UUID> {
     
     List<Department> findByTenantIdAndManagerId(UUID tenantId, UUID managerId);
 
+    List<Department> findByTenantIdAndManagerIdIn(UUID tenantId, Collection<UUID> managerIds);
+
     Optional<Department> findByTenantIdAndNameIgnoreCase(UUID tenantId, String name);
 }
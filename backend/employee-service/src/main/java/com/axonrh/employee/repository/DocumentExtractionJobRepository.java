@@ -0,0 +1,52 @@
+package com.axonrh.employee.repository;
+
+import com.axonrh.employee.entity.DocumentExtractionJob;
+import com.axonrh.employee.entity.enums.ExtractionJobStatus;
+import com.axonrh.employee.entity.enums.ExtractionJobType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio de jobs de extracao de documentos.
+ */
+@Repository
+public interface DocumentExtractionJobRepository extends JpaRepository<DocumentExtractionJob, UUID> {
+
+    Optional<DocumentExtractionJob> findByTenantIdAndIdAndRequestedBy(UUID tenantId, UUID id, UUID requestedBy);
+
+    /**
+     * Job mais recente do solicitante para o mesmo conteudo (cache de resultado / deduplicacao).
+     */
+    Optional<DocumentExtractionJob> findFirstByTenantIdAndJobTypeAndContentHashAndRequestedByAndStatusInOrderByCreatedAtDesc(
+            UUID tenantId, ExtractionJobType jobType, String contentHash, UUID requestedBy,
+            Collection<ExtractionJobStatus> statuses);
+
+    /**
+     * Jobs a retomar (com documento ja armazenado): pendentes ou em processamento com lease vencido.
+     */
+    @Query("SELECT j.id FROM DocumentExtractionJob j WHERE j.storedPath IS NOT NULL AND (j.status = 'PENDING' " +
+            "OR (j.status = 'PROCESSING' AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)))")
+    List<UUID> findResumableIds(@Param("now") LocalDateTime now);
+
+    /**
+     * Assume o job para esta replica. Retorna 0 se ele ja terminou ou se outra replica
+     * o processa com lease valido.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE DocumentExtractionJob j SET j.status = 'PROCESSING', j.startedAt = :now, " +
+            "j.leaseUntil = :leaseUntil, j.attempts = COALESCE(j.attempts, 0) + 1 " +
+            "WHERE j.id = :id AND (j.status = 'PENDING' " +
+            "OR (j.status = 'PROCESSING' AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)))")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
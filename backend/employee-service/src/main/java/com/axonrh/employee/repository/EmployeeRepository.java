@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -67,12 +68,28 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID>, JpaSp
     // ==================== Busca por Nome ====================
 
     @Query("SELECT e FROM Employee e WHERE e.tenantId = :tenantId AND e.isActive = true " +
-            "AND (LOWER(e.fullName) LIKE LOWER(CONCAT('%', :name, '%')) " +
-            "OR LOWER(e.socialName) LIKE LOWER(CONCAT('%', :name, '%')))")
+            "AND e.searchText LIKE :pattern")
     Page<Employee> searchByName(@Param("tenantId") UUID tenantId,
-                                 @Param("name") String name,
+                                 @Param("pattern") String pattern,
                                  Pageable pageable);
 
+    /**
+     * Typeahead sobre search_text (indice GIN pg_trgm - V24).
+     * Casa por substring ou similaridade de palavra (tolerante a erros de digitacao)
+     * e ordena: prefixo de palavra, similaridade, nome.
+     */
+    @Query(value = "SELECT e.* FROM shared.employees e " +
+            "WHERE e.tenant_id = :tenantId AND e.is_active = true " +
+            "AND (e.search_text LIKE :containsPattern OR :term OPERATOR(public.<%) e.search_text) " +
+            "ORDER BY (' ' || e.search_text) LIKE :wordPrefixPattern DESC, " +
+            "public.word_similarity(:term, e.search_text) DESC, e.full_name " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Employee> typeahead(@Param("tenantId") UUID tenantId,
+                             @Param("term") String term,
+                             @Param("containsPattern") String containsPattern,
+                             @Param("wordPrefixPattern") String wordPrefixPattern,
+                             @Param("limit") int limit);
+
     // ==================== Busca por Data ====================
 
     List<Employee> findByTenantIdAndHireDateBetween(UUID tenantId, LocalDate start, LocalDate end);
@@ -112,4 +129,20 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID>, JpaSp
 
     @Query("SELECT e FROM Employee e WHERE e.tenantId = :tenantId AND e.manager IS NULL AND e.isActive = true")
     List<Employee> findTopLevelEmployees(@Param("tenantId") UUID tenantId);
+
+    // ==================== Gestores ====================
+
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.department LEFT JOIN FETCH e.position " +
+            "WHERE e.tenantId = :tenantId AND e.id IN :ids")
+    List<Employee> findAllByIdWithRelations(@Param("tenantId") UUID tenantId, @Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.department.id, COUNT(e) FROM Employee e WHERE e.tenantId = :tenantId AND e.isActive = true " +
+            "AND e.department.id IN :departmentIds GROUP BY e.department.id")
+    List<Object[]> countActiveByDepartmentIds(@Param("tenantId") UUID tenantId,
+                                              @Param("departmentIds") Collection<UUID> departmentIds);
+
+    @Query("SELECT e.manager.id, COUNT(e) FROM Employee e WHERE e.tenantId = :tenantId AND e.isActive = true " +
+            "AND e.manager.id IN :managerIds GROUP BY e.manager.id")
+    List<Object[]> countActiveSubordinatesByManagerIds(@Param("tenantId") UUID tenantId,
+                                                       @Param("managerIds") Collection<UUID> managerIds);
 }
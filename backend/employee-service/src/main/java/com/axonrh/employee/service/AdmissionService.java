@@ -400,6 +400,17 @@ public class AdmissionService {
         return process.getDocuments();
     }
 
+    /**
+     * Busca documento do processo (para download).
+     */
+    @Transactional(readOnly = true)
+    public AdmissionDocument getProcessDocument(UUID processId, UUID documentId) {
+        return getProcessDocuments(processId).stream()
+                .filter(doc -> doc.getId().equals(documentId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Documento nao encontrado"));
+    }
+
     /**
      * Upload de documento do candidato.
      */
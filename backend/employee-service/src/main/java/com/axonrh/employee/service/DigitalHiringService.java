@@ -489,10 +489,10 @@ public class DigitalHiringService {
                 .build();
 
         // Salvar arquivo via MinIO
-        try {
+        try (java.io.InputStream stream = file.getInputStream()) {
             String path = "digital-hiring/" + process.getId() + "/" + documentType + "_" + file.getOriginalFilename();
-            String filePath = storageService.uploadFile(
-                    file.getBytes(), path, file.getContentType(), process.getTenantId().toString());
+            String filePath = storageService.uploadStream(
+                    stream, file.getSize(), path, file.getContentType(), process.getTenantId().toString());
             document.setFilePath(filePath);
         } catch (Exception e) {
             log.warn("Falha ao armazenar arquivo, salvando referencia: {}", e.getMessage());
@@ -0,0 +1,286 @@
+package com.axonrh.employee.service;
+
+import com.axonrh.employee.config.TenantContext;
+import com.axonrh.employee.entity.DocumentExtractionJob;
+import com.axonrh.employee.entity.enums.ExtractionJobStatus;
+import com.axonrh.employee.entity.enums.ExtractionJobType;
+import com.axonrh.employee.exception.InvalidOperationException;
+import com.axonrh.employee.exception.ResourceNotFoundException;
+import com.axonrh.employee.repository.DocumentExtractionJobRepository;
+import com.axonrh.kafka.event.notification.NotificationEvent;
+import com.axonrh.kafka.producer.DomainEventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fila de jobs de OCR/extracao de documentos.
+ * O upload e persistido e o processamento ocorre no pool "extractionExecutor";
+ * o chamador recebe o ID do job e consulta o status (ou recebe notificacao IN_APP ao final).
+ * Arquivos com o mesmo hash enviados pelo mesmo usuario reaproveitam o resultado ja calculado
+ * ou o job em andamento. Cada job so e visivel ao seu solicitante.
+ */
+@Service
+@Slf4j
+public class DocumentExtractionJobService {
+
+    private static final EnumSet<ExtractionJobStatus> REUSABLE_STATUSES =
+            EnumSet.of(ExtractionJobStatus.PENDING, ExtractionJobStatus.PROCESSING, ExtractionJobStatus.COMPLETED);
+
+    private final DocumentExtractionJobRepository jobRepository;
+    private final FileStorageService fileStorageService;
+    private final OpenAiService openAiService;
+    private final OcrService ocrService;
+    private final DomainEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor extractionExecutor;
+    /** Jobs ja enfileirados nesta replica, para a varredura nao enfileira-los de novo. */
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    @Value("${extraction.lease-minutes:15}")
+    private long leaseMinutes;
+
+    public DocumentExtractionJobService(DocumentExtractionJobRepository jobRepository,
+                                        FileStorageService fileStorageService,
+                                        OpenAiService openAiService,
+                                        OcrService ocrService,
+                                        DomainEventPublisher eventPublisher,
+                                        @Qualifier("extractionExecutor") ThreadPoolTaskExecutor extractionExecutor) {
+        this.jobRepository = jobRepository;
+        this.fileStorageService = fileStorageService;
+        this.openAiService = openAiService;
+        this.ocrService = ocrService;
+        this.eventPublisher = eventPublisher;
+        this.extractionExecutor = extractionExecutor;
+    }
+
+    /**
+     * Enfileira a extracao de um documento.
+     * Retorna o job existente quando o mesmo solicitante ja enviou (ou esta processando) o mesmo conteudo.
+     */
+    public DocumentExtractionJob submit(MultipartFile file, ExtractionJobType jobType, String documentType, UUID userId) {
+        UUID tenantId = getTenantId();
+        String contentHash = hash(file);
+
+        var existing = findReusable(tenantId, jobType, contentHash, userId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        // O indice unico de jobs ativos garante um unico job por conteudo e solicitante
+        DocumentExtractionJob job;
+        try {
+            job = jobRepository.saveAndFlush(DocumentExtractionJob.builder()
+                    .tenantId(tenantId)
+                    .jobType(jobType)
+                    .contentHash(contentHash)
+                    .documentType(documentType)
+                    .fileName(file.getOriginalFilename())
+                    .mimeType(file.getContentType())
+                    .fileSize(file.getSize())
+                    .requestedBy(userId)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return findReusable(tenantId, jobType, contentHash, userId)
+                    .orElseThrow(() -> new InvalidOperationException("Extracao deste documento ja esta em andamento"));
+        }
+
+        try {
+            UUID ownerId = userId != null ? userId : UUID.randomUUID();
+            job.setStoredPath(fileStorageService.storeDocument(file, ownerId, "extraction_job"));
+            job = jobRepository.save(job);
+        } catch (RuntimeException e) {
+            fail(job, "Falha ao armazenar o documento: " + e.getMessage());
+            throw e;
+        }
+
+        if (!dispatch(job.getId())) {
+            fail(job, "Fila de processamento cheia, tente novamente em instantes");
+        }
+        return job;
+    }
+
+    private Optional<DocumentExtractionJob> findReusable(UUID tenantId, ExtractionJobType jobType,
+                                                         String contentHash, UUID userId) {
+        var existing = jobRepository
+                .findFirstByTenantIdAndJobTypeAndContentHashAndRequestedByAndStatusInOrderByCreatedAtDesc(
+                        tenantId, jobType, contentHash, userId, REUSABLE_STATUSES);
+        existing.ifPresent(job -> log.info("Extracao reaproveitada para hash {}: job {} ({})",
+                contentHash, job.getId(), job.getStatus()));
+        return existing;
+    }
+
+    /**
+     * Consulta um job do tenant atual enviado pelo usuario (o resultado contem dados pessoais).
+     */
+    public DocumentExtractionJob getJob(UUID jobId, UUID userId) {
+        return jobRepository.findByTenantIdAndIdAndRequestedBy(getTenantId(), jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job de extracao nao encontrado: " + jobId));
+    }
+
+    /**
+     * Reenfileira jobs interrompidos por reinicio do servico e os que nao couberam na fila.
+     * Cada replica so processa os jobs que conseguir assumir em {@link #process}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${extraction.resume-interval-ms:60000}",
+            fixedDelayString = "${extraction.resume-interval-ms:60000}")
+    public void resumePendingJobs() {
+        List<UUID> pending = jobRepository.findResumableIds(LocalDateTime.now()).stream()
+                .filter(jobId -> !queued.contains(jobId))
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Reenfileirando {} jobs de extracao pendentes", pending.size());
+        for (UUID jobId : pending) {
+            if (!dispatch(jobId)) {
+                // Os jobs continuam PENDING e voltam na proxima varredura
+                log.info("Fila de extracao cheia, jobs restantes aguardam a proxima varredura");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Enfileira o job no pool de extracao.
+     *
+     * @return {@code false} se a fila estava cheia; o job continua PENDING
+     */
+    private boolean dispatch(UUID jobId) {
+        if (!queued.add(jobId)) {
+            return true;
+        }
+        try {
+            extractionExecutor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    queued.remove(jobId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            queued.remove(jobId);
+            log.warn("Fila de extracao cheia, job {} rejeitado", jobId);
+            return false;
+        }
+    }
+
+    private void fail(DocumentExtractionJob job, String errorMessage) {
+        job.setStatus(ExtractionJobStatus.FAILED);
+        job.setErrorMessage(errorMessage);
+        job.setCompletedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+
+    void process(UUID jobId) {
+        // Assume o job com UPDATE condicional: outra replica pode te-lo assumido no resume
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claim(jobId, now, now.plusMinutes(leaseMinutes)) == 0) {
+            log.debug("Job de extracao {} ja concluido ou em processamento em outra replica", jobId);
+            return;
+        }
+        DocumentExtractionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        TenantContext.setCurrentTenant(job.getTenantId().toString());
+        try {
+            Map<String, Object> result = extract(job);
+
+            job.setResult(result);
+            job.setStatus(ExtractionJobStatus.COMPLETED);
+            job.setErrorMessage(null);
+            log.info("Job de extracao {} concluido", jobId);
+        } catch (Exception e) {
+            log.error("Job de extracao {} falhou: {}", jobId, e.getMessage());
+            job.setStatus(ExtractionJobStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            job.setLeaseUntil(null);
+            jobRepository.save(job);
+            notifyRequester(job);
+            TenantContext.clear();
+        }
+    }
+
+    private Map<String, Object> extract(DocumentExtractionJob job) throws IOException {
+        if (job.getStoredPath() == null) {
+            throw new IllegalStateException("Documento do job nao foi armazenado");
+        }
+        Path path = fileStorageService.resolveDocument(job.getStoredPath());
+        try (InputStream stream = Files.newInputStream(path)) {
+            return switch (job.getJobType()) {
+                case AI_EXTRACTION -> openAiService.extractDataFromDocument(stream, job.getMimeType());
+                case OCR -> ocrService.extractData(stream, job.getMimeType(), job.getDocumentType());
+            };
+        }
+    }
+
+    private void notifyRequester(DocumentExtractionJob job) {
+        if (job.getRequestedBy() == null) {
+            return;
+        }
+        try {
+            boolean success = job.getStatus() == ExtractionJobStatus.COMPLETED;
+            NotificationEvent event = NotificationEvent.create()
+                    .tenantId(job.getTenantId())
+                    .recipientIds(List.of(job.getRequestedBy()))
+                    .channels(List.of("IN_APP"))
+                    .title(success ? "Extracao de documento concluida" : "Falha na extracao de documento")
+                    .body(job.getFileName())
+                    .category("DOCUMENTS")
+                    .sourceType("EXTRACTION_JOB")
+                    .sourceId(job.getId())
+                    .variables(Map.of("jobId", job.getId().toString(), "status", job.getStatus().name()))
+                    .build();
+            eventPublisher.publish(event);
+        } catch (Exception e) {
+            log.warn("Falha ao notificar conclusao do job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private String hash(MultipartFile file) {
+        try (DigestInputStream stream = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            stream.transferTo(java.io.OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(stream.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new InvalidOperationException("Erro ao ler arquivo enviado: " + e.getMessage());
+        }
+    }
+
+    private UUID getTenantId() {
+        String tenant = TenantContext.getCurrentTenant();
+        if (tenant == null) {
+            throw new IllegalStateException("Tenant nao definido no contexto");
+        }
+        return UUID.fromString(tenant);
+    }
+}
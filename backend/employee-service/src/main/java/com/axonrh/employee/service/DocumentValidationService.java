@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -52,7 +53,7 @@ public class DocumentValidationService {
     /**
      * Processa documento com OCR e extrai dados.
      */
-    public Map<String, Object> processDocumentOcr(AdmissionDocument document, byte[] fileContent) {
+    public Map<String, Object> processDocumentOcr(AdmissionDocument document, InputStream fileContent) {
         log.info("Processando OCR para documento: {} - tipo: {}", document.getId(), document.getDocumentType());
 
         try {
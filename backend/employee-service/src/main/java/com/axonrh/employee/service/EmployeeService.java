@@ -41,6 +41,8 @@ import java.util.UUID;
 @Slf4j
 public class EmployeeService {
 
+    private static final int MAX_TYPEAHEAD_RESULTS = 50;
+
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
     private final PositionRepository positionRepository;
@@ -111,19 +113,7 @@ public class EmployeeService {
             }
 
             if (search != null && !search.trim().isEmpty()) {
-                String cleanSearch = search.trim();
-                String likePattern = "%" + cleanSearch.toLowerCase() + "%";
-                
-                // Trata CPF: Remove caracteres nao numericos para buscar no banco
-                String digitsOnly = cleanSearch.replaceAll("\\D", "");
-                
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("fullName")), likePattern),
-                        cb.like(cb.lower(root.get("socialName")), likePattern),
-                        cb.like(cb.lower(root.get("registrationNumber")), likePattern),
-                        cb.like(cb.lower(root.get("email")), likePattern),
-                        digitsOnly.length() >= 3 ? cb.like(root.get("cpf"), "%" + digitsOnly + "%") : cb.disjunction()
-                ));
+                predicates.add(searchPredicate(root, cb, search));
             }
 
             return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
@@ -160,17 +150,7 @@ public class EmployeeService {
                 predicates.add(cb.isMember(hybridDay, root.get("hybridWorkDays")));
             }
             if (search != null && !search.trim().isEmpty()) {
-                String cleanSearch = search.trim();
-                String likePattern = "%" + cleanSearch.toLowerCase() + "%";
-                String digitsOnly = cleanSearch.replaceAll("\\D", "");
-                
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("fullName")), likePattern),
-                        cb.like(cb.lower(root.get("socialName")), likePattern),
-                        cb.like(cb.lower(root.get("registrationNumber")), likePattern),
-                        cb.like(cb.lower(root.get("email")), likePattern),
-                        digitsOnly.length() >= 3 ? cb.like(root.get("cpf"), "%" + digitsOnly + "%") : cb.disjunction()
-                ));
+                predicates.add(searchPredicate(root, cb, search));
             }
             return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
         };
@@ -225,14 +205,7 @@ public class EmployeeService {
             if (workRegime != null) predicates.add(cb.equal(root.get("workRegime"), workRegime));
             if (hybridDay != null && !hybridDay.trim().isEmpty()) predicates.add(cb.isMember(hybridDay, root.get("hybridWorkDays")));
             if (search != null && !search.trim().isEmpty()) {
-                String likePattern = "%" + search.trim().toLowerCase() + "%";
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("fullName")), likePattern),
-                        cb.like(cb.lower(root.get("socialName")), likePattern),
-                        cb.like(cb.lower(root.get("registrationNumber")), likePattern),
-                        cb.like(cb.lower(root.get("cpf")), likePattern),
-                        cb.like(cb.lower(root.get("email")), likePattern)
-                ));
+                predicates.add(searchPredicate(root, cb, search));
             }
             return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
         };
@@ -327,10 +300,30 @@ public class EmployeeService {
     @Transactional(readOnly = true)
     public Page<EmployeeResponse> searchByName(String name, Pageable pageable) {
         UUID tenantId = getTenantId();
-        return employeeRepository.searchByName(tenantId, name, pageable)
+        String pattern = SearchTextNormalizer.containsPattern(SearchTextNormalizer.fold(name));
+        return employeeRepository.searchByName(tenantId, pattern, pageable)
                 .map(employeeMapper::toResponse);
     }
 
+    /**
+     * Sugestoes de colaboradores ativos para autocompletar (prefixo, substring e similaridade),
+     * servidas pelo indice trigram sobre search_text.
+     */
+    @Transactional(readOnly = true)
+    public List<EmployeeResponse> typeahead(String term, int limit) {
+        UUID tenantId = getTenantId();
+        String folded = SearchTextNormalizer.fold(term);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_TYPEAHEAD_RESULTS));
+        String escaped = SearchTextNormalizer.escapeLike(folded);
+        return employeeRepository.typeahead(tenantId, folded, "%" + escaped + "%", "% " + escaped + "%", boundedLimit)
+                .stream()
+                .map(employeeMapper::toResponse)
+                .toList();
+    }
+
     /**
      * Cria novo colaborador.
      */
@@ -479,12 +472,14 @@ public class EmployeeService {
         Employee employee = employeeRepository.findByTenantIdAndId(tenantId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Colaborador nao encontrado: " + id));
 
+        EmployeeStatus oldStatus = employee.getStatus();
         employee.setIsActive(false);
         employee.setStatus(EmployeeStatus.INACTIVE);
         employee.setUpdatedBy(userId);
 
         employeeRepository.save(employee);
         saveHistory(employee, "DESATIVACAO", "Ativo", "Inativo", "Colaborador desativado", userId);
+        publishUpdatedEvent(employee, singletonValue("status", oldStatus), singletonValue("status", EmployeeStatus.INACTIVE));
 
         log.info("Colaborador desativado: {}", id);
     }
@@ -531,8 +526,7 @@ public class EmployeeService {
         Employee saved = employeeRepository.save(employee);
         saveHistory(saved, "RELIGAMENTO", "TERMINATED", "ACTIVE", "Colaborador religado no sistema", userId);
         
-        // Poderiamos publicar um evento de Re-contratacao? 
-        // publishUpdatedEvent(saved, Collections.singletonMap("status", "TERMINATED"), Collections.singletonMap("status", "ACTIVE"));
+        publishUpdatedEvent(saved, singletonValue("status", EmployeeStatus.TERMINATED), singletonValue("status", saved.getStatus()));
 
         log.info("Colaborador religado: {}", id);
         return employeeMapper.toResponse(saved);
@@ -558,6 +552,8 @@ public class EmployeeService {
         Employee employee = employeeRepository.findByTenantIdAndId(tenantId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Colaborador nao encontrado: " + id));
 
+        String oldPhotoUrl = employee.getPhotoUrl();
+
         // Deleta foto antiga se existir
         if (employee.getPhotoUrl() != null && !employee.getPhotoUrl().isEmpty()) {
             fileStorageService.deleteEmployeePhoto(employee.getPhotoUrl());
@@ -572,6 +568,7 @@ public class EmployeeService {
         
         // Registra historico
         saveHistory(saved, "FOTO_ATUALIZADA", null, photoUrl, "Foto de perfil atualizada", userId);
+        publishUpdatedEvent(saved, singletonValue("photoUrl", oldPhotoUrl), singletonValue("photoUrl", photoUrl));
 
         log.info("Foto do colaborador atualizada: {}", id);
         return employeeMapper.toResponse(saved);
@@ -616,6 +613,8 @@ public class EmployeeService {
             case "baseSalary": return "Salário";
             case "status": return "Status";
             case "hireDate": return "Data de Admissão";
+            case "birthDate": return "Data de Nascimento";
+            case "gender": return "Gênero";
             default: return field;
         }
     }
@@ -623,6 +622,24 @@ public class EmployeeService {
 
     // ==================== Metodos Privados ====================
 
+    /**
+     * Filtro de busca textual sobre a coluna normalizada search_text (indice GIN pg_trgm - V24).
+     * Termos com 3+ digitos tambem casam o CPF/matricula sem pontuacao.
+     */
+    private jakarta.persistence.criteria.Predicate searchPredicate(
+            jakarta.persistence.criteria.Root<Employee> root,
+            jakarta.persistence.criteria.CriteriaBuilder cb,
+            String search) {
+        String folded = SearchTextNormalizer.fold(search);
+        String digitsOnly = folded.replaceAll("\\D", "");
+
+        jakarta.persistence.criteria.Predicate byText = cb.like(root.get("searchText"), SearchTextNormalizer.containsPattern(folded));
+        if (digitsOnly.length() >= 3 && !digitsOnly.equals(folded)) {
+            return cb.or(byText, cb.like(root.get("searchText"), SearchTextNormalizer.containsPattern(digitsOnly)));
+        }
+        return byText;
+    }
+
     private UUID getTenantId() {
         String tenant = TenantContext.getCurrentTenant();
         if (tenant == null) {
@@ -712,6 +729,8 @@ public class EmployeeService {
         values.put("baseSalary", employee.getBaseSalary());
         values.put("status", employee.getStatus());
         values.put("hireDate", employee.getHireDate());
+        values.put("birthDate", employee.getBirthDate());
+        values.put("gender", employee.getGender());
         return values;
     }
 
@@ -727,6 +746,13 @@ public class EmployeeService {
         return changes;
     }
 
+    private Map<String, Object> singletonValue(String field, Object value) {
+        // HashMap aceita valor nulo (ex.: foto anterior inexistente)
+        Map<String, Object> values = new HashMap<>();
+        values.put(field, value);
+        return values;
+    }
+
     private void publishCreatedEvent(Employee employee) {
         try {
             EmployeeCreatedEvent event = EmployeeCreatedEvent.create()
@@ -737,6 +763,8 @@ public class EmployeeService {
                     .fullName(employee.getFullName())
                     .email(employee.getEmail())
                     .birthDate(employee.getBirthDate())
+                    .gender(employee.getGender() != null ? employee.getGender().name() : null)
+                    .photoUrl(employee.getPhotoUrl())
                     .hireDate(employee.getHireDate())
                     .departmentId(employee.getDepartment() != null ? employee.getDepartment().getId() : null)
                     .departmentName(employee.getDepartment() != null ? employee.getDepartment().getName() : null)
@@ -124,4 +124,15 @@ public class FileStorageService {
             throw new RuntimeException("Não foi possível armazenar o arquivo", ex);
         }
     }
+
+    /**
+     * Caminho absoluto de um documento salvo por {@link #storeDocument}.
+     */
+    public Path resolveDocument(String filename) {
+        Path path = this.documentStorageLocation.resolve(filename).normalize();
+        if (!path.startsWith(this.documentStorageLocation)) {
+            throw new RuntimeException("Caminho de documento inválido: " + filename);
+        }
+        return path;
+    }
 }
@@ -14,7 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +32,10 @@ public class ManagerService {
     private final DepartmentRepository departmentRepository;
     private final EmployeeMapper employeeMapper;
 
+    /**
+     * Lista gestores com departamentos e contagens em consultas agregadas
+     * (sem consulta por gestor/departamento).
+     */
     @Transactional(readOnly = true)
     public List<ManagerDTO> findAllManagers() {
         UUID tenantId = UUID.fromString(TenantContext.getCurrentTenant());
@@ -42,18 +49,40 @@ public class ManagerService {
                 .filter(id -> id != null)
                 .distinct()
                 .collect(Collectors.toList());
-        
-        // Buscar funcionários que são gestores
+
+        if (managerIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Employee> managers = employeeRepository.findAllByIdWithRelations(tenantId, managerIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        Map<UUID, List<Department>> managedByManager = departmentRepository
+                .findByTenantIdAndManagerIdIn(tenantId, managerIds).stream()
+                .collect(Collectors.groupingBy(Department::getManagerId));
+
+        List<UUID> managedDepartmentIds = managedByManager.values().stream()
+                .flatMap(List::stream)
+                .map(Department::getId)
+                .toList();
+        Map<UUID, Long> employeesByDepartment = toCountMap(
+                employeeRepository.countActiveByDepartmentIds(tenantId, managedDepartmentIds));
+        Map<UUID, Long> subordinatesByManager = toCountMap(
+                employeeRepository.countActiveSubordinatesByManagerIds(tenantId, managerIds));
+
+        // Mantem a ordem dos departamentos (por nome)
         return managerIds.stream()
-                .map(managerId -> {
-                    Employee employee = employeeRepository.findByTenantIdAndId(tenantId, managerId)
-                            .orElse(null);
-                    if (employee != null) {
-                        return convertToDTO(employee);
-                    }
-                    return null;
+                .map(managers::get)
+                .filter(Objects::nonNull)
+                .map(employee -> {
+                    List<ManagerDTO.ManagedDepartmentDTO> managedDepartments = managedByManager
+                            .getOrDefault(employee.getId(), List.of()).stream()
+                            .map(dept -> toManagedDepartmentDTO(dept,
+                                    employeesByDepartment.getOrDefault(dept.getId(), 0L)))
+                            .toList();
+                    return buildDTO(employee, managedDepartments,
+                            subordinatesByManager.getOrDefault(employee.getId(), 0L));
                 })
-                .filter(dto -> dto != null)
                 .collect(Collectors.toList());
     }
 
@@ -72,19 +101,15 @@ public class ManagerService {
         UUID tenantId = UUID.fromString(TenantContext.getCurrentTenant());
         
         List<Department> departments = departmentRepository.findByTenantIdAndManagerId(tenantId, managerId);
-        
+        if (departments.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Long> employeesByDepartment = toCountMap(employeeRepository.countActiveByDepartmentIds(
+                tenantId, departments.stream().map(Department::getId).toList()));
+
         return departments.stream()
-                .map(dept -> {
-                    Long employeeCount = employeeRepository.countByTenantIdAndDepartmentIdAndIsActiveTrue(
-                            tenantId, dept.getId());
-                    
-                    return ManagerDTO.ManagedDepartmentDTO.builder()
-                            .id(dept.getId())
-                            .code(dept.getCode())
-                            .name(dept.getName())
-                            .employeeCount(employeeCount)
-                            .build();
-                })
+                .map(dept -> toManagedDepartmentDTO(dept, employeesByDepartment.getOrDefault(dept.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
@@ -124,6 +149,11 @@ public class ManagerService {
                 .findByTenantIdAndManagerIdAndIsActiveTrue(tenantId, employee.getId())
                 .size();
         
+        return buildDTO(employee, managedDepartments, totalSubordinates);
+    }
+
+    private ManagerDTO buildDTO(Employee employee, List<ManagerDTO.ManagedDepartmentDTO> managedDepartments,
+                                Long totalSubordinates) {
         return ManagerDTO.builder()
                 .id(employee.getId())
                 .registrationNumber(employee.getRegistrationNumber())
@@ -136,4 +166,18 @@ public class ManagerService {
                 .totalManagedDepartments((long) managedDepartments.size())
                 .build();
     }
+
+    private ManagerDTO.ManagedDepartmentDTO toManagedDepartmentDTO(Department dept, Long employeeCount) {
+        return ManagerDTO.ManagedDepartmentDTO.builder()
+                .id(dept.getId())
+                .code(dept.getCode())
+                .name(dept.getName())
+                .employeeCount(employeeCount)
+                .build();
+    }
+
+    private Map<UUID, Long> toCountMap(List<Object[]> rows) {
+        return rows.stream()
+                .collect(Collectors.toMap(row -> (UUID) row[0], row -> (Long) row[1]));
+    }
 }
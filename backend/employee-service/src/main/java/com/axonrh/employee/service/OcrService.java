@@ -1,15 +1,21 @@
 package com.axonrh.employee.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +32,7 @@ import java.util.regex.Pattern;
 public class OcrService {
 
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
 
     @Value("${ocr.api.url:http://localhost:8090/api/ocr}")
     private String ocrApiUrl;
@@ -40,6 +47,13 @@ public class OcrService {
      * Extract data from document using OCR
      */
     public Map<String, Object> extractData(byte[] fileContent, String mimeType, String documentType) {
+        return extractData(new ByteArrayInputStream(fileContent), mimeType, documentType);
+    }
+
+    /**
+     * Extract data from document using OCR, streaming the content to the OCR API
+     */
+    public Map<String, Object> extractData(InputStream fileContent, String mimeType, String documentType) {
         log.info("Processing OCR for document type: {}", documentType);
 
         if (!ocrEnabled) {
@@ -57,30 +71,46 @@ public class OcrService {
     }
 
     /**
-     * Call external OCR API
+     * Call external OCR API.
+     * The JSON body is written directly to the request stream and the file is base64-encoded
+     * on the fly, so neither the encoded payload nor a request map is held in memory.
      */
-    private String callOcrApi(byte[] fileContent, String mimeType) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        if (!ocrApiKey.isEmpty()) {
-            headers.set("Authorization", "Bearer " + ocrApiKey);
-        }
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("image", Base64.getEncoder().encodeToString(fileContent));
-        requestBody.put("mimeType", mimeType);
-        requestBody.put("language", "por");
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-        ResponseEntity<Map> response = restTemplate.postForEntity(
+    @SuppressWarnings("unchecked")
+    private String callOcrApi(InputStream fileContent, String mimeType) {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (!ocrApiKey.isEmpty()) {
+                request.getHeaders().set("Authorization", "Bearer " + ocrApiKey);
+            }
+
+            OutputStream body = request.getBody();
+            body.write(("{\"mimeType\":" + objectMapper.writeValueAsString(mimeType)
+                    + ",\"language\":\"por\",\"image\":\"").getBytes(StandardCharsets.UTF_8));
+            OutputStream base64 = Base64.getEncoder().wrap(new FilterOutputStream(body) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush(); // finaliza o padding base64 sem fechar o corpo da requisicao
+                }
+            });
+            fileContent.transferTo(base64);
+            base64.close();
+            body.write("\"}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        Map<String, Object> response = restTemplate.execute(
             ocrApiUrl + "/extract",
-            request,
-            Map.class
+            HttpMethod.POST,
+            requestCallback,
+            clientResponse -> objectMapper.readValue(clientResponse.getBody(), Map.class)
         );
 
-        if (response.getBody() != null && response.getBody().containsKey("text")) {
-            return (String) response.getBody().get("text");
+        if (response != null && response.containsKey("text")) {
+            return (String) response.get("text");
         }
 
         throw new RuntimeException("OCR API retornou resposta inválida");
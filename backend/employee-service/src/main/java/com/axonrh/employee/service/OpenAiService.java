@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
@@ -17,6 +18,9 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
@@ -34,6 +38,19 @@ public class OpenAiService {
     private final RestTemplate restTemplate = new RestTemplate();
 
     public Map<String, Object> extractDataFromDocument(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            return extractDataFromDocument(content, file.getContentType());
+        } catch (IOException e) {
+            log.error("Erro ao ler arquivo para OpenAI", e);
+            throw new RuntimeException("Erro ao processar arquivo", e);
+        }
+    }
+
+    /**
+     * Extrai os dados lendo o documento por stream: imagens sao codificadas em base64 direto do
+     * stream e PDFs sao carregados com buffer em arquivo temporario, sem copia do arquivo em memoria.
+     */
+    public Map<String, Object> extractDataFromDocument(InputStream fileContent, String contentType) {
         if (apiKey == null || apiKey.isEmpty()) {
             log.warn("OpenAI API Key not configured. Returning empty extraction.");
             return new HashMap<>();
@@ -78,9 +95,9 @@ public class OpenAiService {
             List<Map<String, Object>> contents = new ArrayList<>();
             contents.add(Map.of("type", "text", "text", prompt));
 
-            if ("application/pdf".equalsIgnoreCase(file.getContentType())) {
+            if ("application/pdf".equalsIgnoreCase(contentType)) {
                 log.info("Processando arquivo PDF para extração de dados");
-                List<String> base64Images = convertPdfToImages(file.getBytes());
+                List<String> base64Images = convertPdfToImages(fileContent);
                 for (String base64Img : base64Images) {
                     Map<String, Object> imageContent = new HashMap<>();
                     imageContent.put("type", "image_url");
@@ -88,8 +105,8 @@ public class OpenAiService {
                     contents.add(imageContent);
                 }
             } else {
-                String base64Image = Base64.getEncoder().encodeToString(file.getBytes());
-                String mimeType = file.getContentType() != null ? file.getContentType() : "image/jpeg";
+                String base64Image = encodeBase64(fileContent);
+                String mimeType = contentType != null ? contentType : "image/jpeg";
                 Map<String, Object> imageContent = new HashMap<>();
                 imageContent.put("type", "image_url");
                 imageContent.put("image_url", Map.of("url", "data:" + mimeType + ";base64," + base64Image));
@@ -160,9 +177,17 @@ public class OpenAiService {
         return new HashMap<>();
     }
 
-    private List<String> convertPdfToImages(byte[] pdfBytes) throws IOException {
+    private static String encodeBase64(InputStream content) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream encoder = Base64.getEncoder().wrap(encoded)) {
+            content.transferTo(encoder);
+        }
+        return encoded.toString(StandardCharsets.US_ASCII);
+    }
+
+    private List<String> convertPdfToImages(InputStream pdf) throws IOException {
         List<String> base64Images = new ArrayList<>();
-        try (PDDocument document = PDDocument.load(pdfBytes)) {
+        try (PDDocument document = PDDocument.load(pdf, MemoryUsageSetting.setupTempFileOnly())) {
             PDFRenderer pdfRenderer = new PDFRenderer(document);
             // Limitamos a extração às primeiras 2 páginas para evitar payloads excessivos
             int pagesToProcess = Math.min(document.getNumberOfPages(), 2);
@@ -0,0 +1,46 @@
+package com.axonrh.employee.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizacao de termos de busca de colaboradores.
+ * Espelha a coluna employees.search_text (lower + unaccent) mantida por trigger (V24),
+ * para que os termos usem o indice trigram.
+ */
+public final class SearchTextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SearchTextNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Remove acentos, converte para minusculas e colapsa espacos.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        String folded = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ");
+    }
+
+    /**
+     * Padrao LIKE '%termo%' com curingas escapados.
+     */
+    public static String containsPattern(String foldedTerm) {
+        return "%" + escapeLike(foldedTerm) + "%";
+    }
+
+    /**
+     * Escapa os curingas do LIKE (escape padrao do PostgreSQL: barra invertida).
+     */
+    public static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
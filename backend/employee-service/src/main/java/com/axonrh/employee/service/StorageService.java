@@ -9,7 +9,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -30,25 +32,49 @@ public class StorageService {
     @Value("${minio.url.expiry:3600}")
     private int urlExpiry;
 
+    @Value("${minio.upload.part-size:10485760}")
+    private long partSize;
+
     /**
      * Upload file from byte array
      */
     public String uploadFile(byte[] content, String path, String contentType, String tenantId) {
+        return uploadStream(new ByteArrayInputStream(content), content.length, path, contentType, tenantId);
+    }
+
+    /**
+     * Upload multipart file (streamed from the servlet temp file, never fully loaded in heap)
+     */
+    public String uploadFile(MultipartFile file, String directory, String tenantId) {
+        String fileName = UUID.randomUUID() + "_" + sanitizeFileName(file.getOriginalFilename());
+        String path = directory + "/" + fileName;
+
+        try (InputStream stream = file.getInputStream()) {
+            return uploadStream(stream, file.getSize(), path, file.getContentType(), tenantId);
+        } catch (IOException e) {
+            log.error("Error uploading multipart file: {}", e.getMessage());
+            throw new RuntimeException("Erro ao fazer upload do arquivo", e);
+        }
+    }
+
+    /**
+     * Upload from stream. Objects larger than one part are sent as a MinIO multipart upload,
+     * so memory use is bounded by the part size. Use size -1 when the length is unknown.
+     */
+    public String uploadStream(InputStream stream, long size, String path, String contentType, String tenantId) {
         String fullPath = tenantId + "/" + path;
 
         try {
             ensureBucketExists();
 
-            try (InputStream stream = new ByteArrayInputStream(content)) {
-                minioClient.putObject(PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(fullPath)
-                    .stream(stream, content.length, -1)
-                    .contentType(contentType)
-                    .build());
-            }
+            minioClient.putObject(PutObjectArgs.builder()
+                .bucket(bucketName)
+                .object(fullPath)
+                .stream(stream, size, size >= 0 && size <= partSize ? -1 : partSize)
+                .contentType(contentType != null ? contentType : "application/octet-stream")
+                .build());
 
-            log.info("File uploaded successfully: {}", fullPath);
+            log.info("File uploaded successfully: {} ({} bytes)", fullPath, size);
             return fullPath;
 
         } catch (Exception e) {
@@ -58,33 +84,58 @@ public class StorageService {
     }
 
     /**
-     * Upload multipart file
+     * Download file as byte array. Prefer {@link #copyTo} / {@link #openStream} for documents,
+     * which do not buffer the whole object.
      */
-    public String uploadFile(MultipartFile file, String directory, String tenantId) {
-        String fileName = UUID.randomUUID() + "_" + sanitizeFileName(file.getOriginalFilename());
-        String path = directory + "/" + fileName;
+    public byte[] downloadFile(String path) {
+        try (InputStream stream = openStream(path)) {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            log.error("Error downloading file: {}", e.getMessage());
+            throw new RuntimeException("Erro ao baixar arquivo", e);
+        }
+    }
 
+    /**
+     * Open object stream. Caller must close it.
+     */
+    public InputStream openStream(String path) {
         try {
-            return uploadFile(file.getBytes(), path, file.getContentType(), tenantId);
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(path)
+                    .build());
         } catch (Exception e) {
-            log.error("Error uploading multipart file: {}", e.getMessage());
-            throw new RuntimeException("Erro ao fazer upload do arquivo", e);
+            log.error("Error opening file: {}", e.getMessage());
+            throw new RuntimeException("Erro ao baixar arquivo", e);
         }
     }
 
     /**
-     * Download file as byte array
+     * Open a byte range of the object (ranged GET). Caller must close it.
      */
-    public byte[] downloadFile(String path) {
+    public InputStream openRange(String path, long offset, long length) {
         try {
-            try (InputStream stream = minioClient.getObject(GetObjectArgs.builder()
+            return minioClient.getObject(GetObjectArgs.builder()
                     .bucket(bucketName)
                     .object(path)
-                    .build())) {
-                return stream.readAllBytes();
-            }
+                    .offset(offset)
+                    .length(length)
+                    .build());
         } catch (Exception e) {
-            log.error("Error downloading file: {}", e.getMessage());
+            log.error("Error opening file range: {}", e.getMessage());
+            throw new RuntimeException("Erro ao baixar arquivo", e);
+        }
+    }
+
+    /**
+     * Pipe object content to the output stream in fixed-size chunks.
+     */
+    public long copyTo(String path, OutputStream out) {
+        try (InputStream stream = openStream(path)) {
+            return stream.transferTo(out);
+        } catch (IOException e) {
+            log.error("Error streaming file: {}", e.getMessage());
             throw new RuntimeException("Erro ao baixar arquivo", e);
         }
     }
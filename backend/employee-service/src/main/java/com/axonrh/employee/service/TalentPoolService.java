@@ -627,10 +627,10 @@ public class TalentPoolService {
                 throw new ResourceNotFoundException("Arquivo do currículo não encontrado no servidor");
             }
 
-            byte[] content = Files.readAllBytes(filePath);
             Map<String, Object> result = new HashMap<>();
             result.put("fileName", candidate.getResumeFileName() != null ? candidate.getResumeFileName() : "curriculo");
-            result.put("content", content);
+            result.put("resource", new org.springframework.core.io.FileSystemResource(filePath));
+            result.put("contentLength", Files.size(filePath));
             
             String contentType = "application/octet-stream";
             if ("PDF".equalsIgnoreCase(candidate.getResumeFileType())) {
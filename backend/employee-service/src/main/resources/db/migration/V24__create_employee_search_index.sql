@@ -0,0 +1,41 @@
+-- ============================================================
+-- V24: Indice de busca textual/fuzzy de colaboradores
+-- Coluna search_text normalizada (minusculas, sem acentos) mantida
+-- por trigger e indexada com pg_trgm (GIN), servindo LIKE '%termo%',
+-- prefixo e similaridade (<%) sem varredura sequencial.
+-- ============================================================
+
+SET search_path TO shared, public;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS unaccent SCHEMA public;
+
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+-- unaccent() nao e IMMUTABLE; o valor e materializado pelo trigger
+CREATE OR REPLACE FUNCTION employees_search_text_refresh()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_text := lower(unaccent(concat_ws(' ',
+            NEW.full_name,
+            NEW.social_name,
+            NEW.registration_number,
+            NEW.email,
+            NEW.cpf)));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql SET search_path = shared, public;
+
+DROP TRIGGER IF EXISTS trg_employees_search_text ON employees;
+CREATE TRIGGER trg_employees_search_text
+    BEFORE INSERT OR UPDATE OF full_name, social_name, registration_number, email, cpf
+    ON employees
+    FOR EACH ROW
+    EXECUTE FUNCTION employees_search_text_refresh();
+
+UPDATE employees
+SET search_text = lower(unaccent(concat_ws(' ', full_name, social_name, registration_number, email, cpf)));
+
+CREATE INDEX IF NOT EXISTS idx_employees_search_trgm ON employees USING GIN (search_text public.gin_trgm_ops);
+
+COMMENT ON COLUMN employees.search_text IS 'Texto de busca normalizado (nome, nome social, matricula, email, CPF) - mantido por trigger';
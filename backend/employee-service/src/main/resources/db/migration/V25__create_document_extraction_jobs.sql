@@ -0,0 +1,31 @@
+-- ============================================================
+-- V25: Jobs assincronos de OCR/extracao de documentos
+-- ============================================================
+
+SET search_path TO shared;
+
+CREATE TABLE IF NOT EXISTS document_extraction_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id UUID NOT NULL,
+    job_type VARCHAR(30) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    content_hash VARCHAR(64) NOT NULL,
+    document_type VARCHAR(50),
+    file_name VARCHAR(255),
+    mime_type VARCHAR(100),
+    file_size BIGINT,
+    stored_path VARCHAR(500),
+    result JSONB,
+    error_message TEXT,
+    attempts INTEGER DEFAULT 0,
+    requested_by UUID,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_extraction_jobs_hash ON document_extraction_jobs(tenant_id, job_type, content_hash, status);
+CREATE INDEX IF NOT EXISTS idx_extraction_jobs_status ON document_extraction_jobs(status);
+
+COMMENT ON TABLE document_extraction_jobs IS 'Jobs de OCR/extracao de documentos - resultado reaproveitado por hash do conteudo';
@@ -0,0 +1,30 @@
+-- ============================================================
+-- V26: Deduplicacao e posse dos jobs de extracao
+-- ============================================================
+
+SET search_path TO shared;
+
+-- Lease de processamento: uma replica so assume job PROCESSING de outra apos o vencimento
+ALTER TABLE document_extraction_jobs ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP;
+
+-- Jobs ativos duplicados (uploads concorrentes) impediriam o indice unico
+UPDATE document_extraction_jobs j
+SET status = 'FAILED',
+    error_message = 'Job duplicado descartado',
+    completed_at = CURRENT_TIMESTAMP
+WHERE j.status IN ('PENDING', 'PROCESSING')
+  AND EXISTS (
+      SELECT 1 FROM document_extraction_jobs other
+      WHERE other.tenant_id = j.tenant_id
+        AND other.job_type = j.job_type
+        AND other.content_hash = j.content_hash
+        AND other.requested_by IS NOT DISTINCT FROM j.requested_by
+        AND other.status IN ('PENDING', 'PROCESSING')
+        AND (other.created_at > j.created_at OR (other.created_at = j.created_at AND other.id > j.id))
+  );
+
+-- Um unico job ativo por conteudo e solicitante
+CREATE UNIQUE INDEX IF NOT EXISTS uq_extraction_jobs_active
+    ON document_extraction_jobs(tenant_id, job_type, content_hash,
+                                COALESCE(requested_by, '00000000-0000-0000-0000-000000000000'::uuid))
+    WHERE status IN ('PENDING', 'PROCESSING');
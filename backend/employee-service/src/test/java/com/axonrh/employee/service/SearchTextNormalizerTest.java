@@ -0,0 +1,31 @@
+package com.axonrh.employee.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da normalizacao de termos de busca (indice search_text).
+ */
+class SearchTextNormalizerTest {
+
+    @Test
+    @DisplayName("Deve remover acentos e converter para minusculas")
+    void shouldFoldAccentsAndCase() {
+        assertThat(SearchTextNormalizer.fold("  João  Conceição ")).isEqualTo("joao conceicao");
+        assertThat(SearchTextNormalizer.fold("ÂNGELA")).isEqualTo("angela");
+    }
+
+    @Test
+    @DisplayName("Deve tratar termo nulo como vazio")
+    void shouldTreatNullAsEmpty() {
+        assertThat(SearchTextNormalizer.fold(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve escapar curingas do LIKE")
+    void shouldEscapeLikeWildcards() {
+        assertThat(SearchTextNormalizer.containsPattern("50%_a")).isEqualTo("%50\\%\\_a%");
+    }
+}
@@ -10,8 +10,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication(scanBasePackages = "com.axonrh")
 @EnableAsync
 @EnableScheduling
-@EnableJpaRepositories(basePackages = {"com.axonrh.notification.repository", "com.axonrh.kafka.dlq"})
-@EntityScan(basePackages = {"com.axonrh.notification.entity", "com.axonrh.kafka.dlq"})
+@EnableJpaRepositories(basePackages = {"com.axonrh.notification.repository", "com.axonrh.kafka.dlq", "com.axonrh.kafka.idempotency"})
+@EntityScan(basePackages = {"com.axonrh.notification.entity", "com.axonrh.kafka.dlq", "com.axonrh.kafka.idempotency"})
 public class NotificationServiceApplication {
 
     public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.axonrh.notification.kafka;
 
 import com.axonrh.kafka.event.notification.NotificationEvent;
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
 import com.axonrh.notification.entity.Notification;
 import com.axonrh.notification.service.EmailService;
 import com.axonrh.notification.service.NotificationService;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -25,8 +27,13 @@ public class NotificationEventsListener {
 
     private final NotificationService notificationService;
     private final EmailService emailService;
+    private final IdempotentEventProcessor idempotentProcessor;
 
-    @KafkaListener(topics = "notification.events", groupId = "notification-service")
+    @KafkaListener(
+            topics = "notification.events",
+            groupId = "notification-service",
+            concurrency = "${axonrh.kafka.listeners.notification-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
     public void handleNotificationEvent(NotificationEvent event) {
         try {
             log.info("Recebido evento de notificacao: {}", event);
@@ -43,15 +50,12 @@ public class NotificationEventsListener {
             
             // Processar variáveis do template
             Map<String, Object> variablesRaw = event.getVariables();
-            Map<String, String> variables = null;
-            if (variablesRaw != null) {
-                variables = variablesRaw.entrySet().stream()
-                        .filter(e -> e.getKey() != null)
-                        .collect(Collectors.toMap(
-                                Map.Entry::getKey,
-                                e -> e.getValue() != null ? e.getValue().toString() : ""
-                        ));
-            }
+            Map<String, String> variables = variablesRaw == null ? null : variablesRaw.entrySet().stream()
+                    .filter(e -> e.getKey() != null)
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            e -> e.getValue() != null ? e.getValue().toString() : ""
+                    ));
 
             // 1. Processar destinatários internos (User IDs)
             List<UUID> recipientIds = event.getRecipientIds();
@@ -59,8 +63,9 @@ public class NotificationEventsListener {
                 for (UUID userId : recipientIds) {
                     try {
                         log.info("Processando notificacao para usuario interno: {}", userId);
-                        
-                        notificationService.createNotification(
+
+                        // Deduplicado por destinatario: a falha de um nao reenvia aos demais
+                        idempotentProcessor.processOnce(recipientKey(event, userId), () -> notificationService.createNotification(
                                 tenantId,
                                 userId,
                                 null,
@@ -81,7 +86,7 @@ public class NotificationEventsListener {
                                 null, // recipientName
                                 templateCode,
                                 variables
-                        );
+                        ));
                     } catch (Exception e) {
                         log.error("Erro ao enviar notificacao para usuario {}: {}", userId, e.getMessage());
                     }
@@ -94,7 +99,8 @@ public class NotificationEventsListener {
                 for (String email : externalEmails) {
                     try {
                         log.info("Enviando email externo para: {} usando template: {}", email, templateCode);
-                        emailService.sendTemplateEmail(tenantId, templateCode, email, null, variables);
+                        idempotentProcessor.processOnce(recipientKey(event, email), () ->
+                                emailService.sendTemplateEmail(tenantId, templateCode, email, null, variables));
                     } catch (Exception e) {
                         log.error("Erro ao enviar email externo para {}: {}", email, e.getMessage());
                     }
@@ -105,4 +111,18 @@ public class NotificationEventsListener {
             log.error("Erro crítico ao processar evento de notificacao", e);
         }
     }
+
+    /**
+     * Chave de deduplicacao por destinatario. E-mails entram como UUID derivado do endereco para
+     * caber em processed_events.event_id (VARCHAR 100).
+     */
+    private String recipientKey(NotificationEvent event, Object recipient) {
+        if (event.getEventId() == null) {
+            return null;
+        }
+        UUID recipientId = recipient instanceof UUID id
+                ? id
+                : UUID.nameUUIDFromBytes(recipient.toString().toLowerCase().getBytes(StandardCharsets.UTF_8));
+        return event.getEventId() + ":" + recipientId;
+    }
 }
@@ -1,6 +1,7 @@
 package com.axonrh.notification.kafka;
 
 import com.axonrh.kafka.event.notification.NotificationEvent;
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
 import com.axonrh.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,8 +16,13 @@ import java.util.UUID;
 public class PerformanceEventsListener {
 
     private final NotificationService notificationService;
+    private final IdempotentEventProcessor idempotentProcessor;
 
-    @KafkaListener(topics = "performance.domain.events", groupId = "notification-service")
+    @KafkaListener(
+            topics = "performance.domain.events",
+            groupId = "notification-service",
+            concurrency = "${axonrh.kafka.listeners.performance-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
     public void handlePerformanceEvent(NotificationEvent event) {
         try {
             String eventType = event.getEventType();
@@ -36,80 +42,82 @@ public class PerformanceEventsListener {
 
             log.info("Recebido evento de performance: {} para usuario {}", eventType, userId);
 
-            switch (eventType) {
-                case "PDI_CREATED":
-                    notificationService.createNotification(
-                            tenantId, userId, null,
-                            com.axonrh.notification.entity.Notification.NotificationType.INFO,
-                            "PERFORMANCE",
-                            title, body,
-                            "target", null,
-                            com.axonrh.notification.entity.Notification.ActionType.ROUTE,
-                            actionUrl, null,
-                            com.axonrh.notification.entity.Notification.Priority.NORMAL,
-                            sourceType, sourceId,
-                            true, null, null, null, null
-                    );
-                    break;
-                case "DISC_ASSIGNED":
-                    notificationService.createNotification(
-                            tenantId, userId, null,
-                            com.axonrh.notification.entity.Notification.NotificationType.ALERT,
-                            "PERFORMANCE",
-                            title, body,
-                            "brain", null,
-                            com.axonrh.notification.entity.Notification.ActionType.ROUTE,
-                            actionUrl, null,
-                            com.axonrh.notification.entity.Notification.Priority.HIGH,
-                            sourceType, sourceId,
-                            true, null, null, null, null
-                    );
-                    break;
-                case "EVALUATION_CREATED":
-                    notificationService.createNotification(
-                            tenantId, userId, null,
-                            com.axonrh.notification.entity.Notification.NotificationType.APPROVAL,
-                            "PERFORMANCE",
-                            title, body,
-                            "clipboard-check", null,
-                            com.axonrh.notification.entity.Notification.ActionType.ROUTE,
-                            actionUrl, null,
-                            com.axonrh.notification.entity.Notification.Priority.HIGH,
-                            sourceType, sourceId,
-                            true, null, null, null, null
-                    );
-                    break;
-                case "EVALUATION_REMINDER":
-                    notificationService.createNotification(
-                            tenantId, userId, null,
-                            com.axonrh.notification.entity.Notification.NotificationType.REMINDER,
-                            "PERFORMANCE",
-                            title, body,
-                            "calendar-clock", null,
-                            com.axonrh.notification.entity.Notification.ActionType.ROUTE,
-                            actionUrl, null,
-                            com.axonrh.notification.entity.Notification.Priority.HIGH,
-                            sourceType, sourceId,
-                            true, null, null, null, null
-                    );
-                    break;
-                case "DISC_REMINDER":
-                    notificationService.createNotification(
-                            tenantId, userId, null,
-                            com.axonrh.notification.entity.Notification.NotificationType.REMINDER,
-                            "PERFORMANCE",
-                            title, body,
-                            "brain", null,
-                            com.axonrh.notification.entity.Notification.ActionType.ROUTE,
-                            actionUrl, null,
-                            com.axonrh.notification.entity.Notification.Priority.HIGH,
-                            sourceType, sourceId,
-                            true, null, null, null, null
-                    );
-                    break;
-                default:
-                    log.warn("Tipo de evento de performance desconhecido: {}", eventType);
-            }
+            idempotentProcessor.processOnce(event.getEventId(), () -> {
+                switch (eventType) {
+                    case "PDI_CREATED":
+                        notificationService.createNotification(
+                                tenantId, userId, null,
+                                com.axonrh.notification.entity.Notification.NotificationType.INFO,
+                                "PERFORMANCE",
+                                title, body,
+                                "target", null,
+                                com.axonrh.notification.entity.Notification.ActionType.ROUTE,
+                                actionUrl, null,
+                                com.axonrh.notification.entity.Notification.Priority.NORMAL,
+                                sourceType, sourceId,
+                                true, null, null, null, null
+                        );
+                        break;
+                    case "DISC_ASSIGNED":
+                        notificationService.createNotification(
+                                tenantId, userId, null,
+                                com.axonrh.notification.entity.Notification.NotificationType.ALERT,
+                                "PERFORMANCE",
+                                title, body,
+                                "brain", null,
+                                com.axonrh.notification.entity.Notification.ActionType.ROUTE,
+                                actionUrl, null,
+                                com.axonrh.notification.entity.Notification.Priority.HIGH,
+                                sourceType, sourceId,
+                                true, null, null, null, null
+                        );
+                        break;
+                    case "EVALUATION_CREATED":
+                        notificationService.createNotification(
+                                tenantId, userId, null,
+                                com.axonrh.notification.entity.Notification.NotificationType.APPROVAL,
+                                "PERFORMANCE",
+                                title, body,
+                                "clipboard-check", null,
+                                com.axonrh.notification.entity.Notification.ActionType.ROUTE,
+                                actionUrl, null,
+                                com.axonrh.notification.entity.Notification.Priority.HIGH,
+                                sourceType, sourceId,
+                                true, null, null, null, null
+                        );
+                        break;
+                    case "EVALUATION_REMINDER":
+                        notificationService.createNotification(
+                                tenantId, userId, null,
+                                com.axonrh.notification.entity.Notification.NotificationType.REMINDER,
+                                "PERFORMANCE",
+                                title, body,
+                                "calendar-clock", null,
+                                com.axonrh.notification.entity.Notification.ActionType.ROUTE,
+                                actionUrl, null,
+                                com.axonrh.notification.entity.Notification.Priority.HIGH,
+                                sourceType, sourceId,
+                                true, null, null, null, null
+                        );
+                        break;
+                    case "DISC_REMINDER":
+                        notificationService.createNotification(
+                                tenantId, userId, null,
+                                com.axonrh.notification.entity.Notification.NotificationType.REMINDER,
+                                "PERFORMANCE",
+                                title, body,
+                                "brain", null,
+                                com.axonrh.notification.entity.Notification.ActionType.ROUTE,
+                                actionUrl, null,
+                                com.axonrh.notification.entity.Notification.Priority.HIGH,
+                                sourceType, sourceId,
+                                true, null, null, null, null
+                        );
+                        break;
+                    default:
+                        log.warn("Tipo de evento de performance desconhecido: {}", eventType);
+                }
+            });
         } catch (Exception e) {
             log.error("Erro ao processar evento de performance", e);
         }
@@ -1,5 +1,6 @@
 package com.axonrh.notification.kafka;
 
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
 import com.axonrh.notification.service.NotificationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,7 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -15,9 +17,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TimesheetEventsListener {
 
+    private static final Set<String> NOTIFIED_EVENT_TYPES =
+            Set.of("ADJUSTMENT_REQUESTED", "ADJUSTMENT_APPROVED", "ADJUSTMENT_REJECTED");
+
     private final NotificationService notificationService;
+    private final IdempotentEventProcessor idempotentProcessor;
 
-    @KafkaListener(topics = "timesheet.domain.events", groupId = "notification-service")
+    @KafkaListener(
+            topics = "timesheet.domain.events",
+            groupId = "notification-service",
+            concurrency = "${axonrh.kafka.listeners.timesheet-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
     public void handleTimesheetEvent(Map<String, Object> event) {
         try {
             String eventType = (String) event.get("eventType");
@@ -33,57 +43,67 @@ public class TimesheetEventsListener {
 
             log.info("Recebido evento de timesheet: {} para usuario {}", eventType, employeeUserId);
 
-            switch (eventType) {
-                case "ADJUSTMENT_REQUESTED":
-                    if (event.containsKey("managerUserId")) {
-                        String managerIdStr = (String) event.get("managerUserId");
-                        if (managerIdStr != null) {
-                            UUID managerUserId = UUID.fromString(managerIdStr);
-                            notificationService.pendingApproval(
-                                    tenantId,
-                                    managerUserId,
-                                    "Ajuste de Ponto",
-                                    "O colaborador " + employeeName + " solicitou ajuste de ponto para " + recordDate,
-                                    "/timesheet/adjustments",
-                                    "TIME_ADJUSTMENT",
-                                    UUID.fromString((String) event.get("adjustmentId"))
-                            );
-                        }
+            // Batidas e resumos diarios nao geram notificacao nem registro de deduplicacao
+            if (eventType == null || !NOTIFIED_EVENT_TYPES.contains(eventType)) return;
+
+            // Notificacao gravada na mesma transacao do registro do evento: reentregas nao duplicam
+            idempotentProcessor.processOnce(event.get("eventId"), () ->
+                    notifyTimesheetEvent(event, eventType, tenantId, employeeName, recordDate));
+        } catch (Exception e) {
+            log.error("Erro ao processar evento de timesheet", e);
+        }
+    }
+
+    private void notifyTimesheetEvent(Map<String, Object> event, String eventType, UUID tenantId,
+                                      String employeeName, String recordDate) {
+        switch (eventType) {
+            case "ADJUSTMENT_REQUESTED":
+                if (event.containsKey("managerUserId")) {
+                    String managerIdStr = (String) event.get("managerUserId");
+                    if (managerIdStr != null) {
+                        UUID managerUserId = UUID.fromString(managerIdStr);
+                        notificationService.pendingApproval(
+                                tenantId,
+                                managerUserId,
+                                "Ajuste de Ponto",
+                                "O colaborador " + employeeName + " solicitou ajuste de ponto para " + recordDate,
+                                "/timesheet/adjustments",
+                                "TIME_ADJUSTMENT",
+                                UUID.fromString((String) event.get("adjustmentId"))
+                        );
                     }
-                    break;
-                    
-                case "ADJUSTMENT_APPROVED":
-                    if (event.containsKey("requesterUserId")) {
-                        String requesterIdStr = (String) event.get("requesterUserId");
-                        if (requesterIdStr != null) {
-                            UUID requesterUserId = UUID.fromString(requesterIdStr);
-                            notificationService.success(
-                                    tenantId,
-                                    requesterUserId,
-                                    "Ajuste de Ponto Aprovado",
-                                    "Sua solicitação de ajuste para o dia " + recordDate + " foi aprovada."
-                            );
-                        }
+                }
+                break;
+                
+            case "ADJUSTMENT_APPROVED":
+                if (event.containsKey("requesterUserId")) {
+                    String requesterIdStr = (String) event.get("requesterUserId");
+                    if (requesterIdStr != null) {
+                        UUID requesterUserId = UUID.fromString(requesterIdStr);
+                        notificationService.success(
+                                tenantId,
+                                requesterUserId,
+                                "Ajuste de Ponto Aprovado",
+                                "Sua solicitação de ajuste para o dia " + recordDate + " foi aprovada."
+                        );
                     }
-                    break;
-                    
-                case "ADJUSTMENT_REJECTED":
-                    if (event.containsKey("requesterUserId")) {
-                        String requesterIdStr = (String) event.get("requesterUserId");
-                        if (requesterIdStr != null) {
-                            UUID requesterUserId = UUID.fromString(requesterIdStr);
-                            notificationService.alert(
-                                    tenantId,
-                                    requesterUserId,
-                                    "Ajuste de Ponto Rejeitado",
-                                    "Sua solicitação de ajuste para o dia " + recordDate + " foi rejeitada."
-                            );
-                        }
+                }
+                break;
+                
+            case "ADJUSTMENT_REJECTED":
+                if (event.containsKey("requesterUserId")) {
+                    String requesterIdStr = (String) event.get("requesterUserId");
+                    if (requesterIdStr != null) {
+                        UUID requesterUserId = UUID.fromString(requesterIdStr);
+                        notificationService.alert(
+                                tenantId,
+                                requesterUserId,
+                                "Ajuste de Ponto Rejeitado",
+                                "Sua solicitação de ajuste para o dia " + recordDate + " foi rejeitada."
+                        );
                     }
-                    break;
-            }
-        } catch (Exception e) {
-            log.error("Erro ao processar evento de timesheet", e);
+                }
+                break;
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.axonrh.notification.kafka;
 
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
 import com.axonrh.notification.entity.Notification;
 import com.axonrh.notification.service.NotificationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,8 +19,13 @@ public class VacationEventsListener {
 
     private final NotificationService notificationService;
     private final ObjectMapper objectMapper;
+    private final IdempotentEventProcessor idempotentProcessor;
 
-    @KafkaListener(topics = "vacation.domain.events", groupId = "notification-service")
+    @KafkaListener(
+            topics = "vacation.domain.events",
+            groupId = "notification-service",
+            concurrency = "${axonrh.kafka.listeners.vacation-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
     public void handleVacationEvent(Map<String, Object> event) {
         try {
             String eventType = (String) event.get("eventType");
@@ -45,107 +51,115 @@ public class VacationEventsListener {
             emailVars.put("end_date", endDate != null ? endDate : "");
             emailVars.put("approver_name", "Gestor/RH");
 
-            switch (eventType) {
-                case "VACATION_REQUESTED":
-                case "LEAVE_REQUESTED":
-                    if (event.containsKey("managerUserId")) {
-                        String managerUserIdStr = (String) event.get("managerUserId");
-                        if (managerUserIdStr != null) {
-                           UUID managerUserId = UUID.fromString(managerUserIdStr);
-                           String title = eventType.equals("VACATION_REQUESTED") ? "Solicitação de Férias" : "Solicitação de Licença";
-                           
-                            notificationService.createNotification(
-                                    tenantId,
-                                    managerUserId,
-                                    null,
-                                    Notification.NotificationType.APPROVAL,
-                                    "APPROVAL",
-                                    title,
-                                    "Nova solicitação de " + (eventType.contains("VACATION") ? "férias" : "licença") + " para aprovar.",
-                                    "clock",
-                                    null,
-                                    Notification.ActionType.ROUTE,
-                                    eventType.contains("VACATION") ? "/vacation/approvals" : "/vacation/leaves/approvals",
-                                    null,
-                                    Notification.Priority.HIGH,
-                                    eventType.contains("VACATION") ? "VACATION_REQUEST" : "LEAVE_REQUEST",
-                                    getUUID(event, "requestId"),
-                                    true,
-                                    null,
-                                    null,
-                                    "VACATION_REQUEST",
-                                    emailVars
-                            );
-                        }
-                    }
-                    break;
-
-                case "VACATION_APPROVED":
-                case "LEAVE_APPROVED":
-                    String status = (String) event.get("status");
-                    if ("MANAGER_APPROVED".equals(status)) {
-                        notificationService.notify(
-                                tenantId,
-                                requesterUserId,
-                                "Aprovação do Gestor",
-                                "Sua solicitação foi aprovada pelo gestor e está aguardando análise do RH."
-                        );
-                    } else {
-                        String title = eventType.equals("VACATION_APPROVED") ? "Férias Aprovadas" : "Licença Aprovada";
-                        String message = eventType.equals("VACATION_APPROVED") ? 
-                            "Sua solicitação de férias foi aprovada e agendada!" : 
-                            "Sua solicitação de licença foi aprovada!";
-                        
+            // Notificacao gravada na mesma transacao do registro do evento: reentregas nao duplicam
+            idempotentProcessor.processOnce(event.get("eventId"), () -> notifyVacationEvent(
+                    event, eventType, tenantId, requesterUserId, employeeEmail, employeeName, emailVars));
+        } catch (Exception e) {
+            log.error("Erro ao processar evento de ferias", e);
+        }
+    }
+    
+    private void notifyVacationEvent(Map<String, Object> event, String eventType, UUID tenantId,
+                                     UUID requesterUserId, String employeeEmail, String employeeName,
+                                     Map<String, String> emailVars) {
+        switch (eventType) {
+            case "VACATION_REQUESTED":
+            case "LEAVE_REQUESTED":
+                if (event.containsKey("managerUserId")) {
+                    String managerUserIdStr = (String) event.get("managerUserId");
+                    if (managerUserIdStr != null) {
+                       UUID managerUserId = UUID.fromString(managerUserIdStr);
+                       String title = eventType.equals("VACATION_REQUESTED") ? "Solicitação de Férias" : "Solicitação de Licença";
+                       
                         notificationService.createNotification(
                                 tenantId,
-                                requesterUserId,
+                                managerUserId,
                                 null,
-                                Notification.NotificationType.SUCCESS,
-                                "VACATION",
+                                Notification.NotificationType.APPROVAL,
+                                "APPROVAL",
                                 title,
-                                message,
-                                "check-circle",
-                                null,
-                                null,
+                                "Nova solicitação de " + (eventType.contains("VACATION") ? "férias" : "licença") + " para aprovar.",
+                                "clock",
                                 null,
+                                Notification.ActionType.ROUTE,
+                                eventType.contains("VACATION") ? "/vacation/approvals" : "/vacation/leaves/approvals",
                                 null,
-                                Notification.Priority.NORMAL,
+                                Notification.Priority.HIGH,
+                                eventType.contains("VACATION") ? "VACATION_REQUEST" : "LEAVE_REQUEST",
+                                getUUID(event, "requestId"),
+                                true,
                                 null,
                                 null,
-                                true,
-                                employeeEmail,
-                                employeeName,
-                                "VACATION_APPROVED",
+                                "VACATION_REQUEST",
                                 emailVars
                         );
                     }
-                    break;
+                }
+                break;
 
-                case "VACATION_REJECTED":
-                case "LEAVE_REJECTED":
-                    String rejectTitle = eventType.contains("VACATION") ? "Férias Rejeitadas" : "Licença Rejeitada";
-                    notificationService.alert(
+            case "VACATION_APPROVED":
+            case "LEAVE_APPROVED":
+                String status = (String) event.get("status");
+                if ("MANAGER_APPROVED".equals(status)) {
+                    notificationService.notify(
                             tenantId,
                             requesterUserId,
-                            rejectTitle,
-                            "Sua solicitação foi rejeitada."
+                            "Aprovação do Gestor",
+                            "Sua solicitação foi aprovada pelo gestor e está aguardando análise do RH."
                     );
-                    break;
-
-                case "VACATION_EXPIRATION_WARNING":
-                     notificationService.alert(
+                } else {
+                    String title = eventType.equals("VACATION_APPROVED") ? "Férias Aprovadas" : "Licença Aprovada";
+                    String message = eventType.equals("VACATION_APPROVED") ? 
+                        "Sua solicitação de férias foi aprovada e agendada!" : 
+                        "Sua solicitação de licença foi aprovada!";
+                    
+                    notificationService.createNotification(
                             tenantId,
                             requesterUserId,
-                            "Férias Vencendo",
-                            "Você possui um período de férias próximo do vencimento."
+                            null,
+                            Notification.NotificationType.SUCCESS,
+                            "VACATION",
+                            title,
+                            message,
+                            "check-circle",
+                            null,
+                            null,
+                            null,
+                            null,
+                            Notification.Priority.NORMAL,
+                            null,
+                            null,
+                            true,
+                            employeeEmail,
+                            employeeName,
+                            "VACATION_APPROVED",
+                            emailVars
                     );
-                    break;
-            }
-        } catch (Exception e) {
-            log.error("Erro ao processar evento de ferias", e);
+                }
+                break;
+
+            case "VACATION_REJECTED":
+            case "LEAVE_REJECTED":
+                String rejectTitle = eventType.contains("VACATION") ? "Férias Rejeitadas" : "Licença Rejeitada";
+                notificationService.alert(
+                        tenantId,
+                        requesterUserId,
+                        rejectTitle,
+                        "Sua solicitação foi rejeitada."
+                );
+                break;
+
+            case "VACATION_EXPIRATION_WARNING":
+                 notificationService.alert(
+                        tenantId,
+                        requesterUserId,
+                        "Férias Vencendo",
+                        "Você possui um período de férias próximo do vencimento."
+                );
+                break;
         }
     }
-    
+
     private UUID getUUID(Map<String, Object> map, String key) {
         if (map.containsKey(key)) {
             Object val = map.get(key);
@@ -0,0 +1,15 @@
+-- V4: Deduplicacao de eventos consumidos
+-- Idempotencia de consumo (common/kafka): cada evento processado e registrado por
+-- grupo de consumo na mesma transacao do handler; registros expiram apos o TTL.
+
+CREATE SCHEMA IF NOT EXISTS shared;
+
+CREATE TABLE IF NOT EXISTS shared.processed_events (
+    consumer_group VARCHAR(100) NOT NULL,
+    event_id VARCHAR(100) NOT NULL,
+    processed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (consumer_group, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_events_expires_at ON shared.processed_events(expires_at);
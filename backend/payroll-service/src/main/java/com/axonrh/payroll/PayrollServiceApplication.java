@@ -16,8 +16,8 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @EnableKafka
 @EnableAsync
 @EnableFeignClients
-@EnableJpaRepositories(basePackages = {"com.axonrh.payroll.repository", "com.axonrh.kafka.dlq"})
-@EntityScan(basePackages = {"com.axonrh.payroll.entity", "com.axonrh.kafka.dlq"})
+@EnableJpaRepositories(basePackages = {"com.axonrh.payroll.repository", "com.axonrh.kafka.dlq", "com.axonrh.kafka.outbox"})
+@EntityScan(basePackages = {"com.axonrh.payroll.entity", "com.axonrh.kafka.dlq", "com.axonrh.kafka.outbox"})
 public class PayrollServiceApplication {
 
     public static void main(String[] args) {
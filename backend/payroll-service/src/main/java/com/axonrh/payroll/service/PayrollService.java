@@ -20,7 +20,7 @@ import com.axonrh.payroll.mapper.PayrollMapper;
 import com.axonrh.payroll.repository.PayrollRepository;
 import com.axonrh.payroll.repository.PayrollRunRepository;
 import com.axonrh.kafka.event.DomainEvent;
-import com.axonrh.kafka.producer.DomainEventPublisher;
+import com.axonrh.kafka.outbox.OutboxEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -54,7 +54,7 @@ public class PayrollService {
     private final BenefitsServiceClient benefitsServiceClient;
     private final CoreServiceClient coreServiceClient;
     private final ConfigServiceClient configServiceClient;
-    private final DomainEventPublisher eventPublisher;
+    private final OutboxEventPublisher eventPublisher;
 
     /**
      * Processa folha de pagamento individual.
@@ -0,0 +1,8 @@
+-- Estacionamento de eventos do outbox
+-- Mensagens que esgotam as tentativas de envio sao estacionadas (parked_at) e saem
+-- da drenagem, liberando as seguintes da mesma chave.
+
+ALTER TABLE shared.event_outbox ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP WITH TIME ZONE;
+
+DROP INDEX IF EXISTS shared.idx_event_outbox_source_id;
+CREATE INDEX IF NOT EXISTS idx_event_outbox_source_id ON shared.event_outbox(source, id) WHERE parked_at IS NULL;
@@ -13,8 +13,8 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 @EnableCaching
 @EnableScheduling
 @EnableFeignClients
-@EnableJpaRepositories(basePackages = {"com.axonrh.timesheet.repository", "com.axonrh.kafka.dlq"})
-@EntityScan(basePackages = {"com.axonrh.timesheet.entity", "com.axonrh.kafka.dlq"})
+@EnableJpaRepositories(basePackages = {"com.axonrh.timesheet.repository", "com.axonrh.kafka.dlq", "com.axonrh.kafka.outbox", "com.axonrh.kafka.idempotency"})
+@EntityScan(basePackages = {"com.axonrh.timesheet.entity", "com.axonrh.kafka.dlq", "com.axonrh.kafka.outbox", "com.axonrh.kafka.idempotency"})
 public class TimesheetServiceApplication {
 
     public static void main(String[] args) {
@@ -1,5 +1,6 @@
 package com.axonrh.timesheet.kafka;
 
+import com.axonrh.kafka.idempotency.IdempotentEventProcessor;
 import com.axonrh.timesheet.service.DailySummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,8 +17,13 @@ import java.util.UUID;
 public class LeaveEventsListener {
 
     private final DailySummaryService dailySummaryService;
+    private final IdempotentEventProcessor idempotentProcessor;
 
-    @KafkaListener(topics = "vacation.domain.events", groupId = "timesheet-service")
+    @KafkaListener(
+            topics = "vacation.domain.events",
+            groupId = "timesheet-service",
+            concurrency = "${axonrh.kafka.listeners.leave-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
     public void handleLeaveEvent(Map<String, Object> event) {
         String eventType = (String) event.get("eventType");
         log.info("Evento de licença recebido: {}", eventType);
@@ -30,7 +36,8 @@ public class LeaveEventsListener {
                 LocalDate endDate = LocalDate.parse((String) event.get("endDate"));
                 String leaveType = (String) event.get("type");
 
-                dailySummaryService.handleApprovedLeave(tenantId, employeeId, startDate, endDate, leaveType);
+                idempotentProcessor.processOnce(event.get("eventId"), () ->
+                        dailySummaryService.handleApprovedLeave(tenantId, employeeId, startDate, endDate, leaveType));
             } catch (Exception e) {
                 log.error("Erro ao processar evento LEAVE_APPROVED: {}", e.getMessage(), e);
             }
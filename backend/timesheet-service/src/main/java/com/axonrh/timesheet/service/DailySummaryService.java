@@ -1,5 +1,6 @@
 package com.axonrh.timesheet.service;
 
+import com.axonrh.kafka.outbox.OutboxEventPublisher;
 import com.axonrh.timesheet.config.TenantContext;
 import com.axonrh.timesheet.dto.DailySummaryResponse;
 import com.axonrh.timesheet.dto.TimeRecordResponse;
@@ -10,11 +11,9 @@ import com.axonrh.timesheet.entity.enums.RecordType;
 import com.axonrh.timesheet.repository.DailySummaryRepository;
 import com.axonrh.timesheet.repository.TimeRecordRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -48,7 +47,7 @@ public class DailySummaryService {
     private final EmployeeScheduleRepository employeeScheduleRepository;
     private final HolidayRepository holidayRepository;
     private final OvertimeBankService overtimeBankService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
     private final com.axonrh.timesheet.client.EmployeeServiceClient employeeClient;
     private final com.axonrh.timesheet.repository.WorkScheduleRepository workScheduleRepository;
@@ -59,7 +58,7 @@ public class DailySummaryService {
             EmployeeScheduleRepository employeeScheduleRepository,
             HolidayRepository holidayRepository,
             OvertimeBankService overtimeBankService,
-            @Qualifier("timesheetKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+            OutboxEventPublisher eventPublisher,
             ObjectMapper objectMapper,
             com.axonrh.timesheet.client.EmployeeServiceClient employeeClient,
             com.axonrh.timesheet.repository.WorkScheduleRepository workScheduleRepository) {
@@ -68,7 +67,7 @@ public class DailySummaryService {
         this.employeeScheduleRepository = employeeScheduleRepository;
         this.holidayRepository = holidayRepository;
         this.overtimeBankService = overtimeBankService;
-        this.kafkaTemplate = kafkaTemplate;
+        this.eventPublisher = eventPublisher;
         this.objectMapper = objectMapper;
         this.employeeClient = employeeClient;
         this.workScheduleRepository = workScheduleRepository;
@@ -716,7 +715,7 @@ public class DailySummaryService {
 
     private void publishEvent(String type, DailySummary summary) {
         try {
-            kafkaTemplate.send("timesheet-events", type, summary);
+            eventPublisher.publish("timesheet-events", type, summary);
         } catch (Exception e) {
             log.error("Erro ao publicar evento {}: {}", type, e.getMessage());
         }
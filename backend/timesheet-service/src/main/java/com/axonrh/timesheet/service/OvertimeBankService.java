@@ -1,5 +1,6 @@
 package com.axonrh.timesheet.service;
 
+import com.axonrh.kafka.outbox.OutboxEventPublisher;
 import com.axonrh.timesheet.config.TenantContext;
 import com.axonrh.timesheet.dto.OvertimeBankResponse;
 import com.axonrh.timesheet.dto.OvertimeBankSummary;
@@ -15,7 +16,6 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,7 +36,7 @@ import java.util.UUID;
 public class OvertimeBankService {
 
     private final OvertimeBankRepository overtimeBankRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventPublisher eventPublisher;
 
     @Value("${timesheet.overtime.bank-expiration-months:6}")
     private int defaultExpirationMonths;
@@ -349,6 +349,7 @@ public class OvertimeBankService {
         try {
             Map<String, Object> event = new HashMap<>();
             event.put("eventType", eventType);
+            event.put("eventId", UUID.randomUUID().toString());
             event.put("tenantId", movement.getTenantId().toString());
             event.put("movementId", movement.getId().toString());
             event.put("employeeId", movement.getEmployeeId().toString());
@@ -356,7 +357,7 @@ public class OvertimeBankService {
             event.put("minutes", movement.getMinutes());
             event.put("timestamp", LocalDateTime.now().toString());
 
-            kafkaTemplate.send("timesheet.domain.events", movement.getEmployeeId().toString(), event);
+            eventPublisher.publish("timesheet.domain.events", movement.getEmployeeId().toString(), event);
         } catch (Exception e) {
             log.error("Erro ao publicar evento Kafka: {}", e.getMessage());
         }
@@ -1,5 +1,6 @@
 package com.axonrh.timesheet.service;
 
+import com.axonrh.kafka.outbox.OutboxEventPublisher;
 import com.axonrh.timesheet.config.TenantContext;
 import com.axonrh.timesheet.dto.TimeAdjustmentRequest;
 import com.axonrh.timesheet.dto.TimeAdjustmentResponse;
@@ -21,10 +22,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.beans.factory.annotation.Qualifier;
 import com.axonrh.timesheet.client.EmployeeServiceClient;
 import com.axonrh.timesheet.dto.EmployeeDTO;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -49,7 +48,7 @@ public class TimeAdjustmentService {
     private final TimeAdjustmentRepository adjustmentRepository;
     private final TimeRecordRepository timeRecordRepository;
     private final DailySummaryService dailySummaryService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
     private final EmployeeServiceClient employeeClient;
 
@@ -57,13 +56,13 @@ public class TimeAdjustmentService {
             TimeAdjustmentRepository adjustmentRepository,
             TimeRecordRepository timeRecordRepository,
             DailySummaryService dailySummaryService,
-            @Qualifier("timesheetKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+            OutboxEventPublisher eventPublisher,
             ObjectMapper objectMapper,
             EmployeeServiceClient employeeClient) {
         this.adjustmentRepository = adjustmentRepository;
         this.timeRecordRepository = timeRecordRepository;
         this.dailySummaryService = dailySummaryService;
-        this.kafkaTemplate = kafkaTemplate;
+        this.eventPublisher = eventPublisher;
         this.objectMapper = objectMapper;
         this.employeeClient = employeeClient;
     }
@@ -490,6 +489,7 @@ public class TimeAdjustmentService {
         try {
             Map<String, Object> event = new HashMap<>();
             event.put("eventType", eventType);
+            event.put("eventId", UUID.randomUUID().toString());
             event.put("tenantId", adjustment.getTenantId().toString());
             event.put("adjustmentId", adjustment.getId().toString());
             event.put("employeeId", adjustment.getEmployeeId().toString());
@@ -543,7 +543,7 @@ public class TimeAdjustmentService {
                  log.warn("Erro ao buscar dados do colaborador para evento: {}", e.getMessage());
             }
 
-            kafkaTemplate.send("timesheet.domain.events", adjustment.getEmployeeId().toString(), event);
+            eventPublisher.publish("timesheet.domain.events", adjustment.getEmployeeId().toString(), event);
         } catch (Exception e) {
             log.error("Erro ao enviar evento para o Kafka: {}", e.getMessage());
         }
@@ -1,5 +1,6 @@
 package com.axonrh.timesheet.service;
 
+import com.axonrh.kafka.outbox.OutboxEventPublisher;
 import com.axonrh.timesheet.config.TenantContext;
 import com.axonrh.timesheet.dto.TimeRecordRequest;
 import com.axonrh.timesheet.dto.TimeRecordResponse;
@@ -18,7 +19,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -42,7 +42,7 @@ public class TimeRecordService {
     private final DailySummaryService dailySummaryService;
     private final TimeAdjustmentService adjustmentService;
     private final com.axonrh.timesheet.client.EmployeeServiceClient employeeClient;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventPublisher eventPublisher;
 
     @Value("${timesheet.tolerance.default-minutes:5}")
     private int defaultToleranceMinutes;
@@ -460,6 +460,7 @@ public class TimeRecordService {
         try {
             Map<String, Object> event = new HashMap<>();
             event.put("eventType", eventType);
+            event.put("eventId", UUID.randomUUID().toString());
             event.put("tenantId", record.getTenantId().toString());
             event.put("recordId", record.getId().toString());
             event.put("employeeId", record.getEmployeeId().toString());
@@ -467,7 +468,7 @@ public class TimeRecordService {
             event.put("recordTime", record.getRecordTime().toString());
             event.put("timestamp", LocalDateTime.now().toString());
 
-            kafkaTemplate.send("timesheet.domain.events", record.getEmployeeId().toString(), event);
+            eventPublisher.publish("timesheet.domain.events", record.getEmployeeId().toString(), event);
         } catch (Exception e) {
             log.error("Erro ao publicar evento Kafka: {}", e.getMessage());
         }
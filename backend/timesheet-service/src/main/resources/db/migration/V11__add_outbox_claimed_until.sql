@@ -0,0 +1,8 @@
+-- V11: Lote do outbox em envio
+-- O relay assume o lote em uma transacao curta (claimed_until) e envia ao Kafka fora
+-- dela; enquanto o prazo estiver vigente nenhuma outra replica drena o mesmo source.
+
+ALTER TABLE shared.event_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_claimed ON shared.event_outbox(source, claimed_until)
+    WHERE claimed_until IS NOT NULL;
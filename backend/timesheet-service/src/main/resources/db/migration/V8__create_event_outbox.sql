@@ -0,0 +1,19 @@
+-- V8: Outbox transacional de eventos Kafka
+-- Outbox transacional (common/kafka): eventos gravados na mesma transacao da
+-- alteracao e enviados ao Kafka pelo relay do servico apos o commit.
+-- Tabela compartilhada entre os servicos; cada um drena apenas o seu source.
+
+CREATE TABLE IF NOT EXISTS shared.event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    source VARCHAR(100) NOT NULL,
+    topic VARCHAR(200) NOT NULL,
+    message_key VARCHAR(200),
+    payload TEXT NOT NULL,
+    type_id VARCHAR(300),
+    headers JSONB,
+    attempts INTEGER DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_source_id ON shared.event_outbox(source, id);
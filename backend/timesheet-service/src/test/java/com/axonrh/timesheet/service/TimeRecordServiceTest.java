@@ -1,5 +1,6 @@
 package com.axonrh.timesheet.service;
 
+import com.axonrh.kafka.outbox.OutboxEventPublisher;
 import com.axonrh.timesheet.config.TenantContext;
 import com.axonrh.timesheet.dto.TimeRecordRequest;
 import com.axonrh.timesheet.dto.TimeRecordResponse;
@@ -20,7 +21,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -52,7 +52,7 @@ class TimeRecordServiceTest {
     private DailySummaryService dailySummaryService;
 
     @Mock
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private OutboxEventPublisher eventPublisher;
 
     @InjectMocks
     private TimeRecordService timeRecordService;
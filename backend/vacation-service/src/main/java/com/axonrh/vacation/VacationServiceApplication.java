@@ -12,8 +12,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableCaching
 @EnableScheduling
 @EnableFeignClients
-@EnableJpaRepositories(basePackages = {"com.axonrh.vacation.repository", "com.axonrh.kafka.dlq"})
-@EntityScan(basePackages = {"com.axonrh.vacation.entity", "com.axonrh.kafka.dlq"})
+@EnableJpaRepositories(basePackages = {"com.axonrh.vacation.repository", "com.axonrh.kafka.dlq", "com.axonrh.kafka.idempotency"})
+@EntityScan(basePackages = {"com.axonrh.vacation.entity", "com.axonrh.kafka.dlq", "com.axonrh.kafka.idempotency"})
 public class VacationServiceApplication {
 
     public static void main(String[] args) {
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,4 +32,17 @@ public class CidController {
         }
         return ResponseEntity.ok(cidService.search(query));
     }
+
+    @GetMapping("/{code}")
+    public ResponseEntity<Map<String, Object>> getByCode(@PathVariable String code) {
+        return cidService.findByCode(code)
+                .map(cid -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("cid", cid);
+                    body.put("group", cidService.findGroup(code).orElse(null));
+                    body.put("chapter", cidService.findChapter(code).orElse(null));
+                    return ResponseEntity.ok(body);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
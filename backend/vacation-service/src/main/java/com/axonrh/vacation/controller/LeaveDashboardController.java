@@ -3,12 +3,15 @@ package com.axonrh.vacation.controller;
 import com.axonrh.vacation.dto.LeaveDashboardDTO;
 import com.axonrh.vacation.service.LeaveDashboardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -19,7 +22,10 @@ public class LeaveDashboardController {
     private final LeaveDashboardService leaveDashboardService;
 
     @GetMapping
-    public ResponseEntity<LeaveDashboardDTO> getDashboard(@RequestHeader("X-Tenant-ID") UUID tenantId) {
-        return ResponseEntity.ok(leaveDashboardService.getDashboardData(tenantId));
+    public ResponseEntity<LeaveDashboardDTO> getDashboard(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(leaveDashboardService.getDashboardData(tenantId, from, to));
     }
 }
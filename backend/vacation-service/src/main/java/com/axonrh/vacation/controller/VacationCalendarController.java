@@ -1,15 +1,24 @@
 package com.axonrh.vacation.controller;
 
+import com.axonrh.vacation.config.TenantContext;
+import com.axonrh.vacation.dto.VacationCoverageResponse;
+import com.axonrh.vacation.dto.VacationCoverageRuleDTO;
 import com.axonrh.vacation.dto.VacationRequestResponse;
+import com.axonrh.vacation.exception.InvalidOperationException;
+import com.axonrh.vacation.service.VacationCalendarService;
 import com.axonrh.vacation.service.VacationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -18,13 +27,14 @@ import java.util.List;
 public class VacationCalendarController {
 
     private final VacationService service;
+    private final VacationCalendarService calendarService;
 
     @GetMapping("/team")
     public ResponseEntity<List<VacationRequestResponse>> getTeamCalendar(
             @RequestParam int year,
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) String departmentId) {
-        
+            @RequestParam(required = false) UUID departmentId) {
+
         LocalDate start;
         LocalDate end;
 
@@ -37,8 +47,51 @@ public class VacationCalendarController {
             end = LocalDate.of(year, 12, 31);
         }
 
-        // Note: Filtering by departmentId would happen here or in service.
-        // For now, returning all tenant requests for MVP.
-        return ResponseEntity.ok(service.getCalendarRequests(start, end));
+        return ResponseEntity.ok(service.getCalendarRequests(start, end, departmentId));
+    }
+
+    /**
+     * Mapa de cobertura do mes (sem departamento: tenant inteiro).
+     */
+    @GetMapping("/coverage")
+    public ResponseEntity<VacationCoverageResponse> getCoverage(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(required = false) UUID departmentId) {
+        YearMonth ym = YearMonth.of(year, month);
+        return ResponseEntity.ok(calendarService.getCoverage(currentTenant(), departmentId, ym.atDay(1), ym.atEndOfMonth()));
+    }
+
+    /**
+     * Maximo de ausencias simultaneas no intervalo.
+     */
+    @GetMapping("/overlap")
+    public ResponseEntity<Map<String, Object>> getMaxConcurrentAbsences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) UUID departmentId) {
+        int max = calendarService.maxConcurrentAbsences(currentTenant(), departmentId, from, to);
+        return ResponseEntity.ok(Map.of("from", from, "to", to, "maxConcurrentAbsences", max));
+    }
+
+    @GetMapping("/coverage-rules")
+    public ResponseEntity<List<VacationCoverageRuleDTO>> getCoverageRules() {
+        return ResponseEntity.ok(calendarService.getRules(currentTenant()));
+    }
+
+    @PutMapping("/coverage-rules")
+    @PreAuthorize("hasAuthority('VACATION:APPROVE')")
+    public ResponseEntity<VacationCoverageRuleDTO> saveCoverageRule(@RequestBody VacationCoverageRuleDTO rule) {
+        return ResponseEntity.ok(calendarService.saveRule(currentTenant(), rule));
+    }
+
+    // --- Helpers ---
+
+    private UUID currentTenant() {
+        String tenant = TenantContext.getCurrentTenant();
+        if (tenant == null) {
+            throw new InvalidOperationException("Tenant context missing");
+        }
+        return UUID.fromString(tenant);
     }
 }
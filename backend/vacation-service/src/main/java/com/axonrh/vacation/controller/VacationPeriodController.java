@@ -1,16 +1,25 @@
 package com.axonrh.vacation.controller;
 
+import com.axonrh.vacation.config.TenantContext;
 import com.axonrh.vacation.dto.VacationPeriodResponse;
+import com.axonrh.vacation.dto.VacationProvisionResponse;
 import com.axonrh.vacation.dto.VacationSimulationRequest;
 import com.axonrh.vacation.dto.VacationSimulationResponse;
+import com.axonrh.vacation.exception.InvalidOperationException;
+import com.axonrh.vacation.service.VacationProvisionService;
 import com.axonrh.vacation.service.VacationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +30,7 @@ import java.util.UUID;
 public class VacationPeriodController {
 
     private final VacationService service;
+    private final VacationProvisionService provisionService;
 
     @GetMapping("/my-periods")
     public ResponseEntity<List<VacationPeriodResponse>> getMyPeriods(@AuthenticationPrincipal Jwt jwt) {
@@ -56,8 +66,42 @@ public class VacationPeriodController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Provisao de ferias projetada mes a mes (padrao: proximos 12 meses).
+     */
+    @GetMapping("/provision")
+    @PreAuthorize("hasAuthority('VACATION:APPROVE')")
+    public ResponseEntity<VacationProvisionResponse> getProvision(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(defaultValue = "12") int months) {
+        return ResponseEntity.ok(provisionService.project(currentTenant(), from != null ? from : YearMonth.now(), months));
+    }
+
+    @GetMapping("/provision/export")
+    @PreAuthorize("hasAuthority('VACATION:APPROVE')")
+    public ResponseEntity<byte[]> exportProvision(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(defaultValue = "12") int months) {
+        YearMonth firstMonth = from != null ? from : YearMonth.now();
+        byte[] data = provisionService.exportCsv(provisionService.project(currentTenant(), firstMonth, months));
+
+        String filename = "provisao_ferias_" + firstMonth + ".csv";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(data);
+    }
+
     // --- Helpers ---
 
+    private UUID currentTenant() {
+        String tenant = TenantContext.getCurrentTenant();
+        if (tenant == null) {
+            throw new InvalidOperationException("Tenant context missing");
+        }
+        return UUID.fromString(tenant);
+    }
+
     private UUID getUserId(Jwt jwt) {
         if (jwt == null) return UUID.fromString("00000000-0000-0000-0000-000000000000");
         return UUID.fromString(jwt.getSubject());
@@ -20,9 +20,30 @@ public class EmployeeDTO {
     private String email;
     private java.time.LocalDate hireDate;
     private EmployeeDTO manager;
+    private DepartmentDTO department;
+    private CostCenterDTO costCenter;
+    private java.math.BigDecimal baseSalary;
     private String photoUrl;
     private java.time.LocalDate birthDate;
     private String gender;
     private UUID tenantId;
-}
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class DepartmentDTO {
+        private UUID id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CostCenterDTO {
+        private UUID id;
+        private String code;
+        private String name;
+    }
+}
@@ -0,0 +1,39 @@
+package com.axonrh.vacation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mapa de cobertura do calendario de equipe (um item por dia do intervalo).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationCoverageResponse {
+    private UUID departmentId;
+    private LocalDate from;
+    private LocalDate to;
+    private long headcount;
+    private int maxConcurrentAbsences;
+    private VacationCoverageRuleDTO rule;
+    private List<DayCoverage> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayCoverage {
+        private LocalDate date;
+        private int absent;
+        private long present;
+        private double coveragePercent;
+        private boolean belowMinimum;
+    }
+}
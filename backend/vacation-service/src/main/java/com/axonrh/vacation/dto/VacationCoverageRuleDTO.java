@@ -0,0 +1,23 @@
+package com.axonrh.vacation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Regra de cobertura minima; sem departamento vale como padrao do tenant.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationCoverageRuleDTO {
+    private UUID id;
+    private UUID departmentId;
+    private Integer minCoveragePercent;
+    private Integer maxConcurrentAbsences;
+    private Boolean active;
+}
@@ -0,0 +1,55 @@
+package com.axonrh.vacation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Provisao de ferias projetada mes a mes (por colaborador, centro de custo e total).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationProvisionResponse {
+    private LocalDate firstMonth;
+    private int months;
+    private int periodsCount;
+    private int employeesWithoutSalary;
+    private List<MonthlyProvision> totals;
+    private List<Schedule> costCenters;
+    private List<Schedule> employees;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Schedule {
+        private UUID id;
+        private String name;
+        private String costCenterCode;
+        private String costCenterName;
+        private List<MonthlyProvision> months;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthlyProvision {
+        private LocalDate month;
+        private BigDecimal balanceDays;
+        private BigDecimal vacationLiability;
+        private BigDecimal oneThird;
+        private BigDecimal soldDaysValue;
+        private BigDecimal total;
+        /** Variacao do total em relacao ao mes anterior (despesa de provisao do mes). */
+        private BigDecimal monthlyExpense;
+    }
+}
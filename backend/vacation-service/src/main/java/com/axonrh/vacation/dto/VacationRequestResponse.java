@@ -21,6 +21,7 @@ public class VacationRequestResponse {
     private UUID id;
     private UUID employeeId;
     private String employeeName;
+    private UUID departmentId;
     private UUID vacationPeriodId;
     private LocalDate startDate;
     private LocalDate endDate;
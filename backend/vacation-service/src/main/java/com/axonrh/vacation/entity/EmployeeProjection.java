@@ -0,0 +1,70 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projecao local dos dados de colaborador usados pelo vacation-service.
+ * Mantida pelos eventos de employee.domain.events.
+ */
+@Entity
+@Table(name = "employee_projections", indexes = {
+    @Index(name = "idx_employee_projections_tenant_active", columnList = "tenant_id, active")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeProjection {
+
+    @Id
+    @Column(name = "employee_id")
+    private UUID employeeId;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "full_name", length = 200)
+    private String fullName;
+
+    @Column(name = "email", length = 200)
+    private String email;
+
+    @Column(name = "gender", length = 20)
+    private String gender;
+
+    @Column(name = "birth_date")
+    private LocalDate birthDate;
+
+    @Column(name = "hire_date")
+    private LocalDate hireDate;
+
+    @Column(name = "department_id")
+    private UUID departmentId;
+
+    @Column(name = "photo_url", length = 500)
+    private String photoUrl;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    /**
+     * Momento do ultimo evento aplicado; eventos mais antigos sao ignorados.
+     */
+    @Column(name = "last_event_at")
+    private LocalDateTime lastEventAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marca os tenants cuja projecao de colaboradores ja recebeu a carga inicial.
+ */
+@Entity
+@Table(name = "employee_projection_syncs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeProjectionSync {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "employee_count", nullable = false)
+    private Integer employeeCount;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+}
@@ -40,6 +40,10 @@ public class LeaveRequest {
     @Column(name = "employee_name", length = 200)
     private String employeeName;
 
+    // Genero no momento da licenca (dimensao do cubo de analytics)
+    @Column(name = "employee_gender", length = 20)
+    private String employeeGender;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false, length = 30)
     private LeaveType type;
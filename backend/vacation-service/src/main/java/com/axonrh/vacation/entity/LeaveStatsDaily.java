@@ -0,0 +1,45 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Licencas vigentes por dia e tipo (contador "em licenca na data").
+ */
+@Entity
+@Table(name = "leave_stats_daily")
+@IdClass(LeaveStatsDaily.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveStatsDaily {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Id
+    @Column(name = "stat_day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "leave_type", length = 30)
+    private String leaveType;
+
+    @Column(name = "active_count", nullable = false)
+    private Long activeCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID tenantId;
+        private LocalDate day;
+        private String leaveType;
+    }
+}
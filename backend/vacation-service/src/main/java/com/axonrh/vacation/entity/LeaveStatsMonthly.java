@@ -0,0 +1,59 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Celula mensal do cubo de licencas (mes de inicio x tipo x CID x genero).
+ * Escrita apenas por upsert incremental em {@code LeaveStatsMonthlyRepository}.
+ */
+@Entity
+@Table(name = "leave_stats_monthly")
+@IdClass(LeaveStatsMonthly.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveStatsMonthly {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Id
+    @Column(name = "stat_month")
+    private LocalDate month;
+
+    @Id
+    @Column(name = "leave_type", length = 30)
+    private String leaveType;
+
+    @Id
+    @Column(name = "cid", length = 20)
+    private String cid;
+
+    @Id
+    @Column(name = "gender", length = 20)
+    private String gender;
+
+    @Column(name = "leave_count", nullable = false)
+    private Long leaveCount;
+
+    @Column(name = "days_count", nullable = false)
+    private Long daysCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID tenantId;
+        private LocalDate month;
+        private String leaveType;
+        private String cid;
+        private String gender;
+    }
+}
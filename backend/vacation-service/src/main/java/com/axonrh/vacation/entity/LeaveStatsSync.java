@@ -0,0 +1,27 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marca os tenants cujo cubo de licencas ja foi reconstruido a partir do historico.
+ */
+@Entity
+@Table(name = "leave_stats_syncs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveStatsSync {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "rebuilt_at", nullable = false)
+    private LocalDateTime rebuiltAt;
+}
@@ -0,0 +1,43 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Lease de um shard de tenants para um job agendado.
+ * Adquirido por upsert condicional em {@code SchedulerLeaseRepository}.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@IdClass(SchedulerLease.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+
+    @Id
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(name = "owner", nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String jobName;
+        private Integer shard;
+    }
+}
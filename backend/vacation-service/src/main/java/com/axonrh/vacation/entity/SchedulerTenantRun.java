@@ -0,0 +1,63 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resultado da ultima execucao de um job agendado para um tenant.
+ */
+@Entity
+@Table(name = "scheduler_tenant_runs")
+@IdClass(SchedulerTenantRun.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerTenantRun {
+
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "periods_created", nullable = false)
+    private Integer periodsCreated;
+
+    @Column(name = "periods_expired", nullable = false)
+    private Integer periodsExpired;
+
+    @Column(name = "notifications_sent", nullable = false)
+    private Integer notificationsSent;
+
+    @Column(name = "duration_ms", nullable = false)
+    private Long durationMs;
+
+    @Column(name = "owner", length = 200)
+    private String owner;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "finished_at", nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String jobName;
+        private UUID tenantId;
+    }
+}
@@ -0,0 +1,45 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Colaboradores de ferias por dia e departamento (ocupacao do calendario de equipe).
+ */
+@Entity
+@Table(name = "vacation_calendar_days")
+@IdClass(VacationCalendarDay.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationCalendarDay {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Id
+    @Column(name = "department_id")
+    private UUID departmentId;
+
+    @Id
+    @Column(name = "calendar_day")
+    private LocalDate day;
+
+    @Column(name = "absent_count", nullable = false)
+    private Integer absentCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID tenantId;
+        private UUID departmentId;
+        private LocalDate day;
+    }
+}
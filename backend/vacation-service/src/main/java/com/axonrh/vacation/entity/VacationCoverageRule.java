@@ -0,0 +1,57 @@
+package com.axonrh.vacation.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Regra de cobertura minima de um departamento durante as ferias.
+ * Sem departamento, vale como regra padrao do tenant.
+ */
+@Entity
+@Table(name = "vacation_coverage_rules")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VacationCoverageRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "department_id")
+    private UUID departmentId;
+
+    /**
+     * Percentual minimo do quadro que deve permanecer trabalhando em cada dia.
+     */
+    @Column(name = "min_coverage_percent")
+    private Integer minCoveragePercent;
+
+    /**
+     * Maximo de colaboradores de ferias ao mesmo tempo.
+     */
+    @Column(name = "max_concurrent_absences")
+    private Integer maxConcurrentAbsences;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
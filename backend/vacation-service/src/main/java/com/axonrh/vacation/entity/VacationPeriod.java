@@ -83,6 +83,9 @@ public class VacationPeriod {
     @Column(name = "completed_at")
     private LocalDate completedAt;
 
+    @Column(name = "expiry_notified_at")
+    private LocalDate expiryNotifiedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
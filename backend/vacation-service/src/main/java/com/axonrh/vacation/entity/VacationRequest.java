@@ -41,6 +41,12 @@ public class VacationRequest {
     @Column(name = "employee_name", length = 200)
     private String employeeName;
 
+    /**
+     * Departamento do colaborador no momento do pedido (calendario de equipe).
+     */
+    @Column(name = "department_id")
+    private UUID departmentId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vacation_period_id", nullable = false)
     private VacationPeriod vacationPeriod;
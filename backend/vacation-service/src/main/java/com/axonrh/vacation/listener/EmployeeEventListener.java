@@ -1,45 +1,64 @@
 package com.axonrh.vacation.listener;
 
+import com.axonrh.kafka.consumer.AbstractBatchEventConsumer;
 import com.axonrh.kafka.event.DomainEvent;
 import com.axonrh.kafka.event.employee.EmployeeCreatedEvent;
+import com.axonrh.kafka.producer.DomainEventPublisher;
 import com.axonrh.kafka.topic.KafkaTopics;
+import com.axonrh.vacation.service.EmployeeProjectionService;
 import com.axonrh.vacation.service.VacationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consome employee.domain.events em lote: admissoes em massa chegam como centenas de eventos
+ * por poll e sao gravadas com uma leitura e uma gravacao por tenant.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class EmployeeEventListener {
+public class EmployeeEventListener extends AbstractBatchEventConsumer<DomainEvent> {
 
     private final VacationService vacationService;
+    private final EmployeeProjectionService projectionService;
 
-    @KafkaListener(topics = KafkaTopics.EMPLOYEE_DOMAIN_EVENTS, groupId = "vacation-service")
-    public void handleEmployeeEvent(@Payload DomainEvent event) {
-        log.debug("Evento recebido: type={}, id={}", event.getEventType(), event.getEventId());
+    public EmployeeEventListener(DomainEventPublisher eventPublisher,
+                                 VacationService vacationService,
+                                 EmployeeProjectionService projectionService) {
+        super(eventPublisher);
+        this.vacationService = vacationService;
+        this.projectionService = projectionService;
+    }
 
-        if (event instanceof EmployeeCreatedEvent employeeEvent) {
-            handleEmployeeCreated(employeeEvent);
-        }
+    @KafkaListener(
+            topics = KafkaTopics.EMPLOYEE_DOMAIN_EVENTS,
+            groupId = "vacation-service",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            concurrency = "${axonrh.kafka.listeners.employee-events.concurrency:${axonrh.kafka.consumer.concurrency:3}}"
+    )
+    public void handleEmployeeEvents(List<ConsumerRecord<String, DomainEvent>> records, Acknowledgment ack) {
+        processBatch(records, ack);
     }
 
-    private void handleEmployeeCreated(EmployeeCreatedEvent event) {
-        log.info("Processando novo colaborador: {} (Tenant: {})", event.getFullName(), event.getTenantId());
-
-        try {
-            vacationService.createPeriod(
-                    event.getTenantId(),
-                    event.getAggregateId(),
-                    event.getFullName(),
-                    event.getHireDate() // Usar data de admissão
-            );
-            log.info("Periodo de ferias inicial criado com sucesso para: {}", event.getFullName());
-        } catch (Exception e) {
-            log.error("Erro ao criar periodo de ferias para colaborador: {}", event.getAggregateId(), e);
-            // Dependendo da estratégia, poderia lançar exceção para DLQ/Retry
+    @Override
+    protected void handleBatch(UUID tenantId, Map<UUID, List<DomainEvent>> eventsByEmployee) {
+        projectionService.applyAll(eventsByEmployee);
+
+        List<EmployeeCreatedEvent> admissions = eventsByEmployee.values().stream()
+                .flatMap(List::stream)
+                .filter(EmployeeCreatedEvent.class::isInstance)
+                .map(EmployeeCreatedEvent.class::cast)
+                .toList();
+        if (!admissions.isEmpty()) {
+            // Periodos gravados na mesma transacao do registro dos eventos: reentregas nao duplicam
+            int created = vacationService.createInitialPeriods(tenantId, admissions);
+            log.info("Periodos de ferias iniciais criados: {} (Tenant: {})", created, tenantId);
         }
     }
 }
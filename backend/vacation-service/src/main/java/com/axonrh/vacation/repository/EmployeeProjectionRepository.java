@@ -0,0 +1,23 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.EmployeeProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmployeeProjectionRepository extends JpaRepository<EmployeeProjection, UUID> {
+    List<EmployeeProjection> findByTenantIdAndActiveTrue(UUID tenantId);
+    List<EmployeeProjection> findByTenantId(UUID tenantId);
+    List<EmployeeProjection> findByTenantIdAndEmployeeIdIn(UUID tenantId, Collection<UUID> employeeIds);
+    long countByTenantIdAndActiveTrue(UUID tenantId);
+    long countByTenantIdAndDepartmentIdAndActiveTrue(UUID tenantId, UUID departmentId);
+    long countByTenantIdAndDepartmentIdIsNullAndActiveTrue(UUID tenantId);
+
+    @Query("select distinct e.tenantId from EmployeeProjection e")
+    List<UUID> findDistinctTenantIds();
+}
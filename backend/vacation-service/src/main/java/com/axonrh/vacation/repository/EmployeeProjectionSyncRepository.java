@@ -0,0 +1,19 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.EmployeeProjectionSync;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface EmployeeProjectionSyncRepository extends JpaRepository<EmployeeProjectionSync, UUID> {
+
+    /**
+     * Aguarda o lock advisory exclusivo {@code lockName} e o mantem ate o fim da transacao.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext(:lockName))) l", nativeQuery = true)
+    Integer lock(@Param("lockName") String lockName);
+}
@@ -1,9 +1,11 @@
 package com.axonrh.vacation.repository;
 
 import com.axonrh.vacation.entity.LeaveRequest;
+import com.axonrh.vacation.entity.enums.VacationRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +16,11 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, UUID
     
     @org.springframework.data.jpa.repository.Query("SELECT l FROM LeaveRequest l WHERE l.tenantId = :tenantId AND l.status = 'APPROVED' AND :today BETWEEN l.startDate AND l.endDate")
     List<LeaveRequest> findActiveLeaves(UUID tenantId, java.time.LocalDate today);
+
+    /**
+     * Colaboradores distintos com licenca vigente na data (licencas sobrepostas contam uma vez).
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(DISTINCT l.employeeId) FROM LeaveRequest l " +
+            "WHERE l.tenantId = :tenantId AND l.status NOT IN :excluded AND :day BETWEEN l.startDate AND l.endDate")
+    long countEmployeesOnLeave(UUID tenantId, java.time.LocalDate day, Collection<VacationRequestStatus> excluded);
 }
@@ -0,0 +1,40 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.LeaveStatsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LeaveStatsDailyRepository extends JpaRepository<LeaveStatsDaily, LeaveStatsDaily.Key> {
+
+    /**
+     * Soma {@code delta} em todos os dias do intervalo (inclusivo) em um unico comando.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}leave_stats_daily (tenant_id, stat_day, leave_type, active_count)
+            SELECT :tenantId, CAST(d AS date), :leaveType, :delta
+            FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), INTERVAL '1 day') d
+            ON CONFLICT (tenant_id, stat_day, leave_type)
+            DO UPDATE SET active_count = leave_stats_daily.active_count + EXCLUDED.active_count
+            """, nativeQuery = true)
+    void incrementRange(@Param("tenantId") UUID tenantId,
+                        @Param("leaveType") String leaveType,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("delta") long delta);
+
+    @Query("select s from LeaveStatsDaily s where s.tenantId = :tenantId and s.day = :day and s.activeCount > 0")
+    List<LeaveStatsDaily> findActiveOn(@Param("tenantId") UUID tenantId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query("delete from LeaveStatsDaily s where s.tenantId = :tenantId")
+    void deleteByTenantId(@Param("tenantId") UUID tenantId);
+}
@@ -0,0 +1,63 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.LeaveStatsMonthly;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LeaveStatsMonthlyRepository extends JpaRepository<LeaveStatsMonthly, LeaveStatsMonthly.Key> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}leave_stats_monthly (tenant_id, stat_month, leave_type, cid, gender, leave_count, days_count)
+            VALUES (:tenantId, :month, :leaveType, :cid, :gender, :leaves, :days)
+            ON CONFLICT (tenant_id, stat_month, leave_type, cid, gender)
+            DO UPDATE SET leave_count = leave_stats_monthly.leave_count + EXCLUDED.leave_count,
+                          days_count = leave_stats_monthly.days_count + EXCLUDED.days_count
+            """, nativeQuery = true)
+    void increment(@Param("tenantId") UUID tenantId,
+                   @Param("month") LocalDate month,
+                   @Param("leaveType") String leaveType,
+                   @Param("cid") String cid,
+                   @Param("gender") String gender,
+                   @Param("leaves") long leaves,
+                   @Param("days") long days);
+
+    @Query("""
+            select s.leaveType, s.gender, sum(s.leaveCount)
+            from LeaveStatsMonthly s
+            where s.tenantId = :tenantId
+              and s.month between :from and :to
+            group by s.leaveType, s.gender
+            """)
+    List<Object[]> sumByTypeAndGender(@Param("tenantId") UUID tenantId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    @Query("""
+            select s.cid, sum(s.leaveCount)
+            from LeaveStatsMonthly s
+            where s.tenantId = :tenantId
+              and s.month between :from and :to
+              and s.cid <> ''
+            group by s.cid
+            having sum(s.leaveCount) > 0
+            order by sum(s.leaveCount) desc
+            """)
+    List<Object[]> topCids(@Param("tenantId") UUID tenantId,
+                           @Param("from") LocalDate from,
+                           @Param("to") LocalDate to,
+                           Pageable pageable);
+
+    @Modifying
+    @Query("delete from LeaveStatsMonthly s where s.tenantId = :tenantId")
+    void deleteByTenantId(@Param("tenantId") UUID tenantId);
+}
@@ -0,0 +1,36 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, SchedulerLease.Key> {
+
+    /**
+     * Adquire (ou renova) o lease do shard se estiver livre, expirado ou ja for do mesmo dono.
+     * Retorna 1 quando o lease pertence a {@code owner} apos o comando.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}scheduler_leases (job_name, shard, owner, lease_until)
+            VALUES (:jobName, :shard, :owner, :leaseUntil)
+            ON CONFLICT (job_name, shard) DO UPDATE
+               SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until
+             WHERE scheduler_leases.lease_until < :now OR scheduler_leases.owner = EXCLUDED.owner
+            """, nativeQuery = true)
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("shard") int shard,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("delete from SchedulerLease l where l.jobName = :jobName and l.shard = :shard and l.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("shard") int shard, @Param("owner") String owner);
+}
@@ -0,0 +1,12 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.SchedulerTenantRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SchedulerTenantRunRepository extends JpaRepository<SchedulerTenantRun, SchedulerTenantRun.Key> {
+    List<SchedulerTenantRun> findByJobNameOrderByFinishedAtDesc(String jobName);
+}
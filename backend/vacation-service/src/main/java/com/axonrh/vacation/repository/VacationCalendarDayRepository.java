@@ -0,0 +1,68 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.VacationCalendarDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VacationCalendarDayRepository extends JpaRepository<VacationCalendarDay, VacationCalendarDay.Key> {
+
+    /**
+     * Soma {@code delta} em todos os dias do intervalo (inclusivo) em um unico comando.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}vacation_calendar_days (tenant_id, department_id, calendar_day, absent_count)
+            SELECT :tenantId, :departmentId, CAST(d AS date), :delta
+            FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), INTERVAL '1 day') d
+            ON CONFLICT (tenant_id, department_id, calendar_day)
+            DO UPDATE SET absent_count = vacation_calendar_days.absent_count + EXCLUDED.absent_count
+            """, nativeQuery = true)
+    void incrementRange(@Param("tenantId") UUID tenantId,
+                        @Param("departmentId") UUID departmentId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("delta") int delta);
+
+    @Query("""
+            select d from VacationCalendarDay d
+            where d.tenantId = :tenantId and d.departmentId = :departmentId
+              and d.day between :from and :to and d.absentCount > 0
+            """)
+    List<VacationCalendarDay> findAbsences(@Param("tenantId") UUID tenantId,
+                                           @Param("departmentId") UUID departmentId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    /**
+     * Ausencias por dia somando todos os departamentos: [dia, quantidade].
+     */
+    @Query("""
+            select d.day, sum(d.absentCount) from VacationCalendarDay d
+            where d.tenantId = :tenantId and d.day between :from and :to
+            group by d.day having sum(d.absentCount) > 0
+            """)
+    List<Object[]> sumAbsencesByDay(@Param("tenantId") UUID tenantId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Query("""
+            select coalesce(max(d.absentCount), 0) from VacationCalendarDay d
+            where d.tenantId = :tenantId and d.departmentId = :departmentId and d.day between :from and :to
+            """)
+    int maxAbsences(@Param("tenantId") UUID tenantId,
+                    @Param("departmentId") UUID departmentId,
+                    @Param("from") LocalDate from,
+                    @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from VacationCalendarDay d where d.tenantId = :tenantId")
+    void deleteByTenantId(@Param("tenantId") UUID tenantId);
+}
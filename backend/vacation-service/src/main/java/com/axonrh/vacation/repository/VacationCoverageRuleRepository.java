@@ -0,0 +1,19 @@
+package com.axonrh.vacation.repository;
+
+import com.axonrh.vacation.entity.VacationCoverageRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface VacationCoverageRuleRepository extends JpaRepository<VacationCoverageRule, UUID> {
+
+    List<VacationCoverageRule> findByTenantIdOrderByDepartmentIdAsc(UUID tenantId);
+
+    Optional<VacationCoverageRule> findByTenantIdAndDepartmentId(UUID tenantId, UUID departmentId);
+
+    Optional<VacationCoverageRule> findByTenantIdAndDepartmentIdIsNull(UUID tenantId);
+}
@@ -1,14 +1,21 @@
 package com.axonrh.vacation.repository;
 
 import com.axonrh.vacation.entity.VacationPeriod;
+import com.axonrh.vacation.entity.enums.VacationPeriodStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface VacationPeriodRepository extends JpaRepository<VacationPeriod, UUID> {
 
@@ -24,6 +31,8 @@ public interface VacationPeriodRepository extends JpaRepository<VacationPeriod,
 
     Optional<VacationPeriod> findByTenantIdAndEmployeeIdAndAcquisitionStartDate(UUID tenantId, UUID employeeId, LocalDate acquisitionStartDate);
 
+    List<VacationPeriod> findByTenantIdAndEmployeeIdIn(UUID tenantId, Collection<UUID> employeeIds);
+
     Optional<VacationPeriod> findByTenantIdAndId(UUID tenantId, UUID id);
 
     @Query("""
@@ -37,4 +46,109 @@ public interface VacationPeriodRepository extends JpaRepository<VacationPeriod,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
+
+    /**
+     * Colunas usadas na projecao de provisao, ordenadas por colaborador (periodos contiguos).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select period.employeeId, period.acquisitionStartDate, period.concessionEndDate,
+                   period.totalDays, period.usedDays, period.soldDays
+            from VacationPeriod period
+            where period.tenantId = :tenantId
+              and period.status in :statuses
+            order by period.employeeId, period.acquisitionStartDate
+            """)
+    Stream<Object[]> streamProvisionColumns(
+            @Param("tenantId") UUID tenantId,
+            @Param("statuses") Collection<VacationPeriodStatus> statuses
+    );
+
+    // ==================== Agendador (operacoes em lote por tenant) ====================
+
+    @Query("select distinct period.tenantId from VacationPeriod period")
+    List<UUID> findDistinctTenantIds();
+
+    /**
+     * Cria o periodo inicial (a partir da admissao) dos colaboradores ativos da projecao
+     * que ainda nao tem nenhum periodo.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}vacation_periods (tenant_id, employee_id, employee_name,
+                acquisition_start_date, acquisition_end_date, concession_start_date, concession_end_date,
+                total_days, used_days, sold_days, status, created_at)
+            SELECT e.tenant_id, e.employee_id, e.full_name,
+                   e.hire_date,
+                   CAST(e.hire_date + INTERVAL '1 year' - INTERVAL '1 day' AS date),
+                   CAST(e.hire_date + INTERVAL '1 year' AS date),
+                   CAST(e.hire_date + INTERVAL '2 years' - INTERVAL '1 day' AS date),
+                   30, 0, 0, 'OPEN', now()
+            FROM {h-schema}employee_projections e
+            WHERE e.tenant_id = :tenantId
+              AND e.active = true
+              AND e.hire_date IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM {h-schema}vacation_periods p
+                              WHERE p.tenant_id = e.tenant_id AND p.employee_id = e.employee_id)
+            ON CONFLICT (tenant_id, employee_id, acquisition_start_date) DO NOTHING
+            """, nativeQuery = true)
+    int insertInitialPeriods(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Cria o proximo periodo aquisitivo de quem ja encerrou o ultimo periodo,
+     * exceto colaboradores inativos na projecao ou com periodo cancelado.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}vacation_periods (tenant_id, employee_id, employee_name,
+                acquisition_start_date, acquisition_end_date, concession_start_date, concession_end_date,
+                total_days, used_days, sold_days, status, created_at)
+            SELECT p.tenant_id, p.employee_id, p.employee_name,
+                   p.acquisition_end_date + 1,
+                   CAST(p.acquisition_end_date + INTERVAL '1 year' AS date),
+                   CAST(p.acquisition_end_date + INTERVAL '1 year' AS date) + 1,
+                   CAST(p.acquisition_end_date + INTERVAL '2 years' AS date),
+                   30, 0, 0, 'OPEN', now()
+            FROM {h-schema}vacation_periods p
+            WHERE p.tenant_id = :tenantId
+              AND p.acquisition_end_date < :today
+              AND p.status <> 'CANCELLED'
+              AND NOT EXISTS (SELECT 1 FROM {h-schema}vacation_periods n
+                              WHERE n.tenant_id = p.tenant_id AND n.employee_id = p.employee_id
+                                AND n.acquisition_start_date > p.acquisition_start_date)
+              AND NOT EXISTS (SELECT 1 FROM {h-schema}employee_projections e
+                              WHERE e.employee_id = p.employee_id AND e.active = false)
+            ON CONFLICT (tenant_id, employee_id, acquisition_start_date) DO NOTHING
+            """, nativeQuery = true)
+    int insertNextPeriods(@Param("tenantId") UUID tenantId, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("""
+            update VacationPeriod period
+               set period.status = com.axonrh.vacation.entity.enums.VacationPeriodStatus.EXPIRED,
+                   period.expiredAt = :today
+             where period.tenantId = :tenantId
+               and period.concessionEndDate < :today
+               and period.status in :statuses
+            """)
+    int expireOverduePeriods(@Param("tenantId") UUID tenantId,
+                             @Param("today") LocalDate today,
+                             @Param("statuses") Collection<VacationPeriodStatus> statuses);
+
+    @Query("""
+            select period
+            from VacationPeriod period
+            where period.tenantId = :tenantId
+              and period.status in :statuses
+              and period.expiryNotifiedAt is null
+              and period.concessionEndDate between :startDate and :endDate
+            """)
+    List<VacationPeriod> findPeriodsToWarn(@Param("tenantId") UUID tenantId,
+                                           @Param("statuses") Collection<VacationPeriodStatus> statuses,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query("update VacationPeriod period set period.expiryNotifiedAt = :today where period.id in :ids")
+    int markExpiryNotified(@Param("ids") Collection<UUID> ids, @Param("today") LocalDate today);
 }
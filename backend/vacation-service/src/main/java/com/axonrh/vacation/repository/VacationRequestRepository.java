@@ -43,6 +43,16 @@ public interface VacationRequestRepository extends JpaRepository<VacationRequest
             java.time.LocalDate startDate
     );
 
+    List<VacationRequest> findByTenantIdAndDepartmentIdAndStatusAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+            UUID tenantId,
+            UUID departmentId,
+            VacationRequestStatus status,
+            java.time.LocalDate endDate,
+            java.time.LocalDate startDate
+    );
+
+    List<VacationRequest> findByTenantIdAndStatusIn(UUID tenantId, java.util.Collection<VacationRequestStatus> statuses);
+
     long countByTenantIdAndStatus(UUID tenantId, VacationRequestStatus status);
 
     long countByTenantIdAndStatusAndStartDateAfter(UUID tenantId, VacationRequestStatus status, java.time.LocalDate date);
@@ -0,0 +1,243 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.entity.CidCode;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Indice imutavel em memoria da CID-10 (capitulos, grupos, categorias e subcategorias).
+ *
+ * <ul>
+ *   <li>codigos: mapa para busca exata e array ordenado para busca por prefixo (busca binaria);</li>
+ *   <li>descricoes: indice invertido de tokens sem acento, com os tokens ordenados para casar
+ *       o termo digitado como prefixo de palavra;</li>
+ *   <li>hierarquia: categoria, grupo e capitulo de cada codigo; as faixas de categorias sao
+ *       resolvidas por {@link Ranges}, tambem usado pela importacao.</li>
+ * </ul>
+ */
+final class CidIndex {
+
+    static final CidIndex EMPTY = new CidIndex(List.of());
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+    private static final Map<String, Integer> TYPE_WEIGHT = Map.of(
+            "CATEGORY", 30, "SUBCATEGORY", 20, "GROUP", 10, "CHAPTER", 0);
+
+    private final CidCode[] entries;
+    private final Map<String, Integer> byCode;
+    /** Indices das entradas ordenados pelo codigo normalizado. */
+    private final int[] codeOrder;
+    private final String[] sortedCodes;
+    /** Tokens distintos das descricoes, ordenados, e as entradas que contem cada um. */
+    private final String[] tokens;
+    private final int[][] postings;
+    private final String[] foldedDescriptions;
+    private final int[] groupOf;
+    private final Map<Integer, Integer> chapterByNumber;
+
+    CidIndex(Collection<CidCode> codes) {
+        this.entries = codes.toArray(new CidCode[0]);
+        int size = entries.length;
+
+        this.byCode = new HashMap<>(size * 2);
+        this.foldedDescriptions = new String[size];
+        this.chapterByNumber = new HashMap<>();
+        Map<String, List<Integer>> tokenPostings = new HashMap<>();
+        Ranges<Integer> groups = new Ranges<>();
+
+        for (int i = 0; i < size; i++) {
+            CidCode cid = entries[i];
+            byCode.put(normalizeCode(cid.getCode()), i);
+            foldedDescriptions[i] = fold(cid.getDescription());
+            for (String token : tokenize(foldedDescriptions[i])) {
+                List<Integer> list = tokenPostings.computeIfAbsent(token, k -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != i) {
+                    list.add(i);
+                }
+            }
+            if ("CHAPTER".equals(cid.getType()) && cid.getChapterNum() != null) {
+                chapterByNumber.put(cid.getChapterNum(), i);
+            }
+            String[] range = "GROUP".equals(cid.getType()) ? groupRange(cid) : null;
+            if (range != null) {
+                groups.add(range[0], range[1], i);
+            }
+        }
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing(i -> normalizeCode(entries[i].getCode())));
+        this.codeOrder = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+        this.sortedCodes = Arrays.stream(codeOrder).mapToObj(i -> normalizeCode(entries[i].getCode())).toArray(String[]::new);
+
+        this.tokens = tokenPostings.keySet().stream().sorted().toArray(String[]::new);
+        this.postings = new int[tokens.length][];
+        for (int t = 0; t < tokens.length; t++) {
+            postings[t] = tokenPostings.get(tokens[t]).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.groupOf = new int[size];
+        Arrays.fill(groupOf, -1);
+        for (int i = 0; i < size; i++) {
+            Integer group = groups.find(categoryCode(entries[i]));
+            if (group != null) {
+                groupOf[i] = group;
+            }
+        }
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    Optional<CidCode> get(String code) {
+        Integer i = code != null ? byCode.get(normalizeCode(code)) : null;
+        return i != null ? Optional.of(entries[i]) : Optional.empty();
+    }
+
+    /**
+     * Grupo (faixa de categorias) a que o codigo pertence.
+     */
+    Optional<CidCode> groupOf(String code) {
+        Integer i = code != null ? byCode.get(normalizeCode(code)) : null;
+        return i != null && groupOf[i] >= 0 ? Optional.of(entries[groupOf[i]]) : Optional.empty();
+    }
+
+    /**
+     * Capitulo do codigo, quando a importacao registrou o numero do capitulo.
+     */
+    Optional<CidCode> chapterOf(String code) {
+        Optional<CidCode> cid = get(code);
+        Integer chapterNum = cid.map(CidCode::getChapterNum).orElse(null);
+        if (chapterNum == null) {
+            String category = cid.map(CidIndex::categoryCode).orElse(null);
+            chapterNum = category != null ? get(category).map(CidCode::getChapterNum).orElse(null) : null;
+        }
+        Integer i = chapterNum != null ? chapterByNumber.get(chapterNum) : null;
+        return i != null ? Optional.of(entries[i]) : Optional.empty();
+    }
+
+    /**
+     * Typeahead ranqueado: codigo exato, prefixo de codigo e, depois, descricoes
+     * que contem todos os termos como prefixo de palavra (sem acento).
+     */
+    List<CidCode> search(String query, int limit) {
+        String folded = fold(query);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Integer> scores = new HashMap<>();
+
+        String codeQuery = normalizeCode(query);
+        if (!codeQuery.isEmpty()) {
+            int from = lowerBound(sortedCodes, codeQuery);
+            for (int k = from; k < sortedCodes.length && sortedCodes[k].startsWith(codeQuery); k++) {
+                int i = codeOrder[k];
+                int score = sortedCodes[k].length() == codeQuery.length() ? 1000 : 500 - sortedCodes[k].length();
+                scores.merge(i, score, Math::max);
+            }
+        }
+
+        List<String> terms = tokenize(folded);
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = entriesWithTokenPrefix(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+            if (matches.isEmpty()) break;
+        }
+        if (matches != null) {
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                String description = foldedDescriptions[i];
+                int score = 100 + TYPE_WEIGHT.getOrDefault(entries[i].getType(), 0);
+                if (description.startsWith(folded)) score += 50;
+                else if (description.contains(folded)) score += 25;
+                score -= Math.min(description.length() / 10, 20);
+                scores.merge(i, score, Math::max);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(e -> normalizeCode(entries[e.getKey()].getCode())))
+                .limit(limit)
+                .map(e -> entries[e.getKey()])
+                .toList();
+    }
+
+    private BitSet entriesWithTokenPrefix(String prefix) {
+        BitSet result = new BitSet(entries.length);
+        for (int t = lowerBound(tokens, prefix); t < tokens.length && tokens[t].startsWith(prefix); t++) {
+            for (int i : postings[t]) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int pos = Arrays.binarySearch(sorted, key);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    private static String categoryCode(CidCode cid) {
+        if (cid.getCategoryCode() != null) return cid.getCategoryCode();
+        String type = cid.getType();
+        if ("CATEGORY".equals(type)) return cid.getCode();
+        if ("SUBCATEGORY".equals(type) && cid.getCode().length() >= 3) return cid.getCode().substring(0, 3);
+        return null;
+    }
+
+    /**
+     * Faixa de um grupo, codificada na importacao como GRP_{inicio}_{fim}.
+     */
+    private static String[] groupRange(CidCode group) {
+        String[] parts = group.getCode().split("_");
+        return parts.length == 3 ? new String[]{parts[1], parts[2]} : null;
+    }
+
+    /**
+     * Faixas de categorias [inicio, fim] sem sobreposicao (capitulos ou grupos da CID-10),
+     * com busca da faixa que contem a categoria por {@code floorEntry}. Cada importacao
+     * monta as suas; nao ha estado compartilhado entre importacoes.
+     */
+    static final class Ranges<V> {
+
+        private final TreeMap<String, Map.Entry<String, V>> byStart = new TreeMap<>();
+
+        void add(String start, String end, V value) {
+            byStart.put(start, Map.entry(end, value));
+        }
+
+        /**
+         * Valor da faixa que contem a categoria, ou {@code null} se nenhuma a contem.
+         */
+        V find(String category) {
+            if (category == null) return null;
+            Map.Entry<String, Map.Entry<String, V>> floor = byStart.floorEntry(category);
+            return floor != null && category.compareTo(floor.getValue().getKey()) <= 0
+                    ? floor.getValue().getValue()
+                    : null;
+        }
+    }
+
+    static String normalizeCode(String code) {
+        return code == null ? "" : code.trim().toUpperCase(Locale.ROOT).replace(".", "");
+    }
+
+    static String fold(String value) {
+        if (value == null) return "";
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static List<String> tokenize(String folded) {
+        return Arrays.stream(NON_ALNUM.split(folded)).filter(t -> !t.isEmpty()).toList();
+    }
+}
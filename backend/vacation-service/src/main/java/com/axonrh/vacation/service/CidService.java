@@ -4,6 +4,8 @@ import com.axonrh.vacation.entity.CidCode;
 import com.axonrh.vacation.repository.CidCodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,14 +14,32 @@ import java.io.FileReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * CID-10: importacao dos CSVs do DATASUS e consultas.
+ * As consultas sao servidas por um {@link CidIndex} em memoria, carregado na subida
+ * e reconstruido apos cada importacao, sem acesso ao banco.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CidService {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final CidCodeRepository cidCodeRepository;
 
+    private volatile CidIndex index = CidIndex.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        CidIndex loaded = new CidIndex(cidCodeRepository.findAll());
+        index = loaded;
+        log.info("Indice CID-10 carregado: {} codigos", loaded.size());
+    }
+
     @Transactional
     public void importFromCsv(String directoryPath) {
         log.info("Iniciando importação de CIDs do diretório: {}", directoryPath);
@@ -39,6 +59,9 @@ public class CidService {
 
         // Limpa antes de importar
         cidCodeRepository.deleteAll();
+        // Faixas [inicio, fim] de capitulos e grupos, locais a esta importacao
+        CidIndex.Ranges<Integer> chapters = new CidIndex.Ranges<>();
+        CidIndex.Ranges<String> groups = new CidIndex.Ranges<>();
 
         try {
             // Tenta encontrar os arquivos ignorando case se necessário
@@ -47,11 +70,12 @@ public class CidService {
             String categorias = findFile(dir, "CID-10-CATEGORIAS.CSV");
             String subcategorias = findFile(dir, "CID-10-SUBCATEGORIAS.CSV");
 
-            importCapitulos(capitulos);
-            importGrupos(grupos);
-            importCategorias(categorias);
-            importSubcategorias(subcategorias);
-            
+            importCapitulos(capitulos, chapters);
+            importGrupos(grupos, chapters, groups);
+            importCategorias(categorias, chapters, groups);
+            importSubcategorias(subcategorias, chapters, groups);
+
+            loadIndex();
             log.info("Importação de CIDs concluída com sucesso.");
         } catch (Exception e) {
             log.error("Erro na importação de CIDs: {}", e.getMessage(), e);
@@ -75,7 +99,7 @@ public class CidService {
         throw new RuntimeException("Arquivo não encontrado: " + target + " em " + dir.getAbsolutePath());
     }
 
-    private void importCapitulos(String path) throws Exception {
+    private void importCapitulos(String path, CidIndex.Ranges<Integer> chapters) throws Exception {
         log.info("Importando Capítulos de {}", path);
         try (BufferedReader br = new BufferedReader(new FileReader(path, StandardCharsets.ISO_8859_1))) {
             String line;
@@ -83,6 +107,7 @@ public class CidService {
             while ((line = br.readLine()) != null) {
                 String[] parts = line.split(";");
                 if (parts.length >= 4) {
+                    chapters.add(parts[1], parts[2], Integer.parseInt(parts[0]));
                     CidCode cid = CidCode.builder()
                             .code("CH" + parts[0])
                             .chapterNum(Integer.parseInt(parts[0]))
@@ -95,7 +120,8 @@ public class CidService {
         }
     }
 
-    private void importGrupos(String path) throws Exception {
+    private void importGrupos(String path, CidIndex.Ranges<Integer> chapters,
+                              CidIndex.Ranges<String> groups) throws Exception {
         log.info("Importando Grupos de {}", path);
         try (BufferedReader br = new BufferedReader(new FileReader(path, StandardCharsets.ISO_8859_1))) {
             String line;
@@ -103,8 +129,11 @@ public class CidService {
             while ((line = br.readLine()) != null) {
                 String[] parts = line.split(";");
                 if (parts.length >= 4) {
+                    String groupCode = "GRP_" + parts[0] + "_" + parts[1];
+                    groups.add(parts[0], parts[1], groupCode);
                     CidCode cid = CidCode.builder()
-                            .code("GRP_" + parts[0] + "_" + parts[1])
+                            .code(groupCode)
+                            .chapterNum(chapters.find(parts[0]))
                             .description(parts[3])
                             .type("GROUP")
                             .build();
@@ -114,7 +143,8 @@ public class CidService {
         }
     }
 
-    private void importCategorias(String path) throws Exception {
+    private void importCategorias(String path, CidIndex.Ranges<Integer> chapters,
+                                  CidIndex.Ranges<String> groups) throws Exception {
         log.info("Importando Categorias de {}", path);
         List<CidCode> batch = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(path, StandardCharsets.ISO_8859_1))) {
@@ -126,6 +156,9 @@ public class CidService {
                     CidCode cid = CidCode.builder()
                             .code(parts[0])
                             .description(parts[2])
+                            .chapterNum(chapters.find(parts[0]))
+                            .groupCode(groups.find(parts[0]))
+                            .categoryCode(parts[0])
                             .type("CATEGORY")
                             .build();
                     batch.add(cid);
@@ -139,7 +172,8 @@ public class CidService {
         }
     }
 
-    private void importSubcategorias(String path) throws Exception {
+    private void importSubcategorias(String path, CidIndex.Ranges<Integer> chapters,
+                                     CidIndex.Ranges<String> groups) throws Exception {
         log.info("Importando Subcategorias de {}", path);
         List<CidCode> batch = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(path, StandardCharsets.ISO_8859_1))) {
@@ -149,9 +183,13 @@ public class CidService {
                 String[] parts = line.split(";");
                 if (parts.length >= 5) {
                     // SUBCAT;CLASSIF;RESTRSEXO;CAUSAOBITO;DESCRICAO
+                    String category = parts[0].substring(0, Math.min(3, parts[0].length()));
                     CidCode cid = CidCode.builder()
                             .code(parts[0])
                             .description(parts[4])
+                            .chapterNum(chapters.find(category))
+                            .groupCode(groups.find(category))
+                            .categoryCode(category)
                             .type("SUBCATEGORY")
                             .build();
                     batch.add(cid);
@@ -165,7 +203,29 @@ public class CidService {
         }
     }
 
+    /**
+     * Typeahead por codigo (prefixo) ou descricao (termos sem acento, prefixo de palavra).
+     */
     public List<CidCode> search(String query) {
-        return cidCodeRepository.search(query);
+        return index.search(query, MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Busca exata por codigo (aceita "A00.0" ou "A000").
+     */
+    public Optional<CidCode> findByCode(String code) {
+        return index.get(code);
+    }
+
+    public Optional<String> findDescription(String code) {
+        return index.get(code).map(CidCode::getDescription);
+    }
+
+    public Optional<CidCode> findGroup(String code) {
+        return index.groupOf(code);
+    }
+
+    public Optional<CidCode> findChapter(String code) {
+        return index.chapterOf(code);
     }
 }
@@ -0,0 +1,312 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.kafka.event.DomainEvent;
+import com.axonrh.kafka.event.employee.EmployeeCreatedEvent;
+import com.axonrh.kafka.event.employee.EmployeeTerminatedEvent;
+import com.axonrh.kafka.event.employee.EmployeeUpdatedEvent;
+import com.axonrh.vacation.client.EmployeeServiceClient;
+import com.axonrh.vacation.dto.EmployeeDTO;
+import com.axonrh.vacation.entity.EmployeeProjection;
+import com.axonrh.vacation.entity.EmployeeProjectionSync;
+import com.axonrh.vacation.repository.EmployeeProjectionRepository;
+import com.axonrh.vacation.repository.EmployeeProjectionSyncRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-model local dos colaboradores (genero, nascimento, admissao, foto).
+ * Atualizado pelos eventos de employee.domain.events; a carga inicial de cada tenant
+ * busca o quadro ativo no employee-service uma unica vez ({@link #ensureBootstrapped}),
+ * chamada explicitamente pelos pontos de entrada antes das consultas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmployeeProjectionService {
+
+    private static final Set<String> INACTIVE_STATUSES = Set.of("TERMINATED", "INACTIVE");
+
+    private final EmployeeProjectionRepository projectionRepository;
+    private final EmployeeProjectionSyncRepository syncRepository;
+    private final EmployeeServiceClient employeeServiceClient;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Tenants com projecao ja carregada, para nao consultar o registro de carga a cada leitura. */
+    private final Set<UUID> bootstrapped = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Colaboradores ativos do tenant, a partir da projecao local.
+     */
+    @Transactional(readOnly = true)
+    public List<EmployeeProjection> getActiveEmployees(UUID tenantId) {
+        return projectionRepository.findByTenantIdAndActiveTrue(tenantId);
+    }
+
+    /**
+     * Fotos dos colaboradores informados (somente os que possuem foto).
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, String> getPhotoUrls(UUID tenantId, Collection<UUID> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return projectionRepository.findByTenantIdAndEmployeeIdIn(tenantId, employeeIds).stream()
+                .filter(p -> p.getPhotoUrl() != null)
+                .collect(Collectors.toMap(EmployeeProjection::getEmployeeId, EmployeeProjection::getPhotoUrl));
+    }
+
+    /**
+     * Genero do colaborador segundo a projecao, se conhecido.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findGender(UUID employeeId) {
+        return projectionRepository.findById(employeeId).map(EmployeeProjection::getGender);
+    }
+
+    /**
+     * Departamento do colaborador segundo a projecao, se conhecido.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UUID> findDepartmentId(UUID employeeId) {
+        return projectionRepository.findById(employeeId).map(EmployeeProjection::getDepartmentId);
+    }
+
+    /**
+     * Quadro ativo do tenant inteiro.
+     */
+    @Transactional(readOnly = true)
+    public long countActive(UUID tenantId) {
+        return projectionRepository.countByTenantIdAndActiveTrue(tenantId);
+    }
+
+    /**
+     * Quadro ativo do departamento ({@code null} = colaboradores sem departamento).
+     */
+    @Transactional(readOnly = true)
+    public long countActive(UUID tenantId, UUID departmentId) {
+        return departmentId != null
+                ? projectionRepository.countByTenantIdAndDepartmentIdAndActiveTrue(tenantId, departmentId)
+                : projectionRepository.countByTenantIdAndDepartmentIdIsNullAndActiveTrue(tenantId);
+    }
+
+    /**
+     * Carga inicial da projecao do tenant, uma unica vez, em transacao propria (fora da
+     * transacao do chamador) sob o lock advisory do tenant: requisicoes concorrentes esperam
+     * a primeira carga e nao repetem os inserts. Se o employee-service falhar, a falha e
+     * registrada e a leitura segue com a projecao atual; a proxima requisicao tenta de novo.
+     * Deve rodar em uma requisicao autenticada do tenant (o Feign propaga tenant e token).
+     */
+    public void ensureBootstrapped(UUID tenantId) {
+        if (bootstrapped.contains(tenantId)) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (syncRepository.existsById(tenantId)) {
+                    return;
+                }
+                // Outra requisicao pode ter carregado enquanto esperavamos o lock
+                syncRepository.lock(lockName(tenantId));
+                if (!syncRepository.existsById(tenantId)) {
+                    load(tenantId);
+                }
+            });
+            bootstrapped.add(tenantId);
+        } catch (RuntimeException e) {
+            log.warn("Falha na carga inicial da projecao de colaboradores do tenant {}: {}", tenantId, e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga completa da projecao a partir do employee-service (backfill explicito).
+     * Deve rodar em uma requisicao autenticada do tenant (o Feign propaga tenant e token).
+     */
+    @Transactional
+    public void bootstrap(UUID tenantId) {
+        syncRepository.lock(lockName(tenantId));
+        load(tenantId);
+        bootstrapped.add(tenantId);
+    }
+
+    private void load(UUID tenantId) {
+        List<EmployeeDTO> employees = employeeServiceClient.getActiveEmployees();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<UUID, EmployeeProjection> existing = projectionRepository.findByTenantId(tenantId).stream()
+                .collect(Collectors.toMap(EmployeeProjection::getEmployeeId, Function.identity()));
+
+        Set<UUID> activeIds = new HashSet<>();
+        for (EmployeeDTO dto : employees) {
+            activeIds.add(dto.getId());
+            EmployeeProjection projection = existing.computeIfAbsent(dto.getId(),
+                    id -> EmployeeProjection.builder().employeeId(id).tenantId(tenantId).build());
+            projection.setUserId(dto.getUserId());
+            projection.setFullName(dto.getFullName());
+            projection.setEmail(dto.getEmail());
+            projection.setGender(dto.getGender());
+            projection.setBirthDate(dto.getBirthDate());
+            projection.setHireDate(dto.getHireDate());
+            projection.setDepartmentId(dto.getDepartment() != null ? dto.getDepartment().getId() : null);
+            projection.setPhotoUrl(dto.getPhotoUrl());
+            projection.setActive(true);
+            projection.setLastEventAt(now);
+        }
+        existing.values().stream()
+                .filter(p -> !activeIds.contains(p.getEmployeeId()))
+                .forEach(p -> {
+                    p.setActive(false);
+                    p.setLastEventAt(now);
+                });
+
+        projectionRepository.saveAll(existing.values());
+        syncRepository.save(EmployeeProjectionSync.builder()
+                .tenantId(tenantId)
+                .employeeCount(employees.size())
+                .syncedAt(now)
+                .build());
+        log.info("Projecao de colaboradores carregada para tenant {}: {} ativos", tenantId, employees.size());
+    }
+
+    private static String lockName(UUID tenantId) {
+        return "employee-projection:" + tenantId;
+    }
+
+    // ==================== Eventos ====================
+
+    /**
+     * Aplica os eventos de um lote, agrupados por colaborador e na ordem de cada colaborador,
+     * com uma leitura e uma gravacao para o lote inteiro.
+     */
+    @Transactional
+    public void applyAll(Map<UUID, List<DomainEvent>> eventsByEmployee) {
+        Map<UUID, EmployeeProjection> projections = projectionRepository.findAllById(eventsByEmployee.keySet()).stream()
+                .collect(Collectors.toMap(EmployeeProjection::getEmployeeId, Function.identity()));
+
+        Map<UUID, EmployeeProjection> changed = new LinkedHashMap<>();
+        eventsByEmployee.forEach((employeeId, events) -> {
+            for (DomainEvent event : events) {
+                EmployeeProjection projection = apply(projections.get(employeeId), event);
+                if (projection != null) {
+                    projections.put(employeeId, projection);
+                    changed.put(employeeId, projection);
+                }
+            }
+        });
+
+        if (!changed.isEmpty()) {
+            projectionRepository.saveAll(changed.values());
+        }
+    }
+
+    /**
+     * Aplica o evento sobre a projecao atual (ou ausente).
+     *
+     * @return a projecao alterada, ou {@code null} se o evento nao gerou alteracao
+     */
+    private EmployeeProjection apply(EmployeeProjection current, DomainEvent event) {
+        if (event instanceof EmployeeCreatedEvent created) {
+            return applyCreated(current, created);
+        } else if (event instanceof EmployeeUpdatedEvent updated) {
+            return applyUpdated(current, updated);
+        } else if (event instanceof EmployeeTerminatedEvent terminated) {
+            return applyTerminated(current, terminated);
+        }
+        return null;
+    }
+
+    private EmployeeProjection applyCreated(EmployeeProjection current, EmployeeCreatedEvent event) {
+        EmployeeProjection projection = current != null ? current : EmployeeProjection.builder()
+                .employeeId(event.getAggregateId())
+                .tenantId(event.getTenantId())
+                .build();
+        if (isStale(projection, event)) {
+            return null;
+        }
+        projection.setFullName(event.getFullName());
+        projection.setEmail(event.getEmail());
+        projection.setGender(event.getGender());
+        projection.setBirthDate(event.getBirthDate());
+        projection.setHireDate(event.getHireDate());
+        projection.setDepartmentId(event.getDepartmentId());
+        projection.setPhotoUrl(event.getPhotoUrl());
+        projection.setActive(true);
+        return touch(projection, event);
+    }
+
+    private EmployeeProjection applyUpdated(EmployeeProjection projection, EmployeeUpdatedEvent event) {
+        Map<String, Object> values = event.getNewValues();
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        if (projection == null) {
+            // Colaborador anterior a projecao; entra na proxima carga do tenant
+            log.debug("Atualizacao ignorada, colaborador {} fora da projecao", event.getAggregateId());
+            return null;
+        }
+        if (isStale(projection, event)) {
+            return null;
+        }
+        if (values.containsKey("fullName")) projection.setFullName(asString(values.get("fullName")));
+        if (values.containsKey("email")) projection.setEmail(asString(values.get("email")));
+        if (values.containsKey("gender")) projection.setGender(asString(values.get("gender")));
+        if (values.containsKey("birthDate")) projection.setBirthDate(asDate(values.get("birthDate")));
+        if (values.containsKey("hireDate")) projection.setHireDate(asDate(values.get("hireDate")));
+        if (values.containsKey("photoUrl")) projection.setPhotoUrl(asString(values.get("photoUrl")));
+        if (values.containsKey("departmentId")) projection.setDepartmentId(asUuid(values.get("departmentId")));
+        if (values.containsKey("status")) {
+            projection.setActive(!INACTIVE_STATUSES.contains(asString(values.get("status"))));
+        }
+        return touch(projection, event);
+    }
+
+    private EmployeeProjection applyTerminated(EmployeeProjection projection, EmployeeTerminatedEvent event) {
+        if (projection == null || isStale(projection, event)) {
+            return null;
+        }
+        projection.setActive(false);
+        return touch(projection, event);
+    }
+
+    private boolean isStale(EmployeeProjection projection, DomainEvent event) {
+        LocalDateTime eventAt = eventTime(event);
+        return projection.getLastEventAt() != null && eventAt.isBefore(projection.getLastEventAt());
+    }
+
+    private EmployeeProjection touch(EmployeeProjection projection, DomainEvent event) {
+        projection.setLastEventAt(eventTime(event));
+        return projection;
+    }
+
+    private LocalDateTime eventTime(DomainEvent event) {
+        return event.getTimestamp() != null
+                ? LocalDateTime.ofInstant(event.getTimestamp(), ZoneId.systemDefault())
+                : LocalDateTime.now();
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private UUID asUuid(Object value) {
+        return value != null ? UUID.fromString(value.toString()) : null;
+    }
+
+    private LocalDate asDate(Object value) {
+        return value != null ? LocalDate.parse(value.toString()) : null;
+    }
+}
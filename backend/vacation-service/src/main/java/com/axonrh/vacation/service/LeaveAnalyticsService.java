@@ -0,0 +1,216 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.entity.LeaveRequest;
+import com.axonrh.vacation.entity.LeaveStatsDaily;
+import com.axonrh.vacation.entity.LeaveStatsSync;
+import com.axonrh.vacation.entity.enums.VacationRequestStatus;
+import com.axonrh.vacation.repository.LeaveRequestRepository;
+import com.axonrh.vacation.repository.LeaveStatsDailyRepository;
+import com.axonrh.vacation.repository.LeaveStatsMonthlyRepository;
+import com.axonrh.vacation.repository.LeaveStatsSyncRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Cubo de analytics de licencas.
+ * Cada licenca contribui com +1 na celula mensal (mes de inicio x tipo x CID x genero)
+ * e +1 em cada dia do seu intervalo no contador diario; alteracoes removem a contribuicao
+ * anterior e aplicam a nova. Licencas rejeitadas/canceladas nao contribuem.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaveAnalyticsService {
+
+    static final LocalDate ALL_TIME_START = LocalDate.of(1900, 1, 1);
+    static final LocalDate ALL_TIME_END = LocalDate.of(9999, 12, 1);
+
+    private static final Set<VacationRequestStatus> EXCLUDED_STATUSES =
+            EnumSet.of(VacationRequestStatus.REJECTED, VacationRequestStatus.CANCELLED);
+    private static final String UNKNOWN_GENDER = "UNKNOWN";
+
+    private final LeaveStatsMonthlyRepository monthlyRepository;
+    private final LeaveStatsDailyRepository dailyRepository;
+    private final LeaveStatsSyncRepository syncRepository;
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final EmployeeProjectionService employeeProjectionService;
+
+    /**
+     * Dimensoes com que uma licenca contribui para o cubo (foto imutavel do estado).
+     */
+    public record Contribution(UUID tenantId, String leaveType, String cid, String gender,
+                               LocalDate startDate, LocalDate endDate, int days) {
+    }
+
+    /**
+     * Foto da contribuicao atual da licenca; {@code null} quando ela nao conta no cubo.
+     */
+    public Contribution snapshot(LeaveRequest leave) {
+        if (leave == null || leave.getStartDate() == null || leave.getEndDate() == null
+                || EXCLUDED_STATUSES.contains(leave.getStatus())) {
+            return null;
+        }
+        return new Contribution(
+                leave.getTenantId(),
+                leave.getType().name(),
+                leave.getCid() != null ? leave.getCid().trim().toUpperCase() : "",
+                leave.getEmployeeGender() != null ? leave.getEmployeeGender().toUpperCase() : UNKNOWN_GENDER,
+                leave.getStartDate(),
+                leave.getEndDate(),
+                leave.getDaysCount() != null ? leave.getDaysCount() : 0);
+    }
+
+    /**
+     * Preenche o genero da licenca a partir da projecao local de colaboradores.
+     */
+    public void assignGender(LeaveRequest leave) {
+        if (leave.getEmployeeGender() == null && leave.getEmployeeId() != null) {
+            employeeProjectionService.findGender(leave.getEmployeeId()).ifPresent(leave::setEmployeeGender);
+        }
+    }
+
+    @Transactional
+    public void recordCreated(LeaveRequest leave) {
+        syncRepository.lockShared(lockName(leave.getTenantId()));
+        apply(snapshot(leave), 1);
+    }
+
+    /**
+     * Troca a contribuicao anterior pela atual (alteracao de datas, CID ou status).
+     */
+    @Transactional
+    public void recordChanged(Contribution before, LeaveRequest after) {
+        Contribution current = snapshot(after);
+        if (Objects.equals(before, current)) {
+            return;
+        }
+        syncRepository.lockShared(lockName(after.getTenantId()));
+        apply(before, -1);
+        apply(current, 1);
+    }
+
+    @Transactional
+    public void recordDeleted(Contribution before) {
+        if (before == null) {
+            return;
+        }
+        syncRepository.lockShared(lockName(before.tenantId()));
+        apply(before, -1);
+    }
+
+    /**
+     * Reconstroi o cubo do tenant a partir do historico (carga inicial ou correcao).
+     * Roda sob o lock exclusivo do cubo do tenant: reconstrucoes concorrentes e as
+     * atualizacoes incrementais (lock compartilhado) esperam o commit, sem contagem em dobro.
+     */
+    @Transactional
+    public void rebuild(UUID tenantId) {
+        syncRepository.lock(lockName(tenantId));
+        monthlyRepository.deleteByTenantId(tenantId);
+        dailyRepository.deleteByTenantId(tenantId);
+
+        List<LeaveRequest> leaves = leaveRequestRepository.findByTenantId(tenantId);
+        for (LeaveRequest leave : leaves) {
+            if (leave.getEmployeeGender() == null) {
+                assignGender(leave);
+                if (leave.getEmployeeGender() != null) {
+                    leaveRequestRepository.save(leave);
+                }
+            }
+            apply(snapshot(leave), 1);
+        }
+
+        syncRepository.save(LeaveStatsSync.builder().tenantId(tenantId).rebuiltAt(LocalDateTime.now()).build());
+        log.info("Cubo de licencas reconstruido para tenant {}: {} licencas", tenantId, leaves.size());
+    }
+
+    // ==================== Consultas ====================
+
+    /**
+     * Contagem de licencas por tipo e genero, por mes de inicio dentro da janela.
+     */
+    @Transactional
+    public Map<String, Map<String, Long>> countByTypeAndGender(UUID tenantId, LocalDate from, LocalDate to) {
+        ensureBuilt(tenantId);
+        Map<String, Map<String, Long>> result = new HashMap<>();
+        for (Object[] row : monthlyRepository.sumByTypeAndGender(tenantId, monthOf(from), monthOf(to))) {
+            result.computeIfAbsent((String) row[0], k -> new HashMap<>())
+                    .merge((String) row[1], ((Number) row[2]).longValue(), Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * CIDs mais frequentes na janela (CID -> quantidade, em ordem decrescente).
+     */
+    @Transactional
+    public LinkedHashMap<String, Long> topCids(UUID tenantId, LocalDate from, LocalDate to, int limit) {
+        ensureBuilt(tenantId);
+        LinkedHashMap<String, Long> result = new LinkedHashMap<>();
+        for (Object[] row : monthlyRepository.topCids(tenantId, monthOf(from), monthOf(to), PageRequest.of(0, limit))) {
+            result.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return result;
+    }
+
+    /**
+     * Licencas vigentes na data, por tipo.
+     */
+    @Transactional
+    public Map<String, Long> activeOn(UUID tenantId, LocalDate day) {
+        ensureBuilt(tenantId);
+        Map<String, Long> result = new HashMap<>();
+        for (LeaveStatsDaily row : dailyRepository.findActiveOn(tenantId, day)) {
+            result.put(row.getLeaveType(), row.getActiveCount());
+        }
+        return result;
+    }
+
+    /**
+     * Colaboradores distintos com licenca vigente na data, com os mesmos status considerados
+     * pelo cubo. Consulta direta: o cubo diario conta licencas, nao colaboradores.
+     */
+    @Transactional(readOnly = true)
+    public long employeesOnLeave(UUID tenantId, LocalDate day) {
+        return leaveRequestRepository.countEmployeesOnLeave(tenantId, day, EXCLUDED_STATUSES);
+    }
+
+    private void ensureBuilt(UUID tenantId) {
+        if (syncRepository.existsById(tenantId)) {
+            return;
+        }
+        // Outra transacao pode ter reconstruido enquanto esperavamos o lock
+        syncRepository.lock(lockName(tenantId));
+        if (!syncRepository.existsById(tenantId)) {
+            rebuild(tenantId);
+        }
+    }
+
+    private static String lockName(UUID tenantId) {
+        return "leave-stats:" + tenantId;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        monthlyRepository.increment(contribution.tenantId(), monthOf(contribution.startDate()),
+                contribution.leaveType(), contribution.cid(), contribution.gender(),
+                sign, (long) sign * contribution.days());
+        if (!contribution.endDate().isBefore(contribution.startDate())) {
+            dailyRepository.incrementRange(contribution.tenantId(), contribution.leaveType(),
+                    contribution.startDate(), contribution.endDate(), sign);
+        }
+    }
+
+    private static LocalDate monthOf(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+}
@@ -1,12 +1,9 @@
 package com.axonrh.vacation.service;
 
-import com.axonrh.vacation.client.EmployeeServiceClient;
-import com.axonrh.vacation.dto.EmployeeDTO;
 import com.axonrh.vacation.dto.LeaveDashboardDTO;
-import com.axonrh.vacation.entity.LeaveRequest;
+import com.axonrh.vacation.entity.CidCode;
+import com.axonrh.vacation.entity.EmployeeProjection;
 import com.axonrh.vacation.entity.enums.LeaveType;
-import com.axonrh.vacation.repository.CidCodeRepository;
-import com.axonrh.vacation.repository.LeaveRequestRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -19,26 +16,35 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LeaveDashboardService {
 
-    private final LeaveRequestRepository leaveRequestRepository;
-    private final EmployeeServiceClient employeeServiceClient;
-    private final CidCodeRepository cidCodeRepository;
+    private static final int TOP_CIDS = 10;
+
+    private final LeaveAnalyticsService leaveAnalyticsService;
+    private final EmployeeProjectionService employeeProjectionService;
+    private final CidService cidService;
 
     public LeaveDashboardDTO getDashboardData(UUID tenantId) {
-        List<EmployeeDTO> allEmployees = employeeServiceClient.getActiveEmployees();
-        List<LeaveRequest> allLeaves = leaveRequestRepository.findByTenantId(tenantId);
-        
-        LocalDate today = LocalDate.now();
-        List<LeaveRequest> activeLeaves = allLeaves.stream()
-                .filter(l -> !l.getStartDate().isAfter(today) && !l.getEndDate().isBefore(today))
-                .collect(Collectors.toList());
+        return getDashboardData(tenantId, null, null);
+    }
 
-        Set<UUID> employeesOnLeaveIds = activeLeaves.stream()
-                .map(LeaveRequest::getEmployeeId)
-                .collect(Collectors.toSet());
+    /**
+     * Dashboard de afastamentos. Contagens de licencas vem do cubo incremental
+     * ({@link LeaveAnalyticsService}), opcionalmente restritas a janela [from, to]
+     * pelo mes de inicio da licenca; dados demograficos vem da projecao local.
+     */
+    public LeaveDashboardDTO getDashboardData(UUID tenantId, LocalDate from, LocalDate to) {
+        employeeProjectionService.ensureBootstrapped(tenantId);
+        List<EmployeeProjection> allEmployees = employeeProjectionService.getActiveEmployees(tenantId);
+        LocalDate windowStart = from != null ? from : LeaveAnalyticsService.ALL_TIME_START;
+        LocalDate windowEnd = to != null ? to : LeaveAnalyticsService.ALL_TIME_END;
+
+        LocalDate today = LocalDate.now();
+        Map<String, Map<String, Long>> leavesByTypeAndGender =
+                leaveAnalyticsService.countByTypeAndGender(tenantId, windowStart, windowEnd);
+        Map<String, Long> activeByType = leaveAnalyticsService.activeOn(tenantId, today);
 
         // Basic stats
         long totalEmployees = allEmployees.size();
-        long employeesOnLeave = employeesOnLeaveIds.size();
+        long employeesOnLeave = leaveAnalyticsService.employeesOnLeave(tenantId, today);
         long maleCount = allEmployees.stream().filter(e -> "MALE".equalsIgnoreCase(e.getGender())).count();
         long femaleCount = allEmployees.stream().filter(e -> "FEMALE".equalsIgnoreCase(e.getGender())).count();
 
@@ -59,28 +65,19 @@ public class LeaveDashboardService {
                 .average().orElse(0.0);
 
         // Medical leaves
-        long medicalLeavesCount = allLeaves.stream().filter(l -> l.getType() == LeaveType.MEDICAL).count();
-        
-        // Find genders for leaves (requires joining)
-        Map<UUID, String> employeeGenderMap = allEmployees.stream()
-                .collect(Collectors.toMap(EmployeeDTO::getId, e -> e.getGender() != null ? e.getGender() : "UNKNOWN", (a, b) -> a));
-
-        long maleMedLeaves = allLeaves.stream()
-                .filter(l -> l.getType() == LeaveType.MEDICAL && "MALE".equalsIgnoreCase(employeeGenderMap.get(l.getEmployeeId())))
-                .count();
-
-        long femaleMedLeaves = allLeaves.stream()
-                .filter(l -> l.getType() == LeaveType.MEDICAL && "FEMALE".equalsIgnoreCase(employeeGenderMap.get(l.getEmployeeId())))
-                .count();
+        Map<String, Long> medicalByGender = leavesByTypeAndGender.getOrDefault(LeaveType.MEDICAL.name(), Map.of());
+        long medicalLeavesCount = medicalByGender.values().stream().mapToLong(Long::longValue).sum();
+        long maleMedLeaves = medicalByGender.getOrDefault("MALE", 0L);
+        long femaleMedLeaves = medicalByGender.getOrDefault("FEMALE", 0L);
 
         // Generations
         List<LeaveDashboardDTO.GenerationStat> generations = calculateGenerations(allEmployees);
 
         // Reasons
-        List<LeaveDashboardDTO.ReasonStat> reasons = calculateReasons(allLeaves, employeesOnLeaveIds);
+        List<LeaveDashboardDTO.ReasonStat> reasons = calculateReasons(leavesByTypeAndGender, activeByType);
 
         // CID
-        List<LeaveDashboardDTO.CidStat> cidStats = calculateCidStats(allLeaves);
+        List<LeaveDashboardDTO.CidStat> cidStats = calculateCidStats(tenantId, windowStart, windowEnd);
 
         return LeaveDashboardDTO.builder()
                 .totalEmployees(totalEmployees)
@@ -104,11 +101,10 @@ public class LeaveDashboardService {
                 .build();
     }
 
-    private List<LeaveDashboardDTO.GenerationStat> calculateGenerations(List<EmployeeDTO> employees) {
+    private List<LeaveDashboardDTO.GenerationStat> calculateGenerations(List<EmployeeProjection> employees) {
         Map<String, Long> genCounts = new HashMap<>();
-        LocalDate today = LocalDate.now();
         
-        for (EmployeeDTO e : employees) {
+        for (EmployeeProjection e : employees) {
             if (e.getBirthDate() == null) continue;
             int year = e.getBirthDate().getYear();
             String gen;
@@ -125,117 +121,41 @@ public class LeaveDashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<LeaveDashboardDTO.ReasonStat> calculateReasons(List<LeaveRequest> leaves, Set<UUID> activeEmpIds) {
-        Map<LeaveType, Long> typeCounts = leaves.stream()
-                .collect(Collectors.groupingBy(LeaveRequest::getType, Collectors.counting()));
-        
-        long total = leaves.size();
+    private List<LeaveDashboardDTO.ReasonStat> calculateReasons(Map<String, Map<String, Long>> leavesByTypeAndGender,
+                                                                Map<String, Long> activeByType) {
+        Map<String, Long> typeCounts = new HashMap<>();
+        leavesByTypeAndGender.forEach((type, byGender) ->
+                typeCounts.put(type, byGender.values().stream().mapToLong(Long::longValue).sum()));
+
+        long total = typeCounts.values().stream().mapToLong(Long::longValue).sum();
         
         return typeCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
                 .map(entry -> {
                     long count = entry.getValue();
-                    long currentOnLeave = leaves.stream()
-                            .filter(l -> l.getType() == entry.getKey() && activeEmpIds.contains(l.getEmployeeId()))
-                            .map(LeaveRequest::getEmployeeId).distinct().count();
-                    
                     return LeaveDashboardDTO.ReasonStat.builder()
-                            .reason(translateLeaveType(entry.getKey()))
+                            .reason(translateLeaveType(LeaveType.valueOf(entry.getKey())))
                             .count(count)
                             .percentage(total > 0 ? (double) count / total * 100 : 0)
-                            .currentOnLeave(currentOnLeave)
+                            .currentOnLeave(activeByType.getOrDefault(entry.getKey(), 0L))
                             .build();
                 })
                 .collect(Collectors.toList());
     }
 
-    private List<LeaveDashboardDTO.CidStat> calculateCidStats(List<LeaveRequest> leaves) {
-        return leaves.stream()
-                .filter(l -> l.getCid() != null)
-                .collect(Collectors.groupingBy(l -> l.getCid()))
-                .entrySet().stream()
-                .map(entry -> {
-                    LeaveRequest first = entry.getValue().get(0);
-                    String description = first.getCidDescription();
-                    
-                    // Fallback to repository if description is missing
-                    if (description == null || description.isEmpty()) {
-                        description = cidCodeRepository.findById(entry.getKey())
-                                .map(com.axonrh.vacation.entity.CidCode::getDescription)
-                                .orElse("Descrição não encontrada");
-                    }
-
-                    return LeaveDashboardDTO.CidStat.builder()
-                            .cid(entry.getKey())
-                            .chapter(getChapterDescription(entry.getKey()))
-                            .description(description)
-                            .count(entry.getValue().size())
-                            .year(LocalDate.now().getYear())
-                            .build();
-                })
-                .limit(10)
+    private List<LeaveDashboardDTO.CidStat> calculateCidStats(UUID tenantId, LocalDate from, LocalDate to) {
+        Map<String, Long> topCids = leaveAnalyticsService.topCids(tenantId, from, to, TOP_CIDS);
+        return topCids.entrySet().stream()
+                .map(entry -> LeaveDashboardDTO.CidStat.builder()
+                        .cid(entry.getKey())
+                        .chapter(cidService.findChapter(entry.getKey()).map(CidCode::getDescription).orElse("Outros"))
+                        .description(cidService.findDescription(entry.getKey()).orElse("Descrição não encontrada"))
+                        .count(entry.getValue())
+                        .year(LocalDate.now().getYear())
+                        .build())
                 .collect(Collectors.toList());
     }
 
-    private String getChapterDescription(String cid) {
-        if (cid == null || cid.isEmpty()) return "N/A";
-        
-        char firstChar = Character.toUpperCase(cid.charAt(0));
-        
-        try {
-            if (firstChar >= 'A' && firstChar <= 'B') return "Algumas doenças infecciosas e parasitárias";
-            if (firstChar == 'C') return "Neoplasias [tumores]";
-            if (firstChar == 'D') {
-                if (cid.length() < 3) return "Neoplasias [tumores]";
-                try {
-                    String numStr = cid.substring(1, 3);
-                     // Check if numeric to avoid parse exception if data is weird like 'DAA'
-                    if (!numStr.matches("\\d+")) return "Neoplasias [tumores]";
-                    
-                    int num = Integer.parseInt(cid.substring(1, 3));
-                    if (num <= 48) return "Neoplasias [tumores]";
-                    else return "Doenças do sangue e órgãos hematopoéticos";
-                } catch (Exception e) {
-                    return "Neoplasias [tumores]";
-                }
-            }
-            if (firstChar == 'E') return "Doenças endócrinas, nutricionais e metabólicas";
-            if (firstChar == 'F') return "Transtornos mentais e comportamentais";
-            if (firstChar == 'G') return "Doenças do sistema nervoso";
-            if (firstChar == 'H') {
-                if (cid.length() < 3) return "Doenças do olho e anexos";
-                try {
-                    String numStr = cid.substring(1, 3);
-                     // Check if numeric
-                    if (!numStr.matches("\\d+")) return "Doenças do olho e anexos";
-                    
-                    int num = Integer.parseInt(cid.substring(1, 3));
-                    if (num <= 59) return "Doenças do olho e anexos";
-                    else return "Doenças do ouvido e da apófise mastoide";
-                } catch (Exception e) {
-                    return "Doenças do olho e anexos";
-                }
-            }
-            if (firstChar == 'I') return "Doenças do aparelho circulatório";
-            if (firstChar == 'J') return "Doenças do aparelho respiratório";
-            if (firstChar == 'K') return "Doenças do aparelho digestivo";
-            if (firstChar == 'L') return "Doenças da pele e do tecido subcutâneo";
-            if (firstChar == 'M') return "Doenças do sistema osteomuscular e tecido conjuntivo";
-            if (firstChar == 'N') return "Doenças do aparelho geniturinário";
-            if (firstChar == 'O') return "Gravidez, parto e puerpério";
-            if (firstChar == 'P') return "Algumas afecções originadas no período perinatal";
-            if (firstChar == 'Q') return "Malformações congênitas, deformidades e anomalias";
-            if (firstChar == 'R') return "Sintomas, sinais e achados anormais de exames";
-            if (firstChar >= 'S' && firstChar <= 'T') return "Lesões, envenenamento e algumas outras consequências";
-            if (firstChar >= 'V' && firstChar <= 'Y') return "Causas externas de morbidade e de mortalidade";
-            if (firstChar == 'Z') return "Fatores que influenciam o estado de saúde";
-            if (firstChar == 'U') return "Códigos para propósitos especiais";
-        } catch (Exception e) {
-            return "Desconhecido"; // Fallback for any unexpected error
-        }
-        
-        return "Outros";
-    }
-
     private String translateLeaveType(LeaveType type) {
         return switch (type) {
             case VACATION -> "Férias";
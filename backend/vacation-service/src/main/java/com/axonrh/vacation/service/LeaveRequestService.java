@@ -8,7 +8,6 @@ import com.axonrh.vacation.dto.MedicalCertificateAnalysisResponse;
 import com.axonrh.vacation.entity.LeaveRequest;
 import com.axonrh.vacation.entity.enums.LeaveType;
 import com.axonrh.vacation.entity.enums.VacationRequestStatus;
-import com.axonrh.vacation.repository.CidCodeRepository;
 import com.axonrh.vacation.repository.LeaveRequestRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,20 +26,23 @@ public class LeaveRequestService {
     private final LeaveRequestRepository leaveRequestRepository;
     private final AiAssistantClient aiAssistantClient;
     private final EmployeeServiceClient employeeServiceClient;
-    private final CidCodeRepository cidCodeRepository;
+    private final CidService cidService;
     private final org.springframework.kafka.core.KafkaTemplate<String, Object> kafkaTemplate;
+    private final LeaveAnalyticsService leaveAnalyticsService;
 
     public LeaveRequestService(
             LeaveRequestRepository leaveRequestRepository,
             AiAssistantClient aiAssistantClient,
             EmployeeServiceClient employeeServiceClient,
-            CidCodeRepository cidCodeRepository,
-            @org.springframework.beans.factory.annotation.Qualifier("vacationKafkaTemplate") org.springframework.kafka.core.KafkaTemplate<String, Object> kafkaTemplate) {
+            CidService cidService,
+            @org.springframework.beans.factory.annotation.Qualifier("vacationKafkaTemplate") org.springframework.kafka.core.KafkaTemplate<String, Object> kafkaTemplate,
+            LeaveAnalyticsService leaveAnalyticsService) {
         this.leaveRequestRepository = leaveRequestRepository;
         this.aiAssistantClient = aiAssistantClient;
         this.employeeServiceClient = employeeServiceClient;
-        this.cidCodeRepository = cidCodeRepository;
+        this.cidService = cidService;
         this.kafkaTemplate = kafkaTemplate;
+        this.leaveAnalyticsService = leaveAnalyticsService;
     }
 
     @Transactional
@@ -101,11 +103,14 @@ public class LeaveRequestService {
         // Validate CID and populate description if missing
         // Validate CID and populate description if missing
         if (request.getCid() != null && (request.getCidDescription() == null || request.getCidDescription().isEmpty())) {
-            cidCodeRepository.findById(request.getCid())
-                    .ifPresent(c -> request.setCidDescription(c.getDescription()));
+            cidService.findDescription(request.getCid())
+                    .ifPresent(request::setCidDescription);
         }
 
+        leaveAnalyticsService.assignGender(request);
+
         LeaveRequest saved = leaveRequestRepository.save(request);
+        leaveAnalyticsService.recordCreated(saved);
         publishEvent("LEAVE_REQUESTED", saved);
         return saved;
     }
@@ -130,6 +135,7 @@ public class LeaveRequestService {
     @Transactional
     public LeaveRequest updateLeave(UUID id, Map<String, Object> payload) {
         LeaveRequest request = getLeaveById(id);
+        LeaveAnalyticsService.Contribution before = leaveAnalyticsService.snapshot(request);
         
         if (payload.containsKey("startDate")) request.setStartDate(java.time.LocalDate.parse((String) payload.get("startDate")));
         if (payload.containsKey("endDate")) request.setEndDate(java.time.LocalDate.parse((String) payload.get("endDate")));
@@ -139,8 +145,8 @@ public class LeaveRequestService {
             String newCid = (String) payload.get("cid");
             request.setCid(newCid);
             if (newCid != null && !newCid.isEmpty()) {
-                cidCodeRepository.findById(newCid)
-                        .ifPresent(c -> request.setCidDescription(c.getDescription()));
+                cidService.findDescription(newCid)
+                        .ifPresent(request::setCidDescription);
             } else {
                 request.setCidDescription(null);
             }
@@ -150,12 +156,15 @@ public class LeaveRequestService {
             request.setDaysCount((int) ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1);
         }
         
-        return leaveRequestRepository.save(request);
+        LeaveRequest saved = leaveRequestRepository.save(request);
+        leaveAnalyticsService.recordChanged(before, saved);
+        return saved;
     }
 
     @Transactional
     public LeaveRequest updateStatus(UUID id, VacationRequestStatus status, String notes, String cid, UUID userId) {
         LeaveRequest request = getLeaveById(id);
+        LeaveAnalyticsService.Contribution before = leaveAnalyticsService.snapshot(request);
         
         request.setStatus(status);
         if (notes != null) request.setReason(notes); // TODO: idealmente ter um campo notes separado
@@ -163,8 +172,8 @@ public class LeaveRequestService {
         if (cid != null) {
             request.setCid(cid);
             if (!cid.isEmpty()) {
-                cidCodeRepository.findById(cid)
-                        .ifPresent(c -> request.setCidDescription(c.getDescription()));
+                cidService.findDescription(cid)
+                        .ifPresent(request::setCidDescription);
             } else {
                 request.setCidDescription(null);
             }
@@ -178,6 +187,7 @@ public class LeaveRequestService {
         }
         
         LeaveRequest saved = leaveRequestRepository.save(request);
+        leaveAnalyticsService.recordChanged(before, saved);
         
         if (status == VacationRequestStatus.APPROVED) {
             publishEvent("LEAVE_APPROVED", saved);
@@ -217,12 +227,15 @@ public class LeaveRequestService {
             }
         }
 
+        LeaveAnalyticsService.Contribution before = leaveAnalyticsService.snapshot(request);
         leaveRequestRepository.deleteById(id);
+        leaveAnalyticsService.recordDeleted(before);
     }
 
     private void publishEvent(String eventType, LeaveRequest request) {
         Map<String, Object> event = new java.util.HashMap<>();
         event.put("eventType", eventType);
+        event.put("eventId", UUID.randomUUID().toString());
         event.put("tenantId", request.getTenantId().toString());
         event.put("requestId", request.getId().toString());
         event.put("employeeId", request.getEmployeeId().toString());
@@ -0,0 +1,311 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.dto.VacationCoverageResponse;
+import com.axonrh.vacation.dto.VacationCoverageRuleDTO;
+import com.axonrh.vacation.entity.VacationCalendarDay;
+import com.axonrh.vacation.entity.VacationCalendarSync;
+import com.axonrh.vacation.entity.VacationCoverageRule;
+import com.axonrh.vacation.entity.VacationRequest;
+import com.axonrh.vacation.entity.enums.VacationRequestStatus;
+import com.axonrh.vacation.exception.InvalidOperationException;
+import com.axonrh.vacation.repository.VacationCalendarDayRepository;
+import com.axonrh.vacation.repository.VacationCalendarSyncRepository;
+import com.axonrh.vacation.repository.VacationCoverageRuleRepository;
+import com.axonrh.vacation.repository.VacationRequestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Calendario de equipe: ocupacao diaria por departamento.
+ * Cada solicitacao aprovada soma +1 em cada dia do seu intervalo no contador do departamento;
+ * o cancelamento de uma aprovada devolve -1. Sobreposicao, mapa de cobertura e regras de
+ * cobertura minima sao respondidos pelos contadores, sem varrer as solicitacoes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VacationCalendarService {
+
+    /** Chave dos colaboradores sem departamento nos contadores. */
+    static final UUID NO_DEPARTMENT = new UUID(0L, 0L);
+
+    private static final Set<VacationRequestStatus> ABSENT_STATUSES = EnumSet.of(
+            VacationRequestStatus.APPROVED, VacationRequestStatus.SCHEDULED,
+            VacationRequestStatus.IN_PROGRESS, VacationRequestStatus.COMPLETED);
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final VacationCalendarDayRepository dayRepository;
+    private final VacationCalendarSyncRepository syncRepository;
+    private final VacationCoverageRuleRepository ruleRepository;
+    private final VacationRequestRepository requestRepository;
+    private final EmployeeProjectionService employeeProjectionService;
+
+    /**
+     * Preenche o departamento da solicitacao a partir da projecao local de colaboradores.
+     */
+    public void assignDepartment(VacationRequest request) {
+        if (request.getDepartmentId() == null && request.getEmployeeId() != null) {
+            employeeProjectionService.findDepartmentId(request.getEmployeeId()).ifPresent(request::setDepartmentId);
+        }
+    }
+
+    @Transactional
+    public void recordApproved(VacationRequest request) {
+        syncRepository.lockShared(calendarLockName(request.getTenantId()));
+        apply(request, 1);
+    }
+
+    /**
+     * Remove a ocupacao de uma solicitacao que estava aprovada (cancelamento).
+     */
+    @Transactional
+    public void recordReleased(VacationRequest request) {
+        syncRepository.lockShared(calendarLockName(request.getTenantId()));
+        apply(request, -1);
+    }
+
+    /**
+     * Reconstroi os contadores do tenant a partir das solicitacoes (carga inicial ou correcao).
+     * Roda sob o lock exclusivo do calendario do tenant: reconstrucoes concorrentes e as
+     * atualizacoes incrementais (lock compartilhado) esperam o commit, sem contagem em dobro.
+     */
+    @Transactional
+    public void rebuild(UUID tenantId) {
+        syncRepository.lock(calendarLockName(tenantId));
+        dayRepository.deleteByTenantId(tenantId);
+
+        List<VacationRequest> requests = requestRepository.findByTenantIdAndStatusIn(tenantId, ABSENT_STATUSES);
+        for (VacationRequest request : requests) {
+            if (request.getDepartmentId() == null) {
+                assignDepartment(request);
+                if (request.getDepartmentId() != null) {
+                    requestRepository.save(request);
+                }
+            }
+            apply(request, 1);
+        }
+
+        syncRepository.save(VacationCalendarSync.builder().tenantId(tenantId).rebuiltAt(LocalDateTime.now()).build());
+        log.info("Calendario de ferias reconstruido para tenant {}: {} solicitacoes", tenantId, requests.size());
+    }
+
+    // ==================== Consultas ====================
+
+    /**
+     * Maximo de colaboradores do departamento de ferias no mesmo dia dentro do intervalo.
+     */
+    @Transactional
+    public int maxConcurrentAbsences(UUID tenantId, UUID departmentId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        ensureBuilt(tenantId);
+        if (departmentId == null) {
+            return absencesByDay(tenantId, null, from, to).values().stream().max(Integer::compare).orElse(0);
+        }
+        return dayRepository.maxAbsences(tenantId, departmentId, from, to);
+    }
+
+    /**
+     * Mapa de cobertura dia a dia do departamento ({@code null} = tenant inteiro).
+     */
+    @Transactional
+    public VacationCoverageResponse getCoverage(UUID tenantId, UUID departmentId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        ensureBuilt(tenantId);
+
+        Map<LocalDate, Integer> absences = absencesByDay(tenantId, departmentId, from, to);
+        employeeProjectionService.ensureBootstrapped(tenantId);
+        long headcount = departmentId != null
+                ? employeeProjectionService.countActive(tenantId, departmentId)
+                : employeeProjectionService.countActive(tenantId);
+        VacationCoverageRule rule = findRule(tenantId, departmentId).orElse(null);
+
+        List<VacationCoverageResponse.DayCoverage> days = new ArrayList<>();
+        int max = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            int absent = absences.getOrDefault(day, 0);
+            max = Math.max(max, absent);
+            long present = Math.max(headcount - absent, 0);
+            days.add(VacationCoverageResponse.DayCoverage.builder()
+                    .date(day)
+                    .absent(absent)
+                    .present(present)
+                    .coveragePercent(headcount > 0 ? Math.round(present * 1000.0 / headcount) / 10.0 : 100.0)
+                    .belowMinimum(rule != null && violates(rule, headcount, absent))
+                    .build());
+        }
+
+        return VacationCoverageResponse.builder()
+                .departmentId(departmentId)
+                .from(from)
+                .to(to)
+                .headcount(headcount)
+                .maxConcurrentAbsences(max)
+                .rule(rule != null ? toRuleDTO(rule) : null)
+                .days(days)
+                .build();
+    }
+
+    /**
+     * Garante que mais um colaborador do departamento de ferias no intervalo nao quebra a
+     * regra de cobertura minima (regra do departamento ou, na falta, a padrao do tenant).
+     */
+    @Transactional
+    public void checkCoverage(UUID tenantId, UUID departmentId, LocalDate from, LocalDate to) {
+        Optional<VacationCoverageRule> found = findRule(tenantId, departmentId);
+        if (found.isEmpty()) {
+            return;
+        }
+        VacationCoverageRule rule = found.get();
+        ensureBuilt(tenantId);
+
+        int absent = dayRepository.maxAbsences(tenantId, departmentKey(departmentId), from, to) + 1;
+        if (rule.getMaxConcurrentAbsences() != null && absent > rule.getMaxConcurrentAbsences()) {
+            throw new InvalidOperationException(String.format(
+                    "O departamento ja possui %d colaborador(es) de ferias no periodo; limite de %d ausencias simultaneas",
+                    absent - 1, rule.getMaxConcurrentAbsences()));
+        }
+        if (rule.getMinCoveragePercent() != null) {
+            employeeProjectionService.ensureBootstrapped(tenantId);
+            long headcount = employeeProjectionService.countActive(tenantId, departmentId);
+            if (violates(rule, headcount, absent)) {
+                throw new InvalidOperationException(String.format(
+                        "Cobertura minima de %d%% do departamento seria violada no periodo (%d de %d colaboradores ausentes)",
+                        rule.getMinCoveragePercent(), absent, headcount));
+            }
+        }
+    }
+
+    /**
+     * Revalida a cobertura na aprovacao final. O lock do departamento serializa aprovacoes
+     * concorrentes ate o commit, quando o contador ja inclui a solicitacao aprovada; a propria
+     * solicitacao ainda nao esta nos contadores (so status aprovados sao contados).
+     */
+    @Transactional
+    public void checkCoverageForApproval(VacationRequest request) {
+        UUID tenantId = request.getTenantId();
+        syncRepository.lock("vacation-coverage:" + tenantId + ":" + departmentKey(request.getDepartmentId()));
+        checkCoverage(tenantId, request.getDepartmentId(), request.getStartDate(), request.getEndDate());
+    }
+
+    // ==================== Regras de Cobertura ====================
+
+    @Transactional(readOnly = true)
+    public List<VacationCoverageRuleDTO> getRules(UUID tenantId) {
+        return ruleRepository.findByTenantIdOrderByDepartmentIdAsc(tenantId).stream()
+                .map(this::toRuleDTO)
+                .toList();
+    }
+
+    /**
+     * Cria ou substitui a regra do departamento (ou a padrao do tenant).
+     */
+    @Transactional
+    public VacationCoverageRuleDTO saveRule(UUID tenantId, VacationCoverageRuleDTO dto) {
+        if (dto.getMinCoveragePercent() != null
+                && (dto.getMinCoveragePercent() < 0 || dto.getMinCoveragePercent() > 100)) {
+            throw new InvalidOperationException("Cobertura minima deve estar entre 0 e 100%");
+        }
+        if (dto.getMaxConcurrentAbsences() != null && dto.getMaxConcurrentAbsences() < 0) {
+            throw new InvalidOperationException("Limite de ausencias simultaneas nao pode ser negativo");
+        }
+
+        VacationCoverageRule rule = (dto.getDepartmentId() != null
+                ? ruleRepository.findByTenantIdAndDepartmentId(tenantId, dto.getDepartmentId())
+                : ruleRepository.findByTenantIdAndDepartmentIdIsNull(tenantId))
+                .orElseGet(() -> VacationCoverageRule.builder()
+                        .tenantId(tenantId)
+                        .departmentId(dto.getDepartmentId())
+                        .build());
+        rule.setMinCoveragePercent(dto.getMinCoveragePercent());
+        rule.setMaxConcurrentAbsences(dto.getMaxConcurrentAbsences());
+        rule.setActive(dto.getActive() == null || dto.getActive());
+
+        return toRuleDTO(ruleRepository.save(rule));
+    }
+
+    private Optional<VacationCoverageRule> findRule(UUID tenantId, UUID departmentId) {
+        Optional<VacationCoverageRule> rule = departmentId != null
+                ? ruleRepository.findByTenantIdAndDepartmentId(tenantId, departmentId)
+                : Optional.empty();
+        if (rule.isEmpty()) {
+            rule = ruleRepository.findByTenantIdAndDepartmentIdIsNull(tenantId);
+        }
+        return rule.filter(VacationCoverageRule::getActive);
+    }
+
+    private boolean violates(VacationCoverageRule rule, long headcount, int absent) {
+        if (rule.getMaxConcurrentAbsences() != null && absent > rule.getMaxConcurrentAbsences()) {
+            return true;
+        }
+        return rule.getMinCoveragePercent() != null && headcount > 0
+                && (headcount - absent) * 100 < (long) rule.getMinCoveragePercent() * headcount;
+    }
+
+    private Map<LocalDate, Integer> absencesByDay(UUID tenantId, UUID departmentId, LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> result = new HashMap<>();
+        if (departmentId != null) {
+            for (VacationCalendarDay day : dayRepository.findAbsences(tenantId, departmentId, from, to)) {
+                result.put(day.getDay(), day.getAbsentCount());
+            }
+        } else {
+            for (Object[] row : dayRepository.sumAbsencesByDay(tenantId, from, to)) {
+                result.put((LocalDate) row[0], ((Number) row[1]).intValue());
+            }
+        }
+        return result;
+    }
+
+    private void ensureBuilt(UUID tenantId) {
+        if (syncRepository.existsById(tenantId)) {
+            return;
+        }
+        // Outra transacao pode ter reconstruido enquanto esperavamos o lock
+        syncRepository.lock(calendarLockName(tenantId));
+        if (!syncRepository.existsById(tenantId)) {
+            rebuild(tenantId);
+        }
+    }
+
+    private static String calendarLockName(UUID tenantId) {
+        return "vacation-calendar:" + tenantId;
+    }
+
+    private void apply(VacationRequest request, int sign) {
+        if (request.getStartDate() == null || request.getEndDate() == null
+                || request.getEndDate().isBefore(request.getStartDate())) {
+            return;
+        }
+        dayRepository.incrementRange(request.getTenantId(), departmentKey(request.getDepartmentId()),
+                request.getStartDate(), request.getEndDate(), sign);
+    }
+
+    private static UUID departmentKey(UUID departmentId) {
+        return departmentId != null ? departmentId : NO_DEPARTMENT;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidOperationException("Data final anterior a data inicial");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidOperationException("Intervalo maximo de " + MAX_RANGE_DAYS + " dias");
+        }
+    }
+
+    private VacationCoverageRuleDTO toRuleDTO(VacationCoverageRule rule) {
+        return VacationCoverageRuleDTO.builder()
+                .id(rule.getId())
+                .departmentId(rule.getDepartmentId())
+                .minCoveragePercent(rule.getMinCoveragePercent())
+                .maxConcurrentAbsences(rule.getMaxConcurrentAbsences())
+                .active(rule.getActive())
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.entity.EmployeeProjection;
+import com.axonrh.vacation.entity.VacationPeriod;
+import com.axonrh.vacation.entity.enums.VacationPeriodStatus;
+import com.axonrh.vacation.repository.EmployeeProjectionRepository;
+import com.axonrh.vacation.repository.VacationPeriodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Manutencao diaria dos periodos aquisitivos de um tenant, com comandos em lote:
+ * cria periodos iniciais/proximos, expira periodos vencidos e avisa os que estao para vencer.
+ */
+@Slf4j
+@Service
+public class VacationPeriodMaintenanceService {
+
+    private static final int MAX_ROLLOVER_PASSES = 5;
+    private static final Set<VacationPeriodStatus> PENDING_STATUSES = EnumSet.of(
+            VacationPeriodStatus.OPEN, VacationPeriodStatus.SCHEDULED, VacationPeriodStatus.PARTIALLY_USED);
+
+    private final VacationPeriodRepository periodRepository;
+    private final EmployeeProjectionRepository projectionRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${vacation.scheduler.expiry-warning-days:60}")
+    private int expiryWarningDays;
+
+    public VacationPeriodMaintenanceService(
+            VacationPeriodRepository periodRepository,
+            EmployeeProjectionRepository projectionRepository,
+            @Qualifier("vacationKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate) {
+        this.periodRepository = periodRepository;
+        this.projectionRepository = projectionRepository;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public record Result(int periodsCreated, int periodsExpired, int notificationsSent) {
+    }
+
+    @Transactional
+    public Result runForTenant(UUID tenantId, LocalDate today) {
+        int created = periodRepository.insertInitialPeriods(tenantId);
+
+        // Cada passada avanca um periodo; colaboradores muito atrasados precisam de mais de uma
+        for (int pass = 0; pass < MAX_ROLLOVER_PASSES; pass++) {
+            int inserted = periodRepository.insertNextPeriods(tenantId, today);
+            created += inserted;
+            if (inserted == 0) break;
+        }
+
+        int expired = periodRepository.expireOverduePeriods(tenantId, today, PENDING_STATUSES);
+        int notified = warnExpiringPeriods(tenantId, today);
+
+        return new Result(created, expired, notified);
+    }
+
+    private int warnExpiringPeriods(UUID tenantId, LocalDate today) {
+        List<VacationPeriod> periods = periodRepository.findPeriodsToWarn(
+                tenantId, PENDING_STATUSES, today, today.plusDays(expiryWarningDays));
+        if (periods.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, EmployeeProjection> employees = projectionRepository.findByTenantIdAndEmployeeIdIn(
+                        tenantId, periods.stream().map(VacationPeriod::getEmployeeId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(EmployeeProjection::getEmployeeId, Function.identity()));
+
+        List<Map<String, Object>> events = new ArrayList<>(periods.size());
+        for (VacationPeriod period : periods) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", "VACATION_EXPIRATION_WARNING");
+            event.put("eventId", UUID.randomUUID().toString());
+            event.put("tenantId", tenantId.toString());
+            event.put("employeeId", period.getEmployeeId().toString());
+            event.put("employeeName", period.getEmployeeName());
+            event.put("periodId", period.getId().toString());
+            event.put("concessionEndDate", period.getConcessionEndDate().toString());
+            event.put("remainingDays", period.getRemainingDays());
+            event.put("timestamp", LocalDateTime.now().toString());
+            EmployeeProjection employee = employees.get(period.getEmployeeId());
+            if (employee != null && employee.getUserId() != null) {
+                event.put("requesterUserId", employee.getUserId().toString());
+            }
+            events.add(event);
+        }
+
+        periodRepository.markExpiryNotified(periods.stream().map(VacationPeriod::getId).toList(), today);
+        publishAfterCommit(tenantId, events);
+        return periods.size();
+    }
+
+    /**
+     * Publica os avisos so depois do commit: um rollback da manutencao nao deixa avisos enviados
+     * para periodos que continuam sem marcacao (e que seriam avisados de novo).
+     */
+    private void publishAfterCommit(UUID tenantId, List<Map<String, Object>> events) {
+        Runnable publish = () -> {
+            for (Map<String, Object> event : events) {
+                kafkaTemplate.send("vacation.domain.events", (String) event.get("employeeId"), event)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                log.error("Falha ao publicar aviso de vencimento do periodo {}: {}",
+                                        event.get("periodId"), ex.getMessage());
+                            }
+                        });
+            }
+            log.info("Avisos de vencimento enviados - tenant: {}, periodos: {}", tenantId, events.size());
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.config.TenantContext;
+import com.axonrh.vacation.entity.SchedulerTenantRun;
+import com.axonrh.vacation.repository.EmployeeProjectionRepository;
+import com.axonrh.vacation.repository.SchedulerLeaseRepository;
+import com.axonrh.vacation.repository.SchedulerTenantRunRepository;
+import com.axonrh.vacation.repository.VacationPeriodRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * T159 - Agendador de vencimento e renovacao de periodos aquisitivos.
+ *
+ * <p>Os tenants sao distribuidos em {@code shards} por hash; cada replica tenta adquirir o
+ * lease de cada shard (tabela scheduler_leases) e processa apenas os shards que conseguir.
+ * A execucao por tenant e registrada em scheduler_tenant_runs, e um tenant ja processado no
+ * dia e ignorado - o job pode rodar em todas as replicas e ser repetido sem efeito duplicado.</p>
+ */
+@Slf4j
+@Component
+public class VacationPeriodScheduler {
+
+    static final String JOB_NAME = "vacation-period-maintenance";
+
+    private final VacationPeriodRepository periodRepository;
+    private final EmployeeProjectionRepository projectionRepository;
+    private final SchedulerLeaseRepository leaseRepository;
+    private final SchedulerTenantRunRepository runRepository;
+    private final VacationPeriodMaintenanceService maintenanceService;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final MeterRegistry meterRegistry;
+
+    private final Timer tenantTimer;
+
+    @Value("${vacation.scheduler.shards:16}")
+    private int shards;
+
+    @Value("${vacation.scheduler.lease-minutes:30}")
+    private int leaseMinutes;
+
+    public VacationPeriodScheduler(VacationPeriodRepository periodRepository,
+                                   EmployeeProjectionRepository projectionRepository,
+                                   SchedulerLeaseRepository leaseRepository,
+                                   SchedulerTenantRunRepository runRepository,
+                                   VacationPeriodMaintenanceService maintenanceService,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.periodRepository = periodRepository;
+        this.projectionRepository = projectionRepository;
+        this.leaseRepository = leaseRepository;
+        this.runRepository = runRepository;
+        this.maintenanceService = maintenanceService;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = resolveNodeId();
+        this.meterRegistry = meterRegistry;
+
+        this.tenantTimer = Timer.builder("vacation.scheduler.tenant.duration")
+                .tag("job", JOB_NAME).register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${vacation.scheduler.cron:0 0 8 * * MON-FRI}") // Toda manha de dia util as 8h
+    public void run() {
+        LocalDate today = LocalDate.now();
+        Set<UUID> tenants = new HashSet<>(periodRepository.findDistinctTenantIds());
+        tenants.addAll(projectionRepository.findDistinctTenantIds());
+
+        Map<Integer, List<UUID>> tenantsByShard = new TreeMap<>();
+        for (UUID tenantId : tenants) {
+            tenantsByShard.computeIfAbsent(shardOf(tenantId), k -> new ArrayList<>()).add(tenantId);
+        }
+        log.info("Agendador de periodos iniciado no no {} - {} tenants em {} shards",
+                nodeId, tenantsByShard.values().stream().mapToInt(List::size).sum(), tenantsByShard.size());
+
+        for (Map.Entry<Integer, List<UUID>> shard : tenantsByShard.entrySet()) {
+            if (!acquire(shard.getKey())) {
+                log.debug("Shard {} pertence a outro no", shard.getKey());
+                continue;
+            }
+            try {
+                shard.getValue().forEach(tenantId -> runTenant(tenantId, today));
+            } finally {
+                transactionTemplate.executeWithoutResult(status ->
+                        leaseRepository.release(JOB_NAME, shard.getKey(), nodeId));
+            }
+        }
+    }
+
+    int shardOf(UUID tenantId) {
+        return Math.floorMod(tenantId.hashCode(), shards);
+    }
+
+    private boolean acquire(int shard) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer acquired = transactionTemplate.execute(status ->
+                leaseRepository.tryAcquire(JOB_NAME, shard, nodeId, now, now.plusMinutes(leaseMinutes)));
+        return acquired != null && acquired > 0;
+    }
+
+    private void runTenant(UUID tenantId, LocalDate today) {
+        Optional<SchedulerTenantRun> lastRun = runRepository.findById(new SchedulerTenantRun.Key(JOB_NAME, tenantId));
+        if (lastRun.isPresent() && today.equals(lastRun.get().getRunDate()) && lastRun.get().getErrorMessage() == null) {
+            return;
+        }
+
+        TenantContext.setCurrentTenant(tenantId.toString());
+        long start = System.nanoTime();
+        SchedulerTenantRun.SchedulerTenantRunBuilder run = SchedulerTenantRun.builder()
+                .jobName(JOB_NAME)
+                .tenantId(tenantId)
+                .runDate(today)
+                .owner(nodeId);
+        try {
+            VacationPeriodMaintenanceService.Result result = maintenanceService.runForTenant(tenantId, today);
+            run.periodsCreated(result.periodsCreated())
+                    .periodsExpired(result.periodsExpired())
+                    .notificationsSent(result.notificationsSent());
+            tenantCounter("vacation.scheduler.periods.created", tenantId).increment(result.periodsCreated());
+            tenantCounter("vacation.scheduler.periods.expired", tenantId).increment(result.periodsExpired());
+            tenantCounter("vacation.scheduler.notifications.sent", tenantId).increment(result.notificationsSent());
+            log.info("Periodos do tenant {} processados: {} criados, {} expirados, {} avisos",
+                    tenantId, result.periodsCreated(), result.periodsExpired(), result.notificationsSent());
+        } catch (Exception e) {
+            tenantCounter("vacation.scheduler.tenant.failures", tenantId).increment();
+            log.error("Falha ao processar periodos do tenant {}: {}", tenantId, e.getMessage(), e);
+            run.periodsCreated(0).periodsExpired(0).notificationsSent(0)
+                    .errorMessage(truncate(e.getMessage()));
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            tenantTimer.record(Duration.ofNanos(elapsed));
+            runRepository.save(run.durationMs(Duration.ofNanos(elapsed).toMillis())
+                    .finishedAt(LocalDateTime.now())
+                    .build());
+            TenantContext.clear();
+        }
+    }
+
+    private Counter tenantCounter(String name, UUID tenantId) {
+        return Counter.builder(name)
+                .tag("job", JOB_NAME)
+                .tag("tenant", tenantId.toString())
+                .register(meterRegistry);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return "erro desconhecido";
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,172 @@
+package com.axonrh.vacation.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Calculo em lote da provisao de ferias, mes a mes.
+ *
+ * <p>Os periodos chegam em colunas (arrays primitivos, um indice por periodo) ordenados por
+ * colaborador, e o resultado e acumulado direto na linha do colaborador: uma matriz
+ * {@code [colaborador][mes * METRICS + metrica]} em centavos (saldo em 1/12 de dia).
+ * As faixas sao divididas em um {@link ForkJoinPool} sempre em fronteira de colaborador,
+ * entao cada linha e escrita por uma unica tarefa.</p>
+ *
+ * <p>Por periodo e mes: direito adquirido = dias de direito x meses completos / 12; saldo =
+ * adquirido - gozados - vendidos; provisao = saldo x salario diario, em dobro apos o fim do
+ * periodo concessivo (Art. 137 CLT); 1/3 constitucional sobre a provisao; abono = dias
+ * vendidos x salario diario enquanto o concessivo esta aberto.</p>
+ */
+final class VacationProvisionCalculator {
+
+    static final int BALANCE = 0;
+    static final int LIABILITY = 1;
+    static final int ONE_THIRD = 2;
+    static final int SOLD = 3;
+    static final int METRICS = 4;
+
+    private static final int SEQUENTIAL_THRESHOLD = 512;
+
+    /** ano * 12 + (mes - 1) de cada mes projetado. */
+    private final int[] monthIndex;
+    /** Ultimo dia (epoch day) de cada mes projetado. */
+    private final long[] monthEnd;
+
+    VacationProvisionCalculator(YearMonth firstMonth, int months) {
+        this.monthIndex = new int[months];
+        this.monthEnd = new long[months];
+        for (int m = 0; m < months; m++) {
+            YearMonth month = firstMonth.plusMonths(m);
+            monthIndex[m] = monthIndex(month.getYear(), month.getMonthValue());
+            monthEnd[m] = month.atEndOfMonth().toEpochDay();
+        }
+    }
+
+    int months() {
+        return monthIndex.length;
+    }
+
+    /**
+     * Colunas dos periodos; {@code employee} e o indice da linha do colaborador no resultado.
+     */
+    static final class Periods {
+        int size;
+        int[] employee;
+        int[] acquisitionStartMonth;
+        int[] acquisitionStartDay;
+        long[] concessionEnd;
+        int[] totalDays;
+        int[] settledDays;
+        int[] soldDays;
+        long[] dailyRateCents;
+
+        Periods(int capacity) {
+            employee = new int[capacity];
+            acquisitionStartMonth = new int[capacity];
+            acquisitionStartDay = new int[capacity];
+            concessionEnd = new long[capacity];
+            totalDays = new int[capacity];
+            settledDays = new int[capacity];
+            soldDays = new int[capacity];
+            dailyRateCents = new long[capacity];
+        }
+
+        void add(int employeeIndex, LocalDate acquisitionStart, LocalDate concessionEndDate,
+                 int total, int used, int sold, long rateCents) {
+            if (size == employee.length) {
+                grow();
+            }
+            employee[size] = employeeIndex;
+            acquisitionStartMonth[size] = monthIndex(acquisitionStart.getYear(), acquisitionStart.getMonthValue());
+            acquisitionStartDay[size] = acquisitionStart.getDayOfMonth();
+            concessionEnd[size] = concessionEndDate.toEpochDay();
+            totalDays[size] = total;
+            settledDays[size] = used + sold;
+            soldDays[size] = sold;
+            dailyRateCents[size] = rateCents;
+            size++;
+        }
+
+        private void grow() {
+            int capacity = Math.max(16, employee.length * 2);
+            employee = Arrays.copyOf(employee, capacity);
+            acquisitionStartMonth = Arrays.copyOf(acquisitionStartMonth, capacity);
+            acquisitionStartDay = Arrays.copyOf(acquisitionStartDay, capacity);
+            concessionEnd = Arrays.copyOf(concessionEnd, capacity);
+            totalDays = Arrays.copyOf(totalDays, capacity);
+            settledDays = Arrays.copyOf(settledDays, capacity);
+            soldDays = Arrays.copyOf(soldDays, capacity);
+            dailyRateCents = Arrays.copyOf(dailyRateCents, capacity);
+        }
+    }
+
+    long[][] compute(Periods periods, int employees, ForkJoinPool pool) {
+        long[][] result = new long[employees][monthIndex.length * METRICS];
+        if (periods.size > 0) {
+            pool.invoke(new RangeTask(periods, result, 0, periods.size));
+        }
+        return result;
+    }
+
+    private void computeRange(Periods p, long[][] result, int from, int to) {
+        int months = monthIndex.length;
+        for (int i = from; i < to; i++) {
+            long[] row = result[p.employee[i]];
+            long settledTwelfths = 12L * p.settledDays[i];
+            long rate = p.dailyRateCents[i];
+            long soldValue = p.soldDays[i] * rate;
+            // Meses completos contam a partir do primeiro dia de mes apos o inicio do aquisitivo
+            int firstFullMonth = p.acquisitionStartMonth[i] + (p.acquisitionStartDay[i] > 1 ? 1 : 0);
+            for (int m = 0; m < months; m++) {
+                int worked = Math.min(Math.max(monthIndex[m] + 1 - firstFullMonth, 0), 12);
+                long balance = Math.max(p.totalDays[i] * (long) worked - settledTwelfths, 0);
+                boolean overdue = monthEnd[m] > p.concessionEnd[i];
+                long liability = balance * rate / 12 * (overdue ? 2 : 1);
+                int base = m * METRICS;
+                row[base + BALANCE] += balance;
+                row[base + LIABILITY] += liability;
+                row[base + ONE_THIRD] += liability / 3;
+                row[base + SOLD] += overdue ? 0 : soldValue;
+            }
+        }
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private final Periods periods;
+        private final long[][] result;
+        private final int from;
+        private final int to;
+
+        RangeTask(Periods periods, long[][] result, int from, int to) {
+            this.periods = periods;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                computeRange(periods, result, from, to);
+                return;
+            }
+            // Nao separa periodos do mesmo colaborador entre tarefas
+            int mid = (from + to) >>> 1;
+            while (mid < to && periods.employee[mid] == periods.employee[mid - 1]) {
+                mid++;
+            }
+            if (mid == to) {
+                computeRange(periods, result, from, to);
+                return;
+            }
+            invokeAll(new RangeTask(periods, result, from, mid), new RangeTask(periods, result, mid, to));
+        }
+    }
+
+    private static int monthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+}
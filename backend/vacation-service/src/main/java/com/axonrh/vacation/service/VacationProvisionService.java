@@ -0,0 +1,251 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.client.EmployeeServiceClient;
+import com.axonrh.vacation.dto.EmployeeDTO;
+import com.axonrh.vacation.dto.VacationProvisionResponse;
+import com.axonrh.vacation.entity.enums.VacationPeriodStatus;
+import com.axonrh.vacation.exception.InvalidOperationException;
+import com.axonrh.vacation.repository.VacationPeriodRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Provisao de ferias da empresa (contabilidade): saldo de ferias + 1/3 e abono pecuniario,
+ * projetados mes a mes por colaborador e por centro de custo.
+ * Salario e centro de custo vem do employee-service em uma unica chamada; os periodos sao
+ * lidos em streaming e calculados em lote pelo {@link VacationProvisionCalculator}.
+ */
+@Slf4j
+@Service
+public class VacationProvisionService {
+
+    private static final Set<VacationPeriodStatus> PROVISION_STATUSES = EnumSet.of(
+            VacationPeriodStatus.OPEN, VacationPeriodStatus.SCHEDULED,
+            VacationPeriodStatus.PARTIALLY_USED, VacationPeriodStatus.EXPIRED);
+    private static final int MAX_MONTHS = 36;
+    private static final String NO_COST_CENTER = "SEM_CENTRO_CUSTO";
+
+    private final VacationPeriodRepository periodRepository;
+    private final EmployeeServiceClient employeeServiceClient;
+    private final ForkJoinPool pool;
+
+    public VacationProvisionService(VacationPeriodRepository periodRepository,
+                                    EmployeeServiceClient employeeServiceClient,
+                                    @Value("${vacation.provision.parallelism:0}") int parallelism) {
+        this.periodRepository = periodRepository;
+        this.employeeServiceClient = employeeServiceClient;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Projeta a provisao de {@code months} meses a partir de {@code firstMonth}.
+     * Deve rodar em uma requisicao autenticada do tenant (o Feign propaga tenant e token).
+     */
+    @Transactional(readOnly = true)
+    public VacationProvisionResponse project(UUID tenantId, YearMonth firstMonth, int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new InvalidOperationException("Projecao deve ter entre 1 e " + MAX_MONTHS + " meses");
+        }
+        long started = System.currentTimeMillis();
+
+        List<EmployeeDTO> employees = employeeServiceClient.getActiveEmployees();
+        Map<UUID, Integer> employeeIndex = new HashMap<>(employees.size() * 2);
+        for (int i = 0; i < employees.size(); i++) {
+            employeeIndex.put(employees.get(i).getId(), i);
+        }
+
+        // Um mes a mais no inicio para calcular a despesa do primeiro mes
+        VacationProvisionCalculator calculator = new VacationProvisionCalculator(firstMonth.minusMonths(1), months + 1);
+        VacationProvisionCalculator.Periods periods = new VacationProvisionCalculator.Periods(employees.size() * 2);
+        Set<UUID> withoutSalary = new HashSet<>();
+
+        try (Stream<Object[]> rows = periodRepository.streamProvisionColumns(tenantId, PROVISION_STATUSES)) {
+            rows.forEach(row -> {
+                Integer index = employeeIndex.get((UUID) row[0]);
+                if (index == null) {
+                    return; // Desligados: saldo quitado na rescisao
+                }
+                BigDecimal salary = employees.get(index).getBaseSalary();
+                if (salary == null) {
+                    withoutSalary.add((UUID) row[0]);
+                }
+                periods.add(index, (LocalDate) row[1], (LocalDate) row[2],
+                        intValue(row[3]), intValue(row[4]), intValue(row[5]), dailyRateCents(salary));
+            });
+        }
+
+        long[][] byEmployee = calculator.compute(periods, employees.size(), pool);
+
+        // Centros de custo e total em uma passada sobre as linhas dos colaboradores
+        int width = calculator.months() * VacationProvisionCalculator.METRICS;
+        Map<String, long[]> byCostCenter = new TreeMap<>();
+        Map<String, EmployeeDTO.CostCenterDTO> costCenters = new HashMap<>();
+        long[] total = new long[width];
+        List<VacationProvisionResponse.Schedule> employeeSchedules = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            long[] row = byEmployee[i];
+            if (isZero(row)) {
+                continue;
+            }
+            EmployeeDTO employee = employees.get(i);
+            EmployeeDTO.CostCenterDTO costCenter = employee.getCostCenter();
+            String key = costCenterKey(costCenter);
+            costCenters.putIfAbsent(key, costCenter);
+            long[] costCenterRow = byCostCenter.computeIfAbsent(key, k -> new long[width]);
+            for (int k = 0; k < width; k++) {
+                costCenterRow[k] += row[k];
+                total[k] += row[k];
+            }
+            employeeSchedules.add(VacationProvisionResponse.Schedule.builder()
+                    .id(employee.getId())
+                    .name(employee.getFullName())
+                    .costCenterCode(costCenter != null ? costCenter.getCode() : null)
+                    .costCenterName(costCenter != null ? costCenter.getName() : null)
+                    .months(toMonths(row, firstMonth, months))
+                    .build());
+        }
+        employeeSchedules.sort(Comparator.comparing(VacationProvisionResponse.Schedule::getName,
+                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        List<VacationProvisionResponse.Schedule> costCenterSchedules = byCostCenter.entrySet().stream()
+                .map(e -> {
+                    EmployeeDTO.CostCenterDTO costCenter = costCenters.get(e.getKey());
+                    return VacationProvisionResponse.Schedule.builder()
+                            .id(costCenter != null ? costCenter.getId() : null)
+                            .name(costCenter != null ? costCenter.getName() : "Sem centro de custo")
+                            .costCenterCode(costCenter != null ? costCenter.getCode() : null)
+                            .costCenterName(costCenter != null ? costCenter.getName() : null)
+                            .months(toMonths(e.getValue(), firstMonth, months))
+                            .build();
+                })
+                .toList();
+
+        log.info("Provisao de ferias projetada - tenant: {}, periodos: {}, colaboradores: {}, meses: {}, {} ms",
+                tenantId, periods.size, employeeSchedules.size(), months, System.currentTimeMillis() - started);
+
+        return VacationProvisionResponse.builder()
+                .firstMonth(firstMonth.atDay(1))
+                .months(months)
+                .periodsCount(periods.size)
+                .employeesWithoutSalary(withoutSalary.size())
+                .totals(toMonths(total, firstMonth, months))
+                .costCenters(costCenterSchedules)
+                .employees(employeeSchedules)
+                .build();
+    }
+
+    /**
+     * Exporta a projecao em CSV (separador ';') para o fechamento contabil.
+     */
+    public byte[] exportCsv(VacationProvisionResponse provision) {
+        StringBuilder csv = new StringBuilder();
+        csv.append("Nivel;Id;Nome;Centro de Custo;Competencia;Saldo (dias);Provisao Ferias;1/3 Constitucional;")
+                .append("Abono Pecuniario;Total;Despesa do Mes\n");
+
+        appendCsv(csv, "TOTAL", null, "Total", null, provision.getTotals());
+        for (VacationProvisionResponse.Schedule schedule : provision.getCostCenters()) {
+            appendCsv(csv, "CENTRO_CUSTO", schedule.getId(), schedule.getName(), schedule.getCostCenterCode(), schedule.getMonths());
+        }
+        for (VacationProvisionResponse.Schedule schedule : provision.getEmployees()) {
+            appendCsv(csv, "COLABORADOR", schedule.getId(), schedule.getName(), schedule.getCostCenterCode(), schedule.getMonths());
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendCsv(StringBuilder csv, String level, UUID id, String name, String costCenter,
+                           List<VacationProvisionResponse.MonthlyProvision> months) {
+        for (VacationProvisionResponse.MonthlyProvision month : months) {
+            csv.append(level).append(';')
+                    .append(id != null ? id : "").append(';')
+                    .append(csvText(name)).append(';')
+                    .append(csvText(costCenter)).append(';')
+                    .append(YearMonth.from(month.getMonth())).append(';')
+                    .append(month.getBalanceDays()).append(';')
+                    .append(month.getVacationLiability()).append(';')
+                    .append(month.getOneThird()).append(';')
+                    .append(month.getSoldDaysValue()).append(';')
+                    .append(month.getTotal()).append(';')
+                    .append(month.getMonthlyExpense()).append('\n');
+        }
+    }
+
+    /**
+     * Converte a linha do calculador (com o mes anterior na posicao 0) nos meses pedidos.
+     */
+    private List<VacationProvisionResponse.MonthlyProvision> toMonths(long[] row, YearMonth firstMonth, int months) {
+        List<VacationProvisionResponse.MonthlyProvision> result = new ArrayList<>(months);
+        long previousTotal = totalAt(row, 0);
+        for (int m = 1; m <= months; m++) {
+            int base = m * VacationProvisionCalculator.METRICS;
+            long total = totalAt(row, m);
+            result.add(VacationProvisionResponse.MonthlyProvision.builder()
+                    .month(firstMonth.plusMonths(m - 1L).atDay(1))
+                    .balanceDays(BigDecimal.valueOf(row[base + VacationProvisionCalculator.BALANCE])
+                            .divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP))
+                    .vacationLiability(cents(row[base + VacationProvisionCalculator.LIABILITY]))
+                    .oneThird(cents(row[base + VacationProvisionCalculator.ONE_THIRD]))
+                    .soldDaysValue(cents(row[base + VacationProvisionCalculator.SOLD]))
+                    .total(cents(total))
+                    .monthlyExpense(cents(total - previousTotal))
+                    .build());
+            previousTotal = total;
+        }
+        return result;
+    }
+
+    private static long totalAt(long[] row, int month) {
+        int base = month * VacationProvisionCalculator.METRICS;
+        return row[base + VacationProvisionCalculator.LIABILITY]
+                + row[base + VacationProvisionCalculator.ONE_THIRD]
+                + row[base + VacationProvisionCalculator.SOLD];
+    }
+
+    private static boolean isZero(long[] row) {
+        for (long value : row) {
+            if (value != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Salario diario (salario base / 30) em centavos, como no simulador.
+     */
+    private static long dailyRateCents(BigDecimal baseSalary) {
+        if (baseSalary == null) return 0;
+        return baseSalary.movePointRight(2).divide(BigDecimal.valueOf(30), 0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static BigDecimal cents(long value) {
+        return BigDecimal.valueOf(value, 2);
+    }
+
+    private static int intValue(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static String costCenterKey(EmployeeDTO.CostCenterDTO costCenter) {
+        if (costCenter == null) return NO_COST_CENTER;
+        return costCenter.getCode() != null ? costCenter.getCode() : String.valueOf(costCenter.getId());
+    }
+
+    private static String csvText(String value) {
+        return value != null ? value.replace(';', ',').replace('\n', ' ') : "";
+    }
+}
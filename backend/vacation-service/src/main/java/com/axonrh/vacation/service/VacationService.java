@@ -1,7 +1,9 @@
 package com.axonrh.vacation.service;
 
+import com.axonrh.kafka.event.employee.EmployeeCreatedEvent;
 import com.axonrh.vacation.config.TenantContext;
 import com.axonrh.vacation.dto.*;
+import com.axonrh.vacation.entity.EmployeeProjection;
 import com.axonrh.vacation.entity.VacationPeriod;
 import com.axonrh.vacation.entity.VacationRequest;
 import com.axonrh.vacation.entity.enums.VacationPeriodStatus;
@@ -18,7 +20,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import com.axonrh.vacation.client.EmployeeServiceClient;
 import com.axonrh.vacation.dto.EmployeeDTO;
@@ -44,6 +45,8 @@ public class VacationService {
     private final VacationDocumentService documentService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final EmployeeServiceClient employeeServiceClient;
+    private final EmployeeProjectionService employeeProjectionService;
+    private final VacationCalendarService calendarService;
 
     public VacationService(
             VacationPeriodRepository periodRepository,
@@ -51,13 +54,17 @@ public class VacationService {
             VacationCalculationService calculationService,
             VacationDocumentService documentService,
             @Qualifier("vacationKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
-            EmployeeServiceClient employeeServiceClient) {
+            EmployeeServiceClient employeeServiceClient,
+            EmployeeProjectionService employeeProjectionService,
+            VacationCalendarService calendarService) {
         this.periodRepository = periodRepository;
         this.requestRepository = requestRepository;
         this.calculationService = calculationService;
         this.documentService = documentService;
         this.kafkaTemplate = kafkaTemplate;
         this.employeeServiceClient = employeeServiceClient;
+        this.employeeProjectionService = employeeProjectionService;
+        this.calendarService = calendarService;
     }
 
     @Value("${vacation.min-advance-days:30}")
@@ -102,13 +109,58 @@ public class VacationService {
             return existing.get();
         }
 
+        VacationPeriod saved = periodRepository.save(buildInitialPeriod(tenantId, employeeId, employeeName, admissionDate));
+        log.info("Periodo aquisitivo criado - tenant: {}, colaborador: {}, periodo: {} a {}",
+                tenantId, employeeId, saved.getAcquisitionStartDate(), saved.getAcquisitionEndDate());
+
+        return saved;
+    }
+
+    /**
+     * Cria em lote os periodos aquisitivos iniciais dos colaboradores admitidos (listener em lote).
+     * Admissoes que ja possuem periodo na data de inicio sao ignoradas.
+     *
+     * @return quantidade de periodos criados
+     */
+    @Transactional
+    public int createInitialPeriods(UUID tenantId, Collection<EmployeeCreatedEvent> admissions) {
+        Set<UUID> employeeIds = new HashSet<>();
+        admissions.forEach(admission -> employeeIds.add(admission.getAggregateId()));
+
+        Map<UUID, Set<LocalDate>> existingStarts = new HashMap<>();
+        for (VacationPeriod period : periodRepository.findByTenantIdAndEmployeeIdIn(tenantId, employeeIds)) {
+            existingStarts.computeIfAbsent(period.getEmployeeId(), id -> new HashSet<>())
+                    .add(period.getAcquisitionStartDate());
+        }
+
+        List<VacationPeriod> periods = new ArrayList<>();
+        for (EmployeeCreatedEvent admission : admissions) {
+            if (admission.getHireDate() == null) {
+                log.warn("Admissao sem data, periodo nao criado para o colaborador: {}", admission.getAggregateId());
+                continue;
+            }
+            boolean isNew = existingStarts.computeIfAbsent(admission.getAggregateId(), id -> new HashSet<>())
+                    .add(admission.getHireDate());
+            if (isNew) {
+                periods.add(buildInitialPeriod(tenantId, admission.getAggregateId(),
+                        admission.getFullName(), admission.getHireDate()));
+            }
+        }
+
+        periodRepository.saveAll(periods);
+        log.info("Periodos aquisitivos criados em lote - tenant: {}, periodos: {}, admissoes: {}",
+                tenantId, periods.size(), admissions.size());
+        return periods.size();
+    }
+
+    private VacationPeriod buildInitialPeriod(UUID tenantId, UUID employeeId, String employeeName, LocalDate admissionDate) {
         // Calcular datas do periodo aquisitivo
         LocalDate acquisitionStart = admissionDate;
         LocalDate acquisitionEnd = admissionDate.plusYears(1).minusDays(1);
         LocalDate concessionStart = acquisitionEnd.plusDays(1);
         LocalDate concessionEnd = concessionStart.plusYears(1).minusDays(1);
 
-        VacationPeriod period = VacationPeriod.builder()
+        return VacationPeriod.builder()
                 .tenantId(tenantId)
                 .employeeId(employeeId)
                 .employeeName(employeeName)
@@ -121,12 +173,6 @@ public class VacationService {
                 .soldDays(0)
                 .status(VacationPeriodStatus.OPEN)
                 .build();
-
-        VacationPeriod saved = periodRepository.save(period);
-        log.info("Periodo aquisitivo criado - tenant: {}, colaborador: {}, periodo: {} a {}",
-                tenantId, employeeId, acquisitionStart, acquisitionEnd);
-
-        return saved;
     }
 
     /**
@@ -165,15 +211,17 @@ public class VacationService {
         log.info("Iniciando sincronizacao de periodos para tenant: {}", tenantId);
 
         try {
-            List<EmployeeDTO> employees = employeeServiceClient.getActiveEmployees();
-            for (EmployeeDTO emp : employees) {
+            // Sincronizacao explicita recarrega a projecao local (backfill)
+            employeeProjectionService.bootstrap(tenantId);
+            List<EmployeeProjection> employees = employeeProjectionService.getActiveEmployees(tenantId);
+            for (EmployeeProjection emp : employees) {
                 // Verificar se ja tem periodo
                 Optional<VacationPeriod> existing = periodRepository
-                        .findTopByTenantIdAndEmployeeIdOrderByAcquisitionEndDateDesc(tenantId, emp.getId());
+                        .findTopByTenantIdAndEmployeeIdOrderByAcquisitionEndDateDesc(tenantId, emp.getEmployeeId());
                 
                 if (existing.isEmpty() && emp.getHireDate() != null) {
                     log.info("Criando periodo inicial para colaborador sincronizado: {}", emp.getFullName());
-                    createPeriod(tenantId, emp.getId(), emp.getFullName(), emp.getHireDate());
+                    createPeriod(tenantId, emp.getEmployeeId(), emp.getFullName(), emp.getHireDate());
                 }
             }
         } catch (Exception e) {
@@ -259,18 +307,9 @@ public class VacationService {
         List<VacationPeriod> periods = periodRepository
                 .findExpiringPeriods(tenantId, LocalDate.now(), thresholdDate);
 
-        // Fetch employees to get photos
-        Map<UUID, String> photoMap = new HashMap<>();
-        try {
-            List<EmployeeDTO> employees = employeeServiceClient.getActiveEmployees();
-            for (EmployeeDTO emp : employees) {
-                if (emp.getPhotoUrl() != null) {
-                    photoMap.put(emp.getId(), emp.getPhotoUrl());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Nao foi possivel carregar fotos dos colaboradores: {}", e.getMessage());
-        }
+        // Fotos a partir da projecao local, apenas dos colaboradores listados
+        Map<UUID, String> photoMap = employeeProjectionService.getPhotoUrls(tenantId,
+                periods.stream().map(VacationPeriod::getEmployeeId).distinct().toList());
 
         return periods.stream()
                 .map(p -> {
@@ -322,6 +361,10 @@ public class VacationService {
                 .createdBy(employeeId)
                 .build();
 
+        // Cobertura minima do departamento no periodo
+        calendarService.assignDepartment(request);
+        calendarService.checkCoverage(tenantId, request.getDepartmentId(), dto.getStartDate(), dto.getEndDate());
+
         VacationRequest saved = requestRepository.save(request);
 
         // Atualizar status do periodo
@@ -407,6 +450,10 @@ public class VacationService {
     }
 
     private void finalizeApproval(VacationRequest request, String notes, UUID approverId, String approverName, VacationPeriod period) {
+        // A cobertura pode ter mudado desde a solicitacao (outras aprovacoes no mesmo periodo)
+        calendarService.assignDepartment(request);
+        calendarService.checkCoverageForApproval(request);
+
         request.setStatus(VacationRequestStatus.APPROVED);
         
         String currentNotes = request.getApprovalNotes() != null ? request.getApprovalNotes() : "";
@@ -436,6 +483,8 @@ public class VacationService {
             paymentDate = LocalDate.now();
         }
         request.setPaymentDate(paymentDate);
+
+        calendarService.recordApproved(request);
     }
     
     /**
@@ -532,6 +581,7 @@ public class VacationService {
             }
             periodRepository.save(period);
             updatePeriodStatus(period);
+            calendarService.recordReleased(request);
         }
 
         request.setStatus(VacationRequestStatus.CANCELLED);
@@ -635,10 +685,10 @@ public class VacationService {
     }
 
     /**
-     * Lista ferias em um periodo (Calendar).
+     * Lista ferias em um periodo (Calendar), opcionalmente de um departamento.
      */
     @Transactional(readOnly = true)
-    public List<VacationRequestResponse> getCalendarRequests(LocalDate from, LocalDate to) {
+    public List<VacationRequestResponse> getCalendarRequests(LocalDate from, LocalDate to, UUID departmentId) {
         String tenantStr = TenantContext.getCurrentTenant();
         if (tenantStr == null) {
             log.error("Tentativa de buscar calendario sem contexto de Tenant!");
@@ -646,10 +696,13 @@ public class VacationService {
         }
         UUID tenantId = UUID.fromString(tenantStr);
 
-        return requestRepository
-                .findByTenantIdAndStatusAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                        tenantId, VacationRequestStatus.APPROVED, to, from)
-                .stream()
+        List<VacationRequest> requests = departmentId != null
+                ? requestRepository.findByTenantIdAndDepartmentIdAndStatusAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                        tenantId, departmentId, VacationRequestStatus.APPROVED, to, from)
+                : requestRepository.findByTenantIdAndStatusAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                        tenantId, VacationRequestStatus.APPROVED, to, from);
+
+        return requests.stream()
                 .map(this::toRequestResponse)
                 .toList();
     }
@@ -747,20 +800,6 @@ public class VacationService {
         return documentUrl;
     }
 
-    // ==================== Alertas de Vencimento (T159) ====================
-
-    /**
-     * Job agendado para verificar periodos expirando.
-     */
-    @Scheduled(cron = "0 0 8 * * MON-FRI") // Toda manha de dia util as 8h
-    @Transactional
-    public void checkExpiringPeriods() {
-        log.info("Verificando periodos de ferias proximos de expirar...");
-
-        // Buscar todos os tenants ativos e verificar periodos
-        // Implementacao simplificada - em producao, iterar por tenants
-    }
-
     // ==================== Metodos Privados ====================
 
     private void validateRequest(VacationPeriod period, VacationRequestCreateDTO dto) {
@@ -882,6 +921,7 @@ public class VacationService {
                 .id(request.getId())
                 .employeeId(request.getEmployeeId())
                 .employeeName(request.getEmployeeName())
+                .departmentId(request.getDepartmentId())
                 .vacationPeriodId(request.getVacationPeriod().getId())
                 .startDate(request.getStartDate())
                 .endDate(request.getEndDate())
@@ -970,6 +1010,7 @@ public class VacationService {
 
         Map<String, Object> event = new HashMap<>();
         event.put("eventType", "VACATION_EXPIRATION_WARNING");
+        event.put("eventId", UUID.randomUUID().toString());
         event.put("tenantId", period.getTenantId().toString());
         event.put("employeeId", period.getEmployeeId().toString());
         event.put("periodId", period.getId().toString());
@@ -987,6 +1028,7 @@ public class VacationService {
     private void publishEvent(String eventType, VacationRequest request, UUID managerId, UUID managerUserId) {
         Map<String, Object> event = new HashMap<>();
         event.put("eventType", eventType);
+        event.put("eventId", UUID.randomUUID().toString());
         event.put("tenantId", request.getTenantId().toString());
         event.put("requestId", request.getId().toString());
         event.put("employeeId", request.getEmployeeId().toString());
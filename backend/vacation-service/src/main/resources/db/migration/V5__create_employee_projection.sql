@@ -0,0 +1,29 @@
+-- =====================================================
+-- Projecao local de colaboradores (read-model)
+-- Alimentada por employee.domain.events; evita buscar o quadro
+-- inteiro no employee-service a cada dashboard/sincronizacao
+-- =====================================================
+CREATE TABLE IF NOT EXISTS employee_projections (
+    employee_id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    user_id UUID,
+    full_name VARCHAR(200),
+    email VARCHAR(200),
+    gender VARCHAR(20),
+    birth_date DATE,
+    hire_date DATE,
+    photo_url VARCHAR(500),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    last_event_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_employee_projections_tenant_active
+    ON employee_projections(tenant_id, active);
+
+-- Tenants cuja projecao ja recebeu a carga inicial
+CREATE TABLE IF NOT EXISTS employee_projection_syncs (
+    tenant_id UUID PRIMARY KEY,
+    employee_count INTEGER NOT NULL DEFAULT 0,
+    synced_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
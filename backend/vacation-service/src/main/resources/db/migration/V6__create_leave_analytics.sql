@@ -0,0 +1,35 @@
+-- =====================================================
+-- Cubo de analytics de licencas
+-- Mantido incrementalmente na criacao/alteracao/exclusao de licencas,
+-- para o dashboard nao varrer todo o historico do tenant
+-- =====================================================
+
+-- Genero do colaborador no momento da licenca (dimensao do cubo)
+ALTER TABLE leave_requests ADD COLUMN IF NOT EXISTS employee_gender VARCHAR(20);
+
+-- Contagens mensais (mes de inicio) por tipo, CID e genero
+CREATE TABLE IF NOT EXISTS leave_stats_monthly (
+    tenant_id UUID NOT NULL,
+    stat_month DATE NOT NULL,
+    leave_type VARCHAR(30) NOT NULL,
+    cid VARCHAR(20) NOT NULL DEFAULT '',
+    gender VARCHAR(20) NOT NULL DEFAULT 'UNKNOWN',
+    leave_count BIGINT NOT NULL DEFAULT 0,
+    days_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, stat_month, leave_type, cid, gender)
+);
+
+-- Licencas vigentes por dia e tipo
+CREATE TABLE IF NOT EXISTS leave_stats_daily (
+    tenant_id UUID NOT NULL,
+    stat_day DATE NOT NULL,
+    leave_type VARCHAR(30) NOT NULL,
+    active_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, stat_day, leave_type)
+);
+
+-- Tenants cujo cubo ja foi reconstruido a partir do historico
+CREATE TABLE IF NOT EXISTS leave_stats_syncs (
+    tenant_id UUID PRIMARY KEY,
+    rebuilt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
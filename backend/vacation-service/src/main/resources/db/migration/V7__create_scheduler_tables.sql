@@ -0,0 +1,33 @@
+-- =====================================================
+-- Agendador de periodos (vencimento e renovacao) particionado por tenant
+-- =====================================================
+
+-- Lease por shard de tenants: apenas um no processa cada shard por vez
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    job_name VARCHAR(50) NOT NULL,
+    shard INTEGER NOT NULL,
+    owner VARCHAR(200) NOT NULL,
+    lease_until TIMESTAMP NOT NULL,
+    PRIMARY KEY (job_name, shard)
+);
+
+-- Ultima execucao por tenant (idempotencia diaria e metricas)
+CREATE TABLE IF NOT EXISTS scheduler_tenant_runs (
+    job_name VARCHAR(50) NOT NULL,
+    tenant_id UUID NOT NULL,
+    run_date DATE NOT NULL,
+    periods_created INTEGER NOT NULL DEFAULT 0,
+    periods_expired INTEGER NOT NULL DEFAULT 0,
+    notifications_sent INTEGER NOT NULL DEFAULT 0,
+    duration_ms BIGINT NOT NULL DEFAULT 0,
+    owner VARCHAR(200),
+    error_message VARCHAR(1000),
+    finished_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (job_name, tenant_id)
+);
+
+-- Controle de aviso de vencimento ja enviado
+ALTER TABLE vacation_periods ADD COLUMN IF NOT EXISTS expiry_notified_at DATE;
+
+CREATE INDEX IF NOT EXISTS idx_vacation_periods_rollover
+    ON vacation_periods(tenant_id, employee_id, acquisition_start_date DESC);
@@ -0,0 +1,43 @@
+-- =====================================================
+-- Calendario de equipe: ocupacao diaria por departamento
+-- Contadores mantidos na aprovacao/cancelamento das ferias,
+-- para consultar sobreposicao e cobertura sem varrer solicitacoes
+-- =====================================================
+
+-- Departamento do colaborador (projecao) e da solicitacao no momento do pedido
+ALTER TABLE employee_projections ADD COLUMN IF NOT EXISTS department_id UUID;
+ALTER TABLE vacation_requests ADD COLUMN IF NOT EXISTS department_id UUID;
+
+CREATE INDEX IF NOT EXISTS idx_vacation_requests_calendar
+    ON vacation_requests(tenant_id, department_id, start_date, end_date);
+
+-- Colaboradores ausentes por dia e departamento
+-- (department_id = 00000000-0000-0000-0000-000000000000 para colaboradores sem departamento)
+CREATE TABLE IF NOT EXISTS vacation_calendar_days (
+    tenant_id UUID NOT NULL,
+    department_id UUID NOT NULL,
+    calendar_day DATE NOT NULL,
+    absent_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, department_id, calendar_day)
+);
+
+-- Tenants cujos contadores ja foram reconstruidos a partir das solicitacoes
+CREATE TABLE IF NOT EXISTS vacation_calendar_syncs (
+    tenant_id UUID PRIMARY KEY,
+    rebuilt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Regras de cobertura minima (department_id nulo = regra padrao do tenant)
+CREATE TABLE IF NOT EXISTS vacation_coverage_rules (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id UUID NOT NULL,
+    department_id UUID,
+    min_coverage_percent INTEGER,
+    max_concurrent_absences INTEGER,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_vacation_coverage_rules_department
+    ON vacation_coverage_rules(tenant_id, COALESCE(department_id, '00000000-0000-0000-0000-000000000000'));
@@ -0,0 +1,90 @@
+package com.axonrh.vacation.service;
+
+import com.axonrh.vacation.entity.CidCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do indice em memoria da CID-10.
+ */
+class CidIndexTest {
+
+    @Test
+    @DisplayName("Deve encontrar a faixa que contem a categoria, incluindo os limites")
+    void shouldFindContainingRange() {
+        // Given
+        CidIndex.Ranges<Integer> chapters = new CidIndex.Ranges<>();
+        chapters.add("A00", "B99", 1);
+        chapters.add("C00", "D48", 2);
+        chapters.add("D50", "D89", 3);
+
+        // Then
+        assertThat(chapters.find("A00")).isEqualTo(1);
+        assertThat(chapters.find("B99")).isEqualTo(1);
+        assertThat(chapters.find("C50")).isEqualTo(2);
+        assertThat(chapters.find("D48")).isEqualTo(2);
+        assertThat(chapters.find("D50")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve retornar nulo fora das faixas e nas lacunas entre elas")
+    void shouldReturnNullOutsideRanges() {
+        // Given
+        CidIndex.Ranges<String> groups = new CidIndex.Ranges<>();
+        groups.add("A00", "A09", "GRP_A00_A09");
+        groups.add("A15", "A19", "GRP_A15_A19");
+
+        // Then
+        assertThat(groups.find("A10")).isNull();
+        assertThat(groups.find("A20")).isNull();
+        assertThat(groups.find("0AA")).isNull();
+        assertThat(groups.find(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve manter as faixas de cada importacao independentes")
+    void shouldKeepRangesPerInstance() {
+        // Given
+        CidIndex.Ranges<Integer> first = new CidIndex.Ranges<>();
+        CidIndex.Ranges<Integer> second = new CidIndex.Ranges<>();
+        first.add("A00", "B99", 1);
+
+        // Then
+        assertThat(first.find("A50")).isEqualTo(1);
+        assertThat(second.find("A50")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve resolver grupo e capitulo de categorias e subcategorias")
+    void shouldResolveGroupAndChapter() {
+        // Given
+        CidIndex index = new CidIndex(List.of(
+                cid("CH1", "CHAPTER", 1, null, "Algumas doencas infecciosas e parasitarias"),
+                cid("GRP_A00_A09", "GROUP", 1, null, "Doencas infecciosas intestinais"),
+                cid("GRP_A15_A19", "GROUP", 1, null, "Tuberculose"),
+                cid("A01", "CATEGORY", 1, "A01", "Febres tifoide e paratifoide"),
+                cid("A150", "SUBCATEGORY", null, null, "Tuberculose pulmonar"),
+                cid("A12", "CATEGORY", 1, "A12", "Categoria fora dos grupos")));
+
+        // Then
+        assertThat(index.groupOf("A01")).map(CidCode::getCode).contains("GRP_A00_A09");
+        assertThat(index.groupOf("A15.0")).map(CidCode::getCode).contains("GRP_A15_A19");
+        assertThat(index.groupOf("A12")).isEmpty();
+        assertThat(index.chapterOf("A01")).map(CidCode::getCode).contains("CH1");
+        assertThat(index.groupOf("Z99")).isEmpty();
+    }
+
+    private CidCode cid(String code, String type, Integer chapterNum, String categoryCode, String description) {
+        return CidCode.builder()
+                .code(code)
+                .type(type)
+                .chapterNum(chapterNum)
+                .categoryCode(categoryCode)
+                .description(description)
+                .build();
+    }
+}